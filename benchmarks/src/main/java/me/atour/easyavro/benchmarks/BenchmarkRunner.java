@@ -0,0 +1,35 @@
+package me.atour.easyavro.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result reports its allocation rate.
+ * Accepts the regular JMH command line options, for example a regular expression selecting the benchmarks to run.
+ */
+public final class BenchmarkRunner {
+
+  /**
+   * Hidden constructor, as the class only exposes its entry point.
+   */
+  private BenchmarkRunner() {}
+
+  /**
+   * Runs the benchmarks selected by the command line options.
+   *
+   * @param args the JMH command line options
+   * @throws CommandLineOptionException when the options cannot be parsed
+   * @throws RunnerException when the benchmarks cannot be run
+   */
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build())
+        .run();
+  }
+}
@@ -0,0 +1,100 @@
+package me.atour.easyavro.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import me.atour.easyavro.AvroSchema;
+import me.atour.easyavro.ConversionEngine;
+import me.atour.easyavro.FieldAccess;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link AvroSchema#convertFromPojo(Object)} and {@link AvroSchema#convertToPojo(GenericRecord)} for every
+ * {@link ConversionEngine} and {@link FieldAccess}, on one thread and on all available processors sharing the same {@link AvroSchema}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConversionBenchmark {
+
+  @Param({"NARROW", "WIDE", "NESTED", "COLLECTIONS"})
+  public PojoShape shape;
+
+  @Param({"REFLECTIVE", "GENERATED"})
+  public ConversionEngine engine;
+
+  @Param({"UNSAFE", "VAR_HANDLE"})
+  public FieldAccess access;
+
+  private AvroSchema<Object> avroSchema;
+  private Object pojo;
+  private GenericRecord record;
+
+  /**
+   * Generates the {@link AvroSchema} and the converted values, outside of the measurement.
+   */
+  @Setup
+  public void setUp() {
+    avroSchema = new AvroSchema<>(shape.type());
+    avroSchema.setConversionEngine(engine);
+    avroSchema.setFieldAccess(access);
+    avroSchema.generate();
+    pojo = shape.sample();
+    record = avroSchema.convertFromPojo(pojo);
+  }
+
+  /**
+   * Converts the sample POJO to a record.
+   *
+   * @return the converted record
+   */
+  @Benchmark
+  public GenericRecord convertFromPojo() {
+    return avroSchema.convertFromPojo(pojo);
+  }
+
+  /**
+   * Converts the sample record to a POJO.
+   *
+   * @return the converted POJO
+   */
+  @Benchmark
+  public Object convertToPojo() {
+    return avroSchema.convertToPojo(record);
+  }
+
+  /**
+   * Converts the sample POJO to a record on all available processors at once.
+   *
+   * @return the converted record
+   */
+  @Benchmark
+  @Threads(Threads.MAX)
+  public GenericRecord convertFromPojoContended() {
+    return avroSchema.convertFromPojo(pojo);
+  }
+
+  /**
+   * Converts the sample record to a POJO on all available processors at once.
+   *
+   * @return the converted POJO
+   */
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object convertToPojoContended() {
+    return avroSchema.convertToPojo(record);
+  }
+}
@@ -0,0 +1,147 @@
+package me.atour.easyavro.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import me.atour.easyavro.AvroSchema;
+import me.atour.easyavro.FieldAccess;
+import me.atour.easyavro.PojoDatumReader;
+import me.atour.easyavro.PojoDatumWriter;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.reflect.ReflectData;
+import org.apache.avro.reflect.ReflectDatumReader;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures encoding POJOs to and decoding them from Avro binary through {@link PojoDatumWriter} and
+ * {@link PojoDatumReader} with every {@link FieldAccess}, against Avro's {@link ReflectDatumWriter} and
+ * {@link ReflectDatumReader}.
+ * The state is per thread, as encoders and decoders are not thread-safe, so it can be run multi-threaded through
+ * the {@code -t} option.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EncodingBenchmark {
+
+  @Param({"NARROW", "WIDE", "NESTED", "COLLECTIONS"})
+  public PojoShape shape;
+
+  @Param({"UNSAFE", "VAR_HANDLE"})
+  public FieldAccess access;
+
+  private Object pojo;
+  private DatumWriter<Object> pojoWriter;
+  private DatumReader<Object> pojoReader;
+  private DatumWriter<Object> reflectWriter;
+  private DatumReader<Object> reflectReader;
+  private ByteArrayOutputStream out;
+  private BinaryEncoder encoder;
+  private BinaryDecoder decoder;
+  private byte[] pojoBytes;
+  private byte[] reflectBytes;
+
+  /**
+   * Sets up the writers and readers and encodes the sample POJO once, outside of the measurement.
+   *
+   * @throws IOException when the sample cannot be encoded
+   */
+  @Setup
+  public void setUp() throws IOException {
+    pojo = shape.sample();
+    AvroSchema<Object> avroSchema = new AvroSchema<>(shape.type());
+    avroSchema.setFieldAccess(access);
+    avroSchema.generate();
+    pojoWriter = new PojoDatumWriter<>(avroSchema);
+    pojoReader = new PojoDatumReader<>(avroSchema);
+    Schema reflectSchema = ReflectData.get().getSchema(shape.type());
+    reflectWriter = new ReflectDatumWriter<>(reflectSchema);
+    reflectReader = new ReflectDatumReader<>(reflectSchema);
+    out = new ByteArrayOutputStream();
+    encode(pojoWriter);
+    pojoBytes = out.toByteArray();
+    encode(reflectWriter);
+    reflectBytes = out.toByteArray();
+  }
+
+  /**
+   * Encodes the sample POJO through {@link PojoDatumWriter}.
+   *
+   * @return the number of bytes written
+   * @throws IOException when the POJO cannot be encoded
+   */
+  @Benchmark
+  public int pojoWriter() throws IOException {
+    return encode(pojoWriter);
+  }
+
+  /**
+   * Encodes the sample POJO through {@link ReflectDatumWriter}.
+   *
+   * @return the number of bytes written
+   * @throws IOException when the POJO cannot be encoded
+   */
+  @Benchmark
+  public int reflectWriter() throws IOException {
+    return encode(reflectWriter);
+  }
+
+  /**
+   * Decodes the sample POJO through {@link PojoDatumReader}.
+   *
+   * @return the decoded POJO
+   * @throws IOException when the POJO cannot be decoded
+   */
+  @Benchmark
+  public Object pojoReader() throws IOException {
+    decoder = DecoderFactory.get().binaryDecoder(pojoBytes, decoder);
+    return pojoReader.read(null, decoder);
+  }
+
+  /**
+   * Decodes the sample POJO through {@link ReflectDatumReader}.
+   *
+   * @return the decoded POJO
+   * @throws IOException when the POJO cannot be decoded
+   */
+  @Benchmark
+  public Object reflectReader() throws IOException {
+    decoder = DecoderFactory.get().binaryDecoder(reflectBytes, decoder);
+    return reflectReader.read(null, decoder);
+  }
+
+  /**
+   * Encodes the sample POJO, reusing the output stream and encoder.
+   *
+   * @param writer the {@link DatumWriter} to encode with
+   * @return the number of bytes written
+   * @throws IOException when the POJO cannot be encoded
+   */
+  private int encode(DatumWriter<Object> writer) throws IOException {
+    out.reset();
+    encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+    writer.write(pojo, encoder);
+    encoder.flush();
+    return out.size();
+  }
+}
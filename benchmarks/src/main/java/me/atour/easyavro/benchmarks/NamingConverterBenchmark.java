@@ -0,0 +1,64 @@
+package me.atour.easyavro.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import me.atour.easyavro.FieldNamingStrategies;
+import me.atour.easyavro.field.FieldNamingConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures every {@link FieldNamingConverter} on short, long and digit-heavy field names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NamingConverterBenchmark {
+
+  @Param({"SNAKE_CASE", "DROMEDARY_CASE", "UPPERCASE", "LOWERCASE", "SCREAMING_SNAKE_CASE", "PASCAL_CASE"})
+  public FieldNamingStrategies strategy;
+
+  @Param({"id", "customerLoyaltyPointsBalance", "address2Line3ZipCode"})
+  public String name;
+
+  private FieldNamingConverter converter;
+
+  /**
+   * Looks up the converter of the strategy, outside of the measurement.
+   */
+  @Setup
+  public void setUp() {
+    converter = FieldNamingConverter.of(strategy);
+  }
+
+  /**
+   * Converts the field name.
+   *
+   * @return the converted name
+   */
+  @Benchmark
+  public String convert() {
+    return converter.convert(name);
+  }
+
+  /**
+   * Looks up the converter of the strategy and converts the field name, as schema generation does per field.
+   *
+   * @return the converted name
+   */
+  @Benchmark
+  public String lookUpAndConvert() {
+    return FieldNamingConverter.of(strategy).convert(name);
+  }
+}
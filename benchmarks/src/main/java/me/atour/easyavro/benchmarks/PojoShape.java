@@ -0,0 +1,142 @@
+package me.atour.easyavro.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import me.atour.easyavro.benchmarks.model.CollectionPojo;
+import me.atour.easyavro.benchmarks.model.NarrowPojo;
+import me.atour.easyavro.benchmarks.model.NestedPojo;
+import me.atour.easyavro.benchmarks.model.WidePojo;
+
+/**
+ * The POJO shapes the benchmarks are parameterized over, each with a fully populated sample instance.
+ * All fields are populated, as Avro's reflection baseline does not accept {@code null} values.
+ */
+public enum PojoShape {
+  NARROW(NarrowPojo.class, PojoShape::narrow),
+  WIDE(WidePojo.class, PojoShape::wide),
+  NESTED(NestedPojo.class, PojoShape::nested),
+  COLLECTIONS(CollectionPojo.class, PojoShape::collections);
+
+  private static final int COLLECTION_SIZE = 32;
+
+  private final Class<?> type;
+  private final Supplier<Object> sampleSupplier;
+
+  /**
+   * Constructs a shape.
+   *
+   * @param type the POJO type
+   * @param sampleSupplier creates a populated instance of the type
+   */
+  PojoShape(Class<?> type, Supplier<Object> sampleSupplier) {
+    this.type = type;
+    this.sampleSupplier = sampleSupplier;
+  }
+
+  /**
+   * Provides the POJO type of the shape.
+   *
+   * @param <T> the POJO type
+   * @return the POJO {@link Class}
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Class<T> type() {
+    return (Class<T>) type;
+  }
+
+  /**
+   * Creates a new, fully populated instance of the shape.
+   *
+   * @param <T> the POJO type
+   * @return the populated POJO
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T sample() {
+    return (T) sampleSupplier.get();
+  }
+
+  /**
+   * Creates a populated {@link NarrowPojo}.
+   *
+   * @return the populated POJO
+   */
+  private static NarrowPojo narrow() {
+    NarrowPojo pojo = new NarrowPojo();
+    pojo.id = 42;
+    pojo.timestamp = 1_700_000_000_000L;
+    pojo.amount = 12.5;
+    pojo.active = true;
+    pojo.name = "narrow";
+    return pojo;
+  }
+
+  /**
+   * Creates a {@link WidePojo} with every field populated through reflection.
+   *
+   * @return the populated POJO
+   */
+  private static WidePojo wide() {
+    WidePojo pojo = new WidePojo();
+    try {
+      for (Field field : WidePojo.class.getFields()) {
+        if (field.getType() == int.class) {
+          field.setInt(pojo, field.getName().hashCode());
+        } else if (field.getType() == long.class) {
+          field.setLong(pojo, field.getName().hashCode() * 31L);
+        } else if (field.getType() == double.class) {
+          field.setDouble(pojo, field.getName().hashCode() / 7.0);
+        } else {
+          field.set(pojo, field.getName());
+        }
+      }
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot populate the wide POJO.", e);
+    }
+    return pojo;
+  }
+
+  /**
+   * Creates a populated {@link NestedPojo}.
+   *
+   * @return the populated POJO
+   */
+  private static NestedPojo nested() {
+    NestedPojo pojo = new NestedPojo();
+    pojo.id = "nested";
+    pojo.head = narrow();
+    pojo.tail = narrow();
+    pojo.children = new ArrayList<>();
+    for (int i = 0; i < COLLECTION_SIZE; i++) {
+      pojo.children.add(narrow());
+    }
+    return pojo;
+  }
+
+  /**
+   * Creates a populated {@link CollectionPojo}.
+   *
+   * @return the populated POJO
+   */
+  private static CollectionPojo collections() {
+    CollectionPojo pojo = new CollectionPojo();
+    pojo.id = "collections";
+    pojo.samples = new int[COLLECTION_SIZE];
+    List<String> tags = new ArrayList<>();
+    List<Double> readings = new ArrayList<>();
+    Map<String, Long> counters = new HashMap<>();
+    for (int i = 0; i < COLLECTION_SIZE; i++) {
+      pojo.samples[i] = i;
+      tags.add("tag-" + i);
+      readings.add(i * 0.5);
+      counters.put("counter-" + i, (long) i);
+    }
+    pojo.tags = tags;
+    pojo.readings = readings;
+    pojo.counters = counters;
+    return pojo;
+  }
+}
@@ -0,0 +1,67 @@
+package me.atour.easyavro.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import me.atour.easyavro.AvroSchema;
+import org.apache.avro.Schema;
+import org.apache.avro.reflect.ReflectData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures generating the {@link Schema} of a POJO from scratch, against Avro's {@link ReflectData}.
+ * Nested record types resolve through the shared {@link AvroSchema#forClass(Class)} registry, so only the top-level
+ * type is generated again on each invocation, as it would be for a new {@link AvroSchema}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SchemaGenerationBenchmark {
+
+  @Param({"NARROW", "WIDE", "NESTED", "COLLECTIONS"})
+  public PojoShape shape;
+
+  /**
+   * Generates the {@link Schema} through a new {@link AvroSchema}.
+   *
+   * @return the generated {@link Schema}
+   */
+  @Benchmark
+  public Schema generate() {
+    AvroSchema<Object> avroSchema = new AvroSchema<>(shape.type());
+    avroSchema.generate();
+    return avroSchema.getSchema();
+  }
+
+  /**
+   * Generates the {@link Schema} through a new {@link AvroSchema} on all available processors at once.
+   *
+   * @return the generated {@link Schema}
+   */
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Schema generateContended() {
+    return generate();
+  }
+
+  /**
+   * Generates the {@link Schema} through a new {@link ReflectData}, which does not share its schema cache.
+   *
+   * @return the generated {@link Schema}
+   */
+  @Benchmark
+  public Schema reflectData() {
+    return new ReflectData().getSchema(shape.type());
+  }
+}
@@ -0,0 +1,18 @@
+package me.atour.easyavro.benchmarks.model;
+
+import java.util.List;
+import java.util.Map;
+import me.atour.easyavro.AvroRecord;
+
+/**
+ * POJO dominated by arrays, lists and maps.
+ */
+@AvroRecord(schemaName = "CollectionPojo")
+public class CollectionPojo {
+
+  public String id;
+  public int[] samples;
+  public List<String> tags;
+  public List<Double> readings;
+  public Map<String, Long> counters;
+}
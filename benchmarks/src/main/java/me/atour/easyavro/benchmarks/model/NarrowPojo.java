@@ -0,0 +1,16 @@
+package me.atour.easyavro.benchmarks.model;
+
+import me.atour.easyavro.AvroRecord;
+
+/**
+ * POJO with a handful of fields of the common primitive and {@link String} types.
+ */
+@AvroRecord(schemaName = "NarrowPojo")
+public class NarrowPojo {
+
+  public int id;
+  public long timestamp;
+  public double amount;
+  public boolean active;
+  public String name;
+}
@@ -0,0 +1,16 @@
+package me.atour.easyavro.benchmarks.model;
+
+import java.util.List;
+import me.atour.easyavro.AvroRecord;
+
+/**
+ * POJO nesting other records, both directly and inside a collection.
+ */
+@AvroRecord(schemaName = "NestedPojo")
+public class NestedPojo {
+
+  public String id;
+  public NarrowPojo head;
+  public NarrowPojo tail;
+  public List<NarrowPojo> children;
+}
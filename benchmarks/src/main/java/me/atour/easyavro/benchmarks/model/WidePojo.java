@@ -0,0 +1,267 @@
+package me.atour.easyavro.benchmarks.model;
+
+import me.atour.easyavro.AvroRecord;
+
+/**
+ * POJO with 256 fields, cycling through {@code int}, {@code long}, {@code double} and {@link String}.
+ */
+@AvroRecord(schemaName = "WidePojo")
+public class WidePojo {
+
+  public int field000;
+  public long field001;
+  public double field002;
+  public String field003;
+  public int field004;
+  public long field005;
+  public double field006;
+  public String field007;
+  public int field008;
+  public long field009;
+  public double field010;
+  public String field011;
+  public int field012;
+  public long field013;
+  public double field014;
+  public String field015;
+  public int field016;
+  public long field017;
+  public double field018;
+  public String field019;
+  public int field020;
+  public long field021;
+  public double field022;
+  public String field023;
+  public int field024;
+  public long field025;
+  public double field026;
+  public String field027;
+  public int field028;
+  public long field029;
+  public double field030;
+  public String field031;
+  public int field032;
+  public long field033;
+  public double field034;
+  public String field035;
+  public int field036;
+  public long field037;
+  public double field038;
+  public String field039;
+  public int field040;
+  public long field041;
+  public double field042;
+  public String field043;
+  public int field044;
+  public long field045;
+  public double field046;
+  public String field047;
+  public int field048;
+  public long field049;
+  public double field050;
+  public String field051;
+  public int field052;
+  public long field053;
+  public double field054;
+  public String field055;
+  public int field056;
+  public long field057;
+  public double field058;
+  public String field059;
+  public int field060;
+  public long field061;
+  public double field062;
+  public String field063;
+  public int field064;
+  public long field065;
+  public double field066;
+  public String field067;
+  public int field068;
+  public long field069;
+  public double field070;
+  public String field071;
+  public int field072;
+  public long field073;
+  public double field074;
+  public String field075;
+  public int field076;
+  public long field077;
+  public double field078;
+  public String field079;
+  public int field080;
+  public long field081;
+  public double field082;
+  public String field083;
+  public int field084;
+  public long field085;
+  public double field086;
+  public String field087;
+  public int field088;
+  public long field089;
+  public double field090;
+  public String field091;
+  public int field092;
+  public long field093;
+  public double field094;
+  public String field095;
+  public int field096;
+  public long field097;
+  public double field098;
+  public String field099;
+  public int field100;
+  public long field101;
+  public double field102;
+  public String field103;
+  public int field104;
+  public long field105;
+  public double field106;
+  public String field107;
+  public int field108;
+  public long field109;
+  public double field110;
+  public String field111;
+  public int field112;
+  public long field113;
+  public double field114;
+  public String field115;
+  public int field116;
+  public long field117;
+  public double field118;
+  public String field119;
+  public int field120;
+  public long field121;
+  public double field122;
+  public String field123;
+  public int field124;
+  public long field125;
+  public double field126;
+  public String field127;
+  public int field128;
+  public long field129;
+  public double field130;
+  public String field131;
+  public int field132;
+  public long field133;
+  public double field134;
+  public String field135;
+  public int field136;
+  public long field137;
+  public double field138;
+  public String field139;
+  public int field140;
+  public long field141;
+  public double field142;
+  public String field143;
+  public int field144;
+  public long field145;
+  public double field146;
+  public String field147;
+  public int field148;
+  public long field149;
+  public double field150;
+  public String field151;
+  public int field152;
+  public long field153;
+  public double field154;
+  public String field155;
+  public int field156;
+  public long field157;
+  public double field158;
+  public String field159;
+  public int field160;
+  public long field161;
+  public double field162;
+  public String field163;
+  public int field164;
+  public long field165;
+  public double field166;
+  public String field167;
+  public int field168;
+  public long field169;
+  public double field170;
+  public String field171;
+  public int field172;
+  public long field173;
+  public double field174;
+  public String field175;
+  public int field176;
+  public long field177;
+  public double field178;
+  public String field179;
+  public int field180;
+  public long field181;
+  public double field182;
+  public String field183;
+  public int field184;
+  public long field185;
+  public double field186;
+  public String field187;
+  public int field188;
+  public long field189;
+  public double field190;
+  public String field191;
+  public int field192;
+  public long field193;
+  public double field194;
+  public String field195;
+  public int field196;
+  public long field197;
+  public double field198;
+  public String field199;
+  public int field200;
+  public long field201;
+  public double field202;
+  public String field203;
+  public int field204;
+  public long field205;
+  public double field206;
+  public String field207;
+  public int field208;
+  public long field209;
+  public double field210;
+  public String field211;
+  public int field212;
+  public long field213;
+  public double field214;
+  public String field215;
+  public int field216;
+  public long field217;
+  public double field218;
+  public String field219;
+  public int field220;
+  public long field221;
+  public double field222;
+  public String field223;
+  public int field224;
+  public long field225;
+  public double field226;
+  public String field227;
+  public int field228;
+  public long field229;
+  public double field230;
+  public String field231;
+  public int field232;
+  public long field233;
+  public double field234;
+  public String field235;
+  public int field236;
+  public long field237;
+  public double field238;
+  public String field239;
+  public int field240;
+  public long field241;
+  public double field242;
+  public String field243;
+  public int field244;
+  public long field245;
+  public double field246;
+  public String field247;
+  public int field248;
+  public long field249;
+  public double field250;
+  public String field251;
+  public int field252;
+  public long field253;
+  public double field254;
+  public String field255;
+}
@@ -0,0 +1,138 @@
+package me.atour.easyavro.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import me.atour.easyavro.AvroRecord;
+import me.atour.easyavro.GeneratedCodec;
+import org.apache.avro.Schema;
+
+/**
+ * Annotation processor generating the {@link Schema} and {@link GeneratedCodec} of every class annotated with
+ * {@link AvroRecord} at compile time.
+ * The {@link Schema} is written as an {@code .avsc} resource next to the class. The codec is only generated when the
+ * class exposes its fields and a way to construct it to its package, the runtime falls back to reflection otherwise.
+ */
+@SupportedAnnotationTypes("me.atour.easyavro.AvroRecord")
+public class AvroRecordProcessor extends AbstractProcessor {
+
+  private SchemaGenerator schemaGenerator;
+  private CodecWriter codecWriter;
+
+  /**
+   * Initializes the processor with the processing environment.
+   *
+   * @param processingEnv the processing environment
+   */
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    schemaGenerator = new SchemaGenerator(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+    codecWriter = new CodecWriter(
+        processingEnv.getElementUtils(), processingEnv.getTypeUtils(), processingEnv.getFiler());
+  }
+
+  /**
+   * Supports the latest source version, as the processor only relies on the stable parts of the language model.
+   *
+   * @return the latest supported {@link SourceVersion}
+   */
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  /**
+   * Generates the {@link Schema} and {@link GeneratedCodec} of the annotated classes of a round.
+   *
+   * @param annotations the annotation types requested to be processed
+   * @param roundEnv the environment of the current round
+   * @return {@code false}, leaving the annotation to other processors as well
+   */
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(AvroRecord.class)) {
+      if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+        error(element, "Only classes and records can be annotated with @AvroRecord.");
+        continue;
+      }
+      TypeElement type = (TypeElement) element;
+      try {
+        Schema schema = schemaGenerator.schemaOf(type);
+        List<RecordField> fields = schemaGenerator.fieldsOf(type);
+        writeSchema(type, schema);
+        writeCodec(type, schema, fields);
+      } catch (ProcessingException e) {
+        error(e.getElement(), e.getMessage());
+      } catch (IOException e) {
+        error(type, "Cannot write the generated files for " + type + " because " + e.getMessage());
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Writes the {@link Schema} of a type as {@code .avsc} resource in the package of the type.
+   *
+   * @param type the annotated type
+   * @param schema the generated {@link Schema}
+   * @throws IOException when the resource cannot be written
+   */
+  private void writeSchema(TypeElement type, Schema schema) throws IOException {
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String packageName = processingEnv
+        .getElementUtils()
+        .getPackageOf(type)
+        .getQualifiedName()
+        .toString();
+    String fileName = binaryName.substring(binaryName.lastIndexOf('.') + 1).replace('$', '_') + ".avsc";
+    try (Writer writer = processingEnv
+        .getFiler()
+        .createResource(StandardLocation.CLASS_OUTPUT, packageName, fileName, type)
+        .openWriter()) {
+      writer.write(schema.toString(true));
+    }
+  }
+
+  /**
+   * Writes the {@link GeneratedCodec} of a type, noting why when the type does not allow generating one.
+   *
+   * @param type the annotated type
+   * @param schema the generated {@link Schema}
+   * @param fields the fields included in the {@link Schema}, by position
+   * @throws IOException when the source file cannot be written
+   */
+  private void writeCodec(TypeElement type, Schema schema, List<RecordField> fields) throws IOException {
+    try {
+      codecWriter.write(type, schema, fields);
+    } catch (ProcessingException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.NOTE,
+              e.getMessage() + " It will be converted through reflection.",
+              e.getElement());
+    }
+  }
+
+  /**
+   * Reports a compile error.
+   *
+   * @param element the element to report the error at
+   * @param message the error message
+   */
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
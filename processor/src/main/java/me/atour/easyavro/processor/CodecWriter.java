@@ -0,0 +1,393 @@
+package me.atour.easyavro.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import me.atour.easyavro.GeneratedCodec;
+import org.apache.avro.Schema;
+
+/**
+ * Writes the source of the {@link GeneratedCodec} of a type, which accesses the POJO fields without reflection.
+ * Private fields are read through accessor methods and set through a constructor or setters, so codecs can only be
+ * generated for types exposing those to their package.
+ */
+class CodecWriter {
+
+  private static final int CHUNK_LENGTH = 8192;
+
+  private static final Map<TypeKind, String> defaultValues = Map.of(
+      TypeKind.BOOLEAN, "false",
+      TypeKind.BYTE, "(byte) 0",
+      TypeKind.CHAR, "(char) 0",
+      TypeKind.SHORT, "(short) 0",
+      TypeKind.INT, "0",
+      TypeKind.LONG, "0L",
+      TypeKind.FLOAT, "0f",
+      TypeKind.DOUBLE, "0d");
+
+  private static final Map<String, String> boxedNarrowings = Map.of(
+      "java.lang.Byte", "me.atour.easyavro.GeneratedSupport.boxedByte",
+      "java.lang.Character", "me.atour.easyavro.GeneratedSupport.boxedCharacter",
+      "java.lang.Short", "me.atour.easyavro.GeneratedSupport.boxedShort");
+
+  private final Elements elements;
+  private final Types types;
+  private final Filer filer;
+
+  /**
+   * Constructs a {@link CodecWriter}.
+   *
+   * @param elements the {@link Elements} utilities of the processing environment
+   * @param types the {@link Types} utilities of the processing environment
+   * @param filer the {@link Filer} to create the source files with
+   */
+  CodecWriter(Elements elements, Types types, Filer filer) {
+    this.elements = elements;
+    this.types = types;
+    this.filer = filer;
+  }
+
+  /**
+   * Writes the {@link GeneratedCodec} of a type.
+   *
+   * @param type the annotated type
+   * @param schema the generated {@link Schema} of the type
+   * @param fields the fields included in the {@link Schema}, by position
+   * @throws IOException when the source file cannot be written
+   * @throws ProcessingException when the type does not expose its fields or a way to construct it to its package
+   */
+  void write(TypeElement type, Schema schema, List<RecordField> fields) throws IOException {
+    checkAccessible(type);
+    String typeName = type.getQualifiedName().toString();
+    String codecName =
+        GeneratedCodec.classNameOf(elements.getBinaryName(type).toString());
+    String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+    String simpleName = packageName.isEmpty() ? codecName : codecName.substring(packageName.length() + 1);
+    List<String> reads = new ArrayList<>();
+    for (RecordField field : fields) {
+      reads.add("    record.put(" + field.getPosition() + ", pojo." + readExpression(type, field.getField())
+          + ");");
+    }
+    List<String> construction = construct(type, typeName, fields);
+    List<String> lines = new ArrayList<>();
+    if (!packageName.isEmpty()) {
+      lines.add("package " + packageName + ";");
+      lines.add("");
+    }
+    lines.add("@javax.annotation.processing.Generated(\"" + AvroRecordProcessor.class.getName() + "\")");
+    lines.add("public final class " + simpleName + " implements " + GeneratedCodec.class.getName() + "<" + typeName
+        + "> {");
+    lines.add("");
+    lines.add("  private static final org.apache.avro.Schema SCHEMA = new org.apache.avro.Schema.Parser().parse(");
+    lines.add("      String.join(\"\"" + chunks(schema.toString()) + "));");
+    lines.add("  private static final java.util.List<String> FIELD_NAMES = java.util.List.of(" + fieldNames(fields)
+        + ");");
+    lines.add("");
+    lines.add("  @Override");
+    lines.add("  public org.apache.avro.Schema getSchema() {");
+    lines.add("    return SCHEMA;");
+    lines.add("  }");
+    lines.add("");
+    lines.add("  @Override");
+    lines.add("  public java.util.List<String> getFieldNames() {");
+    lines.add("    return FIELD_NAMES;");
+    lines.add("  }");
+    lines.add("");
+    lines.add("  @Override");
+    lines.add("  public void toRecord(" + typeName + " pojo, org.apache.avro.generic.IndexedRecord record) {");
+    lines.addAll(reads);
+    lines.add("  }");
+    lines.add("");
+    lines.add("  @Override");
+    lines.add("  @SuppressWarnings(\"unchecked\")");
+    lines.add("  public " + typeName + " toPojo(org.apache.avro.generic.GenericRecord record) {");
+    lines.add("    boolean byPosition = SCHEMA.equals(record.getSchema());");
+    lines.addAll(construction);
+    lines.add("  }");
+    lines.add("}");
+    try (Writer writer = filer.createSourceFile(codecName, type).openWriter()) {
+      writer.write(String.join(System.lineSeparator(), lines));
+      writer.write(System.lineSeparator());
+    }
+  }
+
+  /**
+   * Checks that the type can be referred to from a class in its package.
+   *
+   * @param type the annotated type
+   * @throws ProcessingException when the type is private, local or an inner class
+   */
+  private static void checkAccessible(TypeElement type) {
+    Element current = type;
+    while (current instanceof TypeElement) {
+      TypeElement currentType = (TypeElement) current;
+      boolean isMember = currentType.getNestingKind() == NestingKind.MEMBER;
+      if (currentType.getModifiers().contains(Modifier.PRIVATE)
+          || (isMember && !currentType.getModifiers().contains(Modifier.STATIC))
+          || currentType.getNestingKind().isNested() && !isMember) {
+        throw new ProcessingException(
+            type, "Cannot generate a codec for " + type + " as its package cannot access it.");
+      }
+      current = currentType.getEnclosingElement();
+    }
+  }
+
+  /**
+   * Determines how the codec reads a field, directly or through its accessor method.
+   *
+   * @param type the annotated type
+   * @param field the field to read
+   * @return the expression reading the field from {@code pojo}, without the {@code pojo.} prefix
+   * @throws ProcessingException when the field is private and has no accessor method
+   */
+  private String readExpression(TypeElement type, VariableElement field) {
+    if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+      return field.getSimpleName().toString();
+    }
+    String name = field.getSimpleName().toString();
+    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    for (String candidate : List.of(name, "get" + capitalized, "is" + capitalized)) {
+      for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+        if (method.getSimpleName().contentEquals(candidate)
+            && method.getParameters().isEmpty()
+            && isReachable(method)
+            && types.isSameType(method.getReturnType(), field.asType())) {
+          return candidate + "()";
+        }
+      }
+    }
+    throw new ProcessingException(
+        field, "Cannot generate a codec reading private field " + name + " without getter.");
+  }
+
+  /**
+   * Determines how the codec constructs the POJO, through a constructor taking all fields or through a no-argument
+   * constructor followed by field assignments and setter calls.
+   *
+   * @param type the annotated type
+   * @param typeName the canonical name of the type
+   * @param fields the fields included in the {@link Schema}
+   * @return the statements constructing and returning {@code pojo}
+   * @throws ProcessingException when there is no way to construct the POJO
+   */
+  private List<String> construct(TypeElement type, String typeName, List<RecordField> fields) {
+    List<VariableElement> declared = new ArrayList<>();
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      if (!field.getModifiers().contains(Modifier.STATIC)) {
+        declared.add(field);
+      }
+    }
+    List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+    for (ExecutableElement constructor : constructors) {
+      if (isReachable(constructor) && takesFields(constructor, declared)) {
+        List<String> arguments = new ArrayList<>();
+        for (VariableElement field : declared) {
+          arguments.add(argument(field, fields));
+        }
+        return List.of("    return new " + typeName + "(" + String.join(", ", arguments) + ");");
+      }
+    }
+    for (ExecutableElement constructor : constructors) {
+      if (isReachable(constructor) && constructor.getParameters().isEmpty()) {
+        return constructAndSet(type, typeName, fields);
+      }
+    }
+    throw new ProcessingException(type, "Cannot generate a codec for " + type + " without a usable constructor.");
+  }
+
+  /**
+   * Creates the statements constructing the POJO through its no-argument constructor and then setting its fields.
+   *
+   * @param type the annotated type
+   * @param typeName the canonical name of the type
+   * @param fields the fields included in the {@link Schema}
+   * @return the statements constructing and returning {@code pojo}
+   * @throws ProcessingException when a field can neither be assigned nor be set through a setter
+   */
+  private List<String> constructAndSet(TypeElement type, String typeName, List<RecordField> fields) {
+    List<String> statements = new ArrayList<>();
+    statements.add("    " + typeName + " pojo = new " + typeName + "();");
+    for (RecordField field : fields) {
+      statements.add("    pojo." + assignment(type, field));
+    }
+    statements.add("    return pojo;");
+    return statements;
+  }
+
+  /**
+   * Checks whether a constructor takes exactly the declared fields, in declaration order.
+   *
+   * @param constructor the constructor to check
+   * @param declared the non-static fields in declaration order
+   * @return whether the parameter types match the field types
+   */
+  private boolean takesFields(ExecutableElement constructor, List<VariableElement> declared) {
+    List<? extends VariableElement> parameters = constructor.getParameters();
+    if (parameters.size() != declared.size()) {
+      return false;
+    }
+    for (int i = 0; i < parameters.size(); i++) {
+      if (!types.isSameType(
+          types.erasure(parameters.get(i).asType()),
+          types.erasure(declared.get(i).asType()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Creates the constructor argument for a field, its value in the record or the default value if not included.
+   *
+   * @param field the field the argument is for
+   * @param fields the fields included in the {@link Schema}
+   * @return the argument expression
+   */
+  private String argument(VariableElement field, List<RecordField> fields) {
+    for (RecordField recordField : fields) {
+      if (recordField.getField().equals(field)) {
+        return value(recordField);
+      }
+    }
+    return defaultValues.getOrDefault(field.asType().getKind(), "null");
+  }
+
+  /**
+   * Creates the statement setting a field on {@code pojo}, directly or through its setter.
+   *
+   * @param type the annotated type
+   * @param field the field to set
+   * @return the statement, without the {@code pojo.} prefix
+   * @throws ProcessingException when the field can neither be assigned nor be set through a setter
+   */
+  private String assignment(TypeElement type, RecordField field) {
+    VariableElement element = field.getField();
+    String name = element.getSimpleName().toString();
+    if (!element.getModifiers().contains(Modifier.PRIVATE)
+        && !element.getModifiers().contains(Modifier.FINAL)) {
+      return name + " = " + value(field) + ";";
+    }
+    String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (method.getSimpleName().contentEquals(setter)
+          && method.getParameters().size() == 1
+          && isReachable(method)
+          && types.isSameType(method.getParameters().get(0).asType(), element.asType())) {
+        return setter + "(" + value(field) + ");";
+      }
+    }
+    throw new ProcessingException(element, "Cannot generate a codec setting field " + name + " without setter.");
+  }
+
+  /**
+   * Creates the expression reading the value of a field from {@code record}, cast to the field type.
+   * Avro ints are narrowed for {@code byte}, {@code short} and {@code char} fields, boxed or not.
+   *
+   * @param field the field to read the value of
+   * @return the value expression
+   */
+  private String value(RecordField field) {
+    TypeMirror type = field.getField().asType();
+    String get = "(byPosition ? record.get(" + field.getPosition() + ") : record.get(\"" + field.getSchemaName()
+        + "\"))";
+    switch (type.getKind()) {
+      case BYTE:
+        return "((java.lang.Number) " + get + ").byteValue()";
+      case SHORT:
+        return "((java.lang.Number) " + get + ").shortValue()";
+      case CHAR:
+        return "me.atour.easyavro.GeneratedSupport.charValue(" + get + ")";
+      default:
+        break;
+    }
+    if (type.getKind().isPrimitive()) {
+      return "("
+          + types.boxedClass(types.getPrimitiveType(type.getKind())).getQualifiedName() + ") " + get;
+    }
+    TypeMirror erasure = types.erasure(type);
+    if (erasure.toString().equals(String.class.getName())) {
+      return "java.util.Objects.toString(" + get + ", null)";
+    } else if (boxedNarrowings.containsKey(erasure.toString())) {
+      return boxedNarrowings.get(erasure.toString()) + "(" + get + ")";
+    }
+    return "(" + erasure + ") " + get;
+  }
+
+  /**
+   * Checks whether a constructor or method can be called from a class in the same package.
+   *
+   * @param executable the constructor or method
+   * @return whether it is neither private nor static, for methods
+   */
+  private static boolean isReachable(ExecutableElement executable) {
+    return !executable.getModifiers().contains(Modifier.PRIVATE)
+        && (executable.getKind() == ElementKind.CONSTRUCTOR
+            || !executable.getModifiers().contains(Modifier.STATIC));
+  }
+
+  /**
+   * Lists the names of the fields as Java string literals.
+   *
+   * @param fields the fields included in the {@link Schema}
+   * @return the comma-separated literals
+   */
+  private static String fieldNames(List<RecordField> fields) {
+    List<String> literals = new ArrayList<>();
+    for (RecordField field : fields) {
+      literals.add(literal(field.getField().getSimpleName().toString()));
+    }
+    return String.join(", ", literals);
+  }
+
+  /**
+   * Splits a string into literals that each stay within the constant size limit of the class file format.
+   *
+   * @param value the string to split
+   * @return the literals, each preceded by a comma
+   */
+  private static String chunks(String value) {
+    StringBuilder literals = new StringBuilder();
+    for (int start = 0; start < value.length(); start += CHUNK_LENGTH) {
+      literals.append(", ")
+          .append(literal(value.substring(start, Math.min(value.length(), start + CHUNK_LENGTH))));
+    }
+    return literals.toString();
+  }
+
+  /**
+   * Turns a string into a Java string literal.
+   *
+   * @param value the string to quote
+   * @return the literal
+   */
+  private static String literal(String value) {
+    StringBuilder literal = new StringBuilder("\"");
+    for (char character : value.toCharArray()) {
+      if (character == '"' || character == '\\') {
+        literal.append('\\').append(character);
+      } else if (character < ' ') {
+        literal.append(String.format("\\%03o", (int) character));
+      } else if (character > '~') {
+        literal.append(String.format("\\u%04x", (int) character));
+      } else {
+        literal.append(character);
+      }
+    }
+    return literal.append('"').toString();
+  }
+}
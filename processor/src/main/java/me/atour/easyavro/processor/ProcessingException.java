@@ -0,0 +1,24 @@
+package me.atour.easyavro.processor;
+
+import javax.lang.model.element.Element;
+import lombok.Getter;
+
+/**
+ * Thrown when no valid {@link org.apache.avro.Schema} can be generated for an element, reported as a compile error.
+ */
+@Getter
+class ProcessingException extends RuntimeException {
+
+  private final transient Element element;
+
+  /**
+   * Constructs the exception for the element that cannot be processed.
+   *
+   * @param element the element to report the error at
+   * @param message the error message
+   */
+  ProcessingException(Element element, String message) {
+    super(message);
+    this.element = element;
+  }
+}
@@ -0,0 +1,17 @@
+package me.atour.easyavro.processor;
+
+import javax.lang.model.element.VariableElement;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A Java field included in a generated {@link org.apache.avro.Schema}.
+ */
+@Getter
+@RequiredArgsConstructor
+final class RecordField {
+
+  private final VariableElement field;
+  private final String schemaName;
+  private final int position;
+}
@@ -0,0 +1,292 @@
+package me.atour.easyavro.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import me.atour.easyavro.AvroRecord;
+import me.atour.easyavro.field.AvroField;
+import me.atour.easyavro.field.FieldNamingConverter;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+
+/**
+ * Generates {@link Schema}s from source elements, following the rules {@code AvroSchema.generate()} applies at runtime.
+ * The generated {@link Schema}s are equal to the ones generated at runtime, down to the order of the fields.
+ */
+class SchemaGenerator {
+
+  private static final Map<String, Schema.Type> simpleTypes = Map.of(
+      "java.lang.Boolean", Schema.Type.BOOLEAN,
+      "java.lang.Long", Schema.Type.LONG,
+      "java.lang.Integer", Schema.Type.INT,
+      "java.lang.Byte", Schema.Type.INT,
+      "java.lang.Character", Schema.Type.INT,
+      "java.lang.Short", Schema.Type.INT,
+      "java.lang.Double", Schema.Type.DOUBLE,
+      "java.lang.Float", Schema.Type.FLOAT,
+      "java.lang.String", Schema.Type.STRING);
+
+  private final Elements elements;
+  private final Types types;
+  private final Map<String, Schema> schemas = new HashMap<>();
+  private final Map<String, List<RecordField>> fields = new HashMap<>();
+
+  /**
+   * Constructs a {@link SchemaGenerator}.
+   *
+   * @param elements the {@link Elements} utilities of the processing environment
+   * @param types the {@link Types} utilities of the processing environment
+   */
+  SchemaGenerator(Elements elements, Types types) {
+    this.elements = elements;
+    this.types = types;
+  }
+
+  /**
+   * Provides the {@link Schema} of a type annotated with {@link AvroRecord}, generating it on first use.
+   *
+   * @param type the annotated type
+   * @return the record {@link Schema}
+   * @throws ProcessingException when a field of the type cannot be encoded
+   */
+  Schema schemaOf(TypeElement type) {
+    String binaryName = elements.getBinaryName(type).toString();
+    Schema schema = schemas.get(binaryName);
+    if (schema != null) {
+      return schema;
+    }
+    AvroRecord annotation = type.getAnnotation(AvroRecord.class);
+    String schemaName = schemaName(annotation, binaryName);
+    String namespace = elements.getPackageOf(type).getQualifiedName().toString();
+    Schema record = Schema.createRecord(schemaName, null, namespace, false);
+    schemas.put(binaryName, record);
+    try {
+      SchemaBuilder.FieldAssembler<Schema> builder =
+          SchemaBuilder.record(schemaName).namespace(namespace).fields();
+      FieldNamingConverter converter = FieldNamingConverter.of(annotation.fieldStrategy());
+      List<RecordField> recordFields = new ArrayList<>();
+      for (VariableElement field : fieldsInSchemaOrder(type, binaryName)) {
+        String fieldName = fieldName(field, converter);
+        if (fieldName == null) {
+          continue;
+        }
+        builder = addField(builder, field, fieldName);
+        recordFields.add(new RecordField(field, fieldName, recordFields.size()));
+      }
+      List<Schema.Field> schemaFields = new ArrayList<>();
+      for (Schema.Field field : builder.endRecord().getFields()) {
+        schemaFields.add(new Schema.Field(field, field.schema()));
+      }
+      record.setFields(schemaFields);
+      fields.put(binaryName, List.copyOf(recordFields));
+      return record;
+    } catch (ProcessingException e) {
+      schemas.remove(binaryName);
+      throw e;
+    }
+  }
+
+  /**
+   * Determines the {@link Schema} name of an annotated type.
+   *
+   * @param annotation the {@link AvroRecord} annotation of the type
+   * @param binaryName the binary name of the type
+   * @return the name of the record {@link Schema}
+   */
+  private static String schemaName(AvroRecord annotation, String binaryName) {
+    String schemaName = annotation.schemaName().equals("") ? binaryName : annotation.schemaName();
+    return schemaName.toLowerCase().startsWith("avro") ? schemaName.substring(4) : schemaName;
+  }
+
+  /**
+   * Determines the {@link Schema} name of a field.
+   *
+   * @param field the field to name
+   * @param converter the {@link FieldNamingConverter} of the strategy of the type
+   * @return the name of the field in the {@link Schema}, or {@code null} if the field is excluded
+   */
+  private static String fieldName(VariableElement field, FieldNamingConverter converter) {
+    AvroField fieldAnnotation = field.getAnnotation(AvroField.class);
+    if (fieldAnnotation == null) {
+      return converter.convert(field.getSimpleName().toString());
+    } else if (!fieldAnnotation.included()) {
+      return null;
+    }
+    return fieldAnnotation.name().equals("")
+        ? converter.convert(field.getSimpleName().toString())
+        : fieldAnnotation.name();
+  }
+
+  /**
+   * Provides the fields included in the {@link Schema} of a type, after generating it.
+   *
+   * @param type the annotated type
+   * @return the included fields, by {@link Schema} position
+   */
+  List<RecordField> fieldsOf(TypeElement type) {
+    schemaOf(type);
+    return fields.get(elements.getBinaryName(type).toString());
+  }
+
+  /**
+   * Orders the non-static fields of a type the way the runtime iterates them, which is the iteration order of a
+   * {@link HashMap} keyed by {@link java.lang.reflect.Field} in declaration order.
+   *
+   * @param type the type to list the fields of
+   * @param binaryName the binary name of the type
+   * @return the fields in the order the runtime adds them to the {@link Schema}
+   */
+  private static Iterable<VariableElement> fieldsInSchemaOrder(TypeElement type, String binaryName) {
+    Map<FieldKey, VariableElement> ordered = new HashMap<>();
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      if (!field.getModifiers().contains(Modifier.STATIC)) {
+        ordered.put(new FieldKey(binaryName, field.getSimpleName().toString()), field);
+      }
+    }
+    return ordered.values();
+  }
+
+  /**
+   * Adds a field to the {@link Schema} being built.
+   *
+   * @param builder the {@link SchemaBuilder.FieldAssembler} of the {@link Schema}
+   * @param field the field to add
+   * @param fieldName the name of the field in the {@link Schema}
+   * @return the {@link SchemaBuilder.FieldAssembler} to continue with
+   * @throws ProcessingException when the field cannot be encoded
+   */
+  private SchemaBuilder.FieldAssembler<Schema> addField(
+      SchemaBuilder.FieldAssembler<Schema> builder, VariableElement field, String fieldName) {
+    TypeMirror type = field.asType();
+    TypeMirror erasure = types.erasure(type);
+    if (types.isAssignable(erasure, erasureOf(List.class))) {
+      Schema items = simpleSchema(field, typeArgument(field, 0));
+      return named(builder, field, fieldName).type().array().items(items).arrayDefault(List.of());
+    } else if (types.isAssignable(erasure, erasureOf(Map.class))) {
+      Schema values = simpleSchema(field, typeArgument(field, 1));
+      return named(builder, field, fieldName).type().map().values(values).mapDefault(Map.of());
+    } else if (type.getKind() == TypeKind.ARRAY) {
+      Schema items = simpleSchema(field, ((ArrayType) type).getComponentType());
+      return named(builder, field, fieldName).type().array().items(items).arrayDefault(List.of());
+    } else if (field.getModifiers().contains(Modifier.FINAL)) {
+      return named(builder, field, fieldName)
+          .type(simpleSchema(field, type))
+          .noDefault();
+    }
+    return named(builder, field, fieldName).type().optional().type(simpleSchema(field, type));
+  }
+
+  /**
+   * Starts a field of the {@link Schema} being built, with the {@link AvroField#aliases()} of the field.
+   *
+   * @param builder the {@link SchemaBuilder.FieldAssembler} of the {@link Schema}
+   * @param field the field to start
+   * @param fieldName the name of the field in the {@link Schema}
+   * @return the {@link SchemaBuilder.FieldBuilder} to set the type of
+   */
+  private static SchemaBuilder.FieldBuilder<Schema> named(
+      SchemaBuilder.FieldAssembler<Schema> builder, VariableElement field, String fieldName) {
+    AvroField fieldAnnotation = field.getAnnotation(AvroField.class);
+    SchemaBuilder.FieldBuilder<Schema> named = builder.name(fieldName);
+    return fieldAnnotation == null || fieldAnnotation.aliases().length == 0
+        ? named
+        : named.aliases(fieldAnnotation.aliases());
+  }
+
+  /**
+   * Creates the {@link Schema} of a single value, which is a primitive, a {@link String} or an annotated type.
+   *
+   * @param field the field the value belongs to
+   * @param type the type of the value
+   * @return the {@link Schema} of the value
+   * @throws ProcessingException when the type cannot be encoded
+   */
+  private Schema simpleSchema(VariableElement field, TypeMirror type) {
+    TypeMirror boxed = type.getKind().isPrimitive()
+        ? types.boxedClass((PrimitiveType) type).asType()
+        : type;
+    if (boxed.getKind() == TypeKind.DECLARED) {
+      TypeElement element = (TypeElement) ((DeclaredType) boxed).asElement();
+      Schema.Type simpleType = simpleTypes.get(element.getQualifiedName().toString());
+      if (simpleType != null) {
+        return Schema.create(simpleType);
+      }
+      if (element.getAnnotation(AvroRecord.class) != null) {
+        return schemaOf(element);
+      }
+    }
+    throw new ProcessingException(field, "Cannot create a valid encoding for " + type + ".");
+  }
+
+  /**
+   * Resolves a type argument of the declared type of a field.
+   *
+   * @param field the field with a parameterized type
+   * @param index the index of the type argument
+   * @return the type argument
+   * @throws ProcessingException when the type argument is missing or not a declared type
+   */
+  private static TypeMirror typeArgument(VariableElement field, int index) {
+    List<? extends TypeMirror> arguments = ((DeclaredType) field.asType()).getTypeArguments();
+    if (arguments.size() <= index || arguments.get(index).getKind() != TypeKind.DECLARED) {
+      throw new ProcessingException(field, "Expected concrete type arguments, got " + field.asType() + ".");
+    }
+    return arguments.get(index);
+  }
+
+  /**
+   * Resolves the erasure of a class available to the processor.
+   *
+   * @param clazz the {@link Class} to resolve
+   * @return the erased type of the class
+   */
+  private TypeMirror erasureOf(Class<?> clazz) {
+    Element element = elements.getTypeElement(clazz.getCanonicalName());
+    return types.erasure(element.asType());
+  }
+
+  /**
+   * Key with the hash code of {@link java.lang.reflect.Field}, so fields iterate in the runtime order.
+   *
+   * @param declaringClass the binary name of the declaring class
+   * @param name the field name
+   */
+  private record FieldKey(String declaringClass, String name) {
+
+    /**
+     * Compares the declaring class and name of the fields.
+     *
+     * @param other the object to compare to
+     * @return whether both keys are for the same field
+     */
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof FieldKey
+          && declaringClass.equals(((FieldKey) other).declaringClass)
+          && name.equals(((FieldKey) other).name);
+    }
+
+    /**
+     * Computes the hash code the way {@link java.lang.reflect.Field#hashCode()} does.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+      return declaringClass.hashCode() ^ name.hashCode();
+    }
+  }
+}
@@ -0,0 +1,256 @@
+package me.atour.easyavro.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import me.atour.easyavro.AvroSchema;
+import me.atour.easyavro.GeneratedCodec;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AvroRecordProcessorTest {
+
+  private static final String CUSTOMER = String.join(
+      "\n",
+      "package sample;",
+      "import java.util.List;",
+      "import java.util.Map;",
+      "import me.atour.easyavro.AvroRecord;",
+      "import me.atour.easyavro.FieldNamingStrategies;",
+      "import me.atour.easyavro.field.AvroField;",
+      "@AvroRecord(schemaName = \"Customer\", fieldStrategy = FieldNamingStrategies.SNAKE_CASE)",
+      "public class Customer {",
+      "  static int instances;",
+      "  String firstName;",
+      "  int loyaltyPoints;",
+      "  Short shortValue;",
+      "  char initial;",
+      "  int[] visits;",
+      "  List<String> tags;",
+      "  Map<String, Long> totals;",
+      "  Address address;",
+      "  @AvroField(name = \"vip\", aliases = {\"important\", \"is_vip\"}) boolean important;",
+      "  @AvroField(included = false) String secret;",
+      "  private double balance;",
+      "  public double getBalance() { return balance; }",
+      "  public void setBalance(double balance) { this.balance = balance; }",
+      "}");
+
+  private static final String ADDRESS = String.join(
+      "\n",
+      "package sample;",
+      "import me.atour.easyavro.AvroRecord;",
+      "@AvroRecord(schemaName = \"Address\")",
+      "public class Address {",
+      "  private final String street;",
+      "  private final int number;",
+      "  public Address(String street, int number) { this.street = street; this.number = number; }",
+      "  String getStreet() { return street; }",
+      "  int getNumber() { return number; }",
+      "}");
+
+  private static final String POINT = String.join(
+      "\n",
+      "package sample;",
+      "import me.atour.easyavro.AvroRecord;",
+      "@AvroRecord(schemaName = \"Point\")",
+      "public record Point(int x, long y, String label) {}");
+
+  private static final String NODE = String.join(
+      "\n",
+      "package sample;",
+      "import me.atour.easyavro.AvroRecord;",
+      "@AvroRecord(schemaName = \"Node\")",
+      "public record Node(String label, Node next) {}");
+
+  private static final String HIDDEN = String.join(
+      "\n",
+      "package sample;",
+      "import me.atour.easyavro.AvroRecord;",
+      "@AvroRecord(schemaName = \"Hidden\")",
+      "public class Hidden {",
+      "  private int value;",
+      "}");
+
+  private static final String INVALID = String.join(
+      "\n",
+      "package sample;",
+      "import me.atour.easyavro.AvroRecord;",
+      "@AvroRecord(schemaName = \"Invalid\")",
+      "public class Invalid {",
+      "  Object value;",
+      "}");
+
+  @TempDir
+  private Path temp;
+
+  private static final class Source extends SimpleJavaFileObject {
+
+    private final String code;
+
+    Source(String code) {
+      super(URI.create("string:///" + className(code).replace('.', '/') + ".java"), Kind.SOURCE);
+      this.code = code;
+    }
+
+    private static String className(String code) {
+      String afterType = code.substring(code.indexOf(code.contains("record ") ? "record " : "class "));
+      String simpleName = afterType.split("[\\s({]+")[1];
+      return "sample." + simpleName;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return code;
+    }
+  }
+
+  private List<Diagnostic<? extends JavaFileObject>> compile(Path output, boolean process, String... sources)
+      throws IOException {
+    Files.createDirectories(output);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    List<String> options = new ArrayList<>(List.of(
+        "-d", output.toString(), "-classpath", System.getProperty("java.class.path"), "-implicit:none"));
+    if (!process) {
+      options.add("-proc:none");
+    }
+    List<Source> units = new ArrayList<>();
+    for (String source : sources) {
+      units.add(new Source(source));
+    }
+    JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, units);
+    if (process) {
+      task.setProcessors(List.of(new AvroRecordProcessor()));
+    }
+    task.call();
+    return diagnostics.getDiagnostics();
+  }
+
+  private static ClassLoader loader(Path output) throws IOException {
+    return new URLClassLoader(new URL[] {output.toUri().toURL()}, AvroRecordProcessorTest.class.getClassLoader());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> AvroSchema<T> generated(ClassLoader loader, String className) throws ClassNotFoundException {
+    AvroSchema<T> avroSchema = new AvroSchema<>((Class<T>) loader.loadClass(className));
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static GeneratedCodec<?> codec(ClassLoader loader, String className) throws ReflectiveOperationException {
+    return (GeneratedCodec<?>) loader.loadClass(GeneratedCodec.classNameOf(className))
+        .getConstructor()
+        .newInstance();
+  }
+
+  private static boolean hasErrors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+    return diagnostics.stream().anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR);
+  }
+
+  @Test
+  public void generatesSchemasEqualToRuntimeSchemas() throws Exception {
+    Path processed = temp.resolve("processed");
+    Path plain = temp.resolve("plain");
+    assertThat(hasErrors(compile(processed, true, CUSTOMER, ADDRESS, POINT, NODE)))
+        .isFalse();
+    assertThat(hasErrors(compile(plain, false, CUSTOMER, ADDRESS, POINT, NODE)))
+        .isFalse();
+    ClassLoader processedLoader = loader(processed);
+    ClassLoader plainLoader = loader(plain);
+    for (String className : List.of("sample.Customer", "sample.Address", "sample.Point", "sample.Node")) {
+      Schema expected = generated(plainLoader, className).getSchema();
+      Schema fromCodec = codec(processedLoader, className).getSchema();
+      assertThat(fromCodec).isEqualTo(expected);
+      assertThat(fromCodec.toString()).isEqualTo(expected.toString());
+      assertThat(generated(processedLoader, className).getSchema()).isSameAs(fromCodec);
+    }
+    Path avsc = processed.resolve("sample").resolve("Customer.avsc");
+    Schema fromFile = new Schema.Parser().parse(avsc.toFile());
+    assertThat(fromFile).isEqualTo(generated(plainLoader, "sample.Customer").getSchema());
+    assertThat(fromFile.getField("vip").aliases()).containsExactly("important", "is_vip");
+  }
+
+  @Test
+  public void convertsThroughGeneratedCodec() throws Exception {
+    Path processed = temp.resolve("processed");
+    assertThat(hasErrors(compile(processed, true, CUSTOMER, ADDRESS, POINT, NODE)))
+        .isFalse();
+    ClassLoader loader = loader(processed);
+    AvroSchema<Object> points = generated(loader, "sample.Point");
+    Object point = loader.loadClass("sample.Point")
+        .getConstructor(int.class, long.class, String.class)
+        .newInstance(1, 2L, "three");
+    GenericRecord pointRecord = points.convertFromPojo(point);
+    assertThat(pointRecord.get("label")).isEqualTo("three");
+    assertThat(points.convertToPojo(pointRecord)).isEqualTo(point);
+
+    AvroSchema<Object> customers = generated(loader, "sample.Customer");
+    GenericRecord record = customers.convertFromPojo(
+        loader.loadClass("sample.Customer").getConstructor().newInstance());
+    record.put("first_name", "Ada");
+    record.put("loyalty_points", 12);
+    record.put("short_value", (short) 3);
+    record.put("initial", 'A');
+    record.put("visits", new int[] {4});
+    record.put("tags", List.of("new"));
+    record.put("totals", Map.of("eur", 5L));
+    record.put("vip", true);
+    record.put("balance", 6.5);
+    Object customer = customers.convertToPojo(record);
+    assertThat(read(customer, "firstName")).isEqualTo("Ada");
+    assertThat(read(customer, "loyaltyPoints")).isEqualTo(12);
+    assertThat(read(customer, "shortValue")).isEqualTo((short) 3);
+    assertThat(read(customer, "initial")).isEqualTo('A');
+    assertThat(read(customer, "tags")).isEqualTo(List.of("new"));
+    assertThat(read(customer, "important")).isEqualTo(true);
+    assertThat(read(customer, "balance")).isEqualTo(6.5);
+    assertThat(customers.convertFromPojo(customer).get("balance")).isEqualTo(6.5);
+    record.put("initial", (int) 'B');
+    assertThat(read(customers.convertToPojo(record), "initial")).isEqualTo('B');
+    record.put("short_value", 4);
+    assertThat(read(customers.convertToPojo(record), "shortValue")).isEqualTo((short) 4);
+    record.put("short_value", null);
+    assertThat(read(customers.convertToPojo(record), "shortValue")).isNull();
+  }
+
+  @Test
+  public void fallsBackToReflectionWithoutAccessors() throws Exception {
+    Path processed = temp.resolve("processed");
+    List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(processed, true, HIDDEN);
+    assertThat(hasErrors(diagnostics)).isFalse();
+    assertThat(diagnostics).anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.NOTE);
+    assertThat(processed.resolve("sample").resolve("Hidden.avsc")).exists();
+    ClassLoader loader = loader(processed);
+    assertThat(generated(loader, "sample.Hidden").getSchema().getField("value"))
+        .isNotNull();
+  }
+
+  @Test
+  public void reportsFieldsThatCannotBeEncoded() throws IOException {
+    assertThat(hasErrors(compile(temp.resolve("invalid"), true, INVALID))).isTrue();
+  }
+
+  private static Object read(Object pojo, String fieldName) throws ReflectiveOperationException {
+    Field field = pojo.getClass().getDeclaredField(fieldName);
+    field.setAccessible(true);
+    return field.get(pojo);
+  }
+}
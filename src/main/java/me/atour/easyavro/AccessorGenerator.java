@@ -0,0 +1,585 @@
+package me.atour.easyavro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * Generates {@link PojoAccessor}s as hidden classes nested with the POJO they access.
+ * The generated methods contain one straight-line block of reads and writes per field,
+ * so they need neither branches nor stack map frames.
+ */
+final class AccessorGenerator {
+
+  private static final int CLASS_VERSION = 61;
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_PRIVATE = 0x0002;
+  private static final int ACC_FINAL = 0x0010;
+  private static final int ACC_SUPER = 0x0020;
+
+  private static final int ALOAD_0 = 0x2a;
+  private static final int ALOAD_1 = 0x2b;
+  private static final int ALOAD_2 = 0x2c;
+  private static final int ALOAD_3 = 0x2d;
+  private static final int ASTORE_3 = 0x4e;
+  private static final int ICONST_0 = 0x03;
+  private static final int BIPUSH = 0x10;
+  private static final int SIPUSH = 0x11;
+  private static final int LDC_W = 0x13;
+  private static final int LDC2_W = 0x14;
+  private static final int RETURN = 0xb1;
+  private static final int GETFIELD = 0xb4;
+  private static final int PUTFIELD = 0xb5;
+  private static final int INVOKEVIRTUAL = 0xb6;
+  private static final int INVOKESPECIAL = 0xb7;
+  private static final int INVOKESTATIC = 0xb8;
+  private static final int INVOKEINTERFACE = 0xb9;
+  private static final int CHECKCAST = 0xc0;
+
+  private static final String OBJECT = "java/lang/Object";
+  private static final String NUMBER = "java/lang/Number";
+  private static final String UNSAFE = "sun/misc/Unsafe";
+  private static final String UNSAFE_DESCRIPTOR = "Lsun/misc/Unsafe;";
+  private static final String RECORD = "org/apache/avro/generic/IndexedRecord";
+  private static final String ACCESSOR = PojoAccessor.class.getName().replace('.', '/');
+  private static final String SUPPORT = GeneratedSupport.class.getName().replace('.', '/');
+
+  private final MethodHandles.Lookup lookup;
+  private final List<PojoField> plan;
+  private final ConstantPool pool = new ConstantPool();
+  private final String className;
+  private final String pojoName;
+
+  /**
+   * Constructs a generator for a single POJO type.
+   *
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the POJO class
+   * @param clazz the POJO class
+   * @param plan the conversion plan of the POJO class
+   */
+  private AccessorGenerator(MethodHandles.Lookup lookup, Class<?> clazz, List<PojoField> plan) {
+    this.lookup = lookup;
+    this.plan = plan;
+    this.pojoName = internalName(clazz);
+    this.className = pojoName + "$$EasyAvroAccessor";
+  }
+
+  /**
+   * Defines a hidden class implementing {@link PojoAccessor} for the given plan and instantiates it.
+   *
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the POJO class
+   * @param clazz the POJO class
+   * @param plan the conversion plan of the POJO class
+   * @param unsafe the {@link sun.misc.Unsafe} used to write final fields
+   * @return the generated {@link PojoAccessor}
+   * @throws ReflectiveOperationException when the class cannot be defined or instantiated
+   */
+  static PojoAccessor generate(
+      @NonNull MethodHandles.Lookup lookup,
+      @NonNull Class<?> clazz,
+      @NonNull List<PojoField> plan,
+      @NonNull sun.misc.Unsafe unsafe)
+      throws ReflectiveOperationException {
+    byte[] bytes = new AccessorGenerator(lookup, clazz, plan).toByteArray();
+    MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+    return (PojoAccessor)
+        hidden.lookupClass().getConstructor(sun.misc.Unsafe.class).newInstance(unsafe);
+  }
+
+  /**
+   * Assembles the class file of the accessor.
+   *
+   * @return the class file bytes
+   */
+  private byte[] toByteArray() {
+    int thisClass = pool.classRef(className);
+    int superClass = pool.classRef(OBJECT);
+    int accessorInterface = pool.classRef(ACCESSOR);
+    int unsafeName = pool.utf8("unsafe");
+    int unsafeDescriptor = pool.utf8(UNSAFE_DESCRIPTOR);
+    byte[] constructor = method(ACC_PUBLIC, "<init>", "(" + UNSAFE_DESCRIPTOR + ")V", constructorCode(), 2, 2);
+    byte[] toRecord = method(ACC_PUBLIC, "toRecord", "(Ljava/lang/Object;L" + RECORD + ";)V", toRecordCode(), 4, 4);
+    byte[] toPojo = method(ACC_PUBLIC, "toPojo", "(L" + RECORD + ";Ljava/lang/Object;)V", toPojoCode(), 6, 4);
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(CLASS_VERSION);
+      pool.writeTo(out);
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+      out.writeShort(1);
+      out.writeShort(accessorInterface);
+      out.writeShort(1);
+      out.writeShort(ACC_PRIVATE | ACC_FINAL);
+      out.writeShort(unsafeName);
+      out.writeShort(unsafeDescriptor);
+      out.writeShort(0);
+      out.writeShort(3);
+      out.write(constructor);
+      out.write(toRecord);
+      out.write(toPojo);
+      out.writeShort(0);
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Generates the code of the constructor, which stores the {@link sun.misc.Unsafe} it is passed.
+   *
+   * @return the constructor code
+   */
+  private byte[] constructorCode() {
+    Code code = new Code();
+    code.op(ALOAD_0);
+    code.op(INVOKESPECIAL, pool.methodRef(OBJECT, "<init>", "()V"));
+    code.op(ALOAD_0);
+    code.op(ALOAD_1);
+    code.op(PUTFIELD, pool.fieldRef(className, "unsafe", UNSAFE_DESCRIPTOR));
+    code.op(RETURN);
+    return code.toByteArray();
+  }
+
+  /**
+   * Generates the code of {@link PojoAccessor#toRecord(Object, org.apache.avro.generic.IndexedRecord)}.
+   *
+   * @return the method code
+   */
+  private byte[] toRecordCode() {
+    Code code = new Code();
+    code.op(ALOAD_1);
+    code.op(CHECKCAST, pool.classRef(pojoName));
+    code.op(ASTORE_3);
+    int put = pool.interfaceMethodRef(RECORD, "put", "(ILjava/lang/Object;)V");
+    for (PojoField field : plan) {
+      Class<?> type = field.getField().getType();
+      code.op(ALOAD_2);
+      pushInt(code, field.getPosition());
+      code.op(ALOAD_3);
+      code.op(GETFIELD, pool.fieldRef(pojoName, field.getField().getName(), type.descriptorString()));
+      if (type.isPrimitive()) {
+        String wrapper = internalName(MethodType.methodType(type).wrap().returnType());
+        code.op(
+            INVOKESTATIC,
+            pool.methodRef(wrapper, "valueOf", "(" + type.descriptorString() + ")L" + wrapper + ";"));
+      }
+      code.op(INVOKEINTERFACE, put);
+      code.u1(3);
+      code.u1(0);
+    }
+    code.op(RETURN);
+    return code.toByteArray();
+  }
+
+  /**
+   * Generates the code of {@link PojoAccessor#toPojo(org.apache.avro.generic.IndexedRecord, Object)}.
+   * Final fields and fields of types the POJO cannot name are written through {@link sun.misc.Unsafe},
+   * all other fields are written directly.
+   *
+   * @return the method code
+   */
+  private byte[] toPojoCode() {
+    Code code = new Code();
+    code.op(ALOAD_2);
+    code.op(CHECKCAST, pool.classRef(pojoName));
+    code.op(ASTORE_3);
+    int get = pool.interfaceMethodRef(RECORD, "get", "(I)Ljava/lang/Object;");
+    for (PojoField field : plan) {
+      Class<?> type = field.getField().getType();
+      boolean direct = !Modifier.isFinal(field.getField().getModifiers()) && isAccessible(type);
+      if (direct) {
+        code.op(ALOAD_3);
+      } else {
+        code.op(ALOAD_0);
+        code.op(GETFIELD, pool.fieldRef(className, "unsafe", UNSAFE_DESCRIPTOR));
+        code.op(ALOAD_3);
+        code.op(LDC2_W, pool.longConstant(field.getOffset()));
+      }
+      code.op(ALOAD_1);
+      pushInt(code, field.getPosition());
+      code.op(INVOKEINTERFACE, get);
+      code.u1(2);
+      code.u1(0);
+      unbox(code, type, direct);
+      if (direct) {
+        code.op(PUTFIELD, pool.fieldRef(pojoName, field.getField().getName(), type.descriptorString()));
+      } else {
+        String stored = type.isPrimitive() ? type.descriptorString() : "Ljava/lang/Object;";
+        String name = "put" + (type.isPrimitive() ? capitalize(type.getName()) : "Object");
+        code.op(INVOKEVIRTUAL, pool.methodRef(UNSAFE, name, "(Ljava/lang/Object;J" + stored + ")V"));
+      }
+    }
+    code.op(RETURN);
+    return code.toByteArray();
+  }
+
+  /**
+   * Converts the {@link Object} on top of the stack to the given field type.
+   * Records hold the values of {@code byte}, {@code short} and {@code char} fields as Avro ints once decoded, so
+   * those are narrowed, boxed or not.
+   *
+   * @param code the {@link Code} to append to
+   * @param type the type of the field
+   * @param cast whether reference types should be cast, only possible for accessible types
+   */
+  private void unbox(Code code, Class<?> type, boolean cast) {
+    if (type == char.class) {
+      code.op(INVOKESTATIC, pool.methodRef(SUPPORT, "charValue", "(Ljava/lang/Object;)C"));
+    } else if (type == byte.class || type == short.class) {
+      code.op(CHECKCAST, pool.classRef(NUMBER));
+      code.op(INVOKEVIRTUAL, pool.methodRef(NUMBER, type.getName() + "Value", "()" + type.descriptorString()));
+    } else if (type == Byte.class || type == Short.class || type == Character.class) {
+      String descriptor = "(Ljava/lang/Object;)" + type.descriptorString();
+      code.op(INVOKESTATIC, pool.methodRef(SUPPORT, "boxed" + type.getSimpleName(), descriptor));
+    } else if (type.isPrimitive()) {
+      String wrapper = internalName(MethodType.methodType(type).wrap().returnType());
+      code.op(CHECKCAST, pool.classRef(wrapper));
+      code.op(INVOKEVIRTUAL, pool.methodRef(wrapper, type.getName() + "Value", "()" + type.descriptorString()));
+    } else if (cast) {
+      code.op(CHECKCAST, pool.classRef(internalName(type)));
+    }
+  }
+
+  /**
+   * Checks whether the generated class, living next to the POJO, can name a type.
+   *
+   * @param type the type to check
+   * @return whether the type is accessible
+   */
+  private boolean isAccessible(Class<?> type) {
+    if (type.isPrimitive()) {
+      return true;
+    }
+    Class<?> elementType = type;
+    while (elementType.isArray()) {
+      elementType = elementType.getComponentType();
+    }
+    try {
+      lookup.accessClass(elementType);
+      return true;
+    } catch (IllegalAccessException ignored) {
+      return false;
+    }
+  }
+
+  /**
+   * Pushes an int constant using the shortest available instruction.
+   *
+   * @param code the {@link Code} to append to
+   * @param value the value to push
+   */
+  private void pushInt(Code code, int value) {
+    if (value <= 5) {
+      code.op(ICONST_0 + value);
+    } else if (value <= Byte.MAX_VALUE) {
+      code.op(BIPUSH);
+      code.u1(value);
+    } else if (value <= Short.MAX_VALUE) {
+      code.op(SIPUSH, value);
+    } else {
+      code.op(LDC_W, pool.intConstant(value));
+    }
+  }
+
+  /**
+   * Assembles a method with a single {@code Code} attribute.
+   *
+   * @param access the method access flags
+   * @param name the method name
+   * @param descriptor the method descriptor
+   * @param code the method code
+   * @param maxStack the maximum operand stack depth of the code
+   * @param maxLocals the number of local variable slots the code uses
+   * @return the method_info structure
+   */
+  private byte[] method(int access, String name, String descriptor, byte[] code, int maxStack, int maxLocals) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeShort(access);
+      out.writeShort(pool.utf8(name));
+      out.writeShort(pool.utf8(descriptor));
+      out.writeShort(1);
+      out.writeShort(pool.utf8("Code"));
+      out.writeInt(12 + code.length);
+      out.writeShort(maxStack);
+      out.writeShort(maxLocals);
+      out.writeInt(code.length);
+      out.write(code);
+      out.writeShort(0);
+      out.writeShort(0);
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Provides the internal name of a class as used in class files.
+   *
+   * @param type the {@link Class} to provide the internal name for
+   * @return the internal name
+   */
+  private static String internalName(Class<?> type) {
+    return type.getName().replace('.', '/');
+  }
+
+  /**
+   * Capitalizes the first character of a primitive type name.
+   *
+   * @param name the name to capitalize
+   * @return the capitalized name
+   */
+  private static String capitalize(String name) {
+    return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
+  /**
+   * Growable buffer of bytecode instructions.
+   */
+  private static final class Code {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    /**
+     * Appends an instruction without operands.
+     *
+     * @param opcode the opcode to append
+     */
+    void op(int opcode) {
+      bytes.write(opcode);
+    }
+
+    /**
+     * Appends an instruction with a two byte operand.
+     *
+     * @param opcode the opcode to append
+     * @param operand the operand, a constant pool index for most instructions
+     */
+    void op(int opcode, int operand) {
+      bytes.write(opcode);
+      bytes.write(operand >>> 8);
+      bytes.write(operand);
+    }
+
+    /**
+     * Appends a single byte.
+     *
+     * @param value the byte to append
+     */
+    void u1(int value) {
+      bytes.write(value);
+    }
+
+    /**
+     * Provides the code appended so far.
+     *
+     * @return the code bytes
+     */
+    byte[] toByteArray() {
+      return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Deduplicating constant pool of the class being generated.
+   */
+  private static final class ConstantPool {
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int LONG = 5;
+    private static final int CLASS = 7;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private final Map<String, Integer> entries = new HashMap<>();
+    private int count = 1;
+
+    /**
+     * Adds a {@code CONSTANT_Utf8} entry.
+     *
+     * @param value the string to add
+     * @return the index of the entry
+     */
+    int utf8(String value) {
+      Integer existing = entries.get("U" + value);
+      if (existing != null) {
+        return existing;
+      }
+      try {
+        out.writeByte(UTF8);
+        out.writeUTF(value);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return register("U" + value, 1);
+    }
+
+    /**
+     * Adds a {@code CONSTANT_Class} entry.
+     *
+     * @param internalName the internal name of the class
+     * @return the index of the entry
+     */
+    int classRef(String internalName) {
+      return reference("C" + internalName, CLASS, utf8(internalName));
+    }
+
+    /**
+     * Adds a {@code CONSTANT_Fieldref} entry.
+     *
+     * @param owner the internal name of the declaring class
+     * @param name the field name
+     * @param descriptor the field descriptor
+     * @return the index of the entry
+     */
+    int fieldRef(String owner, String name, String descriptor) {
+      return member(FIELD_REF, owner, name, descriptor);
+    }
+
+    /**
+     * Adds a {@code CONSTANT_Methodref} entry.
+     *
+     * @param owner the internal name of the declaring class
+     * @param name the method name
+     * @param descriptor the method descriptor
+     * @return the index of the entry
+     */
+    int methodRef(String owner, String name, String descriptor) {
+      return member(METHOD_REF, owner, name, descriptor);
+    }
+
+    /**
+     * Adds a {@code CONSTANT_InterfaceMethodref} entry.
+     *
+     * @param owner the internal name of the declaring interface
+     * @param name the method name
+     * @param descriptor the method descriptor
+     * @return the index of the entry
+     */
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+      return member(INTERFACE_METHOD_REF, owner, name, descriptor);
+    }
+
+    /**
+     * Adds a {@code CONSTANT_Integer} entry.
+     *
+     * @param value the value to add
+     * @return the index of the entry
+     */
+    int intConstant(int value) {
+      Integer existing = entries.get("I" + value);
+      if (existing != null) {
+        return existing;
+      }
+      try {
+        out.writeByte(INTEGER);
+        out.writeInt(value);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return register("I" + value, 1);
+    }
+
+    /**
+     * Adds a {@code CONSTANT_Long} entry, which takes up two slots.
+     *
+     * @param value the value to add
+     * @return the index of the entry
+     */
+    int longConstant(long value) {
+      Integer existing = entries.get("J" + value);
+      if (existing != null) {
+        return existing;
+      }
+      try {
+        out.writeByte(LONG);
+        out.writeLong(value);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return register("J" + value, 2);
+    }
+
+    /**
+     * Writes the constant pool count and entries.
+     *
+     * @param target the stream to write to
+     * @throws IOException when the stream cannot be written to
+     */
+    void writeTo(DataOutputStream target) throws IOException {
+      target.writeShort(count);
+      bytes.writeTo(target);
+    }
+
+    /**
+     * Adds a field, method, or interface method reference.
+     *
+     * @param tag the constant pool tag of the reference
+     * @param owner the internal name of the declaring class
+     * @param name the member name
+     * @param descriptor the member descriptor
+     * @return the index of the entry
+     */
+    private int member(int tag, String owner, String name, String descriptor) {
+      int ownerIndex = classRef(owner);
+      int nameAndType = reference("N" + name + ' ' + descriptor, NAME_AND_TYPE, utf8(name), utf8(descriptor));
+      return reference(tag + owner + '.' + name + ' ' + descriptor, tag, ownerIndex, nameAndType);
+    }
+
+    /**
+     * Adds an entry consisting of a tag followed by constant pool indices.
+     *
+     * @param key the deduplication key of the entry
+     * @param tag the constant pool tag
+     * @param indices the indices the entry refers to
+     * @return the index of the entry
+     */
+    private int reference(String key, int tag, int... indices) {
+      Integer existing = entries.get(key);
+      if (existing != null) {
+        return existing;
+      }
+      try {
+        out.writeByte(tag);
+        for (int index : indices) {
+          out.writeShort(index);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return register(key, 1);
+    }
+
+    /**
+     * Registers the entry just written.
+     *
+     * @param key the deduplication key of the entry
+     * @param slots the number of slots the entry takes up
+     * @return the index of the entry
+     */
+    private int register(String key, int slots) {
+      int index = count;
+      entries.put(key, index);
+      count += slots;
+      return index;
+    }
+  }
+}
@@ -1,20 +1,48 @@
 package me.atour.easyavro;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import me.atour.easyavro.field.FieldNamingConverter;
-import me.atour.easyavro.field.SnakeCaseNamingConverter;
+import me.atour.easyavro.metrics.AvroMetrics;
+import me.atour.easyavro.metrics.Operation;
 import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.message.BadHeaderException;
+import org.apache.avro.message.MissingSchemaException;
 
 /**
  * Generates the {@link Schema} and corresponding {@link GenericRecord}s from POJOs.
@@ -24,24 +52,131 @@ import org.apache.avro.generic.GenericRecord;
 @Slf4j
 public class AvroSchema<T> {
 
-  private static final sun.misc.Unsafe unsafe;
+  private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
 
+  /**
+   * The shared, generated {@link AvroSchema}s by class, dropped together with the class loader of their class.
+   */
+  private static final ClassValue<AvroSchema<?>> registry = new ClassValue<>() {
+
+    /**
+     * Generates the shared {@link AvroSchema} of a class.
+     *
+     * @param type the class to generate the {@link AvroSchema} for
+     * @return the generated {@link AvroSchema}
+     */
+    @Override
+    protected AvroSchema<?> computeValue(Class<?> type) {
+      AvroSchema<?> avroSchema = new AvroSchema<>(type);
+      avroSchema.generate();
+      avroSchema.frozen = true;
+      return avroSchema;
+    }
+  };
+
+  /**
+   * The record {@link Schema}s still being generated on the current thread, which nested fields refer to for cycles.
+   */
+  private static final ThreadLocal<Map<Class<?>, Schema>> pendingSchemas = ThreadLocal.withInitial(HashMap::new);
+
+  /**
+   * The two bytes starting every single-object encoded message, followed by the fingerprint of its {@link Schema}.
+   */
+  private static final byte[] MESSAGE_MARKER = {(byte) 0xC3, (byte) 0x01};
+
+  private static final int MESSAGE_HEADER_LENGTH = MESSAGE_MARKER.length + Long.BYTES;
+
+  /**
+   * The {@link AvroMetrics} new {@link AvroSchema}s report to, including the shared ones of {@link #forClass(Class)}.
+   */
+  private static volatile AvroMetrics defaultMetrics = AvroMetrics.noOp();
+
+  @Getter(AccessLevel.PACKAGE)
   private final Class<T> clazz;
+
+  @Getter(AccessLevel.PACKAGE)
   private final MethodHandles.Lookup lookup;
+
   private final Map<String, String> schemaFields;
 
   @Getter
   private Schema schema;
 
-  static {
-    try {
-      Field unsafeField = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
-      unsafeField.setAccessible(true);
-      unsafe = (sun.misc.Unsafe) unsafeField.get(null);
-    } catch (ReflectiveOperationException e) {
-      throw new DoesNotSupportUnsafeException();
-    }
-  }
+  /**
+   * The {@link ConversionEngine} to set up on the next call to {@link #generate()}.
+   */
+  @Getter
+  private ConversionEngine conversionEngine = ConversionEngine.REFLECTIVE;
+
+  /**
+   * The {@link FieldAccess} to set up on the next call to {@link #generate()}.
+   */
+  @Getter
+  private FieldAccess fieldAccess = FieldAccess.UNSAFE;
+
+  /**
+   * The {@link InstantiationStrategy} to set up on the next call to {@link #generate()}.
+   */
+  @Getter
+  private InstantiationStrategy instantiationStrategy = InstantiationStrategy.ALLOCATION;
+
+  /**
+   * The {@link SchemaDiskCache} to load the {@link Schema} from and store it in on the next call to
+   * {@link #generate()}, or {@code null} to always generate the {@link Schema}.
+   */
+  @Getter
+  private SchemaDiskCache schemaCache = SchemaDiskCache.defaultCache();
+
+  /**
+   * The {@link AvroMetrics} generation, conversions, encoding and decoding are reported to.
+   */
+  @Getter
+  @NonNull private AvroMetrics metrics = defaultMetrics;
+
+  /**
+   * The names of the fields to include on the next call to {@link #generate()}, or {@code null} to include all.
+   */
+  @Getter
+  private Set<String> includedFields;
+
+  /**
+   * Whether this is the shared {@link AvroSchema} of {@link #forClass(Class)}, which cannot be reconfigured or
+   * regenerated as other threads convert through it.
+   */
+  private volatile boolean frozen;
+
+  private boolean useUnsafe;
+
+  @Getter(AccessLevel.PACKAGE)
+  private Instantiator instantiator;
+
+  /**
+   * The no-argument constructor creating the POJOs to fill with {@link FieldAccess#VAR_HANDLE}, if there is one.
+   */
+  private MethodHandle allocator;
+
+  private FieldWriter[] argumentWriters;
+  private List<PojoField> plan = List.of();
+  private PojoAccessor accessor;
+  private GeneratedCodec<T> codec;
+  private volatile RecordView.Layout<T> viewLayout;
+  private volatile PojoDatumWriter<T> pojoWriter;
+  private volatile PojoDatumReader<T> pojoReader;
+
+  /**
+   * The resolutions of the writer {@link Schema}s read into the POJOs, computed once per writer {@link Schema}.
+   */
+  private final Map<Schema, PojoDatumReader.Resolution> resolutions = new ConcurrentHashMap<>();
+
+  /**
+   * The marker and fingerprint starting single-object encoded messages, computed once the {@link Schema} is complete.
+   */
+  private volatile byte[] messageHeader;
+
+  /**
+   * The parsing canonical form of the {@link Schema}, computed once the {@link Schema} is complete.
+   */
+  private volatile String canonicalForm;
 
   /**
    * Construct an {@link AvroSchema} for a class.
@@ -58,15 +193,395 @@ public class AvroSchema<T> {
     }
   }
 
+  /**
+   * Provides the shared {@link AvroSchema} of a class, generating it on first use.
+   * The returned instance is generated already, and its setters and {@link #generate()} throw an
+   * {@link IllegalStateException}, as other threads may be converting through it.
+   *
+   * @param tClass the {@link Class} to get the {@link AvroSchema} for
+   * @param <T> type parameter representing the class
+   * @return the shared, generated {@link AvroSchema}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> AvroSchema<T> forClass(@NonNull Class<T> tClass) {
+    return (AvroSchema<T>) registry.get(tClass);
+  }
+
+  /**
+   * Provides the {@link AvroMetrics} new {@link AvroSchema}s report to.
+   *
+   * @return the default {@link AvroMetrics}, which discard everything reported unless set otherwise
+   */
+  public static AvroMetrics getDefaultMetrics() {
+    return defaultMetrics;
+  }
+
+  /**
+   * Sets the {@link AvroMetrics} new {@link AvroSchema}s report to. Existing instances keep reporting to their own.
+   *
+   * @param defaults the default {@link AvroMetrics}
+   */
+  public static void setDefaultMetrics(@NonNull AvroMetrics defaults) {
+    defaultMetrics = defaults;
+  }
+
+  /**
+   * Resolves the {@link Schema} of a nested record type.
+   * Types still being generated on this thread resolve to their unfinished record, so types can refer to themselves.
+   *
+   * @param type the nested record type
+   * @return the record {@link Schema} of the type
+   */
+  static Schema schemaOf(Class<?> type) {
+    Schema pending = pendingSchemas.get().get(type);
+    return pending == null ? forClass(type).getSchema() : pending;
+  }
+
+  /**
+   * Limits the fields to include in the {@link Schema} on the next call to {@link #generate()}, so the POJOs can be read
+   * as a projection of data written with all fields. The other fields are left at their defaults when POJOs are
+   * created. As the {@link Schema} differs from the full one, it is neither loaded from a {@link GeneratedCodec} nor
+   * from the {@link SchemaDiskCache}.
+   *
+   * @param fieldNames the names of the Java fields to include, or {@code null} to include all fields
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
+   */
+  public void setIncludedFields(Collection<String> fieldNames) {
+    requireNotShared();
+    includedFields = fieldNames == null ? null : Set.copyOf(fieldNames);
+  }
+
+  /**
+   * Sets the {@link ConversionEngine} to set up on the next call to {@link #generate()}.
+   *
+   * @param conversionEngine the {@link ConversionEngine} to use
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
+   */
+  public void setConversionEngine(ConversionEngine conversionEngine) {
+    requireNotShared();
+    this.conversionEngine = conversionEngine;
+  }
+
+  /**
+   * Sets the {@link FieldAccess} to set up on the next call to {@link #generate()}.
+   *
+   * @param fieldAccess the {@link FieldAccess} to use
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
+   */
+  public void setFieldAccess(FieldAccess fieldAccess) {
+    requireNotShared();
+    this.fieldAccess = fieldAccess;
+  }
+
+  /**
+   * Sets the {@link InstantiationStrategy} to set up on the next call to {@link #generate()}.
+   *
+   * @param instantiationStrategy the {@link InstantiationStrategy} to use
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
+   */
+  public void setInstantiationStrategy(InstantiationStrategy instantiationStrategy) {
+    requireNotShared();
+    this.instantiationStrategy = instantiationStrategy;
+  }
+
+  /**
+   * Sets the {@link SchemaDiskCache} to load the {@link Schema} from and store it in on the next call to
+   * {@link #generate()}.
+   *
+   * @param schemaCache the {@link SchemaDiskCache} to use, or {@code null} to always generate the {@link Schema}
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
+   */
+  public void setSchemaCache(SchemaDiskCache schemaCache) {
+    requireNotShared();
+    this.schemaCache = schemaCache;
+  }
+
+  /**
+   * Sets the {@link AvroMetrics} generation, conversions, encoding and decoding are reported to.
+   *
+   * @param metrics the {@link AvroMetrics} to report to
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
+   */
+  public void setMetrics(@NonNull AvroMetrics metrics) {
+    requireNotShared();
+    this.metrics = metrics;
+  }
+
+  /**
+   * Rejects changes to the shared {@link AvroSchema}s of {@link #forClass(Class)}, as other threads may be converting
+   * through them and records of other classes embed their {@link Schema}.
+   *
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
+   */
+  private void requireNotShared() {
+    if (frozen) {
+      log.error("Cannot reconfigure or regenerate the shared AvroSchema of {}.", clazz);
+      throw new IllegalStateException(
+          "The shared AvroSchema of " + clazz.getName() + " cannot be reconfigured or regenerated.");
+    }
+  }
+
   /**
    * Generates the schema belonging to the {@link Class} this {@link AvroSchema} was instantiated with.
+   *
+   * @throws IllegalStateException when this is the shared {@link AvroSchema} of {@link #forClass(Class)}
    */
   public void generate() {
+    requireNotShared();
+    long start = metrics.start();
+    GenerationEvent event = new GenerationEvent(clazz);
+    event.begin();
+    try {
+      generateSchemaAndPlan();
+    } catch (RuntimeException e) {
+      metrics.failed(clazz, Operation.GENERATE);
+      event.failed(e);
+      throw e;
+    }
+    metrics.completed(clazz, Operation.GENERATE, start);
+    event.generated(schema);
+  }
+
+  /**
+   * Generates the {@link Schema} and sets up the conversions, dropping everything derived from the previous ones.
+   */
+  private void generateSchemaAndPlan() {
+    viewLayout = null;
+    pojoWriter = null;
+    pojoReader = null;
+    messageHeader = null;
+    canonicalForm = null;
+    resolutions.clear();
+    setUpAccess();
+    if (useGeneratedCodec()) {
+      return;
+    }
+    try {
+      Map<Field, MethodHandle> fieldHandles = includedFieldHandles();
+      loadOrCreateSchema(fieldHandles);
+      plan = createPlan(fieldHandles);
+      argumentWriters = instantiator == null ? null : argumentWritersOf(plan);
+      accessor = conversionEngine == ConversionEngine.GENERATED ? generateAccessor() : null;
+    } catch (IllegalAccessException e) {
+      log.error("Cannot generate a valid schema in {} because {}.", clazz, e.getMessage());
+      throw new CannotGenerateSchemaException(e);
+    }
+  }
+
+  /**
+   * Resolves the getters of the non-static fields to include, which are all of them unless
+   * {@link #setIncludedFields(Collection)} limited them.
+   *
+   * @return the included {@link Field}s mapped to their getters
+   * @throws IllegalAccessException when reflection cannot access the fields it tries to access
+   * @throws CannotGenerateSchemaException when an included field does not exist
+   */
+  private Map<Field, MethodHandle> includedFieldHandles() throws IllegalAccessException {
+    Map<Field, MethodHandle> fieldHandles = new HashMap<>();
+    Set<String> missing = new HashSet<>(includedFields == null ? Set.of() : includedFields);
+    for (Field field : clazz.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers())
+          || includedFields != null && !includedFields.contains(field.getName())) {
+        continue;
+      }
+      missing.remove(field.getName());
+      fieldHandles.put(field, lookup.unreflectGetter(field));
+    }
+    if (!missing.isEmpty()) {
+      log.error("Cannot include the fields {} of {} as they do not exist.", missing, clazz);
+      throw new CannotGenerateSchemaException(new NoSuchFieldException(String.join(", ", missing)));
+    }
+    return fieldHandles;
+  }
+
+  /**
+   * Applies the configured {@link FieldAccess} and {@link InstantiationStrategy}.
+   * Records are always created through their canonical constructor, as their fields cannot be set.
+   */
+  private void setUpAccess() {
+    useUnsafe = fieldAccess == FieldAccess.UNSAFE && UnsafeAccess.isAvailable();
+    instantiator = instantiationStrategy == InstantiationStrategy.CONSTRUCTOR || clazz.isRecord()
+        ? Instantiator.of(lookup, clazz)
+        : null;
+    allocator = useUnsafe || instantiator != null ? null : noArgumentConstructor();
+  }
+
+  /**
+   * Resolves the no-argument constructor of the class, to create POJOs without {@link sun.misc.Unsafe}.
+   *
+   * @return the constructor as a {@link MethodHandle} returning an {@link Object}, or {@code null} if there is none
+   */
+  private MethodHandle noArgumentConstructor() {
+    try {
+      return lookup.findConstructor(clazz, MethodType.methodType(void.class))
+          .asType(MethodType.methodType(Object.class));
+    } catch (ReflectiveOperationException e) {
+      log.debug("{} has no accessible no-argument constructor, so it is allocated through Unsafe.", clazz);
+      return null;
+    }
+  }
+
+  /**
+   * Creates an empty POJO to fill.
+   * With {@link FieldAccess#VAR_HANDLE}, the no-argument constructor is used if the class has one.
+   * Otherwise, the POJO is allocated through {@link sun.misc.Unsafe} without running any constructor.
+   *
+   * @return the created POJO
+   * @throws CannotConvertRecordToPojoException when the POJO cannot be created
+   */
+  @SuppressWarnings("unchecked")
+  T allocate() {
+    try {
+      return (T)
+          (allocator == null ? UnsafeAccess.get().allocateInstance(clazz) : (Object) allocator.invokeExact());
+    } catch (DoesNotSupportUnsafeException e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new CannotConvertRecordToPojoException(e);
+    }
+  }
+
+  /**
+   * Looks for a {@link GeneratedCodec} of the class and takes the {@link Schema} from it if there is one.
+   * The conversion plan is then only created once a {@link PojoDatumWriter} or {@link PojoDatumReader} needs it.
+   *
+   * @return whether a {@link GeneratedCodec} is used
+   */
+  private boolean useGeneratedCodec() {
+    codec = includedFields == null && clazz.isAnnotationPresent(AvroRecord.class) ? findCodec() : null;
+    if (codec == null) {
+      return false;
+    }
+    schema = codec.getSchema();
+    schemaFields.clear();
+    List<String> fieldNames = codec.getFieldNames();
+    for (int i = 0; i < fieldNames.size(); i++) {
+      schemaFields.put(fieldNames.get(i), schema.getFields().get(i).name());
+    }
+    plan = null;
+    accessor = null;
+    argumentWriters = null;
+    return true;
+  }
+
+  /**
+   * Loads and instantiates the {@link GeneratedCodec} of the class, if it is on the classpath.
+   *
+   * @return the {@link GeneratedCodec}, or {@code null} if there is none that can be used
+   */
+  @SuppressWarnings("unchecked")
+  private GeneratedCodec<T> findCodec() {
+    String codecName = GeneratedCodec.classNameOf(clazz.getName());
+    try {
+      Class<?> codecClass = Class.forName(codecName, true, clazz.getClassLoader());
+      return (GeneratedCodec<T>) codecClass.getConstructor().newInstance();
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+      log.warn("Cannot use {} for {} because {}, falling back to reflection.", codecName, clazz, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Provides the cached resolution of a writer {@link Schema} against the generated {@link Schema}, computing it if
+   * it has not been yet. It is computed outside of the cache, as resolving a class can resolve the classes it nests.
+   *
+   * @param writerSchema the {@link Schema} the data was written with
+   * @param resolver computes the resolution
+   * @return the {@link PojoDatumReader.Resolution}
+   */
+  PojoDatumReader.Resolution resolutionOf(
+      Schema writerSchema, Function<Schema, PojoDatumReader.Resolution> resolver) {
+    PojoDatumReader.Resolution resolution = resolutions.get(writerSchema);
+    if (resolution == null) {
+      resolution = resolver.apply(writerSchema);
+      PojoDatumReader.Resolution previous = resolutions.putIfAbsent(writerSchema, resolution);
+      return previous == null ? resolution : previous;
+    }
+    return resolution;
+  }
+
+  /**
+   * Checks whether the conversions go through a {@link GeneratedCodec}, which only needs the conversion plan once a
+   * {@link PojoDatumWriter} or {@link PojoDatumReader} is created.
+   *
+   * @return whether a {@link GeneratedCodec} is used
+   */
+  boolean usesCodec() {
+    return codec != null;
+  }
+
+  /**
+   * Checks whether the conversion plan has been created.
+   *
+   * @return whether the plan exists
+   */
+  boolean isPlanned() {
+    return plan != null;
+  }
+
+  /**
+   * Provides the conversion plan, creating it from the {@link GeneratedCodec} field names if it was not yet created.
+   *
+   * @return the plan, ordered by {@link Schema} position
+   */
+  List<PojoField> getPlan() {
+    List<PojoField> current = plan;
+    if (current == null) {
+      try {
+        Map<Field, MethodHandle> fieldHandles = new HashMap<>();
+        for (String fieldName : codec.getFieldNames()) {
+          Field field = clazz.getDeclaredField(fieldName);
+          fieldHandles.put(field, lookup.unreflectGetter(field));
+        }
+        current = createPlan(fieldHandles);
+        plan = current;
+      } catch (ReflectiveOperationException e) {
+        log.error("Cannot create the conversion plan of {} because {}.", clazz, e.getMessage());
+        throw new CannotGenerateSchemaException(e);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Loads the {@link Schema} and its field names from the {@link SchemaDiskCache}, creating and storing them when the
+   * cache holds none for the current structure of the class.
+   *
+   * @param fieldHandles the non-static {@link Field}s of the class mapped to their getters
+   * @throws IllegalAccessException when reflection cannot access the fields it tries to access
+   */
+  private void loadOrCreateSchema(Map<Field, MethodHandle> fieldHandles) throws IllegalAccessException {
+    SchemaDiskCache cache = includedFields == null ? schemaCache : null;
+    if (cache == null) {
+      createSchema(fieldHandles);
+      return;
+    }
+    String hash = SchemaDiskCache.structuralHash(clazz);
+    SchemaDiskCache.Entry cached = cache.load(clazz, hash);
+    if (cached == null) {
+      createSchema(fieldHandles);
+      cache.store(clazz, hash, schema, schemaFields);
+    } else {
+      schema = cached.getSchema();
+      schemaFields.clear();
+      schemaFields.putAll(cached.getFieldNames());
+    }
+  }
+
+  /**
+   * Creates the {@link Schema} from the annotations and naming strategy of the class.
+   *
+   * @param fieldHandles the non-static {@link Field}s of the class mapped to their getters
+   * @throws IllegalAccessException when reflection cannot access the fields it tries to access
+   */
+  private void createSchema(Map<Field, MethodHandle> fieldHandles) throws IllegalAccessException {
     AvroRecord namingAnnotation = clazz.getAnnotation(AvroRecord.class);
     FieldNamingConverter fieldNameConverter;
     String schemaName;
     if (namingAnnotation == null) {
-      fieldNameConverter = new SnakeCaseNamingConverter();
+      fieldNameConverter = FieldNamingConverter.of(FieldNamingStrategies.SNAKE_CASE);
       schemaName = clazz.getName().replace('$', '_');
       schemaName = schemaName.substring(schemaName.lastIndexOf('.') + 1);
     } else {
@@ -76,23 +591,123 @@ public class AvroSchema<T> {
     if (schemaName.toLowerCase().startsWith("avro")) {
       schemaName = schemaName.substring(4);
     }
+    String schemaNamespace = clazz.getPackageName();
+    SchemaFactory schemaFactory = new SchemaFactory(schemaName, schemaNamespace);
+    Map<String, String> nameMap = createSchema(schemaFactory, fieldHandles, fieldNameConverter);
+    schemaFields.clear();
+    schemaFields.putAll(nameMap);
+  }
+
+  /**
+   * Creates the {@link Schema}, registering its record as pending while the fields are added.
+   *
+   * @param schemaFactory the {@link SchemaFactory} to create the {@link Schema} with
+   * @param fieldHandles the non-static {@link Field}s of the class mapped to their getters
+   * @param fieldNameConverter the {@link FieldNamingConverter} of the strategy to apply on the fields
+   * @return a {@link Map} detailing which fields were assigned which names in the schema
+   * @throws IllegalAccessException when reflection cannot access the fields it tries to access
+   */
+  private Map<String, String> createSchema(
+      SchemaFactory schemaFactory, Map<Field, MethodHandle> fieldHandles, FieldNamingConverter fieldNameConverter)
+      throws IllegalAccessException {
+    Map<Class<?>, Schema> pending = pendingSchemas.get();
+    Schema outer = pending.put(clazz, schemaFactory.getRecordSchema());
     try {
-      Map<Field, MethodHandle> fieldHandles = new HashMap<>();
-      for (Field field : clazz.getDeclaredFields()) {
-        if (Modifier.isStatic(field.getModifiers())) {
-          continue;
-        }
-        fieldHandles.put(field, lookup.unreflectGetter(field));
-      }
-      String schemaNamespace = clazz.getPackageName();
-      SchemaFactory schemaFactory = new SchemaFactory(schemaName, schemaNamespace);
       Map<String, String> nameMap = schemaFactory.setFields(fieldHandles, lookup, fieldNameConverter);
       schema = schemaFactory.create();
-      schemaFields.clear();
-      schemaFields.putAll(nameMap);
-    } catch (IllegalAccessException e) {
-      log.error("Cannot generate a valid schema in {} because {}.", clazz, e.getMessage());
-      throw new CannotGenerateSchemaException(e);
+      return nameMap;
+    } finally {
+      if (outer == null) {
+        pending.remove(clazz);
+      } else {
+        pending.put(clazz, outer);
+      }
+      if (pending.isEmpty()) {
+        pendingSchemas.remove();
+      }
+    }
+  }
+
+  /**
+   * Creates the conversion plan for the generated {@link Schema}.
+   * Resolves every accessor once, so conversions only have to iterate the plan.
+   *
+   * @param fieldHandles the non-static {@link Field}s of the class mapped to their getters
+   * @return the plan, ordered by {@link Schema} position
+   */
+  private List<PojoField> createPlan(Map<Field, MethodHandle> fieldHandles) {
+    List<PojoField> fields = new ArrayList<>(schemaFields.size());
+    for (Map.Entry<Field, MethodHandle> fieldHandle : fieldHandles.entrySet()) {
+      Field field = fieldHandle.getKey();
+      String schemaName = schemaFields.get(field.getName());
+      if (schemaName == null) {
+        continue;
+      }
+      long offset = useUnsafe ? offsetOf(field) : PojoField.NO_OFFSET;
+      FieldKind kind = FieldKind.of(field.getType());
+      fields.add(new PojoField(
+          field,
+          schemaName,
+          schema.getField(schemaName).pos(),
+          fieldHandle.getValue().asType(getterType),
+          offset,
+          kind,
+          useUnsafe ? FieldWriter.of(field, kind, offset) : FieldWriter.of(lookup, field)));
+    }
+    fields.sort(Comparator.comparingInt(PojoField::getPosition));
+    return List.copyOf(fields);
+  }
+
+  /**
+   * Resolves the {@link FieldWriter}s setting the constructor arguments of the planned fields.
+   *
+   * @param fields the conversion plan
+   * @return the {@link FieldWriter}s, in plan order
+   */
+  private FieldWriter[] argumentWritersOf(List<PojoField> fields) {
+    FieldWriter[] writers = new FieldWriter[fields.size()];
+    for (int i = 0; i < writers.length; i++) {
+      writers[i] = instantiator.writerOf(fields.get(i).getField());
+    }
+    return writers;
+  }
+
+  /**
+   * Generates a {@link PojoAccessor} for the conversion plan.
+   * The accessor writes final fields by offset, so it is only generated with {@link FieldAccess#UNSAFE}.
+   *
+   * @return the generated {@link PojoAccessor}, or {@code null} if none can be defined for the class
+   */
+  private PojoAccessor generateAccessor() {
+    for (PojoField field : plan) {
+      if (field.getOffset() == PojoField.NO_OFFSET) {
+        log.warn("Cannot generate an accessor for {}, falling back to reflection.", clazz);
+        return null;
+      }
+    }
+    try {
+      return AccessorGenerator.generate(lookup, clazz, plan, UnsafeAccess.get());
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      log.warn(
+          "Cannot generate an accessor for {} because {}, falling back to reflection.",
+          clazz,
+          e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Determines the offset of a field for {@link sun.misc.Unsafe} access.
+   *
+   * @param field the {@link Field} to determine the offset of
+   * @return the offset, or {@link PojoField#NO_OFFSET} if the runtime does not provide one
+   */
+  private static long offsetOf(Field field) {
+    try {
+      return UnsafeAccess.get().objectFieldOffset(field);
+    } catch (UnsupportedOperationException e) {
+      log.debug("No field offset available for {} because {}.", field, e.getMessage());
+      return PojoField.NO_OFFSET;
     }
   }
 
@@ -103,20 +718,80 @@ public class AvroSchema<T> {
    * @return the generated {@link GenericRecord}
    */
   public GenericRecord convertFromPojo(T pojo) {
-    Field[] fields = clazz.getDeclaredFields();
-    GenericData.Record record = new GenericData.Record(schema);
-    try {
-      for (Field field : fields) {
-        MethodHandle handle = lookup.unreflectGetter(field);
-        if (!Modifier.isStatic(field.getModifiers())
-            && schemaFields.containsKey(lookup.revealDirect(handle).getName())) {
-          record.put(schemaFields.get(lookup.revealDirect(handle).getName()), handle.invoke(pojo));
-        }
+    return convertFromPojo(pojo, null);
+  }
+
+  /**
+   * Converts a POJO to a {@link GenericRecord}, filling an existing record instead of allocating one if possible.
+   * Every field of the reused record is overwritten. A new record is allocated when no record to reuse is given or
+   * when it has a different {@link Schema}, following the reuse idiom of Avro's own readers.
+   *
+   * @param pojo the POJO to convert to a {@link GenericRecord}
+   * @param reuse the record to fill, or {@code null} to allocate a new one
+   * @return the filled or generated {@link GenericRecord}
+   */
+  public GenericRecord convertFromPojo(T pojo, GenericData.Record reuse) {
+    long start = metrics.start();
+    ConversionEvent event = new ConversionEvent(clazz, Operation.TO_RECORD);
+    event.begin();
+    GenericData.Record record;
+    Throwable failure;
+    try {
+      record = canReuse(reuse) ? reuse : new GenericData.Record(schema);
+      failure = fill(pojo, record);
+    } catch (RuntimeException e) {
+      metrics.failed(clazz, Operation.TO_RECORD);
+      event.failed(e);
+      throw e;
+    }
+    if (failure == null) {
+      metrics.completed(clazz, Operation.TO_RECORD, start);
+      event.commit();
+    } else {
+      metrics.failed(clazz, Operation.TO_RECORD);
+      event.failed(failure);
+    }
+    return record;
+  }
+
+  /**
+   * Fills a {@link GenericRecord} with the fields of a POJO through the {@link GeneratedCodec}, the
+   * {@link PojoAccessor} or the conversion plan, whichever is set up.
+   * Failures of the conversion plan are logged rather than thrown, leaving the remaining fields of the record unset.
+   *
+   * @param pojo the POJO to convert to a {@link GenericRecord}
+   * @param record the record to fill
+   * @return the {@link Throwable} the conversion plan failed with, or {@code null} if all fields were set
+   */
+  private Throwable fill(T pojo, GenericData.Record record) {
+    if (codec != null) {
+      codec.toRecord(pojo, record);
+      return null;
+    }
+    if (accessor != null) {
+      accessor.toRecord(pojo, record);
+      return null;
+    }
+    try {
+      for (PojoField field : plan) {
+        record.put(field.getPosition(), (Object) field.getGetter().invokeExact((Object) pojo));
       }
+      return null;
     } catch (Throwable e) {
       log.error("Could not convert to Avro record {}.", e.getMessage());
+      return e;
     }
-    return record;
+  }
+
+  /**
+   * Checks whether a record can be filled with the fields of a POJO.
+   *
+   * @param reuse the record to fill, may be {@code null}
+   * @return whether the record has the generated {@link Schema}
+   */
+  private boolean canReuse(GenericData.Record reuse) {
+    return reuse != null
+        && (reuse.getSchema() == schema || reuse.getSchema().equals(schema));
   }
 
   /**
@@ -126,46 +801,617 @@ public class AvroSchema<T> {
    * @return the respective POJO
    */
   public T convertToPojo(GenericRecord record) {
+    return convertToPojo(record, null);
+  }
+
+  /**
+   * Convert a {@link GenericRecord} to the POJO it represents, filling an existing POJO instead of allocating one.
+   * Every field included in the {@link Schema} of the reused POJO is overwritten, other fields keep their values.
+   * Java records are immutable and are therefore always constructed anew.
+   * New POJOs are created following the {@link InstantiationStrategy}.
+   *
+   * @param record the {@link GenericRecord} to convert
+   * @param reuse the POJO to fill, or {@code null} to create a new one
+   * @return the filled or respective POJO
+   */
+  public T convertToPojo(GenericRecord record, T reuse) {
+    long start = metrics.start();
+    T pojo;
+    ConversionEvent event = new ConversionEvent(clazz, Operation.TO_POJO);
+    event.begin();
+    try {
+      pojo = toPojo(record, reuse);
+    } catch (RuntimeException e) {
+      metrics.failed(clazz, Operation.TO_POJO);
+      event.failed(e);
+      throw e;
+    }
+    metrics.completed(clazz, Operation.TO_POJO, start);
+    event.commit();
+    return pojo;
+  }
+
+  /**
+   * Converts a {@link GenericRecord} to a POJO with the {@link GeneratedCodec}, the constructor, the
+   * {@link PojoAccessor} or the conversion plan, whichever applies.
+   *
+   * @param record the {@link GenericRecord} to convert
+   * @param reuse the POJO to fill, or {@code null} to create a new one
+   * @return the filled or respective POJO
+   * @throws CannotConvertRecordToPojoException when the POJO cannot be created or filled
+   */
+  private T toPojo(GenericRecord record, T reuse) {
+    boolean construct = reuse == null || clazz.isRecord();
+    if (codec != null && construct) {
+      return codec.toPojo(record);
+    }
+    boolean samePositions = record.getSchema() == schema;
     try {
-      T instance = (T) unsafe.allocateInstance(clazz);
-      for (Map.Entry<String, String> field : schemaFields.entrySet()) {
-        Field valueField = clazz.getDeclaredField(field.getKey());
-        setField(instance, valueField, record.get(field.getValue()));
+      if (argumentWriters != null && construct) {
+        return instantiate(record, samePositions);
       }
+      T instance = reuse == null ? allocate() : reuse;
+      if (accessor != null && samePositions) {
+        accessor.toPojo(record, instance);
+        return instance;
+      }
+      populate(record, instance, samePositions);
       return instance;
-    } catch (NoSuchElementException | ReflectiveOperationException e) {
+    } catch (NoSuchElementException e) {
+      throw new CannotConvertRecordToPojoException(e);
+    }
+  }
+
+  /**
+   * Sets the fields of a POJO to the values of a {@link GenericRecord} by following the conversion plan.
+   *
+   * @param record the {@link GenericRecord} to take the values from
+   * @param instance the POJO to set the fields of
+   * @param samePositions whether the {@link GenericRecord} has the generated {@link Schema}, to look fields up by
+   *     position rather than by name
+   */
+  private void populate(GenericRecord record, T instance, boolean samePositions) {
+    for (PojoField field : getPlan()) {
+      Object value = samePositions ? record.get(field.getPosition()) : record.get(field.getSchemaName());
+      field.getWriter().set(instance, value);
+    }
+  }
+
+  /**
+   * Creates a POJO from the values of a {@link GenericRecord}, passing them all at once to its constructor.
+   *
+   * @param record the {@link GenericRecord} to take the values from
+   * @param samePositions whether the {@link GenericRecord} has the generated {@link Schema}, to look fields up by
+   *     position rather than by name
+   * @return the created POJO
+   */
+  @SuppressWarnings("unchecked")
+  private T instantiate(GenericRecord record, boolean samePositions) {
+    Object[] arguments = instantiator.arguments();
+    for (int i = 0; i < argumentWriters.length; i++) {
+      PojoField field = plan.get(i);
+      Object value = samePositions ? record.get(field.getPosition()) : record.get(field.getSchemaName());
+      argumentWriters[i].set(arguments, value);
+    }
+    return (T) instantiator.newInstance(arguments);
+  }
+
+  /**
+   * Converts a batch of POJOs to {@link GenericRecord}s.
+   *
+   * @param pojos the POJOs to convert
+   * @return the generated {@link GenericRecord}s, in iteration order
+   */
+  public List<GenericRecord> convertFromPojos(@NonNull Collection<? extends T> pojos) {
+    List<GenericRecord> records = new ArrayList<>(pojos.size());
+    for (T pojo : pojos) {
+      records.add(convertFromPojo(pojo));
+    }
+    return records;
+  }
+
+  /**
+   * Converts a batch of POJOs to {@link GenericRecord}s on a {@link ForkJoinPool}.
+   * The batch is split in ranges converted by the workers of the pool, so it only pays off for large batches.
+   *
+   * @param pojos the POJOs to convert
+   * @param pool the {@link ForkJoinPool} to convert the POJOs on
+   * @return the generated {@link GenericRecord}s, in list order
+   */
+  public List<GenericRecord> convertFromPojos(@NonNull List<? extends T> pojos, @NonNull ForkJoinPool pool) {
+    return convertInParallel(pojos, this::convertFromPojo, pool);
+  }
+
+  /**
+   * Lazily converts a {@link Stream} of POJOs to {@link GenericRecord}s, keeping it parallel if it is.
+   *
+   * @param pojos the POJOs to convert
+   * @return the {@link Stream} of generated {@link GenericRecord}s
+   */
+  public Stream<GenericRecord> convertFromPojos(@NonNull Stream<? extends T> pojos) {
+    return pojos.map(this::convertFromPojo);
+  }
+
+  /**
+   * Lazily converts the POJOs of a {@link Spliterator} to {@link GenericRecord}s as they are traversed.
+   * The result splits along with the source, for use in parallel streams.
+   *
+   * @param pojos the POJOs to convert
+   * @return the {@link Spliterator} of generated {@link GenericRecord}s
+   */
+  public Spliterator<GenericRecord> convertFromPojos(@NonNull Spliterator<? extends T> pojos) {
+    return new ConvertingSpliterator<>(pojos, this::convertFromPojo);
+  }
+
+  /**
+   * Converts a batch of {@link GenericRecord}s to the POJOs they represent.
+   *
+   * @param records the {@link GenericRecord}s to convert
+   * @return the respective POJOs, in iteration order
+   */
+  public List<T> convertToPojos(@NonNull Iterable<? extends GenericRecord> records) {
+    List<T> pojos =
+        records instanceof Collection ? new ArrayList<>(((Collection<?>) records).size()) : new ArrayList<>();
+    for (GenericRecord record : records) {
+      pojos.add(convertToPojo(record));
+    }
+    return pojos;
+  }
+
+  /**
+   * Converts a batch of {@link GenericRecord}s to the POJOs they represent on a {@link ForkJoinPool}.
+   * The batch is split in ranges converted by the workers of the pool, so it only pays off for large batches.
+   *
+   * @param records the {@link GenericRecord}s to convert
+   * @param pool the {@link ForkJoinPool} to convert the {@link GenericRecord}s on
+   * @return the respective POJOs, in list order
+   */
+  public List<T> convertToPojos(@NonNull List<? extends GenericRecord> records, @NonNull ForkJoinPool pool) {
+    return convertInParallel(records, this::convertToPojo, pool);
+  }
+
+  /**
+   * Lazily converts a {@link Stream} of {@link GenericRecord}s to POJOs, keeping it parallel if it is.
+   *
+   * @param records the {@link GenericRecord}s to convert
+   * @return the {@link Stream} of respective POJOs
+   */
+  public Stream<T> convertToPojos(@NonNull Stream<? extends GenericRecord> records) {
+    return records.map(this::convertToPojo);
+  }
+
+  /**
+   * Lazily converts the {@link GenericRecord}s of a {@link Spliterator} to POJOs as they are traversed.
+   * The result splits along with the source, for use in parallel streams.
+   *
+   * @param records the {@link GenericRecord}s to convert
+   * @return the {@link Spliterator} of respective POJOs
+   */
+  public Spliterator<T> convertToPojos(@NonNull Spliterator<? extends GenericRecord> records) {
+    return new ConvertingSpliterator<>(records, this::convertToPojo);
+  }
+
+  /**
+   * Encodes a POJO in Avro binary straight into a {@link ByteBuffer}, such as a direct buffer to write to a channel.
+   * The POJO is written from the position of the buffer, which is advanced past it.
+   *
+   * @param pojo the POJO to encode
+   * @param target the {@link ByteBuffer} to encode the POJO into
+   * @return the number of bytes written
+   * @throws BufferOverflowException when the POJO does not fit, leaving the position of the buffer unchanged
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public int encode(@NonNull T pojo, @NonNull ByteBuffer target) {
+    return encodeInto(pojo, target, false);
+  }
+
+  /**
+   * Encodes a POJO in Avro binary into a direct buffer from the shared {@link BufferPool}.
+   *
+   * @param pojo the POJO to encode
+   * @return the {@link PooledBuffer} holding the encoded POJO, to be closed once written
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public PooledBuffer encodeToPooledBuffer(@NonNull T pojo) {
+    return encodeToPooledBuffer(pojo, BufferPool.shared());
+  }
+
+  /**
+   * Encodes a POJO in Avro binary into a direct buffer from a {@link BufferPool}.
+   * POJOs too large for the pooled buffers are encoded into a larger buffer, which is not pooled.
+   *
+   * @param pojo the POJO to encode
+   * @param pool the {@link BufferPool} to take the buffer from
+   * @return the {@link PooledBuffer} holding the encoded POJO, to be closed once written
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public PooledBuffer encodeToPooledBuffer(@NonNull T pojo, @NonNull BufferPool pool) {
+    long start = metrics.start();
+    ConversionEvent event = new ConversionEvent(clazz, Operation.ENCODE);
+    event.begin();
+    ByteBuffer buffer = pool.acquire();
+    while (true) {
+      try {
+        completed(event, Operation.ENCODE, start, writeInto(pojo, buffer, false));
+        return new PooledBuffer(pool, buffer.flip());
+      } catch (BufferOverflowException e) {
+        pool.release(buffer);
+        buffer = ByteBuffer.allocateDirect(Math.multiplyExact(buffer.capacity(), 2));
+      } catch (RuntimeException e) {
+        pool.release(buffer);
+        failed(event, Operation.ENCODE, e);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Encodes a POJO in Avro binary straight into a {@link ByteBuffer}, reporting it to the {@link AvroMetrics}.
+   *
+   * @param pojo the POJO to encode
+   * @param target the {@link ByteBuffer} to write into
+   * @param message whether to start with the single-object encoding header
+   * @return the number of bytes written
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   * @throws BufferOverflowException when the POJO does not fit, leaving the position unchanged
+   */
+  private int encodeInto(T pojo, ByteBuffer target, boolean message) {
+    long start = metrics.start();
+    ConversionEvent event = new ConversionEvent(clazz, Operation.ENCODE);
+    event.begin();
+    int length;
+    try {
+      length = writeInto(pojo, target, message);
+    } catch (RuntimeException e) {
+      failed(event, Operation.ENCODE, e);
+      throw e;
+    }
+    completed(event, Operation.ENCODE, start, length);
+    return length;
+  }
+
+  /**
+   * Writes a POJO in Avro binary straight into a {@link ByteBuffer}.
+   *
+   * @param pojo the POJO to encode
+   * @param target the {@link ByteBuffer} to write into
+   * @param message whether to start with the single-object encoding header
+   * @return the number of bytes written
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   * @throws BufferOverflowException when the POJO does not fit, leaving the position unchanged
+   */
+  private int writeInto(T pojo, ByteBuffer target, boolean message) {
+    PojoDatumWriter<T> writer = datumWriter();
+    int start = target.position();
+    try {
+      if (message) {
+        target.put(messageHeader());
+      }
+      writer.write(pojo, EncoderFactory.get().directBinaryEncoder(new BufferOutputStream(target), null));
+      return target.position() - start;
+    } catch (BufferOverflowException e) {
+      target.position(start);
+      throw e;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reports a completed encoding or decoding to the {@link AvroMetrics} and commits its {@link ConversionEvent}.
+   *
+   * @param event the {@link ConversionEvent} of the encoding or decoding
+   * @param operation the completed {@link Operation}
+   * @param start the start time returned by {@link AvroMetrics#start()}
+   * @param length the number of bytes encoded or decoded
+   */
+  private void completed(ConversionEvent event, Operation operation, long start, int length) {
+    metrics.completed(clazz, operation, start);
+    metrics.transferred(clazz, operation, length);
+    event.completed(length);
+  }
+
+  /**
+   * Reports a failed encoding or decoding to the {@link AvroMetrics} and commits its {@link ConversionEvent}.
+   *
+   * @param event the {@link ConversionEvent} of the encoding or decoding
+   * @param operation the failed {@link Operation}
+   * @param cause the {@link Throwable} it failed with
+   */
+  private void failed(ConversionEvent event, Operation operation, Throwable cause) {
+    metrics.failed(clazz, operation);
+    event.failed(cause);
+  }
+
+  /**
+   * Provides the parsing canonical form of the generated {@link Schema}, which its fingerprint is computed from.
+   * It is computed on the first call after generating the {@link Schema}.
+   *
+   * @return the parsing canonical form
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public String getCanonicalForm() {
+    String current = canonicalForm;
+    if (current == null) {
+      if (schema == null) {
+        throw new IllegalStateException("The AvroSchema has to be generated before it can be fingerprinted.");
+      }
+      current = SchemaNormalization.toParsingForm(schema);
+      canonicalForm = current;
+    }
+    return current;
+  }
+
+  /**
+   * Provides the CRC-64-AVRO fingerprint of the parsing canonical form of the generated {@link Schema}, which
+   * identifies it in single-object encoded messages.
+   *
+   * @return the fingerprint
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public long getFingerprint() {
+    return ByteBuffer.wrap(messageHeader()).order(ByteOrder.LITTLE_ENDIAN).getLong(MESSAGE_MARKER.length);
+  }
+
+  /**
+   * Encodes a POJO as a single-object encoded message: the marker, the fingerprint of the generated {@link Schema} and
+   * the POJO in Avro binary.
+   *
+   * @param pojo the POJO to encode
+   * @return the encoded message
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public byte[] encodeMessage(@NonNull T pojo) {
+    long start = metrics.start();
+    ConversionEvent event = new ConversionEvent(clazz, Operation.ENCODE);
+    event.begin();
+    byte[] message;
+    try {
+      PojoDatumWriter<T> writer = datumWriter();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write(messageHeader());
+      writer.write(pojo, EncoderFactory.get().directBinaryEncoder(out, null));
+      message = out.toByteArray();
+    } catch (IOException e) {
+      failed(event, Operation.ENCODE, e);
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      failed(event, Operation.ENCODE, e);
+      throw e;
+    }
+    completed(event, Operation.ENCODE, start, message.length);
+    return message;
+  }
+
+  /**
+   * Encodes a POJO as a single-object encoded message straight into a {@link ByteBuffer}.
+   * The message is written from the position of the buffer, which is advanced past it.
+   *
+   * @param pojo the POJO to encode
+   * @param target the {@link ByteBuffer} to encode the message into
+   * @return the number of bytes written
+   * @throws BufferOverflowException when the message does not fit, leaving the position of the buffer unchanged
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public int encodeMessage(@NonNull T pojo, @NonNull ByteBuffer target) {
+    return encodeInto(pojo, target, true);
+  }
+
+  /**
+   * Decodes a single-object encoded message written with the generated {@link Schema}.
+   *
+   * @param message the encoded message
+   * @return the decoded POJO
+   * @throws CannotConvertRecordToPojoException when the message does not start with the marker and fingerprint of the
+   *     generated {@link Schema}, or cannot be decoded
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public T decodeMessage(@NonNull byte[] message) {
+    PojoDatumReader<T> reader = datumReader();
+    return decodeMessage(message, writerFingerprint -> {
+      if (writerFingerprint != getFingerprint()) {
+        throw new CannotConvertRecordToPojoException(new MissingSchemaException(
+            "The message was not written with the schema of " + clazz.getName() + "."));
+      }
+      return reader;
+    });
+  }
+
+  /**
+   * Decodes a single-object encoded message with the {@link PojoDatumReader} of its writer {@link Schema}, reporting
+   * it to the {@link AvroMetrics}.
+   *
+   * @param message the encoded message
+   * @param readers provides the {@link PojoDatumReader} by the fingerprint of the writer {@link Schema}
+   * @return the decoded POJO
+   * @throws CannotConvertRecordToPojoException when the message cannot be decoded
+   */
+  T decodeMessage(byte[] message, LongFunction<PojoDatumReader<T>> readers) {
+    long start = metrics.start();
+    ConversionEvent event = new ConversionEvent(clazz, Operation.DECODE);
+    event.begin();
+    T pojo;
+    try {
+      pojo = decodePayload(readers.apply(fingerprintOf(message)), message);
+    } catch (RuntimeException e) {
+      failed(event, Operation.DECODE, e);
+      throw e;
+    }
+    completed(event, Operation.DECODE, start, message.length);
+    return pojo;
+  }
+
+  /**
+   * Reads the fingerprint of the writer {@link Schema} from the header of a single-object encoded message.
+   *
+   * @param message the encoded message
+   * @return the fingerprint
+   * @throws CannotConvertRecordToPojoException when the message does not start with the single-object encoding marker
+   */
+  private static long fingerprintOf(byte[] message) {
+    if (message.length < MESSAGE_HEADER_LENGTH
+        || message[0] != MESSAGE_MARKER[0]
+        || message[1] != MESSAGE_MARKER[1]) {
+      throw new CannotConvertRecordToPojoException(
+          new BadHeaderException("The message does not start with the single-object encoding marker."));
+    }
+    return ByteBuffer.wrap(message).order(ByteOrder.LITTLE_ENDIAN).getLong(MESSAGE_MARKER.length);
+  }
+
+  /**
+   * Decodes the payload following the header of a single-object encoded message.
+   *
+   * @param reader the {@link PojoDatumReader} for the writer {@link Schema} of the message
+   * @param message the encoded message
+   * @param <T> type parameter representing the class of the POJO
+   * @return the decoded POJO
+   * @throws CannotConvertRecordToPojoException when the payload cannot be decoded
+   */
+  private static <T> T decodePayload(PojoDatumReader<T> reader, byte[] message) {
+    try {
+      return reader.read(
+          null,
+          DecoderFactory.get()
+              .binaryDecoder(
+                  message, MESSAGE_HEADER_LENGTH, message.length - MESSAGE_HEADER_LENGTH, null));
+    } catch (IOException e) {
       throw new CannotConvertRecordToPojoException(e);
     }
   }
 
   /**
-   * Sets a field in the given object instance.
+   * Provides the header of single-object encoded messages, fingerprinting the generated {@link Schema} on first use.
+   * This is not done while generating, as the {@link Schema}s of mutually referencing classes are not complete yet.
+   *
+   * @return the marker followed by the little-endian fingerprint
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  private byte[] messageHeader() {
+    byte[] current = messageHeader;
+    if (current == null) {
+      long fingerprint =
+          SchemaNormalization.fingerprint64(getCanonicalForm().getBytes(StandardCharsets.UTF_8));
+      current = ByteBuffer.allocate(MESSAGE_HEADER_LENGTH)
+          .order(ByteOrder.LITTLE_ENDIAN)
+          .put(MESSAGE_MARKER)
+          .putLong(fingerprint)
+          .array();
+      messageHeader = current;
+    }
+    return current;
+  }
+
+  /**
+   * Provides the {@link PojoDatumReader} of the generated {@link Schema}, creating it on first use.
+   *
+   * @return the {@link PojoDatumReader}
+   */
+  private PojoDatumReader<T> datumReader() {
+    PojoDatumReader<T> current = pojoReader;
+    if (current == null) {
+      current = new PojoDatumReader<>(this);
+      pojoReader = current;
+    }
+    return current;
+  }
+
+  /**
+   * Provides the {@link PojoDatumWriter} of the generated {@link Schema}, creating it on first use.
+   *
+   * @return the {@link PojoDatumWriter}
+   */
+  private PojoDatumWriter<T> datumWriter() {
+    PojoDatumWriter<T> current = pojoWriter;
+    if (current == null) {
+      current = new PojoDatumWriter<>(this);
+      pojoWriter = current;
+    }
+    return current;
+  }
+
+  /**
+   * Creates a lazy view over a record encoded in Avro binary with the generated {@link Schema}, decoding fields only
+   * when they are read.
+   *
+   * @param bytes the encoded record
+   * @return the {@link RecordView} over the bytes, which are not copied
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public RecordView<T> view(@NonNull byte[] bytes) {
+    return viewLayout().view(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Creates a lazy view over a record encoded in Avro binary with the generated {@link Schema}, between the position
+   * and limit of a {@link ByteBuffer}. The bytes of buffers without an accessible array are copied once.
+   *
+   * @param buffer the encoded record, of which the position is left unchanged
+   * @return the {@link RecordView} over the bytes
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public RecordView<T> view(@NonNull ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return viewLayout().view(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return viewLayout().view(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Provides the {@link RecordView.Layout} of the generated {@link Schema}, creating it on first use.
+   *
+   * @return the {@link RecordView.Layout}
+   */
+  private RecordView.Layout<T> viewLayout() {
+    RecordView.Layout<T> current = viewLayout;
+    if (current == null) {
+      current = new RecordView.Layout<>(this);
+      viewLayout = current;
+    }
+    return current;
+  }
+
+  /**
+   * Converts the elements of a {@link List} on a {@link ForkJoinPool}.
+   *
+   * @param source the elements to convert
+   * @param conversion the conversion to apply to every element
+   * @param pool the {@link ForkJoinPool} to convert the elements on
+   * @param <S> type parameter representing the source elements
+   * @param <R> type parameter representing the converted elements
+   * @return the converted elements in a modifiable {@link List}, in list order
+   */
+  @SuppressWarnings("unchecked")
+  private static <S, R> List<R> convertInParallel(
+      List<? extends S> source, Function<? super S, ? extends R> conversion, ForkJoinPool pool) {
+    Object[] target = new Object[source.size()];
+    pool.invoke(new BatchConversion<>(source, conversion, target, 0, target.length));
+    return new ArrayList<>((List<R>) Arrays.asList(target));
+  }
+
+  /**
+   * Sets a field in the given object instance, through the configured {@link FieldAccess}.
    *
    * @param instance the instance to modify
    * @param field the {@link Field} to set
    * @param value the value to set the instance field to
+   * @throws CannotAccessPojoException when the class declaring the field cannot be accessed
    */
   public void setField(Object instance, Field field, Object value) {
-    long offset = unsafe.objectFieldOffset(field);
-    Class<?> valueType = field.getType();
-    if (!valueType.isPrimitive()) {
-      unsafe.putObject(instance, offset, value);
-    } else if (valueType.equals(double.class)) {
-      unsafe.putDouble(instance, offset, (Double) value);
-    } else if (valueType.equals(int.class)) {
-      unsafe.putInt(instance, offset, (Integer) value);
-    } else if (valueType.equals(float.class)) {
-      unsafe.putFloat(instance, offset, (Float) value);
-    } else if (valueType.equals(boolean.class)) {
-      unsafe.putBoolean(instance, offset, (Boolean) value);
-    } else if (valueType.equals(byte.class)) {
-      unsafe.putByte(instance, offset, (Byte) value);
-    } else if (valueType.equals(short.class)) {
-      unsafe.putShort(instance, offset, (Short) value);
-    } else if (valueType.equals(long.class)) {
-      unsafe.putLong(instance, offset, (Long) value);
-    } else if (valueType.equals(char.class)) {
-      unsafe.putChar(instance, offset, (Character) value);
+    if (fieldAccess == FieldAccess.UNSAFE && UnsafeAccess.isAvailable()) {
+      FieldWriter.of(
+              field,
+              FieldKind.of(field.getType()),
+              UnsafeAccess.get().objectFieldOffset(field))
+          .set(instance, value);
+      return;
+    }
+    try {
+      FieldWriter.of(MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()), field)
+          .set(instance, value);
+    } catch (IllegalAccessException e) {
+      throw new CannotAccessPojoException();
     }
   }
 }
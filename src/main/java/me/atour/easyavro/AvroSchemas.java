@@ -0,0 +1,86 @@
+package me.atour.easyavro;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates the shared {@link AvroSchema}s of many classes at once, typically at startup so the first conversions do
+ * not pay for schema generation.
+ * The classes are generated concurrently into the registry behind {@link AvroSchema#forClass(Class)}, through which
+ * nested record types shared by several classes resolve to a single {@link AvroSchema}.
+ */
+@Slf4j
+public final class AvroSchemas {
+
+  /**
+   * Hidden constructor, as the class only offers static methods.
+   */
+  private AvroSchemas() {}
+
+  /**
+   * Generates the shared {@link AvroSchema}s and conversion plans of classes on the common {@link ForkJoinPool}.
+   *
+   * @param classes the classes to generate the {@link AvroSchema}s of
+   * @return the shared, generated {@link AvroSchema}s by class, in iteration order
+   * @throws CannotGenerateSchemaException when an {@link AvroSchema} cannot be generated
+   */
+  public static Map<Class<?>, AvroSchema<?>> warmUp(@NonNull Collection<Class<?>> classes) {
+    return warmUp(classes, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Generates the shared {@link AvroSchema}s and conversion plans of classes concurrently on the given
+   * {@link Executor}, waiting for all of them to be generated.
+   *
+   * @param classes the classes to generate the {@link AvroSchema}s of
+   * @param executor the {@link Executor} to generate the {@link AvroSchema}s on
+   * @return the shared, generated {@link AvroSchema}s by class, in iteration order
+   * @throws CannotGenerateSchemaException when an {@link AvroSchema} cannot be generated
+   */
+  public static Map<Class<?>, AvroSchema<?>> warmUp(
+      @NonNull Collection<Class<?>> classes, @NonNull Executor executor) {
+    Map<Class<?>, CompletableFuture<AvroSchema<?>>> pending = new LinkedHashMap<>();
+    for (Class<?> type : classes) {
+      pending.computeIfAbsent(type, key -> CompletableFuture.supplyAsync(() -> generate(key), executor));
+    }
+    Map<Class<?>, AvroSchema<?>> generated = new LinkedHashMap<>();
+    for (Map.Entry<Class<?>, CompletableFuture<AvroSchema<?>>> schema : pending.entrySet()) {
+      try {
+        generated.put(schema.getKey(), schema.getValue().join());
+      } catch (CompletionException e) {
+        log.error(
+            "Cannot warm up {} because {}.",
+            schema.getKey(),
+            e.getCause().getMessage());
+        throw e.getCause() instanceof CannotGenerateSchemaException
+            ? (CannotGenerateSchemaException) e.getCause()
+            : new CannotGenerateSchemaException(e.getCause());
+      }
+    }
+    return Collections.unmodifiableMap(generated);
+  }
+
+  /**
+   * Generates the shared {@link AvroSchema} of a class and its conversion plan.
+   * Classes with a {@link GeneratedCodec} convert without the plan, so it is not created for them, as that is the
+   * reflective work the codec avoids.
+   *
+   * @param type the class to generate the {@link AvroSchema} of
+   * @return the shared, generated {@link AvroSchema}
+   */
+  private static AvroSchema<?> generate(Class<?> type) {
+    AvroSchema<?> avroSchema = AvroSchema.forClass(type);
+    if (!avroSchema.usesCodec()) {
+      avroSchema.getPlan();
+    }
+    return avroSchema;
+  }
+}
@@ -0,0 +1,63 @@
+package me.atour.easyavro;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Converts a range of a {@link List} on a {@link java.util.concurrent.ForkJoinPool}.
+ * Ranges larger than the threshold are split in halves, so idle workers can steal them.
+ *
+ * @param <S> type parameter representing the source elements
+ * @param <R> type parameter representing the converted elements
+ */
+final class BatchConversion<S, R> extends RecursiveAction {
+
+  /**
+   * The number of elements below which a range is converted on the current worker.
+   */
+  static final int THRESHOLD = 1024;
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient List<? extends S> source;
+  private final transient Function<? super S, ? extends R> conversion;
+  private final transient Object[] target;
+  private final int from;
+  private final int to;
+
+  /**
+   * Constructs the conversion of a range.
+   *
+   * @param source the elements to convert
+   * @param conversion the conversion to apply to every element
+   * @param target the array to store the converted elements in, at the index of their source element
+   * @param from the first index of the range, inclusive
+   * @param to the last index of the range, exclusive
+   */
+  BatchConversion(
+      List<? extends S> source, Function<? super S, ? extends R> conversion, Object[] target, int from, int to) {
+    this.source = source;
+    this.conversion = conversion;
+    this.target = target;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * Converts the range, or splits it when it is larger than the threshold.
+   */
+  @Override
+  protected void compute() {
+    if (to - from <= THRESHOLD) {
+      for (int i = from; i < to; i++) {
+        target[i] = conversion.apply(source.get(i));
+      }
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    invokeAll(
+        new BatchConversion<>(source, conversion, target, from, middle),
+        new BatchConversion<>(source, conversion, target, middle, to));
+  }
+}
@@ -0,0 +1,44 @@
+package me.atour.easyavro;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link OutputStream} writing straight into a {@link ByteBuffer}, from its position up to its limit.
+ * Writing beyond the limit throws a {@link java.nio.BufferOverflowException}, as the buffer is never grown.
+ */
+final class BufferOutputStream extends OutputStream {
+
+  private final ByteBuffer target;
+
+  /**
+   * Constructs the stream.
+   *
+   * @param target the {@link ByteBuffer} to write into
+   */
+  BufferOutputStream(ByteBuffer target) {
+    this.target = target;
+  }
+
+  /**
+   * Writes a single byte.
+   *
+   * @param value the byte to write, in the lowest eight bits
+   */
+  @Override
+  public void write(int value) {
+    target.put((byte) value);
+  }
+
+  /**
+   * Writes a range of bytes.
+   *
+   * @param bytes the array holding the bytes
+   * @param offset the start of the range
+   * @param length the number of bytes to write
+   */
+  @Override
+  public void write(byte[] bytes, int offset, int length) {
+    target.put(bytes, offset, length);
+  }
+}
@@ -0,0 +1,79 @@
+package me.atour.easyavro;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.Getter;
+
+/**
+ * Pool of direct {@link ByteBuffer}s of a single size, which POJOs are encoded into by
+ * {@link AvroSchema#encodeToPooledBuffer(Object, BufferPool)}.
+ * Direct buffers are expensive to allocate, but can be written to NIO channels without copying them to the heap
+ * first. Buffers are allocated when the pool is empty, and only as many as the pool can hold are kept once released.
+ */
+public final class BufferPool {
+
+  private static final BufferPool shared = new BufferPool(8 * 1024, 256);
+
+  /**
+   * The capacity of the pooled buffers, in bytes.
+   */
+  @Getter
+  private final int bufferSize;
+
+  private final BlockingQueue<ByteBuffer> buffers;
+
+  /**
+   * Constructs an empty pool.
+   *
+   * @param bufferSize the capacity of the pooled buffers, in bytes
+   * @param maxBuffers the maximum number of released buffers to keep
+   * @throws IllegalArgumentException when either is not positive
+   */
+  public BufferPool(int bufferSize, int maxBuffers) {
+    if (bufferSize <= 0 || maxBuffers <= 0) {
+      throw new IllegalArgumentException("The buffer size and maximum number of buffers have to be positive.");
+    }
+    this.bufferSize = bufferSize;
+    this.buffers = new ArrayBlockingQueue<>(maxBuffers);
+  }
+
+  /**
+   * Provides the pool shared by default, of 8 KiB buffers.
+   *
+   * @return the shared {@link BufferPool}
+   */
+  public static BufferPool shared() {
+    return shared;
+  }
+
+  /**
+   * Takes a buffer from the pool, or allocates one when the pool is empty.
+   *
+   * @return the cleared, direct {@link ByteBuffer}
+   */
+  ByteBuffer acquire() {
+    ByteBuffer buffer = buffers.poll();
+    return buffer == null ? ByteBuffer.allocateDirect(bufferSize) : buffer.clear();
+  }
+
+  /**
+   * Returns a buffer to the pool, dropping it when the pool is full or it was not allocated for the pool.
+   *
+   * @param buffer the {@link ByteBuffer} to return
+   */
+  void release(ByteBuffer buffer) {
+    if (buffer.isDirect() && buffer.capacity() == bufferSize) {
+      buffers.offer(buffer);
+    }
+  }
+
+  /**
+   * Provides the number of released buffers kept by the pool.
+   *
+   * @return the number of buffers ready to be reused
+   */
+  public int available() {
+    return buffers.size();
+  }
+}
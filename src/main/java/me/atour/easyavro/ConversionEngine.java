@@ -0,0 +1,16 @@
+package me.atour.easyavro;
+
+/**
+ * Enum representing the supported engines for converting between POJOs and Avro records.
+ */
+public enum ConversionEngine {
+  /**
+   * Iterates the conversion plan built by {@link AvroSchema#generate()}, accessing fields through handles.
+   */
+  REFLECTIVE,
+  /**
+   * Spins a hidden class with straight-line field reads and writes for the POJO type.
+   * Falls back to {@link #REFLECTIVE} when the runtime does not allow defining it.
+   */
+  GENERATED
+}
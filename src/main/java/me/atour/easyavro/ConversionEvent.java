@@ -0,0 +1,72 @@
+package me.atour.easyavro;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import me.atour.easyavro.metrics.Operation;
+
+/**
+ * Java Flight Recorder event of a conversion, encoding or decoding by an {@link AvroSchema}.
+ */
+@Name(ConversionEvent.NAME)
+@Label("Record Conversion")
+@Category(GenerationEvent.CATEGORY)
+@Description("Conversion of a POJO to or from a record, or its encoding or decoding in Avro binary")
+@Enabled(false)
+final class ConversionEvent extends Event {
+
+  /**
+   * The name of the event in recordings and recording settings.
+   */
+  static final String NAME = "me.atour.easyavro.Conversion";
+
+  @Label("Class")
+  private final String className;
+
+  @Label("Operation")
+  private final String operation;
+
+  @Label("Bytes")
+  @DataAmount
+  private long bytes;
+
+  @Label("Failure")
+  private String failure;
+
+  /**
+   * Constructs the event of an {@link Operation} on a POJO class.
+   *
+   * @param type the POJO class
+   * @param operation the {@link Operation}
+   */
+  ConversionEvent(Class<?> type, Operation operation) {
+    this.className = type.getName();
+    this.operation = operation.name();
+  }
+
+  /**
+   * Commits the event for an encoding or decoding that completed.
+   *
+   * @param transferred the number of bytes encoded or decoded
+   */
+  void completed(long transferred) {
+    bytes = transferred;
+    commit();
+  }
+
+  /**
+   * Commits the event for an {@link Operation} that failed, recording the failure as its reason.
+   *
+   * @param cause the {@link Throwable} the operation failed with
+   */
+  void failed(Throwable cause) {
+    if (isEnabled()) {
+      failure = cause.toString();
+    }
+    commit();
+  }
+}
@@ -0,0 +1,78 @@
+package me.atour.easyavro;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link Spliterator} converting the elements of another {@link Spliterator} as they are traversed.
+ * Splits along with the source, so parallel streams over it convert every split on its own worker.
+ *
+ * @param <S> type parameter representing the source elements
+ * @param <R> type parameter representing the converted elements
+ */
+@RequiredArgsConstructor
+final class ConvertingSpliterator<S, R> implements Spliterator<R> {
+
+  /**
+   * The characteristics of the source that still hold after converting its elements.
+   */
+  private static final int PRESERVED = ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT;
+
+  private final Spliterator<? extends S> source;
+  private final Function<? super S, ? extends R> conversion;
+
+  /**
+   * Converts and consumes the next element, if there is one.
+   *
+   * @param action the action consuming the converted element
+   * @return whether an element was left
+   */
+  @Override
+  public boolean tryAdvance(Consumer<? super R> action) {
+    return source.tryAdvance(element -> action.accept(conversion.apply(element)));
+  }
+
+  /**
+   * Converts and consumes all remaining elements.
+   *
+   * @param action the action consuming the converted elements
+   */
+  @Override
+  public void forEachRemaining(Consumer<? super R> action) {
+    source.forEachRemaining(element -> action.accept(conversion.apply(element)));
+  }
+
+  /**
+   * Splits off part of the elements along with the source.
+   *
+   * @return a {@link Spliterator} converting the split off elements, or {@code null} if the source cannot split
+   */
+  @Override
+  public Spliterator<R> trySplit() {
+    Spliterator<? extends S> split = source.trySplit();
+    return split == null ? null : new ConvertingSpliterator<>(split, conversion);
+  }
+
+  /**
+   * Estimates the number of elements left, which is that of the source.
+   *
+   * @return the estimated number of elements left
+   */
+  @Override
+  public long estimateSize() {
+    return source.estimateSize();
+  }
+
+  /**
+   * Provides the characteristics of the source that hold for the converted elements.
+   * {@link #NONNULL} is not among them, as the conversion decides whether elements are {@code null}.
+   *
+   * @return the characteristics
+   */
+  @Override
+  public int characteristics() {
+    return source.characteristics() & PRESERVED;
+  }
+}
@@ -0,0 +1,21 @@
+package me.atour.easyavro;
+
+/**
+ * Enum representing the supported backends for writing POJO fields and reading them while encoding.
+ */
+public enum FieldAccess {
+  /**
+   * Accesses fields by offset through {@link sun.misc.Unsafe}.
+   * Falls back to {@link #VAR_HANDLE} when the runtime does not provide {@link sun.misc.Unsafe}.
+   */
+  UNSAFE,
+  /**
+   * Accesses fields through {@link java.lang.invoke.VarHandle}s and method handles typed to the exact field types,
+   * without using the memory access methods of {@link sun.misc.Unsafe}.
+   * Final fields are written through setters of reflectively accessible fields, which records do not allow.
+   * POJOs are created through their no-argument constructor, and only allocated through
+   * {@link sun.misc.Unsafe#allocateInstance(Class)} when they have none, unless an {@link InstantiationStrategy}
+   * creates them through a constructor or factory method.
+   */
+  VAR_HANDLE
+}
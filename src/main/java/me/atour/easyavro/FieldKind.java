@@ -0,0 +1,45 @@
+package me.atour.easyavro;
+
+import lombok.NonNull;
+
+/**
+ * Enum representing the storage kind of a POJO field, used to pick the matching accessor.
+ */
+enum FieldKind {
+  OBJECT,
+  BOOLEAN,
+  BYTE,
+  CHAR,
+  SHORT,
+  INT,
+  LONG,
+  FLOAT,
+  DOUBLE;
+
+  /**
+   * Provides the {@link FieldKind} for the given field type.
+   *
+   * @param type the declared type of the field
+   * @return the corresponding {@link FieldKind}
+   */
+  static FieldKind of(@NonNull Class<?> type) {
+    if (!type.isPrimitive()) {
+      return OBJECT;
+    } else if (type.equals(boolean.class)) {
+      return BOOLEAN;
+    } else if (type.equals(byte.class)) {
+      return BYTE;
+    } else if (type.equals(char.class)) {
+      return CHAR;
+    } else if (type.equals(short.class)) {
+      return SHORT;
+    } else if (type.equals(int.class)) {
+      return INT;
+    } else if (type.equals(long.class)) {
+      return LONG;
+    } else if (type.equals(float.class)) {
+      return FLOAT;
+    }
+    return DOUBLE;
+  }
+}
@@ -0,0 +1,953 @@
+package me.atour.easyavro;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes a single POJO field, specialized for its {@link FieldKind} and {@link FieldAccess} once when the conversion
+ * plan is created.
+ * The primitive entry points let decoders set primitive fields without boxing. Avro ints are narrowed when written to
+ * {@code byte}, {@code short} and {@code char} fields, which the {@link org.apache.avro.Schema} widens to ints.
+ * The entry points a kind does not specialize box their value and pass it on to {@link #set(Object, Object)}.
+ * Boxed {@link Byte}, {@link Short} and {@link Character} fields narrow Avro ints the same way, keeping nulls.
+ */
+@Slf4j
+abstract class FieldWriter {
+
+  /**
+   * Sets the field to a boxed value, narrowing Avro ints when needed.
+   *
+   * @param pojo the POJO to set the field of
+   * @param value the value to set the field to
+   */
+  abstract void set(Object pojo, Object value);
+
+  /**
+   * Sets the field to a {@code boolean}.
+   *
+   * @param pojo the POJO to set the field of
+   * @param value the value to set the field to
+   */
+  void setBoolean(Object pojo, boolean value) {
+    set(pojo, value);
+  }
+
+  /**
+   * Sets the field to an {@code int}, narrowing it when needed.
+   *
+   * @param pojo the POJO to set the field of
+   * @param value the value to set the field to
+   */
+  void setInt(Object pojo, int value) {
+    set(pojo, value);
+  }
+
+  /**
+   * Sets the field to a {@code long}.
+   *
+   * @param pojo the POJO to set the field of
+   * @param value the value to set the field to
+   */
+  void setLong(Object pojo, long value) {
+    set(pojo, value);
+  }
+
+  /**
+   * Sets the field to a {@code float}.
+   *
+   * @param pojo the POJO to set the field of
+   * @param value the value to set the field to
+   */
+  void setFloat(Object pojo, float value) {
+    set(pojo, value);
+  }
+
+  /**
+   * Sets the field to a {@code double}.
+   *
+   * @param pojo the POJO to set the field of
+   * @param value the value to set the field to
+   */
+  void setDouble(Object pojo, double value) {
+    set(pojo, value);
+  }
+
+  /**
+   * Provides the {@link FieldWriter} writing a field through {@link sun.misc.Unsafe}.
+   *
+   * @param field the {@link Field} to write
+   * @param kind the {@link FieldKind} of the field
+   * @param offset the offset of the field, or {@link PojoField#NO_OFFSET} if it has none
+   * @return the {@link FieldWriter}, which throws a {@link CannotConvertRecordToPojoException} for fields without
+   *     offset
+   * @throws DoesNotSupportUnsafeException when the runtime does not provide {@link sun.misc.Unsafe}
+   */
+  static FieldWriter of(@NonNull Field field, @NonNull FieldKind kind, long offset) {
+    if (offset == PojoField.NO_OFFSET) {
+      return new UnsupportedWriter(field);
+    }
+    return narrowing(field.getType(), unsafeWriter(kind, UnsafeAccess.get(), offset));
+  }
+
+  /**
+   * Provides the {@link FieldWriter} writing a field through a {@link VarHandle}, or a setter for final fields.
+   *
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the class declaring the field
+   * @param field the {@link Field} to write
+   * @return the {@link FieldWriter}, which throws a {@link CannotConvertRecordToPojoException} for fields that cannot
+   *     be written, such as those of records
+   */
+  static FieldWriter of(@NonNull MethodHandles.Lookup lookup, @NonNull Field field) {
+    try {
+      return narrowing(field.getType(), handleWriter(FieldKind.of(field.getType()), setterOf(lookup, field)));
+    } catch (IllegalAccessException | RuntimeException e) {
+      log.debug("Cannot write {} through handles because {}.", field, e.getMessage());
+      return new UnsupportedWriter(field);
+    }
+  }
+
+  /**
+   * Provides the {@link FieldWriter} setting a constructor argument in an argument array instead of a field.
+   *
+   * @param slot the index of the argument
+   * @param kind the {@link FieldKind} of the parameter, unboxed for boxed parameters
+   * @return the {@link FieldWriter} taking the argument array as POJO
+   */
+  static FieldWriter argument(int slot, @NonNull FieldKind kind) {
+    switch (kind) {
+      case BYTE:
+        return new ArgumentWriter(slot, value -> ((Number) value).byteValue());
+      case CHAR:
+        return new ArgumentWriter(slot, GeneratedSupport::charValue);
+      case SHORT:
+        return new ArgumentWriter(slot, value -> ((Number) value).shortValue());
+      default:
+        return new ArgumentWriter(slot, UnaryOperator.identity());
+    }
+  }
+
+  /**
+   * Narrows the Avro ints written to boxed {@link Byte}, {@link Short} and {@link Character} fields, which the
+   * {@link org.apache.avro.Schema} widens to ints like their primitive counterparts.
+   *
+   * @param type the declared type of the field
+   * @param writer the {@link FieldWriter} setting the field to a value of its type
+   * @return the {@link FieldWriter} narrowing the values, or the given one for other types
+   */
+  private static FieldWriter narrowing(Class<?> type, FieldWriter writer) {
+    if (type == Byte.class) {
+      return new NarrowingWriter(writer, GeneratedSupport::boxedByte);
+    } else if (type == Character.class) {
+      return new NarrowingWriter(writer, GeneratedSupport::boxedCharacter);
+    } else if (type == Short.class) {
+      return new NarrowingWriter(writer, GeneratedSupport::boxedShort);
+    }
+    return writer;
+  }
+
+  /**
+   * Resolves the handle setting a field, as {@link VarHandle}s of final fields are read-only.
+   *
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the class declaring the field
+   * @param field the {@link Field} to write
+   * @return the {@link MethodHandle} taking the POJO and the value
+   * @throws IllegalAccessException when the field cannot be written
+   */
+  private static MethodHandle setterOf(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+    if (!Modifier.isFinal(field.getModifiers())) {
+      return lookup.unreflectVarHandle(field).toMethodHandle(VarHandle.AccessMode.SET);
+    }
+    field.setAccessible(true);
+    return lookup.unreflectSetter(field);
+  }
+
+  /**
+   * Provides the {@link FieldWriter} specialized for a {@link FieldKind}, writing through {@link sun.misc.Unsafe}.
+   *
+   * @param kind the {@link FieldKind} of the field
+   * @param unsafe the {@link sun.misc.Unsafe} to write with
+   * @param offset the offset of the field
+   * @return the {@link FieldWriter}
+   */
+  private static FieldWriter unsafeWriter(FieldKind kind, sun.misc.Unsafe unsafe, long offset) {
+    switch (kind) {
+      case BOOLEAN:
+        return new BooleanWriter(unsafe, offset);
+      case BYTE:
+        return new ByteWriter(unsafe, offset);
+      case CHAR:
+        return new CharWriter(unsafe, offset);
+      case SHORT:
+        return new ShortWriter(unsafe, offset);
+      case INT:
+        return new IntWriter(unsafe, offset);
+      case LONG:
+        return new LongWriter(unsafe, offset);
+      case FLOAT:
+        return new FloatWriter(unsafe, offset);
+      case DOUBLE:
+        return new DoubleWriter(unsafe, offset);
+      case OBJECT:
+      default:
+        return new ObjectWriter(unsafe, offset);
+    }
+  }
+
+  /**
+   * Provides the {@link FieldWriter} specialized for a {@link FieldKind}, writing through a setter handle.
+   *
+   * @param kind the {@link FieldKind} of the field
+   * @param setter the {@link MethodHandle} taking the POJO and the value
+   * @return the {@link FieldWriter}
+   */
+  private static FieldWriter handleWriter(FieldKind kind, MethodHandle setter) {
+    switch (kind) {
+      case BOOLEAN:
+        return new BooleanHandleWriter(setter);
+      case BYTE:
+        return new IntHandleWriter(setter, value -> ((Number) value).byteValue());
+      case CHAR:
+        return new IntHandleWriter(setter, GeneratedSupport::charValue);
+      case SHORT:
+        return new IntHandleWriter(setter, value -> ((Number) value).shortValue());
+      case INT:
+        return new IntHandleWriter(setter, value -> (Integer) value);
+      case LONG:
+        return new LongHandleWriter(setter);
+      case FLOAT:
+        return new FloatHandleWriter(setter);
+      case DOUBLE:
+        return new DoubleHandleWriter(setter);
+      case OBJECT:
+      default:
+        return new ObjectHandleWriter(setter);
+    }
+  }
+
+  /**
+   * Adapts a setter handle to take any POJO and the value type of a writer.
+   *
+   * @param setter the {@link MethodHandle} taking the POJO and the value
+   * @param valueType the type of the values passed to the handle, narrowed to the field type when needed
+   * @return the adapted {@link MethodHandle}
+   */
+  private static MethodHandle adapt(MethodHandle setter, Class<?> valueType) {
+    return MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, valueType));
+  }
+
+  /**
+   * Narrows the values written to boxed {@link Byte}, {@link Short} and {@link Character} fields, keeping nulls.
+   */
+  private static final class NarrowingWriter extends FieldWriter {
+
+    private final FieldWriter writer;
+    private final UnaryOperator<Object> narrowing;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param writer the {@link FieldWriter} setting the field to a value of its type
+     * @param narrowing converts the values the field accepts to its boxed type, keeping nulls
+     */
+    NarrowingWriter(FieldWriter writer, UnaryOperator<Object> narrowing) {
+      this.writer = writer;
+      this.narrowing = narrowing;
+    }
+
+    /**
+     * Sets the field to the narrowed value.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      writer.set(pojo, narrowing.apply(value));
+    }
+  }
+
+  /**
+   * Rejects every write, for fields without an offset such as those of records.
+   */
+  private static final class UnsupportedWriter extends FieldWriter {
+
+    private final Field field;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param field the {@link Field} that cannot be written
+     */
+    UnsupportedWriter(Field field) {
+      this.field = field;
+    }
+
+    /**
+     * Rejects writing the field.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      throw new CannotConvertRecordToPojoException(new UnsupportedOperationException(field.toString()));
+    }
+  }
+
+  /**
+   * Writes reference fields.
+   */
+  private static final class ObjectWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    ObjectWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to the value as is.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      unsafe.putObject(pojo, offset, value);
+    }
+  }
+
+  /**
+   * Writes {@code boolean} fields.
+   */
+  private static final class BooleanWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    BooleanWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Boolean}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setBoolean(pojo, (Boolean) value);
+    }
+
+    /**
+     * Sets the field to a {@code boolean}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setBoolean(Object pojo, boolean value) {
+      unsafe.putBoolean(pojo, offset, value);
+    }
+  }
+
+  /**
+   * Writes {@code byte} fields, narrowing Avro ints.
+   */
+  private static final class ByteWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    ByteWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to a {@link Byte} or narrowed {@link Integer}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      unsafe.putByte(pojo, offset, ((Number) value).byteValue());
+    }
+
+    /**
+     * Sets the field to a narrowed {@code int}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setInt(Object pojo, int value) {
+      unsafe.putByte(pojo, offset, (byte) value);
+    }
+  }
+
+  /**
+   * Writes {@code char} fields, narrowing Avro ints.
+   */
+  private static final class CharWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    CharWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to a {@link Character} or narrowed {@link Integer}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      unsafe.putChar(pojo, offset, GeneratedSupport.charValue(value));
+    }
+
+    /**
+     * Sets the field to a narrowed {@code int}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setInt(Object pojo, int value) {
+      unsafe.putChar(pojo, offset, (char) value);
+    }
+  }
+
+  /**
+   * Writes {@code short} fields, narrowing Avro ints.
+   */
+  private static final class ShortWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    ShortWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to a {@link Short} or narrowed {@link Integer}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      unsafe.putShort(pojo, offset, ((Number) value).shortValue());
+    }
+
+    /**
+     * Sets the field to a narrowed {@code int}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setInt(Object pojo, int value) {
+      unsafe.putShort(pojo, offset, (short) value);
+    }
+  }
+
+  /**
+   * Writes {@code int} fields.
+   */
+  private static final class IntWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    IntWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Integer}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setInt(pojo, (Integer) value);
+    }
+
+    /**
+     * Sets the field to an {@code int}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setInt(Object pojo, int value) {
+      unsafe.putInt(pojo, offset, value);
+    }
+  }
+
+  /**
+   * Writes {@code long} fields.
+   */
+  private static final class LongWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    LongWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Long}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setLong(pojo, (Long) value);
+    }
+
+    /**
+     * Sets the field to a {@code long}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setLong(Object pojo, long value) {
+      unsafe.putLong(pojo, offset, value);
+    }
+  }
+
+  /**
+   * Writes {@code float} fields.
+   */
+  private static final class FloatWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    FloatWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Float}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setFloat(pojo, (Float) value);
+    }
+
+    /**
+     * Sets the field to a {@code float}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setFloat(Object pojo, float value) {
+      unsafe.putFloat(pojo, offset, value);
+    }
+  }
+
+  /**
+   * Writes {@code double} fields.
+   */
+  private static final class DoubleWriter extends FieldWriter {
+
+    private final sun.misc.Unsafe unsafe;
+    private final long offset;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param unsafe the {@link sun.misc.Unsafe} to write with
+     * @param offset the offset of the field
+     */
+    DoubleWriter(sun.misc.Unsafe unsafe, long offset) {
+      this.unsafe = unsafe;
+      this.offset = offset;
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Double}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setDouble(pojo, (Double) value);
+    }
+
+    /**
+     * Sets the field to a {@code double}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setDouble(Object pojo, double value) {
+      unsafe.putDouble(pojo, offset, value);
+    }
+  }
+
+  /**
+   * Writes reference fields through a setter handle.
+   */
+  private static final class ObjectHandleWriter extends FieldWriter {
+
+    private final MethodHandle setter;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param setter the {@link MethodHandle} taking the POJO and the value
+     */
+    ObjectHandleWriter(MethodHandle setter) {
+      this.setter = adapt(setter, Object.class);
+    }
+
+    /**
+     * Sets the field to the value as is.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      try {
+        setter.invokeExact(pojo, value);
+      } catch (Throwable e) {
+        throw new CannotConvertRecordToPojoException(e);
+      }
+    }
+  }
+
+  /**
+   * Writes {@code boolean} fields through a setter handle.
+   */
+  private static final class BooleanHandleWriter extends FieldWriter {
+
+    private final MethodHandle setter;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param setter the {@link MethodHandle} taking the POJO and the value
+     */
+    BooleanHandleWriter(MethodHandle setter) {
+      this.setter = adapt(setter, boolean.class);
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Boolean}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setBoolean(pojo, (Boolean) value);
+    }
+
+    /**
+     * Sets the field to a {@code boolean}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setBoolean(Object pojo, boolean value) {
+      try {
+        setter.invokeExact(pojo, value);
+      } catch (Throwable e) {
+        throw new CannotConvertRecordToPojoException(e);
+      }
+    }
+  }
+
+  /**
+   * Writes {@code byte}, {@code char}, {@code short} and {@code int} fields through a setter handle, narrowing Avro
+   * ints to the field type.
+   */
+  private static final class IntHandleWriter extends FieldWriter {
+
+    private final MethodHandle setter;
+    private final ToIntFunction<Object> unboxing;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param setter the {@link MethodHandle} taking the POJO and the value
+     * @param unboxing converts the boxed values the field accepts to an {@code int}
+     */
+    IntHandleWriter(MethodHandle setter, ToIntFunction<Object> unboxing) {
+      this.setter = adapt(setter, int.class);
+      this.unboxing = unboxing;
+    }
+
+    /**
+     * Sets the field to an unboxed value of the field type or a narrowed {@link Integer}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setInt(pojo, unboxing.applyAsInt(value));
+    }
+
+    /**
+     * Sets the field to an {@code int}, narrowed to the field type.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setInt(Object pojo, int value) {
+      try {
+        setter.invokeExact(pojo, value);
+      } catch (Throwable e) {
+        throw new CannotConvertRecordToPojoException(e);
+      }
+    }
+  }
+
+  /**
+   * Writes {@code long} fields through a setter handle.
+   */
+  private static final class LongHandleWriter extends FieldWriter {
+
+    private final MethodHandle setter;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param setter the {@link MethodHandle} taking the POJO and the value
+     */
+    LongHandleWriter(MethodHandle setter) {
+      this.setter = adapt(setter, long.class);
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Long}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setLong(pojo, (Long) value);
+    }
+
+    /**
+     * Sets the field to a {@code long}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setLong(Object pojo, long value) {
+      try {
+        setter.invokeExact(pojo, value);
+      } catch (Throwable e) {
+        throw new CannotConvertRecordToPojoException(e);
+      }
+    }
+  }
+
+  /**
+   * Writes {@code float} fields through a setter handle.
+   */
+  private static final class FloatHandleWriter extends FieldWriter {
+
+    private final MethodHandle setter;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param setter the {@link MethodHandle} taking the POJO and the value
+     */
+    FloatHandleWriter(MethodHandle setter) {
+      this.setter = adapt(setter, float.class);
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Float}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setFloat(pojo, (Float) value);
+    }
+
+    /**
+     * Sets the field to a {@code float}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setFloat(Object pojo, float value) {
+      try {
+        setter.invokeExact(pojo, value);
+      } catch (Throwable e) {
+        throw new CannotConvertRecordToPojoException(e);
+      }
+    }
+  }
+
+  /**
+   * Writes {@code double} fields through a setter handle.
+   */
+  private static final class DoubleHandleWriter extends FieldWriter {
+
+    private final MethodHandle setter;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param setter the {@link MethodHandle} taking the POJO and the value
+     */
+    DoubleHandleWriter(MethodHandle setter) {
+      this.setter = adapt(setter, double.class);
+    }
+
+    /**
+     * Sets the field to an unboxed {@link Double}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      setDouble(pojo, (Double) value);
+    }
+
+    /**
+     * Sets the field to a {@code double}.
+     *
+     * @param pojo the POJO to set the field of
+     * @param value the value to set the field to
+     */
+    @Override
+    void setDouble(Object pojo, double value) {
+      try {
+        setter.invokeExact(pojo, value);
+      } catch (Throwable e) {
+        throw new CannotConvertRecordToPojoException(e);
+      }
+    }
+  }
+
+  /**
+   * Sets a constructor argument, narrowing Avro ints to {@code byte}, {@code short} and {@code char} parameters.
+   */
+  private static final class ArgumentWriter extends FieldWriter {
+
+    private final int slot;
+    private final UnaryOperator<Object> narrowing;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param slot the index of the argument
+     * @param narrowing converts the values the parameter accepts to its boxed type
+     */
+    ArgumentWriter(int slot, UnaryOperator<Object> narrowing) {
+      this.slot = slot;
+      this.narrowing = narrowing;
+    }
+
+    /**
+     * Sets the argument to the value, narrowed when needed, or {@code null}.
+     *
+     * @param pojo the argument array
+     * @param value the value to set the argument to
+     */
+    @Override
+    void set(Object pojo, Object value) {
+      ((Object[]) pojo)[slot] = value == null ? null : narrowing.apply(value);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package me.atour.easyavro;
+
+import java.util.List;
+import lombok.NonNull;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Converter generated at compile time for a POJO class annotated with {@link AvroRecord}.
+ * When one is on the classpath, {@link AvroSchema#generate()} takes the {@link Schema} from it and converts through it
+ * instead of using reflection. Implementations need a public no-argument constructor.
+ *
+ * @param <T> type parameter representing the class of the POJOs to convert
+ */
+public interface GeneratedCodec<T> {
+
+  /**
+   * Suffix appended to the flattened class name to get the name of the generated codec class.
+   */
+  String CLASS_NAME_SUFFIX = "_EasyAvroCodec";
+
+  /**
+   * Provides the {@link Schema} generated for the POJO class.
+   *
+   * @return the generated {@link Schema}
+   */
+  Schema getSchema();
+
+  /**
+   * Provides the names of the Java fields in the {@link Schema}, by field position.
+   *
+   * @return the Java field names
+   */
+  List<String> getFieldNames();
+
+  /**
+   * Puts the fields of a POJO into a record of the generated {@link Schema}.
+   *
+   * @param pojo the POJO to read
+   * @param record the record to populate
+   */
+  void toRecord(T pojo, IndexedRecord record);
+
+  /**
+   * Creates the POJO a record represents.
+   * Fields are read by position when the record has the generated {@link Schema}, and by name otherwise.
+   *
+   * @param record the record to read
+   * @return the POJO
+   */
+  T toPojo(GenericRecord record);
+
+  /**
+   * Determines the name of the codec class generated for a POJO class, which is in the same package.
+   *
+   * @param binaryName the binary name of the POJO class, as returned by {@link Class#getName()}
+   * @return the binary name of the codec class
+   */
+  static String classNameOf(@NonNull String binaryName) {
+    return binaryName.replace('$', '_') + CLASS_NAME_SUFFIX;
+  }
+}
@@ -0,0 +1,54 @@
+package me.atour.easyavro;
+
+/**
+ * Support for the classes Easy Avro generates, the hidden classes of {@link ConversionEngine#GENERATED} and the
+ * {@link GeneratedCodec}s of the annotation processor, which cannot reach its package-private parts.
+ * Only meant to be called from generated code, so it may change without notice.
+ */
+public final class GeneratedSupport {
+
+  /**
+   * Hidden constructor, as the class only offers static methods.
+   */
+  private GeneratedSupport() {}
+
+  /**
+   * Converts the value of a {@code char} field, which records hold as {@link Character} or as Avro int.
+   *
+   * @param value the {@link Character} or {@link Number} to convert
+   * @return the {@code char} value, narrowed from ints
+   */
+  public static char charValue(Object value) {
+    return value instanceof Character ? (Character) value : (char) ((Number) value).intValue();
+  }
+
+  /**
+   * Converts the value of a {@link Byte} field, which records hold as {@link Byte} or as Avro int.
+   *
+   * @param value the {@link Number} to convert, or {@code null}
+   * @return the {@link Byte} value, narrowed from ints, or {@code null}
+   */
+  public static Byte boxedByte(Object value) {
+    return value == null ? null : ((Number) value).byteValue();
+  }
+
+  /**
+   * Converts the value of a {@link Short} field, which records hold as {@link Short} or as Avro int.
+   *
+   * @param value the {@link Number} to convert, or {@code null}
+   * @return the {@link Short} value, narrowed from ints, or {@code null}
+   */
+  public static Short boxedShort(Object value) {
+    return value == null ? null : ((Number) value).shortValue();
+  }
+
+  /**
+   * Converts the value of a {@link Character} field, which records hold as {@link Character} or as Avro int.
+   *
+   * @param value the {@link Character} or {@link Number} to convert, or {@code null}
+   * @return the {@link Character} value, narrowed from ints, or {@code null}
+   */
+  public static Character boxedCharacter(Object value) {
+    return value == null ? null : charValue(value);
+  }
+}
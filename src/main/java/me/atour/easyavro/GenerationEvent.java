@@ -0,0 +1,116 @@
+package me.atour.easyavro;
+
+import java.util.HashSet;
+import java.util.Set;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.apache.avro.Schema;
+
+/**
+ * Java Flight Recorder event of a call to {@link AvroSchema#generate()}.
+ * Like the other events of easy-avro, it is disabled by default. Disabled events are neither timed nor committed, and
+ * are usually not even allocated once the JIT has compiled the code creating them.
+ */
+@Name(GenerationEvent.NAME)
+@Label("Schema Generation")
+@Category(GenerationEvent.CATEGORY)
+@Description("Generation of the schema and conversion plan of a POJO class")
+@Enabled(false)
+final class GenerationEvent extends Event {
+
+  /**
+   * The name of the event in recordings and recording settings.
+   */
+  static final String NAME = "me.atour.easyavro.Generation";
+
+  /**
+   * The category the events of easy-avro are listed under in recordings.
+   */
+  static final String CATEGORY = "Easy Avro";
+
+  @Label("Class")
+  private final String className;
+
+  @Label("Field Count")
+  private int fieldCount;
+
+  @Label("Nested Depth")
+  @Description("The number of record schemas nested in each other, one for records without nested records")
+  private int nestedDepth;
+
+  @Label("Failure")
+  private String failure;
+
+  /**
+   * Constructs the event of generating the {@link AvroSchema} of a class.
+   *
+   * @param type the POJO class
+   */
+  GenerationEvent(Class<?> type) {
+    className = type.getName();
+  }
+
+  /**
+   * Commits the event for a generated {@link Schema}.
+   *
+   * @param schema the generated record {@link Schema}
+   */
+  void generated(Schema schema) {
+    if (isEnabled()) {
+      fieldCount = schema.getFields().size();
+      nestedDepth = depthOf(schema, new HashSet<>());
+    }
+    commit();
+  }
+
+  /**
+   * Computes the number of record {@link Schema}s nested in each other, not descending into records again that refer
+   * to themselves.
+   *
+   * @param schema the {@link Schema} to compute the depth of
+   * @param path the full names of the records enclosing the {@link Schema}
+   * @return the nested depth, zero for {@link Schema}s without records
+   */
+  private static int depthOf(Schema schema, Set<String> path) {
+    switch (schema.getType()) {
+      case RECORD:
+        if (!path.add(schema.getFullName())) {
+          return 0;
+        }
+        int depth = 0;
+        for (Schema.Field field : schema.getFields()) {
+          depth = Math.max(depth, depthOf(field.schema(), path));
+        }
+        path.remove(schema.getFullName());
+        return depth + 1;
+      case ARRAY:
+        return depthOf(schema.getElementType(), path);
+      case MAP:
+        return depthOf(schema.getValueType(), path);
+      case UNION:
+        int unionDepth = 0;
+        for (Schema branch : schema.getTypes()) {
+          unionDepth = Math.max(unionDepth, depthOf(branch, path));
+        }
+        return unionDepth;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Commits the event for a generation that failed.
+   *
+   * @param cause the {@link Throwable} the generation failed with
+   */
+  void failed(Throwable cause) {
+    if (isEnabled()) {
+      failure = cause.toString();
+    }
+    commit();
+  }
+}
@@ -0,0 +1,53 @@
+package me.atour.easyavro;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.message.SchemaStore;
+
+/**
+ * {@link SchemaStore} holding the {@link Schema}s added to it in memory, for consumers that know the schemas of their
+ * producers without an external registry.
+ */
+public final class InMemorySchemaStore implements SchemaStore {
+
+  private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+  /**
+   * Adds a {@link Schema}, replacing any with the same fingerprint.
+   *
+   * @param schema the {@link Schema} to add
+   * @return the CRC-64-AVRO fingerprint of its parsing canonical form
+   */
+  public long addSchema(@NonNull Schema schema) {
+    long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+    schemas.put(fingerprint, schema);
+    return fingerprint;
+  }
+
+  /**
+   * Adds the generated {@link Schema} of an {@link AvroSchema}, reusing its fingerprint.
+   *
+   * @param avroSchema the generated {@link AvroSchema}
+   * @return the CRC-64-AVRO fingerprint of the generated {@link Schema}
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public long addSchema(@NonNull AvroSchema<?> avroSchema) {
+    long fingerprint = avroSchema.getFingerprint();
+    schemas.put(fingerprint, avroSchema.getSchema());
+    return fingerprint;
+  }
+
+  /**
+   * Finds the {@link Schema} with a CRC-64-AVRO fingerprint of its parsing canonical form.
+   *
+   * @param fingerprint the fingerprint
+   * @return the {@link Schema}, or {@code null} when it was not added
+   */
+  @Override
+  public Schema findByFingerprint(long fingerprint) {
+    return schemas.get(fingerprint);
+  }
+}
@@ -0,0 +1,21 @@
+package me.atour.easyavro;
+
+/**
+ * Enum representing the supported strategies for creating POJOs when converting from Avro.
+ */
+public enum InstantiationStrategy {
+  /**
+   * Passes all field values at once to the canonical constructor of records, or to the constructor or static factory
+   * method of classes whose parameters are all the non-static fields.
+   * Parameters are matched to fields by name when the class is compiled with {@code -parameters}, and otherwise by
+   * type in declaration order, which fails generation when fields share a type. Fields excluded from the schema, and
+   * fields the record holds no value for, are passed as {@code null} or zero, so validating constructors may reject
+   * them. Classes without such a constructor or factory method are allocated as with {@link #ALLOCATION}.
+   */
+  CONSTRUCTOR,
+  /**
+   * Allocates POJOs without running any constructor and sets their fields one by one. This is the default.
+   * Records are still created through their canonical constructor, as their fields cannot be set.
+   */
+  ALLOCATION
+}
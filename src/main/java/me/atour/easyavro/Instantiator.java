@@ -0,0 +1,262 @@
+package me.atour.easyavro;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates POJOs by passing all field values at once to a constructor or static factory method, bound once when the
+ * conversion plan is created.
+ * The values are collected in an argument array, which the {@link FieldWriter}s of {@link #writerOf(Field)} set as if
+ * it were the POJO.
+ */
+@Slf4j
+final class Instantiator {
+
+  private final MethodHandle factory;
+  private final Map<Field, FieldWriter> writers;
+  private final Object[] defaults;
+
+  /**
+   * Constructs the instantiator.
+   *
+   * @param factory the constructor or factory method, spread to take the argument array
+   * @param parameters the {@link Field}s the parameters are assigned to, in parameter order
+   */
+  private Instantiator(MethodHandle factory, List<Field> parameters) {
+    this.factory = factory;
+    this.writers = new HashMap<>();
+    this.defaults = new Object[parameters.size()];
+    for (int i = 0; i < defaults.length; i++) {
+      Class<?> type = parameters.get(i).getType();
+      FieldKind kind = FieldKind.of(MethodType.methodType(type).unwrap().returnType());
+      writers.put(parameters.get(i), FieldWriter.argument(i, kind));
+      defaults[i] = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+  }
+
+  /**
+   * Discovers the constructor or static factory method of a class taking all its fields.
+   * Records use their canonical constructor, other classes the constructor, or otherwise the static factory method,
+   * whose parameters are the non-static fields. Parameters are matched to fields by name when the class was compiled
+   * with {@code -parameters}, and otherwise by type in declaration order, which is only done when no two fields share
+   * a type.
+   *
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the class
+   * @param clazz the class to instantiate
+   * @return the {@link Instantiator}, or {@code null} if the class has no such constructor or factory method
+   * @throws CannotGenerateSchemaException when it is ambiguous which parameter takes which field, or which of several
+   *     constructors or factory methods to use
+   */
+  static Instantiator of(@NonNull MethodHandles.Lookup lookup, @NonNull Class<?> clazz) {
+    try {
+      if (clazz.isRecord()) {
+        return ofRecord(lookup, clazz);
+      }
+      List<Field> fields = new ArrayList<>();
+      for (Field field : clazz.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          fields.add(field);
+        }
+      }
+      Executable factory = matching(Arrays.asList(clazz.getDeclaredConstructors()), fields);
+      if (factory == null) {
+        factory = matching(staticFactoriesOf(clazz), fields);
+      }
+      if (factory == null) {
+        return null;
+      }
+      MethodHandle handle = factory instanceof Method
+          ? lookup.unreflect((Method) factory)
+          : lookup.unreflectConstructor((Constructor<?>) factory);
+      return of(handle, parametersOf(factory, fields));
+    } catch (ReflectiveOperationException | SecurityException e) {
+      log.debug("Cannot instantiate {} through a constructor because {}.", clazz, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Creates the instantiator of a constructor or factory method.
+   *
+   * @param factory the {@link MethodHandle} of the constructor or factory method
+   * @param parameters the {@link Field}s the parameters are assigned to, in parameter order
+   * @return the {@link Instantiator}
+   */
+  private static Instantiator of(MethodHandle factory, List<Field> parameters) {
+    MethodHandle spread = factory.asSpreader(Object[].class, parameters.size())
+        .asType(MethodType.methodType(Object.class, Object[].class));
+    return new Instantiator(spread, parameters);
+  }
+
+  /**
+   * Creates the instantiator of the canonical constructor of a record.
+   *
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the record
+   * @param clazz the record class
+   * @return the {@link Instantiator}
+   * @throws ReflectiveOperationException when the canonical constructor or a component field cannot be found
+   */
+  private static Instantiator ofRecord(MethodHandles.Lookup lookup, Class<?> clazz)
+      throws ReflectiveOperationException {
+    List<Field> parameters = new ArrayList<>();
+    for (RecordComponent component : clazz.getRecordComponents()) {
+      parameters.add(clazz.getDeclaredField(component.getName()));
+    }
+    return of(lookup.findConstructor(clazz, MethodType.methodType(void.class, typesOf(parameters))), parameters);
+  }
+
+  /**
+   * Lists the static methods of a class returning an instance of it.
+   *
+   * @param clazz the class to instantiate
+   * @return the static factory methods
+   */
+  private static List<Executable> staticFactoriesOf(Class<?> clazz) {
+    List<Executable> factories = new ArrayList<>();
+    for (Method method : clazz.getDeclaredMethods()) {
+      if (Modifier.isStatic(method.getModifiers()) && method.getReturnType() == clazz) {
+        factories.add(method);
+      }
+    }
+    return factories;
+  }
+
+  /**
+   * Picks the single constructor or factory method taking the fields.
+   *
+   * @param factories the constructors or factory methods to pick from
+   * @param fields the non-static {@link Field}s, in declaration order
+   * @return the constructor or factory method, or {@code null} if none takes the fields
+   * @throws CannotGenerateSchemaException when more than one takes the fields
+   */
+  private static Executable matching(List<? extends Executable> factories, List<Field> fields) {
+    Executable match = null;
+    for (Executable factory : factories) {
+      if (parametersOf(factory, fields) != null) {
+        if (match != null) {
+          log.error("Cannot choose between {} and {} to instantiate through.", match, factory);
+          throw new CannotGenerateSchemaException(
+              new IllegalStateException("Both " + match + " and " + factory + " take all fields."));
+        }
+        match = factory;
+      }
+    }
+    return match;
+  }
+
+  /**
+   * Assigns the fields to the parameters of a constructor or factory method.
+   *
+   * @param factory the constructor or factory method
+   * @param fields the non-static {@link Field}s, in declaration order
+   * @return the {@link Field}s in parameter order, or {@code null} if the parameters are not the fields
+   * @throws CannotGenerateSchemaException when the parameters can only be matched by type, and fields share a type
+   */
+  private static List<Field> parametersOf(Executable factory, List<Field> fields) {
+    Parameter[] parameters = factory.getParameters();
+    if (parameters.length != fields.size()) {
+      return null;
+    }
+    if (parameters.length > 0 && parameters[0].isNamePresent()) {
+      return parametersByName(parameters, fields);
+    }
+    Class<?>[] types = typesOf(fields);
+    if (!Arrays.equals(factory.getParameterTypes(), types)) {
+      return null;
+    }
+    if (new HashSet<>(Arrays.asList(types)).size() != types.length) {
+      log.error("Cannot tell which parameters of {} take which fields, as they share types.", factory);
+      throw new CannotGenerateSchemaException(new IllegalStateException(
+          "The parameters of " + factory + " share types, compile with -parameters to match them by name."));
+    }
+    return fields;
+  }
+
+  /**
+   * Assigns the fields to the parameters of the same name and type.
+   *
+   * @param parameters the named {@link Parameter}s
+   * @param fields the non-static {@link Field}s
+   * @return the {@link Field}s in parameter order, or {@code null} if the parameters are not the fields
+   */
+  private static List<Field> parametersByName(Parameter[] parameters, List<Field> fields) {
+    Map<String, Field> byName = new HashMap<>();
+    for (Field field : fields) {
+      byName.put(field.getName(), field);
+    }
+    List<Field> assigned = new ArrayList<>();
+    for (Parameter parameter : parameters) {
+      Field field = byName.remove(parameter.getName());
+      if (field == null || field.getType() != parameter.getType()) {
+        return null;
+      }
+      assigned.add(field);
+    }
+    return assigned;
+  }
+
+  /**
+   * Collects the types of fields.
+   *
+   * @param fields the {@link Field}s
+   * @return their types, in order
+   */
+  private static Class<?>[] typesOf(List<Field> fields) {
+    Class<?>[] types = new Class<?>[fields.size()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = fields.get(i).getType();
+    }
+    return types;
+  }
+
+  /**
+   * Creates a new argument array, holding the default value of every parameter.
+   *
+   * @return the argument array
+   */
+  Object[] arguments() {
+    return defaults.clone();
+  }
+
+  /**
+   * Provides the {@link FieldWriter} setting the argument of a field in the argument array.
+   *
+   * @param field the {@link Field} to set the argument of
+   * @return the {@link FieldWriter} taking the argument array as POJO
+   */
+  FieldWriter writerOf(Field field) {
+    return writers.get(field);
+  }
+
+  /**
+   * Creates a POJO from the collected arguments.
+   *
+   * @param arguments the argument array
+   * @return the created POJO
+   * @throws CannotConvertRecordToPojoException when the constructor or factory method fails
+   */
+  Object newInstance(Object[] arguments) {
+    try {
+      return (Object) factory.invokeExact(arguments);
+    } catch (Throwable e) {
+      throw new CannotConvertRecordToPojoException(e);
+    }
+  }
+}
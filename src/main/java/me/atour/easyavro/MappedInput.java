@@ -0,0 +1,157 @@
+package me.atour.easyavro;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import org.apache.avro.file.SeekableInput;
+
+/**
+ * {@link SeekableInput} over a memory-mapped file, mapped in segments so files larger than a single mapping can be
+ * read.
+ * The segments are only read through absolute gets, so views created by {@link #view()} share them and can be read
+ * on different threads, each with its own position.
+ */
+final class MappedInput implements SeekableInput {
+
+  private final MappedByteBuffer[] segments;
+  private final int segmentSize;
+  private final long length;
+  private long position;
+
+  /**
+   * Constructs a view on mapped segments, positioned at the start.
+   *
+   * @param segments the mapped segments, all but the last of the segment size
+   * @param segmentSize the number of bytes per segment
+   * @param length the total number of bytes
+   */
+  private MappedInput(MappedByteBuffer[] segments, int segmentSize, long length) {
+    this.segments = segments;
+    this.segmentSize = segmentSize;
+    this.length = length;
+  }
+
+  /**
+   * Maps a whole file read-only.
+   *
+   * @param channel the channel of the file
+   * @param segmentSize the maximum number of bytes to map at once
+   * @return the input, positioned at the start
+   * @throws IOException when the file cannot be mapped
+   */
+  static MappedInput map(FileChannel channel, int segmentSize) throws IOException {
+    long length = channel.size();
+    MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + segmentSize - 1) / segmentSize)];
+    for (int i = 0; i < segments.length; i++) {
+      long offset = (long) i * segmentSize;
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(segmentSize, length - offset));
+    }
+    return new MappedInput(segments, segmentSize, length);
+  }
+
+  /**
+   * Creates an independent view on the same mapping, positioned at the start.
+   *
+   * @return the view
+   */
+  MappedInput view() {
+    return new MappedInput(segments, segmentSize, length);
+  }
+
+  /**
+   * Moves to a position.
+   *
+   * @param target the position to move to
+   * @throws EOFException when the position is beyond the end of the file
+   */
+  @Override
+  public void seek(long target) throws EOFException {
+    if (target < 0 || target > length) {
+      throw new EOFException("Cannot seek to " + target + " in " + length + " bytes.");
+    }
+    position = target;
+  }
+
+  /**
+   * Provides the current position.
+   *
+   * @return the position
+   */
+  @Override
+  public long tell() {
+    return position;
+  }
+
+  /**
+   * Provides the length of the file.
+   *
+   * @return the number of bytes
+   */
+  @Override
+  public long length() {
+    return length;
+  }
+
+  /**
+   * Reads bytes at the current position, at most up to the end of its segment.
+   *
+   * @param bytes the array to read into
+   * @param offset the offset to read into
+   * @param count the maximum number of bytes to read
+   * @return the number of bytes read, or {@code -1} at the end of the file
+   */
+  @Override
+  public int read(byte[] bytes, int offset, int count) {
+    if (position >= length) {
+      return -1;
+    }
+    int segmentOffset = (int) (position % segmentSize);
+    MappedByteBuffer segment = segments[(int) (position / segmentSize)];
+    int read = Math.min(count, segment.limit() - segmentOffset);
+    segment.get(segmentOffset, bytes, offset, read);
+    position += read;
+    return read;
+  }
+
+  /**
+   * Reads a single byte at the current position.
+   *
+   * @return the byte
+   * @throws EOFException at the end of the file
+   */
+  byte readByte() throws EOFException {
+    if (position >= length) {
+      throw new EOFException("Cannot read beyond " + length + " bytes.");
+    }
+    byte read = segments[(int) (position / segmentSize)].get((int) (position % segmentSize));
+    position++;
+    return read;
+  }
+
+  /**
+   * Reads a variable-length, zig-zag encoded Avro long at the current position.
+   *
+   * @return the long
+   * @throws IOException at the end of the file or when the long is malformed
+   */
+  long readLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      byte next = readByte();
+      value |= (long) (next & 0x7f) << shift;
+      if (next >= 0) {
+        return (value >>> 1) ^ -(value & 1);
+      }
+    }
+    throw new IOException("Invalid long encoding at " + position + ".");
+  }
+
+  /**
+   * Leaves the mapping in place, as it is shared with the other views and released once none are reachable.
+   */
+  @Override
+  public void close() {
+    // the mapping is released by the garbage collector
+  }
+}
@@ -0,0 +1,26 @@
+package me.atour.easyavro;
+
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Copies field values between a POJO and an {@link IndexedRecord} by {@link org.apache.avro.Schema} position.
+ * Implemented by the classes {@link ConversionEngine#GENERATED} spins at runtime, not meant to be implemented by hand.
+ */
+public interface PojoAccessor {
+
+  /**
+   * Copies all included fields of the POJO into the record.
+   *
+   * @param pojo the POJO to read the fields from
+   * @param record the {@link IndexedRecord} to put the values in
+   */
+  void toRecord(Object pojo, IndexedRecord record);
+
+  /**
+   * Copies all included fields of the record into the POJO.
+   *
+   * @param record the {@link IndexedRecord} to read the values from
+   * @param pojo the POJO to set the fields of
+   */
+  void toPojo(IndexedRecord record, Object pojo);
+}
@@ -0,0 +1,849 @@
+package me.atour.easyavro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.atour.easyavro.field.AvroField;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+
+/**
+ * {@link DatumReader} that decodes Avro binary straight into POJOs, driven by the conversion plan of an
+ * {@link AvroSchema}. No intermediate {@link org.apache.avro.generic.GenericRecord} is built and primitive fields are
+ * never boxed.
+ *
+ * @param <T> type parameter representing the class of the POJOs to read
+ */
+@Slf4j
+public class PojoDatumReader<T> implements DatumReader<T> {
+
+  private final AvroSchema<T> avroSchema;
+  private final Class<T> clazz;
+  private final Schema schema;
+  private final List<PojoField> plan;
+  private final FieldDecoder[] decoders;
+  private final Instantiator instantiator;
+  private final FieldDecoder[] argumentDecoders;
+
+  /**
+   * The names of the planned fields in the generated {@link Schema}, in plan order.
+   */
+  private final String[] fieldNames;
+
+  /**
+   * How to read data written with another {@link Schema}, or {@code null} when it is written with the generated one.
+   */
+  private volatile Resolution resolution;
+
+  /**
+   * The decoders of the boxed values of the planned fields by {@link Schema} position, created on first use.
+   */
+  private volatile ValueDecoder[] valueDecoders;
+
+  /**
+   * Constructs a {@link DatumReader} for the POJOs an {@link AvroSchema} was generated for.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public PojoDatumReader(@NonNull AvroSchema<T> avroSchema) {
+    this(avroSchema, new HashMap<>());
+  }
+
+  /**
+   * Constructs a {@link DatumReader}, sharing the readers of nested record types.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class
+   * @param readers the readers created so far, by POJO class
+   */
+  private PojoDatumReader(AvroSchema<T> avroSchema, Map<Class<?>, PojoDatumReader<?>> readers) {
+    if (avroSchema.getSchema() == null) {
+      throw new IllegalStateException("The AvroSchema has to be generated before it can be read.");
+    }
+    this.avroSchema = avroSchema;
+    clazz = avroSchema.getClazz();
+    schema = avroSchema.getSchema();
+    readers.put(clazz, this);
+    plan = avroSchema.getPlan();
+    decoders = decodersOf(plan, PojoField::getWriter, readers);
+    instantiator = avroSchema.getInstantiator();
+    argumentDecoders = instantiator == null
+        ? null
+        : decodersOf(plan, field -> instantiator.writerOf(field.getField()), readers);
+    fieldNames = plan.stream().map(PojoField::getSchemaName).toArray(String[]::new);
+  }
+
+  /**
+   * Constructs a {@link DatumReader} reading data written with another {@link Schema} into the POJOs an
+   * {@link AvroSchema} was generated for.
+   * Only the fields of the generated {@link Schema} are decoded, the others are skipped without materializing them.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class, typically of a view on the written records
+   * @param writerSchema the {@link Schema} the data was written with
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   * @throws IllegalArgumentException when the generated fields cannot be resolved against the written ones
+   */
+  public PojoDatumReader(@NonNull AvroSchema<T> avroSchema, @NonNull Schema writerSchema) {
+    this(avroSchema);
+    setSchema(writerSchema);
+  }
+
+  /**
+   * Creates the decoders of the planned fields.
+   *
+   * @param planned the conversion plan
+   * @param writers provides the {@link FieldWriter} each decoder sets its field with
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link FieldDecoder}s, in plan order
+   */
+  private FieldDecoder[] decodersOf(
+      List<PojoField> planned,
+      Function<PojoField, FieldWriter> writers,
+      Map<Class<?>, PojoDatumReader<?>> readers) {
+    FieldDecoder[] fieldDecoders = new FieldDecoder[planned.size()];
+    for (int i = 0; i < fieldDecoders.length; i++) {
+      PojoField field = planned.get(i);
+      fieldDecoders[i] = fieldDecoder(
+          field,
+          writers.apply(field),
+          schema.getFields().get(field.getPosition()).schema(),
+          readers);
+    }
+    return fieldDecoders;
+  }
+
+  /**
+   * Sets the {@link Schema} the data was written with, resolving it against the generated {@link Schema} if they
+   * differ. The resolution is computed once per writer {@link Schema} and shared by the readers of the
+   * {@link AvroSchema}.
+   *
+   * @param root the {@link Schema} the data was written with
+   * @throws IllegalArgumentException when the generated fields cannot be resolved against the written ones
+   */
+  @Override
+  public void setSchema(@NonNull Schema root) {
+    resolution = schema.equals(root) ? null : avroSchema.resolutionOf(root, this::resolutionOf);
+  }
+
+  /**
+   * Resolves the fields of a writer {@link Schema} against the planned fields.
+   * Planned fields are written under their name in the generated {@link Schema} or one of their
+   * {@link AvroField#aliases()}, and numeric values are promoted to the planned type. Planned fields that are not
+   * written are set to their default, and written fields that are not planned are skipped.
+   *
+   * @param writerSchema the {@link Schema} the data was written with
+   * @return the {@link Resolution}
+   * @throws IllegalArgumentException when the generated fields cannot be resolved against the written ones
+   */
+  private Resolution resolutionOf(Schema writerSchema) {
+    if (writerSchema.getType() != Schema.Type.RECORD) {
+      log.error("Cannot read {} written with schema {}.", schema.getFullName(), writerSchema);
+      throw new IllegalArgumentException("POJOs can only be read from records.");
+    }
+    List<Schema.Field> written = writerSchema.getFields();
+    List<FieldDecoder> fields = new ArrayList<>(Collections.nCopies(written.size(), null));
+    List<FieldDecoder> arguments = new ArrayList<>(Collections.nCopies(written.size(), null));
+    Map<Class<?>, PojoDatumReader<?>> readers = new HashMap<>();
+    readers.put(clazz, this);
+    for (int i = 0; i < fieldNames.length; i++) {
+      PojoField field = plan.get(i);
+      Schema readerSchema = schema.getField(fieldNames[i]).schema();
+      Schema.Field writerField = writtenField(writerSchema, field, fieldNames[i]);
+      if (writerField == null) {
+        byte[] encodedDefault = encodedDefault(schema.getField(fieldNames[i]));
+        fields.add(defaultDecoder(decoders[i], encodedDefault));
+        arguments.add(argumentDecoders == null ? null : defaultDecoder(argumentDecoders[i], encodedDefault));
+      } else if (writerField.schema().equals(readerSchema)) {
+        fields.set(writerField.pos(), decoders[i]);
+        arguments.set(writerField.pos(), argumentDecoders == null ? null : argumentDecoders[i]);
+      } else {
+        ValueDecoder value = resolvedField(writerField, readerSchema, field, readers);
+        FieldWriter writer = field.getWriter();
+        fields.set(writerField.pos(), (pojo, in) -> writer.set(pojo, value.decode(in)));
+        arguments.set(writerField.pos(), argumentDecoders == null ? null : argumentDecoder(field, value));
+      }
+    }
+    skipUnread(written, fields, arguments);
+    return new Resolution(
+        fields.toArray(new FieldDecoder[0]),
+        argumentDecoders == null ? null : arguments.toArray(new FieldDecoder[0]));
+  }
+
+  /**
+   * Skips the written fields that are not planned, for which no decoder has been set.
+   *
+   * @param written the written fields
+   * @param fields the {@link FieldDecoder}s setting the fields of a POJO, by written position
+   * @param arguments the {@link FieldDecoder}s setting the constructor arguments, by written position
+   */
+  private static void skipUnread(
+      List<Schema.Field> written, List<FieldDecoder> fields, List<FieldDecoder> arguments) {
+    for (int i = 0; i < written.size(); i++) {
+      if (fields.get(i) == null) {
+        ValueSkipper skipper = ValueSkipper.of(written.get(i).schema());
+        fields.set(i, (target, in) -> skipper.skip(in));
+        arguments.set(i, fields.get(i));
+      }
+    }
+  }
+
+  /**
+   * Creates the decoder resolving the value of a planned field written with another {@link Schema}.
+   *
+   * @param writerField the written field
+   * @param readerSchema the generated {@link Schema} of the field
+   * @param field the planned field
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the resolved value
+   * @throws IllegalArgumentException when the field cannot be resolved
+   */
+  private static ValueDecoder resolvedField(
+      Schema.Field writerField, Schema readerSchema, PojoField field, Map<Class<?>, PojoDatumReader<?>> readers) {
+    try {
+      return resolvedValue(
+          writerField.schema(), readerSchema, field.getField().getGenericType(), readers);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Field " + field.getSchemaName() + " cannot be resolved. " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Finds the written field of a planned field, by its name in the generated {@link Schema} or one of its aliases.
+   *
+   * @param writerSchema the {@link Schema} the data was written with
+   * @param field the planned field
+   * @param fieldName the name of the field in the generated {@link Schema}
+   * @return the written {@link Schema.Field}, or {@code null} when it is not written
+   */
+  private static Schema.Field writtenField(Schema writerSchema, PojoField field, String fieldName) {
+    Schema.Field writerField = writerSchema.getField(fieldName);
+    AvroField annotation = field.getField().getAnnotation(AvroField.class);
+    if (writerField != null || annotation == null) {
+      return writerField;
+    }
+    for (String alias : annotation.aliases()) {
+      writerField = writerSchema.getField(alias);
+      if (writerField != null) {
+        return writerField;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Encodes the default value of a field that is not written, to decode it into every POJO read.
+   *
+   * @param readerField the field of the generated {@link Schema}
+   * @return the default value in Avro binary
+   * @throws IllegalArgumentException when the field has no default value
+   */
+  private byte[] encodedDefault(Schema.Field readerField) {
+    if (!readerField.hasDefaultValue()) {
+      log.error(
+          "Cannot read {}.{} as it is not written and has no default.",
+          schema.getFullName(),
+          readerField.name());
+      throw new IllegalArgumentException("Field " + readerField.name() + " is not written and has no default.");
+    }
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Encoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+      new GenericDatumWriter<>(readerField.schema())
+          .write(GenericData.get().getDefaultValue(readerField), encoder);
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Creates the decoder setting a field that is not written to its default value, decoding a fresh copy every time
+   * so mutable defaults are never shared between POJOs.
+   *
+   * @param decoder the {@link FieldDecoder} of the field
+   * @param encodedDefault the default value in Avro binary
+   * @return the {@link FieldDecoder}, which does not read from the {@link Decoder} it is given
+   */
+  private static FieldDecoder defaultDecoder(FieldDecoder decoder, byte[] encodedDefault) {
+    return (target, in) -> decoder.decode(target, DecoderFactory.get().binaryDecoder(encodedDefault, null));
+  }
+
+  /**
+   * Creates the decoder setting a resolved value on the constructor arguments.
+   *
+   * @param field the planned field
+   * @param value the {@link ValueDecoder} of the resolved value
+   * @return the {@link FieldDecoder} taking the argument array
+   */
+  private FieldDecoder argumentDecoder(PojoField field, ValueDecoder value) {
+    FieldWriter writer = instantiator.writerOf(field.getField());
+    return (arguments, in) -> writer.set(arguments, value.decode(in));
+  }
+
+  /**
+   * Decodes a POJO from the given {@link Decoder}.
+   * New POJOs and records are created following the {@link InstantiationStrategy} of the {@link AvroSchema}.
+   *
+   * @param reuse the POJO to populate, or {@code null} to create a new one
+   * @param in the {@link Decoder} to read from
+   * @return the decoded POJO
+   * @throws IOException when the {@link Decoder} cannot be read from
+   * @throws CannotConvertRecordToPojoException when the POJO cannot be allocated or its fields cannot be set
+   */
+  @Override
+  public T read(T reuse, Decoder in) throws IOException {
+    return read(reuse, in, resolution);
+  }
+
+  /**
+   * Decodes a POJO written with the generated {@link Schema} or a resolved one.
+   *
+   * @param reuse the POJO to populate, or {@code null} to create a new one
+   * @param in the {@link Decoder} to read from
+   * @param current the {@link Resolution} of the written {@link Schema}, or {@code null} for the generated one
+   * @return the decoded POJO
+   * @throws IOException when the {@link Decoder} cannot be read from
+   * @throws CannotConvertRecordToPojoException when the POJO cannot be allocated or its fields cannot be set
+   */
+  @SuppressWarnings("unchecked")
+  private T read(T reuse, Decoder in, Resolution current) throws IOException {
+    if (argumentDecoders != null && (reuse == null || clazz.isRecord())) {
+      Object[] arguments = instantiator.arguments();
+      decodeFields(arguments, current == null ? argumentDecoders : current.arguments, in);
+      return (T) instantiator.newInstance(arguments);
+    }
+    T instance = reuse == null ? avroSchema.allocate() : reuse;
+    decodeFields(instance, current == null ? decoders : current.fields, in);
+    return instance;
+  }
+
+  /**
+   * Decodes the value of a single field, as it would be set on the POJO but boxed.
+   *
+   * @param position the position of the field in the generated {@link Schema}
+   * @param in the {@link Decoder} positioned at the field
+   * @return the decoded value
+   * @throws IOException when the {@link Decoder} cannot be read from
+   */
+  Object readValue(int position, Decoder in) throws IOException {
+    ValueDecoder[] current = valueDecoders;
+    if (current == null) {
+      current = new ValueDecoder[schema.getFields().size()];
+      Map<Class<?>, PojoDatumReader<?>> readers = new HashMap<>();
+      readers.put(clazz, this);
+      for (PojoField field : plan) {
+        Schema fieldSchema = schema.getFields().get(field.getPosition()).schema();
+        current[field.getPosition()] =
+            valueDecoder(fieldSchema, field.getField().getGenericType(), readers);
+      }
+      valueDecoders = current;
+    }
+    return current[position].decode(in);
+  }
+
+  /**
+   * Decodes all written fields, setting the planned ones and skipping the others.
+   *
+   * @param target the POJO or argument array to set the fields on
+   * @param fieldDecoders the {@link FieldDecoder}s of the written fields, in written order
+   * @param in the {@link Decoder} to read from
+   * @throws IOException when the {@link Decoder} cannot be read from
+   */
+  private static void decodeFields(Object target, FieldDecoder[] fieldDecoders, Decoder in) throws IOException {
+    for (FieldDecoder decoder : fieldDecoders) {
+      decoder.decode(target, in);
+    }
+  }
+
+  /**
+   * Creates the decoder reading a single field and setting it on the POJO.
+   *
+   * @param field the planned field
+   * @param writer the {@link FieldWriter} setting the field
+   * @param fieldSchema the {@link Schema} of the field
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link FieldDecoder} taking the POJO
+   */
+  private static FieldDecoder fieldDecoder(
+      PojoField field, FieldWriter writer, Schema fieldSchema, Map<Class<?>, PojoDatumReader<?>> readers) {
+    if (field.getKind() != FieldKind.OBJECT) {
+      FieldDecoder primitive = primitiveDecoder(field.getKind(), writer);
+      if (fieldSchema.getType() != Schema.Type.UNION) {
+        return primitive;
+      }
+      int index = PojoDatumWriter.valueIndex(fieldSchema);
+      return (pojo, in) -> {
+        if (in.readIndex() == index) {
+          primitive.decode(pojo, in);
+        } else {
+          in.readNull();
+        }
+      };
+    }
+    ValueDecoder value = valueDecoder(fieldSchema, field.getField().getGenericType(), readers);
+    return (pojo, in) -> writer.set(pojo, value.decode(in));
+  }
+
+  /**
+   * Creates the decoder for a primitive field, setting it on the POJO without boxing.
+   * Avro ints are narrowed by the {@link FieldWriter} of {@code byte}, {@code short} and {@code char} fields.
+   *
+   * @param kind the {@link FieldKind} of the field
+   * @param writer the {@link FieldWriter} of the field
+   * @return the {@link FieldDecoder} taking the POJO
+   */
+  private static FieldDecoder primitiveDecoder(FieldKind kind, FieldWriter writer) {
+    switch (kind) {
+      case BOOLEAN:
+        return (pojo, in) -> writer.setBoolean(pojo, in.readBoolean());
+      case LONG:
+        return (pojo, in) -> writer.setLong(pojo, in.readLong());
+      case FLOAT:
+        return (pojo, in) -> writer.setFloat(pojo, in.readFloat());
+      case DOUBLE:
+        return (pojo, in) -> writer.setDouble(pojo, in.readDouble());
+      case BYTE:
+      case CHAR:
+      case SHORT:
+      case INT:
+      default:
+        return (pojo, in) -> writer.setInt(pojo, in.readInt());
+    }
+  }
+
+  /**
+   * Creates the decoder for a (boxed) value of the given {@link Schema}.
+   *
+   * @param valueSchema the {@link Schema} of the value
+   * @param javaType the Java type the value is declared as
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the value
+   * @throws CannotCreateValidEncodingException when the {@link Schema} is not one the generator creates
+   */
+  private static ValueDecoder valueDecoder(
+      Schema valueSchema, Type javaType, Map<Class<?>, PojoDatumReader<?>> readers) {
+    switch (valueSchema.getType()) {
+      case UNION:
+        return unionDecoder(valueSchema, javaType, readers);
+      case BOOLEAN:
+        return Decoder::readBoolean;
+      case INT:
+        return intDecoder(PojoDatumWriter.rawType(javaType));
+      case LONG:
+        return Decoder::readLong;
+      case FLOAT:
+        return Decoder::readFloat;
+      case DOUBLE:
+        return Decoder::readDouble;
+      case STRING:
+        return Decoder::readString;
+      case ARRAY:
+        return arrayDecoder(valueSchema.getElementType(), javaType, readers);
+      case MAP:
+        return mapDecoder(valueSchema.getValueType(), PojoDatumWriter.typeArgument(javaType, 1), readers);
+      case RECORD:
+        return recordDecoder(PojoDatumWriter.rawType(javaType), readers);
+      default:
+        log.error("Cannot create a valid decoding for {}.", valueSchema);
+        throw new CannotCreateValidEncodingException();
+    }
+  }
+
+  /**
+   * Creates the decoder for an optional value, a union of null and the value type.
+   *
+   * @param unionSchema the union {@link Schema}
+   * @param javaType the Java type the value is declared as
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the value, or {@code null}
+   */
+  private static ValueDecoder unionDecoder(
+      Schema unionSchema, Type javaType, Map<Class<?>, PojoDatumReader<?>> readers) {
+    int valueIndex = PojoDatumWriter.valueIndex(unionSchema);
+    ValueDecoder value = valueDecoder(unionSchema.getTypes().get(valueIndex), javaType, readers);
+    return in -> {
+      if (in.readIndex() == valueIndex) {
+        return value.decode(in);
+      }
+      in.readNull();
+      return null;
+    };
+  }
+
+  /**
+   * Creates the decoder for Avro ints, narrowing them to the boxed type they are declared as.
+   *
+   * @param type the declared type of the value
+   * @return the {@link ValueDecoder} producing the boxed value
+   */
+  private static ValueDecoder intDecoder(Class<?> type) {
+    switch (FieldKind.of(MethodType.methodType(type).unwrap().returnType())) {
+      case BYTE:
+        return in -> (byte) in.readInt();
+      case CHAR:
+        return in -> (char) in.readInt();
+      case SHORT:
+        return in -> (short) in.readInt();
+      default:
+        return Decoder::readInt;
+    }
+  }
+
+  /**
+   * Creates the decoder for Java arrays and {@link List}s.
+   *
+   * @param elementSchema the {@link Schema} of the array items
+   * @param javaType the Java type the array is declared as
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the array or {@link List}
+   */
+  private static ValueDecoder arrayDecoder(
+      Schema elementSchema, Type javaType, Map<Class<?>, PojoDatumReader<?>> readers) {
+    if (javaType instanceof Class<?> && ((Class<?>) javaType).isArray()) {
+      Class<?> componentType = ((Class<?>) javaType).getComponentType();
+      ElementDecoder element;
+      if (componentType.isPrimitive()) {
+        element = primitiveElementDecoder(componentType);
+      } else {
+        ValueDecoder value = valueDecoder(elementSchema, componentType, readers);
+        element = (array, index, in) -> ((Object[]) array)[index] = value.decode(in);
+      }
+      return in -> readArray(componentType, element, in);
+    }
+    ValueDecoder element = valueDecoder(elementSchema, PojoDatumWriter.typeArgument(javaType, 0), readers);
+    return in -> {
+      List<Object> items = new ArrayList<>();
+      for (long count = in.readArrayStart(); count != 0; count = in.arrayNext()) {
+        for (long i = 0; i < count; i++) {
+          items.add(element.decode(in));
+        }
+      }
+      return items;
+    };
+  }
+
+  /**
+   * Creates the decoder for the items of arrays of primitives, which are stored without boxing.
+   *
+   * @param componentType the primitive component type
+   * @return the {@link ElementDecoder} storing a single item
+   */
+  private static ElementDecoder primitiveElementDecoder(Class<?> componentType) {
+    switch (FieldKind.of(componentType)) {
+      case BOOLEAN:
+        return (array, index, in) -> ((boolean[]) array)[index] = in.readBoolean();
+      case BYTE:
+        return (array, index, in) -> ((byte[]) array)[index] = (byte) in.readInt();
+      case CHAR:
+        return (array, index, in) -> ((char[]) array)[index] = (char) in.readInt();
+      case SHORT:
+        return (array, index, in) -> ((short[]) array)[index] = (short) in.readInt();
+      case INT:
+        return (array, index, in) -> ((int[]) array)[index] = in.readInt();
+      case LONG:
+        return (array, index, in) -> ((long[]) array)[index] = in.readLong();
+      case FLOAT:
+        return (array, index, in) -> ((float[]) array)[index] = in.readFloat();
+      case DOUBLE:
+      default:
+        return (array, index, in) -> ((double[]) array)[index] = in.readDouble();
+    }
+  }
+
+  /**
+   * Reads an Avro array into a Java array, growing it block by block.
+   *
+   * @param componentType the component type of the Java array
+   * @param element the {@link ElementDecoder} storing a single item
+   * @param in the {@link Decoder} to read from
+   * @return the Java array, sized to the number of items read
+   * @throws IOException when the {@link Decoder} cannot be read from
+   */
+  private static Object readArray(Class<?> componentType, ElementDecoder element, Decoder in) throws IOException {
+    long count = in.readArrayStart();
+    Object array = Array.newInstance(componentType, Math.toIntExact(count));
+    int size = 0;
+    while (count != 0) {
+      int capacity = Array.getLength(array);
+      if (size + count > capacity) {
+        Object grown = Array.newInstance(componentType, Math.toIntExact(size + count));
+        System.arraycopy(array, 0, grown, 0, size);
+        array = grown;
+      }
+      for (long i = 0; i < count; i++) {
+        element.decode(array, size++, in);
+      }
+      count = in.arrayNext();
+    }
+    return array;
+  }
+
+  /**
+   * Creates the decoder for {@link Map}s, which Avro always keys by string.
+   *
+   * @param valueSchema the {@link Schema} of the map values
+   * @param valueType the Java type of the map values
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the {@link Map}
+   */
+  private static ValueDecoder mapDecoder(
+      Schema valueSchema, Type valueType, Map<Class<?>, PojoDatumReader<?>> readers) {
+    ValueDecoder value = valueDecoder(valueSchema, valueType, readers);
+    return in -> {
+      Map<String, Object> entries = new HashMap<>();
+      for (long count = in.readMapStart(); count != 0; count = in.mapNext()) {
+        for (long i = 0; i < count; i++) {
+          String key = in.readString();
+          entries.put(key, value.decode(in));
+        }
+      }
+      return entries;
+    };
+  }
+
+  /**
+   * Creates the decoder for nested POJOs, reusing the reader of the type if there is one.
+   *
+   * @param type the class of the nested POJO
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the nested POJO
+   */
+  @SuppressWarnings("unchecked")
+  private static ValueDecoder recordDecoder(Class<?> type, Map<Class<?>, PojoDatumReader<?>> readers) {
+    PojoDatumReader<Object> reader = (PojoDatumReader<Object>) readers.get(type);
+    if (reader == null) {
+      AvroSchema<Object> nested = AvroSchema.forClass((Class<Object>) type);
+      reader = new PojoDatumReader<>(nested, readers);
+    }
+    PojoDatumReader<Object> nestedReader = reader;
+    return in -> nestedReader.read(null, in, null);
+  }
+
+  /**
+   * Creates the decoder resolving a value written with one {@link Schema} into a value of another.
+   *
+   * @param writerSchema the {@link Schema} the value was written with
+   * @param readerSchema the generated {@link Schema} of the value
+   * @param javaType the Java type the value is declared as
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the resolved value
+   * @throws IllegalArgumentException when the value cannot be resolved
+   */
+  private static ValueDecoder resolvedValue(
+      Schema writerSchema, Schema readerSchema, Type javaType, Map<Class<?>, PojoDatumReader<?>> readers) {
+    if (writerSchema.equals(readerSchema)) {
+      return valueDecoder(readerSchema, javaType, readers);
+    }
+    if (readerSchema.getType() == Schema.Type.UNION) {
+      return resolvedOptional(writerSchema, readerSchema, javaType, readers);
+    }
+    if (writerSchema.getType() == Schema.Type.RECORD && readerSchema.getType() == Schema.Type.RECORD) {
+      return resolvedRecordDecoder(PojoDatumWriter.rawType(javaType), writerSchema);
+    }
+    ValueDecoder promoted = promotedValue(writerSchema.getType(), readerSchema.getType());
+    if (promoted == null) {
+      log.error("Cannot read {} written as {}.", readerSchema, writerSchema);
+      throw new IllegalArgumentException("Cannot read " + readerSchema + " written as " + writerSchema + ".");
+    }
+    return promoted;
+  }
+
+  /**
+   * Creates the decoder resolving a value into an optional value, whether it was written as optional or not.
+   *
+   * @param writerSchema the {@link Schema} the value was written with
+   * @param readerSchema the generated union {@link Schema} of the optional value
+   * @param javaType the Java type the value is declared as
+   * @param readers the readers created so far, by POJO class
+   * @return the {@link ValueDecoder} producing the resolved value, or {@code null}
+   * @throws IllegalArgumentException when the value cannot be resolved
+   */
+  private static ValueDecoder resolvedOptional(
+      Schema writerSchema, Schema readerSchema, Type javaType, Map<Class<?>, PojoDatumReader<?>> readers) {
+    Schema readerValue = readerSchema.getTypes().get(PojoDatumWriter.valueIndex(readerSchema));
+    if (writerSchema.getType() != Schema.Type.UNION) {
+      return resolvedValue(writerSchema, readerValue, javaType, readers);
+    }
+    if (writerSchema.getTypes().size() != 2 || !writerSchema.getTypes().contains(Schema.create(Schema.Type.NULL))) {
+      log.error("Cannot read {} written as {}.", readerSchema, writerSchema);
+      throw new IllegalArgumentException("Only optional unions of null and a single type can be read.");
+    }
+    int valueIndex = PojoDatumWriter.valueIndex(writerSchema);
+    ValueDecoder value = resolvedValue(writerSchema.getTypes().get(valueIndex), readerValue, javaType, readers);
+    return in -> {
+      if (in.readIndex() == valueIndex) {
+        return value.decode(in);
+      }
+      in.readNull();
+      return null;
+    };
+  }
+
+  /**
+   * Creates the decoder for nested POJOs written with another {@link Schema}.
+   * Their reader is only created once the first of them is read, as types referencing themselves would otherwise
+   * resolve forever.
+   *
+   * @param type the class of the nested POJO
+   * @param writerSchema the record {@link Schema} the nested POJOs were written with
+   * @return the {@link ValueDecoder} producing the nested POJO
+   */
+  @SuppressWarnings("unchecked")
+  private static ValueDecoder resolvedRecordDecoder(Class<?> type, Schema writerSchema) {
+    AvroSchema<Object> nested = AvroSchema.forClass((Class<Object>) type);
+    Object[] reader = new Object[1];
+    return in -> {
+      if (reader[0] == null) {
+        try {
+          reader[0] = new PojoDatumReader<>(nested, writerSchema);
+        } catch (IllegalArgumentException e) {
+          throw new CannotConvertRecordToPojoException(e);
+        }
+      }
+      return ((PojoDatumReader<Object>) reader[0]).read(null, in);
+    };
+  }
+
+  /**
+   * Creates the decoder promoting a numeric value to a wider type, as Avro allows ints to be read as longs, floats and
+   * doubles, longs as floats and doubles, and floats as doubles.
+   *
+   * @param writerType the {@link Schema.Type} the value was written as
+   * @param readerType the generated {@link Schema.Type} of the value
+   * @return the {@link ValueDecoder} producing the promoted value, or {@code null} when it cannot be promoted
+   */
+  private static ValueDecoder promotedValue(Schema.Type writerType, Schema.Type readerType) {
+    switch (readerType) {
+      case LONG:
+        return writerType == Schema.Type.INT ? in -> (long) in.readInt() : null;
+      case FLOAT:
+        return floatPromotion(writerType);
+      case DOUBLE:
+        return doublePromotion(writerType);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Creates the decoder promoting an int or long to a float.
+   *
+   * @param writerType the {@link Schema.Type} the value was written as
+   * @return the {@link ValueDecoder} producing the float, or {@code null} when it cannot be promoted
+   */
+  private static ValueDecoder floatPromotion(Schema.Type writerType) {
+    switch (writerType) {
+      case INT:
+        return in -> (float) in.readInt();
+      case LONG:
+        return in -> (float) in.readLong();
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Creates the decoder promoting an int, long or float to a double.
+   *
+   * @param writerType the {@link Schema.Type} the value was written as
+   * @return the {@link ValueDecoder} producing the double, or {@code null} when it cannot be promoted
+   */
+  private static ValueDecoder doublePromotion(Schema.Type writerType) {
+    switch (writerType) {
+      case INT:
+        return in -> (double) in.readInt();
+      case LONG:
+        return in -> (double) in.readLong();
+      case FLOAT:
+        return in -> (double) in.readFloat();
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * How to read the fields of a writer {@link Schema}: decoded into a planned field, possibly promoted, or skipped,
+   * followed by setting the planned fields that are not written to their defaults.
+   */
+  @RequiredArgsConstructor
+  static final class Resolution {
+
+    /**
+     * The {@link FieldDecoder}s setting the fields of a POJO, in written order followed by the defaults.
+     */
+    private final FieldDecoder[] fields;
+
+    /**
+     * The {@link FieldDecoder}s setting the constructor arguments, or {@code null} when POJOs are not constructed.
+     */
+    private final FieldDecoder[] arguments;
+  }
+
+  /**
+   * Decodes a single field from a {@link Decoder} into the POJO.
+   */
+  @FunctionalInterface
+  private interface FieldDecoder {
+
+    /**
+     * Decodes the field.
+     *
+     * @param pojo the POJO to set the field on
+     * @param in the {@link Decoder} to read from
+     * @throws IOException when the {@link Decoder} cannot be read from
+     */
+    void decode(Object pojo, Decoder in) throws IOException;
+  }
+
+  /**
+   * Decodes a single value from a {@link Decoder}.
+   */
+  @FunctionalInterface
+  private interface ValueDecoder {
+
+    /**
+     * Decodes the value.
+     *
+     * @param in the {@link Decoder} to read from
+     * @return the decoded value
+     * @throws IOException when the {@link Decoder} cannot be read from
+     */
+    Object decode(Decoder in) throws IOException;
+  }
+
+  /**
+   * Decodes a single item from a {@link Decoder} into a Java array.
+   */
+  @FunctionalInterface
+  private interface ElementDecoder {
+
+    /**
+     * Decodes the item.
+     *
+     * @param array the Java array to store the item in
+     * @param index the index to store the item at
+     * @param in the {@link Decoder} to read from
+     * @throws IOException when the {@link Decoder} cannot be read from
+     */
+    void decode(Object array, int index, Decoder in) throws IOException;
+  }
+}
@@ -0,0 +1,651 @@
+package me.atour.easyavro;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+
+/**
+ * {@link DatumWriter} that encodes POJOs straight to Avro binary, driven by the conversion plan of an {@link AvroSchema}.
+ * No intermediate {@link org.apache.avro.generic.GenericRecord} is built and primitive fields are never boxed.
+ *
+ * @param <T> type parameter representing the class of the POJOs to write
+ */
+@Slf4j
+public class PojoDatumWriter<T> implements DatumWriter<T> {
+
+  private final Schema schema;
+  private final ValueEncoder[] encoders;
+
+  /**
+   * Constructs a {@link DatumWriter} for the POJOs an {@link AvroSchema} was generated for.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public PojoDatumWriter(@NonNull AvroSchema<T> avroSchema) {
+    this(avroSchema, new HashMap<>());
+  }
+
+  /**
+   * Constructs a {@link DatumWriter}, sharing the writers of nested record types.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class
+   * @param writers the writers created so far, by POJO class
+   */
+  private PojoDatumWriter(AvroSchema<T> avroSchema, Map<Class<?>, PojoDatumWriter<?>> writers) {
+    if (avroSchema.getSchema() == null) {
+      throw new IllegalStateException("The AvroSchema has to be generated before it can be written.");
+    }
+    schema = avroSchema.getSchema();
+    writers.put(avroSchema.getClazz(), this);
+    List<PojoField> plan = avroSchema.getPlan();
+    ValueEncoder[] fieldEncoders = new ValueEncoder[plan.size()];
+    for (int i = 0; i < fieldEncoders.length; i++) {
+      PojoField field = plan.get(i);
+      fieldEncoders[i] = fieldEncoder(
+          field, schema.getFields().get(field.getPosition()).schema(), avroSchema.getLookup(), writers);
+    }
+    encoders = fieldEncoders;
+  }
+
+  /**
+   * Only accepts the {@link Schema} of the {@link AvroSchema} this writer was constructed with.
+   *
+   * @param root the {@link Schema} to write with
+   * @throws IllegalArgumentException when the {@link Schema} differs from the generated one
+   */
+  @Override
+  public void setSchema(Schema root) {
+    if (!schema.equals(root)) {
+      log.error("Cannot write {} with schema {}.", schema.getFullName(), root);
+      throw new IllegalArgumentException("POJOs can only be written with their generated schema.");
+    }
+  }
+
+  /**
+   * Encodes a POJO to the given {@link Encoder}.
+   *
+   * @param datum the POJO to encode
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   * @throws NullPointerException when the POJO is null
+   */
+  @Override
+  public void write(T datum, Encoder out) throws IOException {
+    Objects.requireNonNull(datum, "Cannot write a null POJO.");
+    for (ValueEncoder encoder : encoders) {
+      encoder.encode(datum, out);
+    }
+  }
+
+  /**
+   * Creates the encoder reading a single field from the POJO and writing it.
+   *
+   * @param field the planned field
+   * @param fieldSchema the {@link Schema} of the field
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the POJO class
+   * @param writers the writers created so far, by POJO class
+   * @return the {@link ValueEncoder} taking the POJO
+   */
+  private static ValueEncoder fieldEncoder(
+      PojoField field,
+      Schema fieldSchema,
+      MethodHandles.Lookup lookup,
+      Map<Class<?>, PojoDatumWriter<?>> writers) {
+    long offset = field.getOffset();
+    if (field.getKind() != FieldKind.OBJECT) {
+      ValueEncoder primitive = offset == PojoField.NO_OFFSET
+          ? primitiveEncoder(field.getKind(), typedGetter(lookup, field))
+          : primitiveEncoder(field.getKind(), offset);
+      if (fieldSchema.getType() != Schema.Type.UNION) {
+        return primitive;
+      }
+      int index = valueIndex(fieldSchema);
+      return (pojo, out) -> {
+        out.writeIndex(index);
+        primitive.encode(pojo, out);
+      };
+    }
+    ValueEncoder value = valueEncoder(fieldSchema, field.getField().getGenericType(), writers);
+    if (offset == PojoField.NO_OFFSET) {
+      MethodHandle getter = field.getGetter();
+      return (pojo, out) -> value.encode(read(getter, pojo), out);
+    }
+    sun.misc.Unsafe unsafe = UnsafeAccess.get();
+    return (pojo, out) -> value.encode(unsafe.getObject(pojo, offset), out);
+  }
+
+  /**
+   * Resolves the getter of a primitive field, typed to return the primitive the field is encoded as.
+   *
+   * @param lookup a full privilege {@link MethodHandles.Lookup} on the POJO class
+   * @param field the planned field
+   * @return the {@link MethodHandle} taking the POJO as {@link Object}
+   * @throws CannotCreateValidEncodingException when the field cannot be read
+   */
+  private static MethodHandle typedGetter(MethodHandles.Lookup lookup, PojoField field) {
+    Class<?> type = field.getField().getType();
+    Class<?> encoded = type == byte.class || type == char.class || type == short.class ? int.class : type;
+    try {
+      return lookup.unreflectGetter(field.getField()).asType(MethodType.methodType(encoded, Object.class));
+    } catch (IllegalAccessException e) {
+      log.error("Cannot read {} because {}.", field.getField(), e.getMessage());
+      throw new CannotCreateValidEncodingException();
+    }
+  }
+
+  /**
+   * Creates the encoder for a primitive field, reading it from the POJO without boxing.
+   *
+   * @param kind the {@link FieldKind} of the field
+   * @param offset the offset of the field
+   * @return the {@link ValueEncoder} taking the POJO
+   */
+  private static ValueEncoder primitiveEncoder(FieldKind kind, long offset) {
+    sun.misc.Unsafe unsafe = UnsafeAccess.get();
+    switch (kind) {
+      case BOOLEAN:
+        return (pojo, out) -> out.writeBoolean(unsafe.getBoolean(pojo, offset));
+      case BYTE:
+        return (pojo, out) -> out.writeInt(unsafe.getByte(pojo, offset));
+      case CHAR:
+        return (pojo, out) -> out.writeInt(unsafe.getChar(pojo, offset));
+      case SHORT:
+        return (pojo, out) -> out.writeInt(unsafe.getShort(pojo, offset));
+      case INT:
+        return (pojo, out) -> out.writeInt(unsafe.getInt(pojo, offset));
+      case LONG:
+        return (pojo, out) -> out.writeLong(unsafe.getLong(pojo, offset));
+      case FLOAT:
+        return (pojo, out) -> out.writeFloat(unsafe.getFloat(pojo, offset));
+      case DOUBLE:
+        return (pojo, out) -> out.writeDouble(unsafe.getDouble(pojo, offset));
+      default:
+        throw new CannotCreateValidEncodingException();
+    }
+  }
+
+  /**
+   * Creates the encoder for a primitive field, reading it from the POJO through its typed getter without boxing.
+   *
+   * @param kind the {@link FieldKind} of the field
+   * @param getter the getter returning the primitive the field is encoded as
+   * @return the {@link ValueEncoder} taking the POJO
+   */
+  private static ValueEncoder primitiveEncoder(FieldKind kind, MethodHandle getter) {
+    switch (kind) {
+      case BOOLEAN:
+        return (pojo, out) -> out.writeBoolean(readBoolean(getter, pojo));
+      case BYTE:
+      case CHAR:
+      case SHORT:
+      case INT:
+        return (pojo, out) -> out.writeInt(readInt(getter, pojo));
+      case LONG:
+        return (pojo, out) -> out.writeLong(readLong(getter, pojo));
+      case FLOAT:
+        return (pojo, out) -> out.writeFloat(readFloat(getter, pojo));
+      case DOUBLE:
+        return (pojo, out) -> out.writeDouble(readDouble(getter, pojo));
+      default:
+        throw new CannotCreateValidEncodingException();
+    }
+  }
+
+  /**
+   * Creates the encoder for a (boxed) value of the given {@link Schema}.
+   *
+   * @param valueSchema the {@link Schema} of the value
+   * @param javaType the Java type the value is declared as
+   * @param writers the writers created so far, by POJO class
+   * @return the {@link ValueEncoder} taking the value
+   * @throws CannotCreateValidEncodingException when the {@link Schema} is not one the generator creates
+   */
+  private static ValueEncoder valueEncoder(
+      Schema valueSchema, Type javaType, Map<Class<?>, PojoDatumWriter<?>> writers) {
+    switch (valueSchema.getType()) {
+      case UNION:
+        return unionEncoder(valueSchema, javaType, writers);
+      case BOOLEAN:
+        return (value, out) -> out.writeBoolean((Boolean) value);
+      case INT:
+        return (value, out) -> out.writeInt(toInt(value));
+      case LONG:
+        return (value, out) -> out.writeLong(((Number) value).longValue());
+      case FLOAT:
+        return (value, out) -> out.writeFloat(((Number) value).floatValue());
+      case DOUBLE:
+        return (value, out) -> out.writeDouble(((Number) value).doubleValue());
+      case STRING:
+        return (value, out) -> out.writeString((CharSequence) value);
+      case ARRAY:
+        return arrayEncoder(valueSchema.getElementType(), javaType, writers);
+      case MAP:
+        return mapEncoder(valueSchema.getValueType(), typeArgument(javaType, 1), writers);
+      case RECORD:
+        return recordEncoder(rawType(javaType), writers);
+      default:
+        log.error("Cannot create a valid encoding for {}.", valueSchema);
+        throw new CannotCreateValidEncodingException();
+    }
+  }
+
+  /**
+   * Creates the encoder for an optional value, a union of null and the value type.
+   *
+   * @param unionSchema the union {@link Schema}
+   * @param javaType the Java type the value is declared as
+   * @param writers the writers created so far, by POJO class
+   * @return the {@link ValueEncoder} taking the value
+   */
+  private static ValueEncoder unionEncoder(
+      Schema unionSchema, Type javaType, Map<Class<?>, PojoDatumWriter<?>> writers) {
+    int nullIndex = unionSchema.getIndexNamed(Schema.Type.NULL.getName());
+    int valueIndex = valueIndex(unionSchema);
+    ValueEncoder value = valueEncoder(unionSchema.getTypes().get(valueIndex), javaType, writers);
+    return (optional, out) -> {
+      if (optional == null) {
+        out.writeIndex(nullIndex);
+        out.writeNull();
+      } else {
+        out.writeIndex(valueIndex);
+        value.encode(optional, out);
+      }
+    };
+  }
+
+  /**
+   * Creates the encoder for Java arrays and {@link Collection}s.
+   *
+   * @param elementSchema the {@link Schema} of the array items
+   * @param javaType the Java type the array is declared as
+   * @param writers the writers created so far, by POJO class
+   * @return the {@link ValueEncoder} taking the array or {@link Collection}
+   */
+  private static ValueEncoder arrayEncoder(
+      Schema elementSchema, Type javaType, Map<Class<?>, PojoDatumWriter<?>> writers) {
+    if (javaType instanceof Class<?> && ((Class<?>) javaType).isArray()) {
+      Class<?> componentType = ((Class<?>) javaType).getComponentType();
+      if (componentType.isPrimitive()) {
+        return primitiveArrayEncoder(componentType);
+      }
+      ValueEncoder element = valueEncoder(elementSchema, componentType, writers);
+      return (array, out) -> {
+        Object[] items = (Object[]) array;
+        out.writeArrayStart();
+        out.setItemCount(items.length);
+        for (Object item : items) {
+          out.startItem();
+          element.encode(item, out);
+        }
+        out.writeArrayEnd();
+      };
+    }
+    ValueEncoder element = valueEncoder(elementSchema, typeArgument(javaType, 0), writers);
+    return (collection, out) -> {
+      Collection<?> items = (Collection<?>) collection;
+      out.writeArrayStart();
+      out.setItemCount(items.size());
+      for (Object item : items) {
+        out.startItem();
+        element.encode(item, out);
+      }
+      out.writeArrayEnd();
+    };
+  }
+
+  /**
+   * Creates the encoder for arrays of primitives, which are iterated without boxing.
+   *
+   * @param componentType the primitive component type
+   * @return the {@link ValueEncoder} taking the array
+   */
+  private static ValueEncoder primitiveArrayEncoder(Class<?> componentType) {
+    switch (FieldKind.of(componentType)) {
+      case BOOLEAN:
+        return (array, out) -> writeBooleans((boolean[]) array, out);
+      case BYTE:
+        return (array, out) -> writeBytes((byte[]) array, out);
+      case CHAR:
+        return (array, out) -> writeChars((char[]) array, out);
+      case SHORT:
+        return (array, out) -> writeShorts((short[]) array, out);
+      case INT:
+        return (array, out) -> writeInts((int[]) array, out);
+      case LONG:
+        return (array, out) -> writeLongs((long[]) array, out);
+      case FLOAT:
+        return (array, out) -> writeFloats((float[]) array, out);
+      case DOUBLE:
+      default:
+        return (array, out) -> writeDoubles((double[]) array, out);
+    }
+  }
+
+  /**
+   * Writes a boolean array as an Avro array of booleans.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeBooleans(boolean[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (boolean item : items) {
+      out.startItem();
+      out.writeBoolean(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Writes a byte array as an Avro array of ints.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeBytes(byte[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (byte item : items) {
+      out.startItem();
+      out.writeInt(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Writes a char array as an Avro array of ints.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeChars(char[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (char item : items) {
+      out.startItem();
+      out.writeInt(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Writes a short array as an Avro array of ints.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeShorts(short[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (short item : items) {
+      out.startItem();
+      out.writeInt(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Writes an int array as an Avro array of ints.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeInts(int[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (int item : items) {
+      out.startItem();
+      out.writeInt(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Writes a long array as an Avro array of longs.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeLongs(long[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (long item : items) {
+      out.startItem();
+      out.writeLong(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Writes a float array as an Avro array of floats.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeFloats(float[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (float item : items) {
+      out.startItem();
+      out.writeFloat(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Writes a double array as an Avro array of doubles.
+   *
+   * @param items the array to write
+   * @param out the {@link Encoder} to write to
+   * @throws IOException when the {@link Encoder} cannot be written to
+   */
+  private static void writeDoubles(double[] items, Encoder out) throws IOException {
+    out.writeArrayStart();
+    out.setItemCount(items.length);
+    for (double item : items) {
+      out.startItem();
+      out.writeDouble(item);
+    }
+    out.writeArrayEnd();
+  }
+
+  /**
+   * Creates the encoder for {@link Map}s, which Avro always keys by string.
+   *
+   * @param valueSchema the {@link Schema} of the map values
+   * @param valueType the Java type of the map values
+   * @param writers the writers created so far, by POJO class
+   * @return the {@link ValueEncoder} taking the {@link Map}
+   */
+  private static ValueEncoder mapEncoder(
+      Schema valueSchema, Type valueType, Map<Class<?>, PojoDatumWriter<?>> writers) {
+    ValueEncoder value = valueEncoder(valueSchema, valueType, writers);
+    return (map, out) -> {
+      Map<?, ?> entries = (Map<?, ?>) map;
+      out.writeMapStart();
+      out.setItemCount(entries.size());
+      for (Map.Entry<?, ?> entry : entries.entrySet()) {
+        out.startItem();
+        out.writeString(entry.getKey().toString());
+        value.encode(entry.getValue(), out);
+      }
+      out.writeMapEnd();
+    };
+  }
+
+  /**
+   * Creates the encoder for nested POJOs, reusing the writer of the type if there is one.
+   *
+   * @param type the class of the nested POJO
+   * @param writers the writers created so far, by POJO class
+   * @return the {@link ValueEncoder} taking the nested POJO
+   */
+  @SuppressWarnings("unchecked")
+  private static ValueEncoder recordEncoder(Class<?> type, Map<Class<?>, PojoDatumWriter<?>> writers) {
+    PojoDatumWriter<Object> writer = (PojoDatumWriter<Object>) writers.get(type);
+    if (writer == null) {
+      AvroSchema<Object> nested = AvroSchema.forClass((Class<Object>) type);
+      writer = new PojoDatumWriter<>(nested, writers);
+    }
+    PojoDatumWriter<Object> nestedWriter = writer;
+    return (pojo, out) -> nestedWriter.write(pojo, out);
+  }
+
+  /**
+   * Finds the index of the non-null branch of an optional union.
+   *
+   * @param unionSchema the union {@link Schema}
+   * @return the index of the value branch
+   */
+  static int valueIndex(Schema unionSchema) {
+    return unionSchema.getTypes().get(0).getType() == Schema.Type.NULL ? 1 : 0;
+  }
+
+  /**
+   * Converts a value written as an Avro int, which includes the types the generator widens.
+   *
+   * @param value the {@link Number} or {@link Character} to convert
+   * @return the value as an int
+   */
+  private static int toInt(Object value) {
+    if (value instanceof Character) {
+      return (Character) value;
+    }
+    return ((Number) value).intValue();
+  }
+
+  /**
+   * Resolves a type argument of a parameterized type such as {@link List} or {@link Map}.
+   *
+   * @param type the parameterized type
+   * @param index the index of the type argument
+   * @return the type argument
+   */
+  static Type typeArgument(Type type, int index) {
+    return ((ParameterizedType) type).getActualTypeArguments()[index];
+  }
+
+  /**
+   * Resolves the class of a possibly parameterized type.
+   *
+   * @param type the type to resolve
+   * @return the raw class of the type
+   */
+  static Class<?> rawType(Type type) {
+    if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    }
+    return (Class<?>) type;
+  }
+
+  /**
+   * Reads a field through its getter, for POJOs whose fields have no offset.
+   *
+   * @param getter the getter of the field
+   * @param pojo the POJO to read from
+   * @return the field value
+   */
+  @SneakyThrows
+  private static Object read(MethodHandle getter, Object pojo) {
+    return (Object) getter.invokeExact(pojo);
+  }
+
+  /**
+   * Reads a {@code boolean} field through its typed getter.
+   *
+   * @param getter the getter returning a {@code boolean}
+   * @param pojo the POJO to read the field of
+   * @return the field value
+   */
+  @SneakyThrows
+  private static boolean readBoolean(MethodHandle getter, Object pojo) {
+    return (boolean) getter.invokeExact(pojo);
+  }
+
+  /**
+   * Reads an int-like field through its typed getter.
+   *
+   * @param getter the getter returning an {@code int}
+   * @param pojo the POJO to read the field of
+   * @return the field value, widened to an {@code int}
+   */
+  @SneakyThrows
+  private static int readInt(MethodHandle getter, Object pojo) {
+    return (int) getter.invokeExact(pojo);
+  }
+
+  /**
+   * Reads a {@code long} field through its typed getter.
+   *
+   * @param getter the getter returning a {@code long}
+   * @param pojo the POJO to read the field of
+   * @return the field value
+   */
+  @SneakyThrows
+  private static long readLong(MethodHandle getter, Object pojo) {
+    return (long) getter.invokeExact(pojo);
+  }
+
+  /**
+   * Reads a {@code float} field through its typed getter.
+   *
+   * @param getter the getter returning a {@code float}
+   * @param pojo the POJO to read the field of
+   * @return the field value
+   */
+  @SneakyThrows
+  private static float readFloat(MethodHandle getter, Object pojo) {
+    return (float) getter.invokeExact(pojo);
+  }
+
+  /**
+   * Reads a {@code double} field through its typed getter.
+   *
+   * @param getter the getter returning a {@code double}
+   * @param pojo the POJO to read the field of
+   * @return the field value
+   */
+  @SneakyThrows
+  private static double readDouble(MethodHandle getter, Object pojo) {
+    return (double) getter.invokeExact(pojo);
+  }
+
+  /**
+   * Encodes a single value to an {@link Encoder}.
+   */
+  @FunctionalInterface
+  private interface ValueEncoder {
+
+    /**
+     * Encodes the value.
+     *
+     * @param value the value to encode
+     * @param out the {@link Encoder} to write to
+     * @throws IOException when the {@link Encoder} cannot be written to
+     */
+    void encode(Object value, Encoder out) throws IOException;
+  }
+}
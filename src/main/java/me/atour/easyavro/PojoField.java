@@ -0,0 +1,28 @@
+package me.atour.easyavro;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A single entry of the conversion plan {@link AvroSchema#generate()} builds.
+ * Holds everything needed to move one field between a POJO and a {@link org.apache.avro.generic.GenericRecord}.
+ */
+@Getter
+@RequiredArgsConstructor
+final class PojoField {
+
+  /**
+   * Marks a field whose offset cannot be obtained, records and hidden classes for example.
+   */
+  static final long NO_OFFSET = -1L;
+
+  private final Field field;
+  private final String schemaName;
+  private final int position;
+  private final MethodHandle getter;
+  private final long offset;
+  private final FieldKind kind;
+  private final FieldWriter writer;
+}
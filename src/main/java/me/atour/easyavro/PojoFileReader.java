@@ -0,0 +1,301 @@
+package me.atour.easyavro;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileStream;
+
+/**
+ * Reads POJOs from a memory-mapped Avro object container file, splitting it at block boundaries so the blocks can be
+ * decompressed and decoded on several threads at once.
+ * The blocks are indexed when the file is opened by walking their headers, checking the sync marker ending every
+ * block. Every split then decodes its blocks straight into POJOs through a {@link PojoDatumReader}, using any codec
+ * Avro supports.
+ *
+ * @param <T> type parameter representing the class of the POJOs to read
+ */
+@Slf4j
+public class PojoFileReader<T> implements Closeable {
+
+  /**
+   * The number of bytes mapped at once, as a single mapping cannot exceed 2 GiB.
+   */
+  private static final int SEGMENT_SIZE = 1 << 30;
+
+  private final FileChannel channel;
+  private final MappedInput input;
+  private final PojoDatumReader<T> datumReader;
+  private final DataFileStream.Header header;
+
+  /**
+   * The {@link Schema} the file was written with, of which only the fields of the generated {@link Schema} are read.
+   */
+  @Getter
+  private final Schema schema;
+
+  /**
+   * The positions of the blocks, followed by the end of the last block.
+   */
+  private final long[] blockPositions;
+
+  /**
+   * The number of POJOs before every block, followed by the total number of POJOs.
+   */
+  private final long[] blockOffsets;
+
+  /**
+   * Opens a container file written with the generated {@link Schema} of an {@link AvroSchema}, or with a
+   * {@link Schema} that resolves to it, such as an earlier or later version of it.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class
+   * @param file the container file
+   * @throws IOException when the file cannot be mapped or is not a valid container file
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   * @throws IllegalArgumentException when the writer {@link Schema} cannot be resolved to the generated one
+   */
+  public PojoFileReader(@NonNull AvroSchema<T> avroSchema, @NonNull Path file) throws IOException {
+    this(avroSchema, file, SEGMENT_SIZE);
+  }
+
+  /**
+   * Opens a container file, mapping it in segments of the given size.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class
+   * @param file the container file
+   * @param segmentSize the number of bytes to map at once
+   * @throws IOException when the file cannot be mapped or is not a valid container file
+   */
+  PojoFileReader(AvroSchema<T> avroSchema, Path file, int segmentSize) throws IOException {
+    datumReader = new PojoDatumReader<>(avroSchema);
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      input = MappedInput.map(channel, segmentSize);
+      try (DataFileReader<T> headerReader = new DataFileReader<>(input.view(), datumReader)) {
+        header = headerReader.getHeader();
+        schema = headerReader.getSchema();
+        List<long[]> blocks = indexBlocks(headerReader.previousSync());
+        blockPositions = new long[blocks.size() + 1];
+        blockOffsets = new long[blocks.size() + 1];
+        blockPositions[blocks.size()] = input.length();
+        for (int i = 0; i < blocks.size(); i++) {
+          blockPositions[i] = blocks.get(i)[0];
+          blockOffsets[i + 1] = blockOffsets[i] + blocks.get(i)[1];
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    log.debug("Indexed {} blocks of {} POJOs in {}.", getBlockCount(), getCount(), file);
+  }
+
+  /**
+   * Walks the block headers, from the end of the file header up to the end of the file.
+   *
+   * @param start the position of the first block, right after the sync marker ending the file header
+   * @return the position and number of POJOs of every block
+   * @throws IOException when a block is truncated or not followed by the sync marker of the file
+   */
+  private List<long[]> indexBlocks(long start) throws IOException {
+    byte[] sync = new byte[DataFileConstants.SYNC_SIZE];
+    byte[] marker = new byte[DataFileConstants.SYNC_SIZE];
+    MappedInput cursor = input.view();
+    cursor.seek(start - sync.length);
+    readFully(cursor, sync);
+    List<long[]> blocks = new ArrayList<>();
+    while (cursor.tell() < cursor.length()) {
+      long position = cursor.tell();
+      long count = cursor.readLong();
+      long size = cursor.readLong();
+      if (count < 0 || size < 0) {
+        throw new IOException("Invalid block header at " + position + ".");
+      }
+      cursor.seek(cursor.tell() + size);
+      readFully(cursor, marker);
+      if (!Arrays.equals(sync, marker)) {
+        throw new IOException("Invalid sync marker after the block at " + position + ".");
+      }
+      blocks.add(new long[] {position, count});
+    }
+    return blocks;
+  }
+
+  /**
+   * Reads exactly as many bytes as fit in an array.
+   *
+   * @param cursor the input to read from
+   * @param bytes the array to fill
+   * @throws IOException when the file ends first
+   */
+  private static void readFully(MappedInput cursor, byte[] bytes) throws IOException {
+    int read = 0;
+    while (read < bytes.length) {
+      int next = cursor.read(bytes, read, bytes.length - read);
+      if (next < 0) {
+        throw new IOException("Unexpected end of file at " + cursor.tell() + ".");
+      }
+      read += next;
+    }
+  }
+
+  /**
+   * Provides the number of blocks in the file.
+   *
+   * @return the number of blocks
+   */
+  public int getBlockCount() {
+    return blockPositions.length - 1;
+  }
+
+  /**
+   * Provides the number of POJOs in the file.
+   *
+   * @return the number of POJOs
+   */
+  public long getCount() {
+    return blockOffsets[blockOffsets.length - 1];
+  }
+
+  /**
+   * Creates a {@link Spliterator} over all POJOs in the file, which splits at block boundaries.
+   *
+   * @return the {@link Spliterator}, of known size
+   */
+  public Spliterator<T> spliterator() {
+    return new BlockSpliterator(0, getBlockCount());
+  }
+
+  /**
+   * Creates a sequential {@link Stream} over all POJOs in the file.
+   *
+   * @return the {@link Stream}, in file order
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Creates a parallel {@link Stream} over all POJOs in the file, decoding blocks on the common pool.
+   *
+   * @return the parallel {@link Stream}
+   */
+  public Stream<T> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+  /**
+   * Closes the file. The mapping stays readable until it is garbage collected, but no new readers should be created.
+   *
+   * @throws IOException when the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * {@link Spliterator} over a range of blocks, decoding them through its own {@link DataFileReader} once traversal
+   * starts.
+   */
+  private final class BlockSpliterator implements Spliterator<T> {
+
+    private int fromBlock;
+    private final int toBlock;
+    private long remaining;
+    private DataFileReader<T> reader;
+
+    /**
+     * Constructs the {@link Spliterator} over a range of blocks.
+     *
+     * @param fromBlock the first block, inclusive
+     * @param toBlock the last block, exclusive
+     */
+    private BlockSpliterator(int fromBlock, int toBlock) {
+      this.fromBlock = fromBlock;
+      this.toBlock = toBlock;
+      this.remaining = blockOffsets[toBlock] - blockOffsets[fromBlock];
+    }
+
+    /**
+     * Decodes the next POJO, opening the reader at the first block on first use.
+     *
+     * @param action the action to pass the POJO to
+     * @return whether a POJO was left
+     * @throws UncheckedIOException when the file cannot be read
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      if (remaining == 0) {
+        return false;
+      }
+      try {
+        if (reader == null) {
+          MappedInput view = input.view();
+          view.seek(blockPositions[fromBlock]);
+          reader = DataFileReader.openReader(view, datumReader, header, false);
+        }
+        T pojo = reader.next();
+        if (--remaining == 0) {
+          reader.close();
+        }
+        action.accept(pojo);
+        return true;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Splits off the first half of the blocks, as long as traversal has not started and more than one block is left.
+     *
+     * @return the {@link Spliterator} over the first half, or {@code null} if this one cannot be split
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+      if (reader != null || toBlock - fromBlock < 2) {
+        return null;
+      }
+      int middle = (fromBlock + toBlock) >>> 1;
+      Spliterator<T> prefix = new BlockSpliterator(fromBlock, middle);
+      fromBlock = middle;
+      remaining = blockOffsets[toBlock] - blockOffsets[fromBlock];
+      return prefix;
+    }
+
+    /**
+     * Provides the exact number of POJOs left, known from the block headers.
+     *
+     * @return the number of POJOs left
+     */
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    /**
+     * Provides the characteristics, which include an exact size for every split.
+     *
+     * @return the characteristics
+     */
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL | SIZED | SUBSIZED;
+    }
+  }
+}
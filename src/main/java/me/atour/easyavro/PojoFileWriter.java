@@ -0,0 +1,179 @@
+package me.atour.easyavro;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+
+/**
+ * Writes POJOs to an Avro object container file, encoding their fields straight into the file blocks through a
+ * {@link PojoDatumWriter}, so no {@link org.apache.avro.generic.GenericRecord} is built per POJO.
+ * The codec, sync interval and block size are configured before the file is created.
+ *
+ * @param <T> type parameter representing the class of the POJOs to write
+ */
+public class PojoFileWriter<T> implements Closeable, Flushable {
+
+  private final Schema schema;
+  private final DataFileWriter<T> fileWriter;
+
+  /**
+   * The maximum number of POJOs per block, or {@code 0} to end blocks on the sync interval only.
+   */
+  @Getter
+  private int blockSize;
+
+  /**
+   * The number of POJOs appended to the current block by this writer.
+   */
+  private int blockCount;
+
+  /**
+   * The number of POJOs appended by this writer.
+   */
+  @Getter
+  private long count;
+
+  /**
+   * Constructs a writer for the POJOs an {@link AvroSchema} was generated for.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public PojoFileWriter(@NonNull AvroSchema<T> avroSchema) {
+    fileWriter = new DataFileWriter<>(new PojoDatumWriter<>(avroSchema));
+    schema = avroSchema.getSchema();
+  }
+
+  /**
+   * Sets the codec to compress the blocks with, before the file is created.
+   *
+   * @param codec the {@link CodecFactory} of the codec, such as {@link CodecFactory#deflateCodec(int)}
+   * @return this writer
+   * @throws org.apache.avro.AvroRuntimeException when the file was created already
+   */
+  public PojoFileWriter<T> setCodec(@NonNull CodecFactory codec) {
+    fileWriter.setCodec(codec);
+    return this;
+  }
+
+  /**
+   * Sets the approximate number of uncompressed bytes after which a block is ended with a sync marker, before the
+   * file is created.
+   *
+   * @param syncInterval the sync interval in bytes, between 32 and 2^30
+   * @return this writer
+   * @throws IllegalArgumentException when the sync interval is out of range
+   * @throws org.apache.avro.AvroRuntimeException when the file was created already
+   */
+  public PojoFileWriter<T> setSyncInterval(int syncInterval) {
+    fileWriter.setSyncInterval(syncInterval);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of POJOs per block, ending blocks earlier than the sync interval would.
+   * Smaller blocks can be skipped to and decompressed independently, at the cost of more sync markers.
+   *
+   * @param blockSize the maximum number of POJOs per block, or {@code 0} for no maximum
+   * @return this writer
+   * @throws IllegalArgumentException when the block size is negative
+   */
+  public PojoFileWriter<T> setBlockSize(int blockSize) {
+    if (blockSize < 0) {
+      throw new IllegalArgumentException("The block size cannot be negative.");
+    }
+    this.blockSize = blockSize;
+    return this;
+  }
+
+  /**
+   * Creates a container file and writes its header.
+   *
+   * @param file the file to create
+   * @return this writer
+   * @throws IOException when the file cannot be written
+   */
+  public PojoFileWriter<T> create(@NonNull File file) throws IOException {
+    fileWriter.create(schema, file);
+    return this;
+  }
+
+  /**
+   * Writes the header of a container file to a stream, which is closed together with this writer.
+   *
+   * @param out the stream to write the file to
+   * @return this writer
+   * @throws IOException when the stream cannot be written
+   */
+  public PojoFileWriter<T> create(@NonNull OutputStream out) throws IOException {
+    fileWriter.create(schema, out);
+    return this;
+  }
+
+  /**
+   * Appends a POJO to the current block, ending the block when it is full.
+   *
+   * @param pojo the POJO to append
+   * @throws IOException when the file cannot be written
+   * @throws org.apache.avro.file.DataFileWriter.AppendWriteException when the POJO cannot be encoded
+   */
+  public void append(@NonNull T pojo) throws IOException {
+    fileWriter.append(pojo);
+    count++;
+    if (blockSize > 0 && ++blockCount >= blockSize) {
+      sync();
+    }
+  }
+
+  /**
+   * Appends POJOs in iteration order.
+   *
+   * @param pojos the POJOs to append
+   * @throws IOException when the file cannot be written
+   * @throws org.apache.avro.file.DataFileWriter.AppendWriteException when a POJO cannot be encoded
+   */
+  public void appendAll(@NonNull Iterable<? extends T> pojos) throws IOException {
+    for (T pojo : pojos) {
+      append(pojo);
+    }
+  }
+
+  /**
+   * Ends the current block, so the position returned can be seeked to when reading.
+   *
+   * @return the position of the sync marker ending the block
+   * @throws IOException when the file cannot be written
+   */
+  public long sync() throws IOException {
+    blockCount = 0;
+    return fileWriter.sync();
+  }
+
+  /**
+   * Ends the current block and flushes the file.
+   *
+   * @throws IOException when the file cannot be written
+   */
+  @Override
+  public void flush() throws IOException {
+    blockCount = 0;
+    fileWriter.flush();
+  }
+
+  /**
+   * Ends the current block and closes the file.
+   *
+   * @throws IOException when the file cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    fileWriter.close();
+  }
+}
@@ -0,0 +1,176 @@
+package me.atour.easyavro;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.avro.Schema;
+import org.apache.avro.message.MissingSchemaException;
+import org.apache.avro.message.SchemaStore;
+
+/**
+ * Decodes single-object encoded messages written with any of the {@link Schema}s in a {@link SchemaStore} into the
+ * POJOs an {@link AvroSchema} was generated for.
+ * The {@link PojoDatumReader} of every writer {@link Schema} is built once and cached by fingerprint, evicting the
+ * least recently used one when the cache is full, so messages of known writers are decoded without resolving the
+ * schemas again. The decoder is thread-safe.
+ *
+ * @param <T> type parameter representing the class of the POJOs to decode
+ */
+public final class PojoMessageDecoder<T> {
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private final AvroSchema<T> avroSchema;
+  private final long fingerprint;
+  private final SchemaStore store;
+
+  /**
+   * The maximum number of cached {@link PojoDatumReader}s.
+   */
+  @Getter
+  private final int capacity;
+
+  /**
+   * The cached {@link PojoDatumReader}s by writer fingerprint, in access order.
+   */
+  private final Map<Long, PojoDatumReader<T>> readers;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Constructs a decoder caching the {@link PojoDatumReader}s of up to 64 writer {@link Schema}s.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class, which should not be regenerated afterwards
+   * @param store the {@link SchemaStore} to find the writer {@link Schema}s in
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   */
+  public PojoMessageDecoder(@NonNull AvroSchema<T> avroSchema, @NonNull SchemaStore store) {
+    this(avroSchema, store, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a decoder.
+   *
+   * @param avroSchema the generated {@link AvroSchema} of the POJO class, which should not be regenerated afterwards
+   * @param store the {@link SchemaStore} to find the writer {@link Schema}s in
+   * @param capacity the maximum number of writer {@link Schema}s to cache the {@link PojoDatumReader} of
+   * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+   * @throws IllegalArgumentException when the capacity is not positive
+   */
+  public PojoMessageDecoder(@NonNull AvroSchema<T> avroSchema, @NonNull SchemaStore store, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity has to be positive.");
+    }
+    this.avroSchema = avroSchema;
+    this.fingerprint = avroSchema.getFingerprint();
+    this.store = store;
+    this.capacity = capacity;
+    this.readers = new LinkedHashMap<>(16, 0.75f, true) {
+
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * Evicts the least recently used {@link PojoDatumReader} once the capacity is exceeded.
+       *
+       * @param eldest the least recently used entry
+       * @return whether to evict it
+       */
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, PojoDatumReader<T>> eldest) {
+        return size() > PojoMessageDecoder.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * Decodes a single-object encoded message.
+   *
+   * @param message the encoded message
+   * @return the decoded POJO
+   * @throws CannotConvertRecordToPojoException when the message does not start with the single-object encoding marker,
+   *     its writer {@link Schema} is not in the {@link SchemaStore} or cannot be read into the POJO, or the payload
+   *     cannot be decoded
+   */
+  public T decode(@NonNull byte[] message) {
+    return avroSchema.decodeMessage(message, this::readerOf);
+  }
+
+  /**
+   * Provides the cached {@link PojoDatumReader} of a writer {@link Schema}, building and caching it on a miss.
+   *
+   * @param writerFingerprint the fingerprint of the writer {@link Schema}
+   * @return the {@link PojoDatumReader}
+   * @throws CannotConvertRecordToPojoException when the writer {@link Schema} is unknown or cannot be read
+   */
+  private PojoDatumReader<T> readerOf(long writerFingerprint) {
+    PojoDatumReader<T> reader;
+    synchronized (readers) {
+      reader = readers.get(writerFingerprint);
+    }
+    if (reader != null) {
+      hits.increment();
+      return reader;
+    }
+    misses.increment();
+    reader = createReader(writerFingerprint);
+    synchronized (readers) {
+      readers.put(writerFingerprint, reader);
+    }
+    return reader;
+  }
+
+  /**
+   * Builds the {@link PojoDatumReader} of a writer {@link Schema}.
+   *
+   * @param writerFingerprint the fingerprint of the writer {@link Schema}
+   * @return the {@link PojoDatumReader}
+   * @throws CannotConvertRecordToPojoException when the writer {@link Schema} is unknown or cannot be read
+   */
+  private PojoDatumReader<T> createReader(long writerFingerprint) {
+    if (writerFingerprint == fingerprint) {
+      return new PojoDatumReader<>(avroSchema);
+    }
+    Schema writerSchema = store.findByFingerprint(writerFingerprint);
+    if (writerSchema == null) {
+      throw new CannotConvertRecordToPojoException(new MissingSchemaException(
+          "Cannot find the writer schema with fingerprint " + writerFingerprint + "."));
+    }
+    try {
+      return new PojoDatumReader<>(avroSchema, writerSchema);
+    } catch (IllegalArgumentException e) {
+      throw new CannotConvertRecordToPojoException(e);
+    }
+  }
+
+  /**
+   * Provides the number of messages whose {@link PojoDatumReader} was cached.
+   *
+   * @return the number of cache hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Provides the number of messages whose {@link PojoDatumReader} had to be built.
+   *
+   * @return the number of cache misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Provides the number of cached {@link PojoDatumReader}s.
+   *
+   * @return the number of writer {@link Schema}s cached
+   */
+  public int size() {
+    synchronized (readers) {
+      return readers.size();
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package me.atour.easyavro;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A POJO encoded into a direct {@link ByteBuffer} taken from a {@link BufferPool}, to be closed once it has been
+ * written, so the buffer can be reused.
+ */
+public final class PooledBuffer implements AutoCloseable {
+
+  private final BufferPool pool;
+  private ByteBuffer buffer;
+
+  /**
+   * Constructs the handle of an encoded buffer.
+   *
+   * @param pool the {@link BufferPool} to return the buffer to
+   * @param buffer the {@link ByteBuffer}, flipped to hold the encoded POJO between its position and limit
+   */
+  PooledBuffer(BufferPool pool, ByteBuffer buffer) {
+    this.pool = pool;
+    this.buffer = buffer;
+  }
+
+  /**
+   * Provides the buffer holding the encoded POJO between its position and limit.
+   *
+   * @return the direct {@link ByteBuffer}
+   * @throws IllegalStateException when the buffer has been released already
+   */
+  public ByteBuffer getBuffer() {
+    if (buffer == null) {
+      throw new IllegalStateException("The buffer has been released already.");
+    }
+    return buffer;
+  }
+
+  /**
+   * Provides the number of bytes the POJO was encoded into.
+   *
+   * @return the length of the encoded POJO
+   * @throws IllegalStateException when the buffer has been released already
+   */
+  public int getLength() {
+    return getBuffer().limit();
+  }
+
+  /**
+   * Returns the buffer to its {@link BufferPool}. The buffer must not be used anymore afterwards.
+   */
+  @Override
+  public void close() {
+    if (buffer != null) {
+      pool.release(buffer);
+      buffer = null;
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package me.atour.easyavro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+/**
+ * Lightweight view over a single record encoded in Avro binary with the generated {@link Schema} of an
+ * {@link AvroSchema}, decoding fields only when they are read.
+ * The start of every field is found by skipping the fields before it, the first time a field at or after it is read.
+ * The bytes are never copied or modified, so they can be forwarded as they are. Views are not thread-safe.
+ *
+ * @param <T> type parameter representing the class of the POJO the record encodes
+ */
+public final class RecordView<T> {
+
+  private final Layout<T> layout;
+  private final byte[] bytes;
+  private final int end;
+
+  /**
+   * The start of every field in the bytes, known for the fields before {@link #indexed}.
+   */
+  private final int[] starts;
+
+  private int indexed;
+  private BinaryDecoder decoder;
+
+  /**
+   * Constructs a view over encoded bytes.
+   *
+   * @param layout the {@link Layout} of the generated {@link Schema}
+   * @param bytes the array holding the record
+   * @param offset the start of the record in the array
+   * @param length the number of bytes of the record
+   */
+  RecordView(Layout<T> layout, byte[] bytes, int offset, int length) {
+    this.layout = layout;
+    this.bytes = bytes;
+    this.end = offset + length;
+    this.starts = new int[layout.skippers.length + 1];
+    this.starts[0] = offset;
+    this.indexed = 1;
+  }
+
+  /**
+   * Decodes a single field, as it would be set on the POJO but boxed.
+   *
+   * @param fieldName the name of the Java field
+   * @return the decoded value
+   * @throws IllegalArgumentException when the field is not in the generated {@link Schema}
+   * @throws CannotConvertRecordToPojoException when the bytes cannot be decoded
+   */
+  public Object get(@NonNull String fieldName) {
+    Integer position = layout.positions.get(fieldName);
+    if (position == null) {
+      throw new IllegalArgumentException("Field " + fieldName + " is not in the generated schema.");
+    }
+    try {
+      return layout.reader.readValue(position, decoderAt(position));
+    } catch (IOException e) {
+      throw new CannotConvertRecordToPojoException(e);
+    }
+  }
+
+  /**
+   * Decodes the whole record into a POJO.
+   *
+   * @return the decoded POJO
+   * @throws CannotConvertRecordToPojoException when the bytes cannot be decoded or the POJO cannot be created
+   */
+  public T toPojo() {
+    try {
+      return layout.reader.read(null, decoderAt(0));
+    } catch (IOException e) {
+      throw new CannotConvertRecordToPojoException(e);
+    }
+  }
+
+  /**
+   * Provides the encoded record, to forward it without re-encoding.
+   *
+   * @return a read-only {@link ByteBuffer} over the bytes of the record
+   */
+  public ByteBuffer getBuffer() {
+    return ByteBuffer.wrap(bytes, starts[0], end - starts[0]).slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * Positions the {@link BinaryDecoder} at the start of a field, skipping the fields not yet indexed before it.
+   *
+   * @param position the position of the field in the generated {@link Schema}
+   * @return the {@link BinaryDecoder}, positioned at the field
+   * @throws IOException when the fields before it cannot be skipped
+   */
+  private BinaryDecoder decoderAt(int position) throws IOException {
+    if (indexed <= position) {
+      int start = starts[indexed - 1];
+      decoder = DecoderFactory.get().binaryDecoder(bytes, start, end - start, decoder);
+      while (indexed <= position) {
+        layout.skippers[indexed - 1].skip(decoder);
+        starts[indexed++] = end - decoder.inputStream().available();
+      }
+    }
+    int start = starts[position];
+    decoder = DecoderFactory.get().binaryDecoder(bytes, start, end - start, decoder);
+    return decoder;
+  }
+
+  /**
+   * What views of the same {@link AvroSchema} share: the reader decoding the fields, the positions of the fields and
+   * the skippers finding their starts.
+   *
+   * @param <T> type parameter representing the class of the POJO
+   */
+  static final class Layout<T> {
+
+    private final PojoDatumReader<T> reader;
+    private final Map<String, Integer> positions;
+    private final ValueSkipper[] skippers;
+
+    /**
+     * Constructs the layout of a generated {@link AvroSchema}.
+     *
+     * @param avroSchema the generated {@link AvroSchema}
+     * @throws IllegalStateException when the {@link AvroSchema} has not been generated yet
+     */
+    Layout(AvroSchema<T> avroSchema) {
+      reader = new PojoDatumReader<>(avroSchema);
+      positions = new HashMap<>();
+      for (PojoField field : avroSchema.getPlan()) {
+        positions.put(field.getField().getName(), field.getPosition());
+      }
+      List<Schema.Field> fields = avroSchema.getSchema().getFields();
+      skippers = new ValueSkipper[fields.size()];
+      for (int i = 0; i < skippers.length; i++) {
+        skippers[i] = ValueSkipper.of(fields.get(i).schema());
+      }
+    }
+
+    /**
+     * Creates a view over encoded bytes.
+     *
+     * @param bytes the array holding the record
+     * @param offset the start of the record in the array
+     * @param length the number of bytes of the record
+     * @return the {@link RecordView}
+     */
+    RecordView<T> view(byte[] bytes, int offset, int length) {
+      return new RecordView<>(this, bytes, offset, length);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package me.atour.easyavro;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of a {@link SchemaFactory} adding the fields of a record schema.
+ */
+@Name(SchemaCreationEvent.NAME)
+@Label("Schema Creation")
+@Category(GenerationEvent.CATEGORY)
+@Description("Creation of the fields of a record schema, including the schemas of nested records")
+@Enabled(false)
+final class SchemaCreationEvent extends Event {
+
+  /**
+   * The name of the event in recordings and recording settings.
+   */
+  static final String NAME = "me.atour.easyavro.SchemaCreation";
+
+  @Label("Schema")
+  private final String schemaName;
+
+  @Label("Field Count")
+  private int fieldCount;
+
+  @Label("Failure")
+  private String failure;
+
+  /**
+   * Constructs the event of creating a record schema.
+   *
+   * @param schemaName the full name of the record schema
+   */
+  SchemaCreationEvent(String schemaName) {
+    this.schemaName = schemaName;
+  }
+
+  /**
+   * Commits the event for created fields.
+   *
+   * @param fields the number of fields added to the record schema
+   */
+  void created(int fields) {
+    fieldCount = fields;
+    commit();
+  }
+
+  /**
+   * Commits the event for fields that could not be added.
+   *
+   * @param cause the {@link Throwable} adding the fields failed with
+   */
+  void failed(Throwable cause) {
+    if (isEnabled()) {
+      failure = cause.toString();
+    }
+    commit();
+  }
+}
@@ -0,0 +1,295 @@
+package me.atour.easyavro;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.atour.easyavro.field.AvroField;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaParseException;
+
+/**
+ * Keeps generated {@link Schema}s and their field names in a directory, so later runs can skip annotation scanning and
+ * naming conversion.
+ * Every class is stored in its own file, together with a structural hash of the class covering its fields, their
+ * annotations and the nested record types they refer to. Entries whose hash no longer matches the class are ignored
+ * and overwritten, so the cache invalidates itself when the class changes.
+ */
+@Slf4j
+public final class SchemaDiskCache {
+
+  /**
+   * The system property holding the directory of the {@link #defaultCache()}.
+   */
+  public static final String DIRECTORY_PROPERTY = "easyavro.schema.cache.dir";
+
+  private static final String FORMAT = "1";
+  private static final String FORMAT_KEY = "format";
+  private static final String HASH_KEY = "hash";
+  private static final String SCHEMA_KEY = "schema";
+  private static final String FIELD_PREFIX = "field.";
+
+  private static final SchemaDiskCache defaultCache = fromProperty(System.getProperty(DIRECTORY_PROPERTY));
+
+  @Getter
+  private final Path directory;
+
+  /**
+   * Constructs a cache keeping its files in a directory, which is created when the first entry is stored.
+   *
+   * @param directory the directory to keep the cached {@link Schema}s in
+   */
+  public SchemaDiskCache(@NonNull Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Provides the cache configured through the {@value #DIRECTORY_PROPERTY} system property, used by every new
+   * {@link AvroSchema} including the shared ones.
+   *
+   * @return the default cache, or {@code null} if the system property was not set at startup
+   */
+  public static SchemaDiskCache defaultCache() {
+    return defaultCache;
+  }
+
+  /**
+   * Creates the cache of a configured directory.
+   *
+   * @param directory the configured directory, may be {@code null} or blank
+   * @return the cache, or {@code null} if no directory was configured
+   */
+  static SchemaDiskCache fromProperty(String directory) {
+    return directory == null || directory.isBlank() ? null : new SchemaDiskCache(Paths.get(directory));
+  }
+
+  /**
+   * Loads the cached {@link Schema} of a class, if it was stored for the same structure.
+   *
+   * @param type the class to load the {@link Schema} of
+   * @param hash the current structural hash of the class
+   * @return the cached entry, or {@code null} if there is none, it is stale, or it cannot be read
+   */
+  Entry load(Class<?> type, String hash) {
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(fileOf(type))) {
+      properties.load(in);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | IllegalArgumentException e) {
+      log.debug("Cannot read the cached schema of {} because {}.", type, e.getMessage());
+      return null;
+    }
+    if (!FORMAT.equals(properties.getProperty(FORMAT_KEY)) || !hash.equals(properties.getProperty(HASH_KEY))) {
+      return null;
+    }
+    try {
+      Schema schema = new Schema.Parser().parse(properties.getProperty(SCHEMA_KEY, ""));
+      Map<String, String> fieldNames = new HashMap<>();
+      for (String key : properties.stringPropertyNames()) {
+        if (key.startsWith(FIELD_PREFIX)) {
+          fieldNames.put(key.substring(FIELD_PREFIX.length()), properties.getProperty(key));
+        }
+      }
+      return new Entry(schema, fieldNames);
+    } catch (SchemaParseException e) {
+      log.debug("Cannot parse the cached schema of {} because {}.", type, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Stores the {@link Schema} of a class, replacing the file atomically so concurrent readers never see half of it.
+   * Failures are logged and otherwise ignored, as the {@link Schema} can always be generated again.
+   *
+   * @param type the class to store the {@link Schema} of
+   * @param hash the current structural hash of the class
+   * @param schema the generated {@link Schema}
+   * @param fieldNames the names of the fields in the {@link Schema}, by the names of the fields they belong to
+   */
+  void store(Class<?> type, String hash, Schema schema, Map<String, String> fieldNames) {
+    Properties properties = new Properties();
+    properties.setProperty(FORMAT_KEY, FORMAT);
+    properties.setProperty(HASH_KEY, hash);
+    properties.setProperty(SCHEMA_KEY, schema.toString());
+    for (Map.Entry<String, String> fieldName : fieldNames.entrySet()) {
+      properties.setProperty(FIELD_PREFIX + fieldName.getKey(), fieldName.getValue());
+    }
+    Path file = fileOf(type);
+    Path temporary = null;
+    try {
+      Files.createDirectories(directory);
+      temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        properties.store(out, type.getName());
+      }
+      moveInPlace(temporary, file);
+    } catch (IOException e) {
+      log.warn("Cannot cache the schema of {} in {} because {}.", type, directory, e.getMessage());
+      deleteQuietly(temporary);
+    }
+  }
+
+  /**
+   * Moves a written file in place, atomically where the file system supports it.
+   *
+   * @param source the written file
+   * @param target the file to replace
+   * @throws IOException when the file cannot be moved
+   */
+  private static void moveInPlace(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Deletes a file if it exists, ignoring failures.
+   *
+   * @param file the file to delete, may be {@code null}
+   */
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.debug("Cannot delete {} because {}.", file, e.getMessage());
+    }
+  }
+
+  /**
+   * Resolves the file of a class.
+   *
+   * @param type the class
+   * @return the file its {@link Schema} is cached in
+   */
+  private Path fileOf(Class<?> type) {
+    return directory.resolve(type.getName() + ".properties");
+  }
+
+  /**
+   * Computes the structural hash of a class, covering everything the generated {@link Schema} depends on: the
+   * {@link AvroRecord} annotation, the non-static fields with their types, modifiers and {@link AvroField}
+   * annotations, and the same for every {@link AvroRecord} type the fields refer to, as their {@link Schema}s are
+   * embedded.
+   *
+   * @param type the class to hash
+   * @return the hexadecimal SHA-256 hash
+   */
+  static String structuralHash(@NonNull Class<?> type) {
+    StringBuilder description = new StringBuilder(FORMAT);
+    Set<Class<?>> described = new HashSet<>();
+    Deque<Class<?>> pending = new ArrayDeque<>();
+    pending.add(type);
+    while (!pending.isEmpty()) {
+      Class<?> next = pending.poll();
+      if (described.add(next)) {
+        describe(next, description, pending);
+      }
+    }
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(description.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new CannotGenerateSchemaException(e);
+    }
+  }
+
+  /**
+   * Appends the structure of a single class to a description.
+   *
+   * @param type the class to describe
+   * @param description the description to append to
+   * @param nested the queue to add the nested record types to
+   */
+  private static void describe(Class<?> type, StringBuilder description, Deque<Class<?>> nested) {
+    description.append('\n').append(type.getName());
+    AvroRecord avroRecord = type.getAnnotation(AvroRecord.class);
+    if (avroRecord != null) {
+      description.append('@').append(avroRecord.schemaName()).append('@').append(avroRecord.fieldStrategy());
+    }
+    for (Field field : type.getDeclaredFields()) {
+      description
+          .append(';')
+          .append(field.getModifiers())
+          .append(' ')
+          .append(field.getGenericType().getTypeName())
+          .append(' ')
+          .append(field.getName());
+      AvroField avroField = field.getAnnotation(AvroField.class);
+      if (avroField != null) {
+        description
+            .append('@')
+            .append(avroField.name())
+            .append('@')
+            .append(avroField.included())
+            .append('@')
+            .append(String.join(",", avroField.aliases()));
+      }
+      addRecordTypes(field.getGenericType(), nested);
+    }
+  }
+
+  /**
+   * Collects the {@link AvroRecord} types a field type refers to, including its type arguments and component types.
+   *
+   * @param type the field type
+   * @param nested the queue to add the record types to
+   */
+  private static void addRecordTypes(Type type, Deque<Class<?>> nested) {
+    if (type instanceof Class<?> clazz) {
+      Class<?> component = clazz.isArray() ? clazz.getComponentType() : clazz;
+      if (component.isArray()) {
+        addRecordTypes(component, nested);
+      } else if (component.isAnnotationPresent(AvroRecord.class)) {
+        nested.add(component);
+      }
+    } else if (type instanceof ParameterizedType parameterized) {
+      addRecordTypes(parameterized.getRawType(), nested);
+      for (Type argument : parameterized.getActualTypeArguments()) {
+        addRecordTypes(argument, nested);
+      }
+    } else if (type instanceof GenericArrayType array) {
+      addRecordTypes(array.getGenericComponentType(), nested);
+    }
+  }
+
+  /**
+   * A {@link Schema} loaded from the cache, with the names of its fields by the names of the fields they belong to.
+   */
+  @Getter(AccessLevel.PACKAGE)
+  @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+  static final class Entry {
+    private final Schema schema;
+    private final Map<String, String> fieldNames;
+  }
+}
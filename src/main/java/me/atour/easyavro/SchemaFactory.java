@@ -6,9 +6,12 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import me.atour.easyavro.field.AvroField;
@@ -36,6 +39,13 @@ public class SchemaFactory {
 
   private SchemaBuilder.FieldAssembler<Schema> builder;
 
+  /**
+   * The record {@link Schema} returned by {@link #create()}, already available for self-references while the fields
+   * are being added.
+   */
+  @Getter(AccessLevel.PACKAGE)
+  private final Schema recordSchema;
+
   /**
    * Constructs a {@link Schema} factory.
    *
@@ -44,6 +54,7 @@ public class SchemaFactory {
    */
   public SchemaFactory(@NonNull String name, @NonNull String namespace) {
     builder = SchemaBuilder.record(name).namespace(namespace).fields();
+    recordSchema = Schema.createRecord(name, null, namespace, false);
   }
 
   /**
@@ -58,6 +69,31 @@ public class SchemaFactory {
   public Map<String, String> setFields(
       Map<Field, MethodHandle> fields, MethodHandles.Lookup lookup, FieldNamingConverter fieldNameConverter)
       throws IllegalAccessException {
+    SchemaCreationEvent event = new SchemaCreationEvent(recordSchema.getFullName());
+    event.begin();
+    try {
+      Map<String, String> fieldNames = addFields(fields, lookup, fieldNameConverter);
+      event.created(fieldNames.size());
+      return fieldNames;
+    } catch (IllegalAccessException | RuntimeException e) {
+      event.failed(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Adds the fields to the {@link Schema} the factory is building, skipping those excluded by their {@link AvroField}.
+   * The {@link AvroField#aliases()} are added to the fields, so any Avro reader resolves the earlier names.
+   *
+   * @param fields a {@link Map} of the {@link Field}s to add to their respective {@link MethodHandle}rs
+   * @param lookup the {@link MethodHandles.Lookup} to use for reflection
+   * @param fieldNameConverter the {@link FieldNamingConverter} of the strategy to apply on the fields
+   * @return a {@link Map} detailing which fields were assigned which names in the schema
+   * @throws IllegalAccessException when reflection cannot access the fields it tries to access
+   */
+  private Map<String, String> addFields(
+      Map<Field, MethodHandle> fields, MethodHandles.Lookup lookup, FieldNamingConverter fieldNameConverter)
+      throws IllegalAccessException {
     Map<String, String> fieldNames = new HashMap<>();
     for (Map.Entry<Field, MethodHandle> field : fields.entrySet()) {
       AvroField fieldAnnotation = field.getKey().getAnnotation(AvroField.class);
@@ -72,14 +108,18 @@ public class SchemaFactory {
         processedFieldName = fieldAnnotation.name();
       }
       Class<?> fieldType = field.getKey().getType();
+      SchemaBuilder.FieldBuilder<Schema> fieldBuilder = builder.name(processedFieldName);
+      if (fieldAnnotation != null && fieldAnnotation.aliases().length > 0) {
+        fieldBuilder = fieldBuilder.aliases(fieldAnnotation.aliases());
+      }
       if (List.class.isAssignableFrom(fieldType) || Map.class.isAssignableFrom(fieldType)) {
         Type genericType = field.getKey().getGenericType();
         assert genericType instanceof ParameterizedType;
         ParameterizedType parameterizedType = (ParameterizedType) genericType;
-        setField(fieldType, processedFieldName, parameterizedType.getActualTypeArguments());
+        setField(fieldType, fieldBuilder, parameterizedType.getActualTypeArguments());
       } else {
         boolean isFinal = Modifier.isFinal(field.getKey().getModifiers());
-        setField(fieldType, processedFieldName, isFinal);
+        setField(fieldType, fieldBuilder, isFinal);
       }
       fieldNames.put(originalFieldName, processedFieldName);
     }
@@ -90,17 +130,17 @@ public class SchemaFactory {
    * Adds a field to the {@link Schema} the factory is building.
    *
    * @param fieldType the field type as a Java {@link Class}
-   * @param fieldName the field name
+   * @param field the builder of the field, already named
    * @param isRequired whether the field is required
    * @throws CannotCreateValidEncodingException when the {@link Class} cannot be encoded
    */
-  private void setField(Class<?> fieldType, String fieldName, boolean isRequired) {
+  private void setField(Class<?> fieldType, SchemaBuilder.FieldBuilder<Schema> field, boolean isRequired) {
     if (fieldType.isArray()) {
-      setArrayField(fieldType.getComponentType(), fieldName);
+      setArrayField(fieldType.getComponentType(), field);
     } else if (isRequired) {
-      setRequiredField(fieldType, fieldName);
+      setRequiredField(fieldType, field);
     } else {
-      setOptionalField(fieldType, fieldName);
+      setOptionalField(fieldType, field);
     }
   }
 
@@ -108,17 +148,17 @@ public class SchemaFactory {
    * Adds a field to the {@link Schema} the factory is building.
    *
    * @param fieldType the field type as a Java {@link Class}
-   * @param fieldName the field name
+   * @param field the builder of the field, already named
    * @param typeParameters the field type's type parameters
    * @throws CannotCreateValidEncodingException when the {@link Class} cannot be encoded
    */
-  private void setField(Class<?> fieldType, String fieldName, Type[] typeParameters) {
+  private void setField(Class<?> fieldType, SchemaBuilder.FieldBuilder<Schema> field, Type[] typeParameters) {
     if (List.class.isAssignableFrom(fieldType)) {
       Class<?> listType = (Class<?>) typeParameters[0];
-      setArrayField(listType, fieldName);
+      setArrayField(listType, field);
     } else if (Map.class.isAssignableFrom(fieldType)) {
       Class<?> mapType = (Class<?>) typeParameters[1];
-      setMapField(mapType, fieldName);
+      setMapField(mapType, field);
     } else {
       log.error("Expected Map or List assignable type, got {} instead.", fieldType);
       throw new RuntimeException();
@@ -129,27 +169,25 @@ public class SchemaFactory {
    * Adds a required field to the {@link Schema} the factory is building.
    *
    * @param fieldType the field type as a Java {@link Class}
-   * @param fieldName the field name
+   * @param field the builder of the field, already named
    * @throws CannotCreateValidEncodingException when the {@link Class} cannot be encoded
    */
-  private void setRequiredField(Class<?> fieldType, String fieldName) {
+  private void setRequiredField(Class<?> fieldType, SchemaBuilder.FieldBuilder<Schema> field) {
     Class<?> wrappedType = simplifyType(fieldType);
     if (Boolean.class.isAssignableFrom(wrappedType)) {
-      builder = builder.requiredBoolean(fieldName);
+      builder = field.type().booleanType().noDefault();
     } else if (Long.class.isAssignableFrom(wrappedType)) {
-      builder = builder.requiredLong(fieldName);
+      builder = field.type().longType().noDefault();
     } else if (Integer.class.isAssignableFrom(wrappedType)) {
-      builder = builder.requiredInt(fieldName);
+      builder = field.type().intType().noDefault();
     } else if (Double.class.isAssignableFrom(wrappedType)) {
-      builder = builder.requiredDouble(fieldName);
+      builder = field.type().doubleType().noDefault();
     } else if (Float.class.isAssignableFrom(wrappedType)) {
-      builder = builder.requiredFloat(fieldName);
+      builder = field.type().floatType().noDefault();
     } else if (String.class.isAssignableFrom(wrappedType)) {
-      builder = builder.requiredString(fieldName);
+      builder = field.type().stringType().noDefault();
     } else if (wrappedType.isAnnotationPresent(AvroRecord.class)) {
-      AvroSchema<?> schema = new AvroSchema<>(wrappedType);
-      schema.generate();
-      builder = builder.name(fieldName).type(schema.getSchema()).noDefault();
+      builder = field.type(AvroSchema.schemaOf(wrappedType)).noDefault();
     } else {
       log.error("Cannot create a valid encoding for {}.", fieldType);
       throw new CannotCreateValidEncodingException();
@@ -160,27 +198,25 @@ public class SchemaFactory {
    * Adds an optional field to the {@link Schema} the factory is building.
    *
    * @param fieldType the field type as a Java {@link Class}
-   * @param fieldName the field name
+   * @param field the builder of the field, already named
    * @throws CannotCreateValidEncodingException when the {@link Class} cannot be encoded
    */
-  private void setOptionalField(Class<?> fieldType, String fieldName) {
+  private void setOptionalField(Class<?> fieldType, SchemaBuilder.FieldBuilder<Schema> field) {
     Class<?> wrappedType = simplifyType(fieldType);
     if (Boolean.class.isAssignableFrom(wrappedType)) {
-      builder = builder.optionalBoolean(fieldName);
+      builder = field.type().optional().booleanType();
     } else if (Long.class.isAssignableFrom(wrappedType)) {
-      builder = builder.optionalLong(fieldName);
+      builder = field.type().optional().longType();
     } else if (Integer.class.isAssignableFrom(wrappedType)) {
-      builder = builder.optionalInt(fieldName);
+      builder = field.type().optional().intType();
     } else if (Double.class.isAssignableFrom(wrappedType)) {
-      builder = builder.optionalDouble(fieldName);
+      builder = field.type().optional().doubleType();
     } else if (Float.class.isAssignableFrom(wrappedType)) {
-      builder = builder.optionalFloat(fieldName);
+      builder = field.type().optional().floatType();
     } else if (String.class.isAssignableFrom(wrappedType)) {
-      builder = builder.optionalString(fieldName);
+      builder = field.type().optional().stringType();
     } else if (wrappedType.isAnnotationPresent(AvroRecord.class)) {
-      AvroSchema<?> schema = new AvroSchema<>(wrappedType);
-      schema.generate();
-      builder = builder.name(fieldName).type().optional().type(schema.getSchema());
+      builder = field.type().optional().type(AvroSchema.schemaOf(wrappedType));
     } else {
       log.error("Cannot create a valid encoding for {}.", fieldType);
       throw new CannotCreateValidEncodingException();
@@ -191,34 +227,28 @@ public class SchemaFactory {
    * Adds an array field to the {@link Schema} the factory is building.
    *
    * @param fieldType the component type of the field type as a Java {@link Class}
-   * @param fieldName the field name
+   * @param field the builder of the field, already named
    * @throws CannotCreateValidEncodingException when the {@link Class} cannot be encoded
    */
-  private void setArrayField(Class<?> fieldType, String fieldName) {
+  private void setArrayField(Class<?> fieldType, SchemaBuilder.FieldBuilder<Schema> field) {
     Class<?> wrappedType = simplifyType(fieldType);
     if (Boolean.class.isAssignableFrom(wrappedType)) {
-      builder =
-          builder.name(fieldName).type().array().items().booleanType().arrayDefault(List.of());
+      builder = field.type().array().items().booleanType().arrayDefault(List.of());
     } else if (Long.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().array().items().longType().arrayDefault(List.of());
+      builder = field.type().array().items().longType().arrayDefault(List.of());
     } else if (Integer.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().array().items().intType().arrayDefault(List.of());
+      builder = field.type().array().items().intType().arrayDefault(List.of());
     } else if (Double.class.isAssignableFrom(wrappedType)) {
-      builder =
-          builder.name(fieldName).type().array().items().doubleType().arrayDefault(List.of());
+      builder = field.type().array().items().doubleType().arrayDefault(List.of());
     } else if (Float.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().array().items().floatType().arrayDefault(List.of());
+      builder = field.type().array().items().floatType().arrayDefault(List.of());
     } else if (String.class.isAssignableFrom(wrappedType)) {
-      builder =
-          builder.name(fieldName).type().array().items().stringType().arrayDefault(List.of());
+      builder = field.type().array().items().stringType().arrayDefault(List.of());
     } else if (wrappedType.isAnnotationPresent(AvroRecord.class)) {
-      AvroSchema<?> schema = new AvroSchema<>(wrappedType);
-      schema.generate();
-      builder = builder.name(fieldName)
-          .type()
+      builder = field.type()
           .array()
           .items()
-          .type(schema.getSchema())
+          .type(AvroSchema.schemaOf(wrappedType))
           .arrayDefault(List.of());
     } else {
       log.error("Cannot create a valid encoding for {}.", fieldType);
@@ -230,32 +260,28 @@ public class SchemaFactory {
    * Adds a map field to the {@link Schema} the factory is building.
    *
    * @param fieldType the component type of the field type as a Java {@link Class}
-   * @param fieldName the field name
+   * @param field the builder of the field, already named
    * @throws CannotCreateValidEncodingException when the {@link Class} cannot be encoded
    */
-  private void setMapField(Class<?> fieldType, String fieldName) {
+  private void setMapField(Class<?> fieldType, SchemaBuilder.FieldBuilder<Schema> field) {
     Class<?> wrappedType = simplifyType(fieldType);
     if (Boolean.class.isAssignableFrom(wrappedType)) {
-      builder =
-          builder.name(fieldName).type().map().values().booleanType().mapDefault(Map.of());
+      builder = field.type().map().values().booleanType().mapDefault(Map.of());
     } else if (Long.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().map().values().longType().mapDefault(Map.of());
+      builder = field.type().map().values().longType().mapDefault(Map.of());
     } else if (Integer.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().map().values().intType().mapDefault(Map.of());
+      builder = field.type().map().values().intType().mapDefault(Map.of());
     } else if (Double.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().map().values().doubleType().mapDefault(Map.of());
+      builder = field.type().map().values().doubleType().mapDefault(Map.of());
     } else if (Float.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().map().values().floatType().mapDefault(Map.of());
+      builder = field.type().map().values().floatType().mapDefault(Map.of());
     } else if (String.class.isAssignableFrom(wrappedType)) {
-      builder = builder.name(fieldName).type().map().values().stringType().mapDefault(Map.of());
+      builder = field.type().map().values().stringType().mapDefault(Map.of());
     } else if (wrappedType.isAnnotationPresent(AvroRecord.class)) {
-      AvroSchema<?> schema = new AvroSchema<>(wrappedType);
-      schema.generate();
-      builder = builder.name(fieldName)
-          .type()
+      builder = field.type()
           .map()
           .values()
-          .type(schema.getSchema())
+          .type(AvroSchema.schemaOf(wrappedType))
           .mapDefault(Map.of());
     } else {
       log.error("Cannot create a valid encoding for {}.", fieldType);
@@ -280,10 +306,16 @@ public class SchemaFactory {
 
   /**
    * Creates the {@link Schema} configured for this factory.
+   * Can only be called once, as the fields are moved into the record {@link Schema} fields referring to it point to.
    *
    * @return the configured {@link Schema}
    */
   public Schema create() {
-    return builder.endRecord();
+    List<Schema.Field> fields = new ArrayList<>();
+    for (Schema.Field field : builder.endRecord().getFields()) {
+      fields.add(new Schema.Field(field, field.schema()));
+    }
+    recordSchema.setFields(fields);
+    return recordSchema;
   }
 }
@@ -0,0 +1,57 @@
+package me.atour.easyavro;
+
+import java.lang.reflect.Field;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves {@link sun.misc.Unsafe} once, without failing when the runtime does not provide it.
+ * Only the parts of Easy Avro that need it fail, with a {@link DoesNotSupportUnsafeException}.
+ */
+@Slf4j
+final class UnsafeAccess {
+
+  private static final sun.misc.Unsafe unsafe = load();
+
+  /**
+   * Hidden constructor, as the class only holds the resolved {@link sun.misc.Unsafe}.
+   */
+  private UnsafeAccess() {}
+
+  /**
+   * Checks whether the runtime provides {@link sun.misc.Unsafe}.
+   *
+   * @return whether {@link sun.misc.Unsafe} is available
+   */
+  static boolean isAvailable() {
+    return unsafe != null;
+  }
+
+  /**
+   * Provides {@link sun.misc.Unsafe}.
+   *
+   * @return the {@link sun.misc.Unsafe} instance
+   * @throws DoesNotSupportUnsafeException when the runtime does not provide it
+   */
+  static sun.misc.Unsafe get() {
+    if (unsafe == null) {
+      throw new DoesNotSupportUnsafeException();
+    }
+    return unsafe;
+  }
+
+  /**
+   * Loads the {@link sun.misc.Unsafe} instance.
+   *
+   * @return the {@link sun.misc.Unsafe} instance, or {@code null} if the runtime does not provide it
+   */
+  private static sun.misc.Unsafe load() {
+    try {
+      Field unsafeField = sun.misc.Unsafe.class.getDeclaredField("theUnsafe");
+      unsafeField.setAccessible(true);
+      return (sun.misc.Unsafe) unsafeField.get(null);
+    } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+      log.warn("Unsafe is not available because {}.", e.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package me.atour.easyavro;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+
+/**
+ * Skips a single value of a {@link Schema} in a {@link Decoder} without materializing it.
+ * Strings, bytes and fixed values are skipped without being copied, and arrays and maps written with their block sizes
+ * are skipped block by block.
+ */
+@FunctionalInterface
+interface ValueSkipper {
+
+  /**
+   * Skips the value.
+   *
+   * @param in the {@link Decoder} to skip the value in
+   * @throws IOException when the {@link Decoder} cannot be read from
+   */
+  void skip(Decoder in) throws IOException;
+
+  /**
+   * Creates the skipper of a {@link Schema}, which may refer to itself.
+   *
+   * @param schema the {@link Schema} of the values to skip
+   * @return the {@link ValueSkipper}
+   */
+  static ValueSkipper of(@NonNull Schema schema) {
+    return of(schema, new IdentityHashMap<>());
+  }
+
+  /**
+   * Creates the skipper of a {@link Schema}, sharing the skippers of the records created so far.
+   *
+   * @param schema the {@link Schema} of the values to skip
+   * @param records the skippers of the record {@link Schema}s created so far
+   * @return the {@link ValueSkipper}
+   */
+  private static ValueSkipper of(Schema schema, Map<Schema, ValueSkipper> records) {
+    switch (schema.getType()) {
+      case NULL:
+        return Decoder::readNull;
+      case BOOLEAN:
+        return Decoder::readBoolean;
+      case INT:
+        return Decoder::readInt;
+      case LONG:
+        return Decoder::readLong;
+      case FLOAT:
+        return Decoder::readFloat;
+      case DOUBLE:
+        return Decoder::readDouble;
+      case STRING:
+        return Decoder::skipString;
+      case BYTES:
+        return Decoder::skipBytes;
+      case ENUM:
+        return Decoder::readEnum;
+      case FIXED:
+        int size = schema.getFixedSize();
+        return in -> in.skipFixed(size);
+      case ARRAY:
+        return arraySkipper(of(schema.getElementType(), records));
+      case MAP:
+        return mapSkipper(of(schema.getValueType(), records));
+      case UNION:
+        return unionSkipper(schema.getTypes(), records);
+      case RECORD:
+      default:
+        return recordSkipper(schema, records);
+    }
+  }
+
+  /**
+   * Creates the skipper of arrays, skipping whole blocks where their size in bytes is known.
+   *
+   * @param element the {@link ValueSkipper} of the items
+   * @return the {@link ValueSkipper}
+   */
+  private static ValueSkipper arraySkipper(ValueSkipper element) {
+    return in -> {
+      for (long count = in.skipArray(); count != 0; count = in.skipArray()) {
+        for (long i = 0; i < count; i++) {
+          element.skip(in);
+        }
+      }
+    };
+  }
+
+  /**
+   * Creates the skipper of maps, skipping whole blocks where their size in bytes is known.
+   *
+   * @param value the {@link ValueSkipper} of the values
+   * @return the {@link ValueSkipper}
+   */
+  private static ValueSkipper mapSkipper(ValueSkipper value) {
+    return in -> {
+      for (long count = in.skipMap(); count != 0; count = in.skipMap()) {
+        for (long i = 0; i < count; i++) {
+          in.skipString();
+          value.skip(in);
+        }
+      }
+    };
+  }
+
+  /**
+   * Creates the skipper of unions, skipping the branch written.
+   *
+   * @param branches the {@link Schema}s of the branches
+   * @param records the skippers of the record {@link Schema}s created so far
+   * @return the {@link ValueSkipper}
+   */
+  private static ValueSkipper unionSkipper(List<Schema> branches, Map<Schema, ValueSkipper> records) {
+    ValueSkipper[] skippers = new ValueSkipper[branches.size()];
+    for (int i = 0; i < skippers.length; i++) {
+      skippers[i] = of(branches.get(i), records);
+    }
+    return in -> skippers[in.readIndex()].skip(in);
+  }
+
+  /**
+   * Creates the skipper of records, registering it before its fields so records can refer to themselves.
+   *
+   * @param schema the record {@link Schema}
+   * @param records the skippers of the record {@link Schema}s created so far
+   * @return the {@link ValueSkipper}
+   */
+  private static ValueSkipper recordSkipper(Schema schema, Map<Schema, ValueSkipper> records) {
+    ValueSkipper known = records.get(schema);
+    if (known != null) {
+      return known;
+    }
+    List<Schema.Field> fields = schema.getFields();
+    ValueSkipper[] skippers = new ValueSkipper[fields.size()];
+    ValueSkipper record = in -> {
+      for (ValueSkipper field : skippers) {
+        field.skip(in);
+      }
+    };
+    records.put(schema, record);
+    for (int i = 0; i < skippers.length; i++) {
+      skippers[i] = of(fields.get(i).schema(), records);
+    }
+    return record;
+  }
+}
@@ -7,6 +7,8 @@ import java.lang.annotation.Target;
 
 /**
  * Annotates fields to specify the name and inclusion in the {@link org.apache.avro.Schema} to generate.
+ * Aliases are the names the field was written under by earlier versions of the {@link org.apache.avro.Schema}, which
+ * are tried when the field is not found by name in the writer {@link org.apache.avro.Schema}.
  */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -15,4 +17,6 @@ public @interface AvroField {
   String name() default "";
 
   boolean included() default true;
+
+  String[] aliases() default {};
 }
@@ -21,34 +21,26 @@ public interface FieldNamingConverter {
   String convert(@NonNull String name);
 
   /**
-   * Provides a {@link FieldNamingConverter} for the given strategy.
+   * Provides the shared {@link FieldNamingConverter} for the given strategy.
    *
    * @param strategy the strategy to return the corresponding {@link FieldNamingConverter} for
    * @return the corresponding {@link FieldNamingConverter}
    */
   static FieldNamingConverter of(@NonNull FieldNamingStrategies strategy) {
-    FieldNamingConverter converter;
     switch (strategy) {
       case LOWERCASE:
-        converter = new LowercaseNamingConverter();
-        break;
+        return NamingConverters.LOWERCASE;
       case UPPERCASE:
-        converter = new UppercaseNamingConverter();
-        break;
+        return NamingConverters.UPPERCASE;
       case SNAKE_CASE:
-        converter = new SnakeCaseNamingConverter();
-        break;
+        return NamingConverters.SNAKE_CASE;
       case PASCAL_CASE:
-        converter = new PascalCaseNamingConverter();
-        break;
+        return NamingConverters.PASCAL_CASE;
       case SCREAMING_SNAKE_CASE:
-        converter = new ScreamingSnakeCaseNamingConverter();
-        break;
+        return NamingConverters.SCREAMING_SNAKE_CASE;
       case DROMEDARY_CASE:
       default:
-        converter = new DromedaryCaseNamingConverter();
-        break;
+        return NamingConverters.DROMEDARY_CASE;
     }
-    return converter;
   }
 }
@@ -0,0 +1,46 @@
+package me.atour.easyavro.field;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, thread-safe cache of converted field names of a single naming strategy.
+ * Once full, names that are not cached yet are converted on every call instead of evicting others.
+ */
+final class NameCache {
+
+  /**
+   * The maximum number of names cached.
+   */
+  static final int CAPACITY = 4096;
+
+  private final Map<String, String> names = new ConcurrentHashMap<>();
+
+  /**
+   * Provides the converted name, converting and caching it if it was not cached yet.
+   *
+   * @param name the field name to convert
+   * @param conversion converts the field name
+   * @return the converted name
+   */
+  String get(String name, UnaryOperator<String> conversion) {
+    String converted = names.get(name);
+    if (converted == null) {
+      converted = conversion.apply(name);
+      if (names.size() < CAPACITY) {
+        names.putIfAbsent(name, converted);
+      }
+    }
+    return converted;
+  }
+
+  /**
+   * Provides the number of cached names.
+   *
+   * @return the number of cached names
+   */
+  int size() {
+    return names.size();
+  }
+}
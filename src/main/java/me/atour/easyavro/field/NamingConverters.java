@@ -0,0 +1,19 @@
+package me.atour.easyavro.field;
+
+/**
+ * Holds the shared {@link FieldNamingConverter} of every naming strategy, which are stateless apart from their caches.
+ */
+final class NamingConverters {
+
+  static final FieldNamingConverter LOWERCASE = new LowercaseNamingConverter();
+  static final FieldNamingConverter UPPERCASE = new UppercaseNamingConverter();
+  static final FieldNamingConverter SNAKE_CASE = new SnakeCaseNamingConverter();
+  static final FieldNamingConverter PASCAL_CASE = new PascalCaseNamingConverter();
+  static final FieldNamingConverter SCREAMING_SNAKE_CASE = new ScreamingSnakeCaseNamingConverter();
+  static final FieldNamingConverter DROMEDARY_CASE = new DromedaryCaseNamingConverter();
+
+  /**
+   * Hidden constructor, as the class only holds the shared converters.
+   */
+  private NamingConverters() {}
+}
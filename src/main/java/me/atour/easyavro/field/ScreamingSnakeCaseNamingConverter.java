@@ -3,10 +3,12 @@ package me.atour.easyavro.field;
 import lombok.NonNull;
 
 /**
- * Converts field names to screaming snake case.
+ * Converts field names to screaming snake case, caching the converted names.
  */
 public class ScreamingSnakeCaseNamingConverter implements FieldNamingConverter {
 
+  private final NameCache cache = new NameCache();
+
   /**
    * Converts the {@link String} to screaming snake case.
    *
@@ -15,9 +17,16 @@ public class ScreamingSnakeCaseNamingConverter implements FieldNamingConverter {
    */
   @Override
   public String convert(@NonNull String name) {
-    String replacement = "$1_$2";
-    return name.replaceAll(followedByCapitalized, replacement)
-        .replaceAll(followedByDigit, replacement)
-        .toUpperCase();
+    return cache.get(name, ScreamingSnakeCaseNamingConverter::separateWords);
+  }
+
+  /**
+   * Separates the words of the {@link String} with underscores and converts it to screaming snake case.
+   *
+   * @param name the field name to convert
+   * @return the converted {@link String}
+   */
+  private static String separateWords(String name) {
+    return WordSeparator.separate(name).toUpperCase();
   }
 }
@@ -3,10 +3,12 @@ package me.atour.easyavro.field;
 import lombok.NonNull;
 
 /**
- * Converts field names to snake case.
+ * Converts field names to snake case, caching the converted names.
  */
 public class SnakeCaseNamingConverter implements FieldNamingConverter {
 
+  private final NameCache cache = new NameCache();
+
   /**
    * Converts the {@link String} to snake case.
    *
@@ -15,9 +17,16 @@ public class SnakeCaseNamingConverter implements FieldNamingConverter {
    */
   @Override
   public String convert(@NonNull String name) {
-    String replacement = "$1_$2";
-    return name.replaceAll(followedByCapitalized, replacement)
-        .replaceAll(followedByDigit, replacement)
-        .toLowerCase();
+    return cache.get(name, SnakeCaseNamingConverter::separateWords);
+  }
+
+  /**
+   * Separates the words of the {@link String} with underscores and converts it to snake case.
+   *
+   * @param name the field name to convert
+   * @return the converted {@link String}
+   */
+  private static String separateWords(String name) {
+    return WordSeparator.separate(name).toLowerCase();
   }
 }
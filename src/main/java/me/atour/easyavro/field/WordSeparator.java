@@ -0,0 +1,80 @@
+package me.atour.easyavro.field;
+
+/**
+ * Separates the words of field names with underscores in a single scan.
+ * A word starts at an uppercase letter following a lowercase letter or digit, and at a digit following a letter,
+ * only considering ASCII letters and digits.
+ */
+final class WordSeparator {
+
+  /**
+   * Hidden constructor, as the class only holds the separation logic.
+   */
+  private WordSeparator() {}
+
+  /**
+   * Inserts an underscore before every word but the first.
+   *
+   * @param name the field name to separate
+   * @return the separated field name, or the field name itself if it is a single word
+   */
+  static String separate(String name) {
+    StringBuilder separated = null;
+    for (int i = 1; i < name.length(); i++) {
+      if (startsWord(name.charAt(i - 1), name.charAt(i))) {
+        if (separated == null) {
+          separated = new StringBuilder(name.length() + 8).append(name, 0, i);
+        }
+        separated.append('_');
+      }
+      if (separated != null) {
+        separated.append(name.charAt(i));
+      }
+    }
+    return separated == null ? name : separated.toString();
+  }
+
+  /**
+   * Checks whether a character starts a new word.
+   *
+   * @param previous the preceding character
+   * @param current the character to check
+   * @return whether the character starts a new word
+   */
+  private static boolean startsWord(char previous, char current) {
+    if (isUpper(current)) {
+      return isLower(previous) || isDigit(previous);
+    }
+    return isDigit(current) && (isLower(previous) || isUpper(previous));
+  }
+
+  /**
+   * Checks whether a character is an ASCII lowercase letter.
+   *
+   * @param character the character to check
+   * @return whether the character is in {@code [a-z]}
+   */
+  private static boolean isLower(char character) {
+    return character >= 'a' && character <= 'z';
+  }
+
+  /**
+   * Checks whether a character is an ASCII uppercase letter.
+   *
+   * @param character the character to check
+   * @return whether the character is in {@code [A-Z]}
+   */
+  private static boolean isUpper(char character) {
+    return character >= 'A' && character <= 'Z';
+  }
+
+  /**
+   * Checks whether a character is an ASCII digit.
+   *
+   * @param character the character to check
+   * @return whether the character is in {@code [0-9]}
+   */
+  private static boolean isDigit(char character) {
+    return character >= '0' && character <= '9';
+  }
+}
@@ -0,0 +1,51 @@
+package me.atour.easyavro.metrics;
+
+/**
+ * Interface for the instrumentation of the hot paths of an {@code AvroSchema}, which reports the duration of every
+ * {@link Operation} on it, its failures and the number of bytes it encoded or decoded, by POJO class.
+ * Implementations are called on every conversion and must therefore be thread-safe and cheap.
+ */
+public interface AvroMetrics {
+
+  /**
+   * Marks the start of an {@link Operation}.
+   *
+   * @return the start time to pass on completion, in nanoseconds
+   */
+  long start();
+
+  /**
+   * Reports an {@link Operation} that completed.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the completed {@link Operation}
+   * @param start the start time returned by {@link #start()}
+   */
+  void completed(Class<?> type, Operation operation, long start);
+
+  /**
+   * Reports an {@link Operation} that failed.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the failed {@link Operation}
+   */
+  void failed(Class<?> type, Operation operation);
+
+  /**
+   * Reports the number of bytes an {@link Operation} encoded or decoded.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the {@link Operation} that encoded or decoded the bytes
+   * @param bytes the number of bytes
+   */
+  void transferred(Class<?> type, Operation operation, long bytes);
+
+  /**
+   * Provides the shared {@link AvroMetrics} that discards everything reported, used by default.
+   *
+   * @return the no-op {@link AvroMetrics}
+   */
+  static AvroMetrics noOp() {
+    return NoOpMetrics.INSTANCE;
+  }
+}
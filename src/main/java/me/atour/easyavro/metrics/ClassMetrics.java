@@ -0,0 +1,32 @@
+package me.atour.easyavro.metrics;
+
+import lombok.NonNull;
+
+/**
+ * The metrics {@link LongAdderMetrics} keeps for a single POJO class, one {@link OperationMetrics} per
+ * {@link Operation}.
+ */
+public final class ClassMetrics {
+
+  private final OperationMetrics[] operations;
+
+  /**
+   * Constructs empty metrics.
+   */
+  ClassMetrics() {
+    operations = new OperationMetrics[Operation.values().length];
+    for (int i = 0; i < operations.length; i++) {
+      operations[i] = new OperationMetrics();
+    }
+  }
+
+  /**
+   * Provides the metrics of an {@link Operation}.
+   *
+   * @param operation the {@link Operation}
+   * @return the {@link OperationMetrics}
+   */
+  public OperationMetrics get(@NonNull Operation operation) {
+    return operations[operation.ordinal()];
+  }
+}
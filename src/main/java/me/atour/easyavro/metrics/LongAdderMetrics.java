@@ -0,0 +1,104 @@
+package me.atour.easyavro.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+
+/**
+ * {@link AvroMetrics} keeping counters, totals and latency histograms in memory by POJO class and {@link Operation}.
+ * All of them are {@link java.util.concurrent.atomic.LongAdder}s, which stripe updates across cells under contention,
+ * so threads converting concurrently do not compete for a single counter.
+ * The metrics are kept by class name rather than by {@link Class}, so installing them as the default
+ * {@link AvroMetrics} does not keep POJO classes and their class loaders from being unloaded. Classes of the same
+ * name loaded by different class loaders therefore share their metrics.
+ */
+public final class LongAdderMetrics implements AvroMetrics {
+
+  private final Map<String, ClassMetrics> classes = new ConcurrentHashMap<>();
+
+  /**
+   * Marks the start of an {@link Operation}.
+   *
+   * @return the current {@link System#nanoTime()}
+   */
+  @Override
+  public long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Counts a completed {@link Operation} and records its duration.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the completed {@link Operation}
+   * @param start the start time returned by {@link #start()}
+   */
+  @Override
+  public void completed(@NonNull Class<?> type, @NonNull Operation operation, long start) {
+    of(type).get(operation).completed(System.nanoTime() - start);
+  }
+
+  /**
+   * Counts a failed {@link Operation}.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the failed {@link Operation}
+   */
+  @Override
+  public void failed(@NonNull Class<?> type, @NonNull Operation operation) {
+    of(type).get(operation).failed();
+  }
+
+  /**
+   * Adds the number of bytes an {@link Operation} encoded or decoded to its total.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the {@link Operation} that encoded or decoded the bytes
+   * @param bytes the number of bytes
+   */
+  @Override
+  public void transferred(@NonNull Class<?> type, @NonNull Operation operation, long bytes) {
+    of(type).get(operation).transferred(bytes);
+  }
+
+  /**
+   * Provides the metrics of a POJO class.
+   *
+   * @param type the POJO class
+   * @return the {@link ClassMetrics}, or {@code null} when nothing was reported for the class
+   */
+  public ClassMetrics get(@NonNull Class<?> type) {
+    return classes.get(type.getName());
+  }
+
+  /**
+   * Provides the metrics of a POJO class by its name.
+   *
+   * @param className the name of the POJO class, as returned by {@link Class#getName()}
+   * @return the {@link ClassMetrics}, or {@code null} when nothing was reported for the class
+   */
+  public ClassMetrics get(@NonNull String className) {
+    return classes.get(className);
+  }
+
+  /**
+   * Provides the metrics of every POJO class something was reported for.
+   *
+   * @return an unmodifiable view of the {@link ClassMetrics} by POJO class name
+   */
+  public Map<String, ClassMetrics> getClasses() {
+    return Collections.unmodifiableMap(classes);
+  }
+
+  /**
+   * Provides the metrics of a POJO class, creating them on the first report.
+   *
+   * @param type the POJO class
+   * @return the {@link ClassMetrics}
+   */
+  private ClassMetrics of(Class<?> type) {
+    ClassMetrics metrics = classes.get(type.getName());
+    return metrics == null ? classes.computeIfAbsent(type.getName(), ignored -> new ClassMetrics()) : metrics;
+  }
+}
@@ -0,0 +1,53 @@
+package me.atour.easyavro.metrics;
+
+/**
+ * {@link AvroMetrics} discarding everything reported, without reading the clock.
+ */
+final class NoOpMetrics implements AvroMetrics {
+
+  static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+  /**
+   * Constructs the shared instance.
+   */
+  private NoOpMetrics() {}
+
+  /**
+   * Marks the start of an {@link Operation}, without reading the clock.
+   *
+   * @return zero
+   */
+  @Override
+  public long start() {
+    return 0L;
+  }
+
+  /**
+   * Discards a completed {@link Operation}.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the completed {@link Operation}
+   * @param start the start time returned by {@link #start()}
+   */
+  @Override
+  public void completed(Class<?> type, Operation operation, long start) {}
+
+  /**
+   * Discards a failed {@link Operation}.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the failed {@link Operation}
+   */
+  @Override
+  public void failed(Class<?> type, Operation operation) {}
+
+  /**
+   * Discards the number of bytes an {@link Operation} encoded or decoded.
+   *
+   * @param type the POJO class the operation was on
+   * @param operation the {@link Operation} that encoded or decoded the bytes
+   * @param bytes the number of bytes
+   */
+  @Override
+  public void transferred(Class<?> type, Operation operation, long bytes) {}
+}
@@ -0,0 +1,27 @@
+package me.atour.easyavro.metrics;
+
+/**
+ * The operations of an {@code AvroSchema} reported to {@link AvroMetrics}.
+ */
+public enum Operation {
+  /**
+   * Generating the schema and conversion plan.
+   */
+  GENERATE,
+  /**
+   * Converting a POJO to a record.
+   */
+  TO_RECORD,
+  /**
+   * Converting a record to a POJO.
+   */
+  TO_POJO,
+  /**
+   * Encoding a POJO in Avro binary.
+   */
+  ENCODE,
+  /**
+   * Decoding a POJO from Avro binary.
+   */
+  DECODE
+}
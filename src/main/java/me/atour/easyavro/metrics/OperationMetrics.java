@@ -0,0 +1,109 @@
+package me.atour.easyavro.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics {@link LongAdderMetrics} keeps for a single {@link Operation} on a POJO class.
+ * Durations are counted in a histogram of {@value #BUCKETS} buckets with power-of-two bounds: bucket {@code 0} counts
+ * durations of zero nanoseconds and bucket {@code i} counts durations from {@code 2^(i-1)} up to, but excluding,
+ * {@code 2^i} nanoseconds.
+ */
+public final class OperationMetrics {
+
+  /**
+   * The number of buckets of the latency histogram.
+   */
+  public static final int BUCKETS = Long.SIZE;
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+  /**
+   * Constructs empty metrics.
+   */
+  OperationMetrics() {
+    for (int i = 0; i < BUCKETS; i++) {
+      histogram[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Counts a completed operation and records its duration.
+   *
+   * @param nanos the duration of the operation, negative durations being counted as zero
+   */
+  void completed(long nanos) {
+    long duration = Math.max(0L, nanos);
+    count.increment();
+    totalNanos.add(duration);
+    histogram[Long.SIZE - Long.numberOfLeadingZeros(duration)].increment();
+  }
+
+  /**
+   * Counts a failed operation.
+   */
+  void failed() {
+    failures.increment();
+  }
+
+  /**
+   * Adds bytes encoded or decoded to the total.
+   *
+   * @param transferred the number of bytes
+   */
+  void transferred(long transferred) {
+    bytes.add(transferred);
+  }
+
+  /**
+   * Provides the number of completed operations.
+   *
+   * @return the number of completed operations
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Provides the number of failed operations.
+   *
+   * @return the number of failed operations
+   */
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  /**
+   * Provides the total duration of the completed operations.
+   *
+   * @return the total duration, in nanoseconds
+   */
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  /**
+   * Provides the total number of bytes encoded or decoded.
+   *
+   * @return the total number of bytes
+   */
+  public long getBytes() {
+    return bytes.sum();
+  }
+
+  /**
+   * Provides a snapshot of the latency histogram.
+   *
+   * @return the number of completed operations per bucket
+   */
+  public long[] getHistogram() {
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = histogram[i].sum();
+    }
+    return snapshot;
+  }
+}
@@ -0,0 +1,152 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaBatchTest {
+
+  private static final int BATCH_SIZE = 5000;
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static class Item {
+    private final int number;
+    private String name;
+  }
+
+  private AvroSchema<Item> avroSchema;
+  private List<Item> items;
+
+  @BeforeEach
+  public void setUp() {
+    avroSchema = new AvroSchema<>(Item.class);
+    avroSchema.generate();
+    items = IntStream.range(0, BATCH_SIZE)
+        .mapToObj(i -> new Item(i, "item-" + i))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void convertsCollections() {
+    List<GenericRecord> records = avroSchema.convertFromPojos(items);
+    assertThat(records).hasSize(BATCH_SIZE);
+    assertThat(records.get(42).get("number")).isEqualTo(42);
+    assertThat(avroSchema.convertToPojos(records)).isEqualTo(items);
+  }
+
+  @Test
+  public void convertsIterablesThatAreNoCollections() {
+    List<GenericRecord> records = avroSchema.convertFromPojos(new LinkedHashSet<>(items));
+    Iterable<GenericRecord> iterable = records::iterator;
+    assertThat(avroSchema.convertToPojos(iterable)).isEqualTo(items);
+  }
+
+  @Test
+  public void convertsOnForkJoinPool() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      List<GenericRecord> records = avroSchema.convertFromPojos(items, pool);
+      assertThat(records).hasSize(BATCH_SIZE);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        assertThat(records.get(i).get("name")).isEqualTo("item-" + i);
+      }
+      List<Item> pojos = avroSchema.convertToPojos(records, pool);
+      assertThat(pojos).isEqualTo(items);
+      assertThat(pojos).isInstanceOf(ArrayList.class);
+      records.remove(0);
+      assertThat(records).hasSize(BATCH_SIZE - 1);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void convertsEmptyBatchOnForkJoinPool() {
+    assertThat(avroSchema.convertFromPojos(List.of(), ForkJoinPool.commonPool()))
+        .isEmpty();
+  }
+
+  @Test
+  public void rethrowsConversionFailuresFromForkJoinPool() {
+    List<GenericRecord> records = new ArrayList<>(avroSchema.convertFromPojos(items));
+    records.set(BATCH_SIZE - 1, null);
+    assertThatThrownBy(() -> avroSchema.convertToPojos(records, ForkJoinPool.commonPool()))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  public void convertsStreams() {
+    List<GenericRecord> records =
+        avroSchema.convertFromPojos(items.parallelStream()).collect(Collectors.toList());
+    assertThat(records).hasSize(BATCH_SIZE);
+    Stream<Item> pojos = avroSchema.convertToPojos(records.stream());
+    assertThat(pojos.collect(Collectors.toList())).isEqualTo(items);
+  }
+
+  @Test
+  public void convertsSpliteratorsSplittingAlongWithSource() {
+    Spliterator<GenericRecord> records = avroSchema.convertFromPojos(items.spliterator());
+    assertThat(records.estimateSize()).isEqualTo(BATCH_SIZE);
+    assertThat(records.hasCharacteristics(Spliterator.SIZED | Spliterator.ORDERED))
+        .isTrue();
+    assertThat(records.hasCharacteristics(Spliterator.NONNULL)).isFalse();
+    Spliterator<GenericRecord> prefix = records.trySplit();
+    assertThat(prefix).isNotNull();
+    assertThat(prefix.estimateSize() + records.estimateSize()).isEqualTo(BATCH_SIZE);
+    List<GenericRecord> converted = new ArrayList<>();
+    assertThat(prefix.tryAdvance(converted::add)).isTrue();
+    prefix.forEachRemaining(converted::add);
+    records.forEachRemaining(converted::add);
+    assertThat(records.tryAdvance(converted::add)).isFalse();
+    Spliterator<Item> pojos = avroSchema.convertToPojos(converted.spliterator());
+    assertThat(StreamSupport.stream(pojos, true).collect(Collectors.toList()))
+        .isEqualTo(items);
+  }
+
+  @Test
+  public void spliteratorsDoNotSplitWhenSourceCannot() {
+    Spliterator<GenericRecord> records =
+        avroSchema.convertFromPojos(List.of(items.get(0)).spliterator());
+    assertThat(records.trySplit()).isNull();
+  }
+
+  @Test
+  public void rejectsNullBatches() {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    assertThatThrownBy(() -> avroSchema.convertFromPojos((List<Item>) null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertFromPojos(null, pool))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertFromPojos(items, null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertFromPojos((Stream<Item>) null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertFromPojos((Spliterator<Item>) null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertToPojos((Iterable<GenericRecord>) null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertToPojos(null, pool)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertToPojos(List.of(), null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertToPojos((Stream<GenericRecord>) null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.convertToPojos((Spliterator<GenericRecord>) null))
+        .isExactlyInstanceOf(NullPointerException.class);
+  }
+}
@@ -0,0 +1,100 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaCodecTest {
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "CodecDto")
+  static class CodecDto {
+    final int number;
+    final String label;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "BrokenDto")
+  static class BrokenDto {
+    private final int number;
+  }
+
+  private static AvroSchema<CodecDto> generated() {
+    AvroSchema<CodecDto> schema = new AvroSchema<>(CodecDto.class);
+    schema.generate();
+    return schema;
+  }
+
+  @Test
+  public void takesSchemaFromGeneratedCodec() {
+    assertThat(generated().getSchema()).isSameAs(new AvroSchemaCodecTest_CodecDto_EasyAvroCodec().getSchema());
+  }
+
+  @Test
+  public void convertsThroughGeneratedCodec() {
+    AvroSchema<CodecDto> schema = generated();
+    CodecDto dto = new CodecDto(7, "seven");
+    GenericRecord record = schema.convertFromPojo(dto);
+    assertThat(record.get("number")).isEqualTo(7);
+    assertThat(schema.convertToPojo(record)).isEqualTo(dto);
+  }
+
+  @Test
+  public void readsRecordsOfOtherSchemasByName() {
+    Schema other = SchemaBuilder.record("CodecDto")
+        .fields()
+        .optionalString("label")
+        .requiredInt("number")
+        .endRecord();
+    GenericRecord record = new GenericData.Record(other);
+    record.put("label", "eight");
+    record.put("number", 8);
+    assertThat(generated().convertToPojo(record)).isEqualTo(new CodecDto(8, "eight"));
+  }
+
+  @Test
+  public void reusesPojosThroughPlan() {
+    AvroSchema<CodecDto> schema = generated();
+    GenericRecord record = schema.convertFromPojo(new CodecDto(10, "ten"));
+    CodecDto reuse = new CodecDto(0, null);
+    assertThat(schema.convertToPojo(record, reuse)).isSameAs(reuse).isEqualTo(new CodecDto(10, "ten"));
+    GenericData.Record reusedRecord = new GenericData.Record(schema.getSchema());
+    assertThat(schema.convertFromPojo(new CodecDto(11, "eleven"), reusedRecord))
+        .isSameAs(reusedRecord);
+    assertThat(reusedRecord.get("label")).isEqualTo("eleven");
+  }
+
+  @Test
+  public void createsPlanForDatumWritersAndReaders() throws IOException {
+    AvroSchema<CodecDto> schema = generated();
+    CodecDto dto = new CodecDto(9, null);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bytes, null);
+    new PojoDatumWriter<>(schema).write(dto, encoder);
+    encoder.flush();
+    CodecDto read =
+        new PojoDatumReader<>(schema).read(null, DecoderFactory.get().binaryDecoder(bytes.toByteArray(), null));
+    assertThat(read).isEqualTo(dto);
+  }
+
+  @Test
+  public void fallsBackToReflectionWhenCodecCannotBeUsed() {
+    AvroSchema<BrokenDto> schema = new AvroSchema<>(BrokenDto.class);
+    schema.generate();
+    assertThat(schema.getSchema().getField("number")).isNotNull();
+    assertThat(schema.convertFromPojo(new BrokenDto(3)).get("number")).isEqualTo(3);
+  }
+}
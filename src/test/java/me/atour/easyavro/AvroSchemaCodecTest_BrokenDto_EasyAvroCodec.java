@@ -0,0 +1,9 @@
+package me.atour.easyavro;
+
+/**
+ * Codec that cannot be instantiated, as it has no public no-argument constructor.
+ */
+public final class AvroSchemaCodecTest_BrokenDto_EasyAvroCodec {
+
+  private AvroSchemaCodecTest_BrokenDto_EasyAvroCodec() {}
+}
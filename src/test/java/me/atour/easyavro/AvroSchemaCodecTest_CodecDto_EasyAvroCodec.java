@@ -0,0 +1,44 @@
+package me.atour.easyavro;
+
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Stands in for the codec the annotation processor generates for {@link AvroSchemaCodecTest.CodecDto}.
+ */
+public final class AvroSchemaCodecTest_CodecDto_EasyAvroCodec implements GeneratedCodec<AvroSchemaCodecTest.CodecDto> {
+
+  private static final Schema SCHEMA = SchemaBuilder.record("CodecDto")
+      .namespace("me.atour.easyavro")
+      .fields()
+      .requiredInt("number")
+      .optionalString("label")
+      .endRecord();
+
+  @Override
+  public Schema getSchema() {
+    return SCHEMA;
+  }
+
+  @Override
+  public List<String> getFieldNames() {
+    return List.of("number", "label");
+  }
+
+  @Override
+  public void toRecord(AvroSchemaCodecTest.CodecDto pojo, IndexedRecord record) {
+    record.put(0, pojo.number);
+    record.put(1, pojo.label);
+  }
+
+  @Override
+  public AvroSchemaCodecTest.CodecDto toPojo(GenericRecord record) {
+    boolean byPosition = SCHEMA.equals(record.getSchema());
+    return new AvroSchemaCodecTest.CodecDto(
+        (Integer) (byPosition ? record.get(0) : record.get("number")),
+        java.util.Objects.toString(byPosition ? record.get(1) : record.get("label"), null));
+  }
+}
@@ -0,0 +1,124 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.io.DecoderFactory;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaEncodingTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Event {
+    private final String name;
+    private final long timestamp;
+    private final int[] values;
+  }
+
+  private static final Event event = new Event("event", 42L, new int[] {1, 2, 3});
+
+  private static AvroSchema<Event> generated() {
+    AvroSchema<Event> avroSchema = new AvroSchema<>(Event.class);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static Event decode(AvroSchema<Event> avroSchema, ByteBuffer buffer) throws IOException {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return new PojoDatumReader<>(avroSchema).read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+
+  @Test
+  public void encodesIntoBuffers() throws IOException {
+    AvroSchema<Event> avroSchema = generated();
+    for (ByteBuffer target : new ByteBuffer[] {ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+      target.position(5);
+      int length = avroSchema.encode(event, target);
+      assertThat(target.position()).isEqualTo(5 + length);
+      target.flip().position(5);
+      assertThat(decode(avroSchema, target)).isEqualTo(event);
+    }
+  }
+
+  @Test
+  public void leavesFullBuffersUnchanged() {
+    AvroSchema<Event> avroSchema = generated();
+    ByteBuffer target = ByteBuffer.allocate(8).position(2);
+    assertThatThrownBy(() -> avroSchema.encode(event, target)).isExactlyInstanceOf(BufferOverflowException.class);
+    assertThat(target.position()).isEqualTo(2);
+  }
+
+  @Test
+  public void reusesPooledBuffers() throws IOException {
+    AvroSchema<Event> avroSchema = generated();
+    BufferPool pool = new BufferPool(64, 1);
+    ByteBuffer first;
+    try (PooledBuffer encoded = avroSchema.encodeToPooledBuffer(event, pool)) {
+      first = encoded.getBuffer();
+      assertThat(first.isDirect()).isTrue();
+      assertThat(encoded.getLength()).isEqualTo(first.remaining());
+      assertThat(decode(avroSchema, first)).isEqualTo(event);
+    }
+    assertThat(pool.available()).isEqualTo(1);
+    try (PooledBuffer encoded = avroSchema.encodeToPooledBuffer(event, pool)) {
+      assertThat(encoded.getBuffer()).isSameAs(first);
+      assertThat(pool.available()).isZero();
+    }
+  }
+
+  @Test
+  public void growsBuffersForLargePojos() throws IOException {
+    AvroSchema<Event> avroSchema = generated();
+    BufferPool pool = new BufferPool(4, 1);
+    PooledBuffer encoded = avroSchema.encodeToPooledBuffer(event, pool);
+    assertThat(encoded.getBuffer().capacity()).isGreaterThan(4);
+    assertThat(decode(avroSchema, encoded.getBuffer())).isEqualTo(event);
+    assertThat(pool.available()).isEqualTo(1);
+    encoded.close();
+    encoded.close();
+    assertThat(pool.available()).isEqualTo(1);
+    assertThatThrownBy(encoded::getBuffer).isExactlyInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void usesSharedPool() throws IOException {
+    AvroSchema<Event> avroSchema = generated();
+    try (PooledBuffer encoded = avroSchema.encodeToPooledBuffer(event)) {
+      assertThat(encoded.getBuffer().capacity())
+          .isEqualTo(BufferPool.shared().getBufferSize());
+      assertThat(decode(avroSchema, encoded.getBuffer())).isEqualTo(event);
+    }
+  }
+
+  @Test
+  public void rejectsInvalidPools() {
+    assertThatThrownBy(() -> new BufferPool(0, 1)).isExactlyInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new BufferPool(1, 0)).isExactlyInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectsUngeneratedSchemas() {
+    AvroSchema<Event> avroSchema = new AvroSchema<>(Event.class);
+    assertThatThrownBy(() -> avroSchema.encode(event, ByteBuffer.allocate(64)))
+        .isExactlyInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    AvroSchema<Event> avroSchema = generated();
+    ByteBuffer target = ByteBuffer.allocate(64);
+    assertThatThrownBy(() -> avroSchema.encode(null, target)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.encode(event, null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.encodeToPooledBuffer(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.encodeToPooledBuffer(event, null))
+        .isExactlyInstanceOf(NullPointerException.class);
+  }
+}
@@ -0,0 +1,129 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class AvroSchemaEngineTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class FinalFieldsDto {
+    private final boolean boolOne;
+    private final char charOne;
+    private final int intOne;
+    private final long longOne;
+    private final byte byteOne;
+    private final double doubleOne;
+    private final float floatOne;
+    private final short shortOne;
+    private final String stringOne;
+    private final int[] intArray;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @AllArgsConstructor
+  private static class MutableFieldsDto {
+    private Boolean boolOne;
+    private int intOne;
+    private Long longOne;
+    private double doubleOne;
+    private String stringOne;
+    private List<String> stringList;
+    private Map<String, Integer> intMap;
+  }
+
+  private record RecordDto(int intOne, String stringOne) {}
+
+  @Test
+  public void generatedEngineRoundTripsFinalFields() {
+    AvroSchema<FinalFieldsDto> schema = new AvroSchema<>(FinalFieldsDto.class);
+    schema.setConversionEngine(ConversionEngine.GENERATED);
+    schema.generate();
+    FinalFieldsDto dto =
+        new FinalFieldsDto(true, 'x', 42, -7L, (byte) 3, 2.5, -1.25f, (short) 9, "one", new int[] {1});
+    GenericRecord record = schema.convertFromPojo(dto);
+    assertThat(record.get("string_one")).isEqualTo("one");
+    assertThat(schema.convertToPojo(record)).isEqualTo(dto);
+  }
+
+  @Test
+  public void generatedEngineRoundTripsMutableFields() {
+    AvroSchema<MutableFieldsDto> schema = new AvroSchema<>(MutableFieldsDto.class);
+    schema.setConversionEngine(ConversionEngine.GENERATED);
+    schema.generate();
+    MutableFieldsDto dto = new MutableFieldsDto(null, 5, 6L, 0.5, "two", List.of("a", "b"), Map.of("c", 1));
+    assertThat(schema.convertToPojo(schema.convertFromPojo(dto))).isEqualTo(dto);
+  }
+
+  @Test
+  public void generatedEngineProducesSameRecordsAsReflectiveEngine() {
+    AvroSchema<MutableFieldsDto> reflective = new AvroSchema<>(MutableFieldsDto.class);
+    reflective.generate();
+    AvroSchema<MutableFieldsDto> generated = new AvroSchema<>(MutableFieldsDto.class);
+    generated.setConversionEngine(ConversionEngine.GENERATED);
+    generated.generate();
+    MutableFieldsDto dto = new MutableFieldsDto(true, -5, null, 1e9, null, List.of(), Map.of());
+    GenericRecord expected = reflective.convertFromPojo(dto);
+    GenericRecord actual = generated.convertFromPojo(dto);
+    for (int i = 0; i < expected.getSchema().getFields().size(); i++) {
+      assertThat(actual.get(i)).isEqualTo(expected.get(i));
+    }
+  }
+
+  @Test
+  public void generatedEngineReadsRecordsOfOtherSchemaInstancesByName() {
+    AvroSchema<MutableFieldsDto> first = new AvroSchema<>(MutableFieldsDto.class);
+    first.setConversionEngine(ConversionEngine.GENERATED);
+    first.generate();
+    AvroSchema<MutableFieldsDto> second = new AvroSchema<>(MutableFieldsDto.class);
+    second.setConversionEngine(ConversionEngine.GENERATED);
+    second.generate();
+    MutableFieldsDto dto = new MutableFieldsDto(false, 1, 2L, 3.0, "four", List.of("five"), Map.of("six", 6));
+    GenericData.Record record = (GenericData.Record) first.convertFromPojo(dto);
+    assertThat(second.convertToPojo(record)).isEqualTo(dto);
+  }
+
+  @Test
+  public void generatedEngineFallsBackForRecords() {
+    AvroSchema<RecordDto> schema = new AvroSchema<>(RecordDto.class);
+    schema.setConversionEngine(ConversionEngine.GENERATED);
+    schema.generate();
+    GenericRecord record = schema.convertFromPojo(new RecordDto(3, "three"));
+    assertThat(record.get("int_one")).isEqualTo(3);
+    assertThat(record.get("string_one")).isEqualTo("three");
+  }
+
+  @ParameterizedTest
+  @EnumSource(ConversionEngine.class)
+  public void narrowsDecodedAvroInts(ConversionEngine engine) {
+    AvroSchema<FinalFieldsDto> schema = new AvroSchema<>(FinalFieldsDto.class);
+    schema.setConversionEngine(engine);
+    schema.generate();
+    FinalFieldsDto dto =
+        new FinalFieldsDto(true, 'x', 42, -7L, (byte) 3, 2.5, -1.25f, (short) 9, "one", new int[] {1});
+    GenericRecord record = schema.convertFromPojo(dto);
+    record.put("char_one", (int) 'x');
+    record.put("byte_one", 3);
+    record.put("short_one", 9);
+    assertThat(schema.convertToPojo(record)).isEqualTo(dto);
+  }
+
+  @Test
+  public void reflectiveEngineIsTheDefault() {
+    assertThat(new AvroSchema<>(RecordDto.class).getConversionEngine()).isEqualTo(ConversionEngine.REFLECTIVE);
+  }
+}
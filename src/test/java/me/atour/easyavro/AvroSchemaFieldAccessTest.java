@@ -0,0 +1,183 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class AvroSchemaFieldAccessTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class PrimitivesDto {
+    private final boolean boolOne;
+    private final char charOne;
+    private final int intOne;
+    private final long longOne;
+    private final byte byteOne;
+    private final double doubleOne;
+    private final float floatOne;
+    private final short shortOne;
+    private final String stringOne;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class BoxedDto {
+    private final Byte byteOne;
+    private final Short shortOne;
+    private final Character charOne;
+    private final Integer intOne;
+  }
+
+  @SuppressWarnings("unused")
+  private static class ConstructedDto {
+    private int value;
+    private String origin;
+
+    private ConstructedDto() {
+      origin = "constructor";
+    }
+  }
+
+  private record RecordDto(int intOne, short shortOne, String stringOne) {}
+
+  private record BoxedRecordDto(Byte byteOne, Short shortOne, Character charOne) {}
+
+  private static final PrimitivesDto PRIMITIVES =
+      new PrimitivesDto(true, 'x', 42, 43L, (byte) 7, 4.5, 5.5f, (short) 300, "primitives");
+
+  private static <T> AvroSchema<T> generated(Class<T> type, FieldAccess access, ConversionEngine engine) {
+    AvroSchema<T> avroSchema = new AvroSchema<>(type);
+    avroSchema.setFieldAccess(access);
+    avroSchema.setConversionEngine(engine);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static <T> byte[] encode(AvroSchema<T> avroSchema, T pojo) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bytes, null);
+    new PojoDatumWriter<>(avroSchema).write(pojo, encoder);
+    encoder.flush();
+    return bytes.toByteArray();
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void convertsPojosBothWays(FieldAccess access) {
+    for (ConversionEngine engine : ConversionEngine.values()) {
+      AvroSchema<PrimitivesDto> avroSchema = generated(PrimitivesDto.class, access, engine);
+      GenericRecord record = avroSchema.convertFromPojo(PRIMITIVES);
+      assertThat(record.get("short_one")).isEqualTo((short) 300);
+      assertThat(avroSchema.convertToPojo(record)).isEqualTo(PRIMITIVES);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void convertsBoxedFieldsBothWays(FieldAccess access) throws IOException {
+    BoxedDto dto = new BoxedDto((byte) -7, (short) 300, 'x', 42);
+    BoxedDto nulls = new BoxedDto(null, null, null, null);
+    for (ConversionEngine engine : ConversionEngine.values()) {
+      AvroSchema<BoxedDto> avroSchema = generated(BoxedDto.class, access, engine);
+      byte[] bytes = encode(avroSchema, dto);
+      GenericRecord record = new GenericDatumReader<GenericRecord>(avroSchema.getSchema())
+          .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+      assertThat(record.get("byte_one")).isEqualTo(-7);
+      assertThat(avroSchema.convertToPojo(record)).isEqualTo(dto);
+      assertThat(avroSchema.convertToPojo(avroSchema.convertFromPojo(nulls)))
+          .isEqualTo(nulls);
+      assertThat(new PojoDatumReader<>(avroSchema)
+              .read(null, DecoderFactory.get().binaryDecoder(bytes, null)))
+          .isEqualTo(dto);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void convertsBoxedComponentsBothWays(FieldAccess access) throws IOException {
+    AvroSchema<BoxedRecordDto> avroSchema = generated(BoxedRecordDto.class, access, ConversionEngine.REFLECTIVE);
+    BoxedRecordDto dto = new BoxedRecordDto((byte) 8, (short) -300, 'y');
+    GenericRecord record = new GenericDatumReader<GenericRecord>(avroSchema.getSchema())
+        .read(null, DecoderFactory.get().binaryDecoder(encode(avroSchema, dto), null));
+    BoxedRecordDto nulls = new BoxedRecordDto(null, null, null);
+    assertThat(avroSchema.convertToPojo(record)).isEqualTo(dto);
+    assertThat(avroSchema.convertToPojo(avroSchema.convertFromPojo(nulls))).isEqualTo(nulls);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void encodesAndDecodesPojos(FieldAccess access) throws IOException {
+    AvroSchema<PrimitivesDto> avroSchema = generated(PrimitivesDto.class, access, ConversionEngine.REFLECTIVE);
+    byte[] bytes = encode(avroSchema, PRIMITIVES);
+    assertThat(new PojoDatumReader<>(avroSchema)
+            .read(null, DecoderFactory.get().binaryDecoder(bytes, null)))
+        .isEqualTo(PRIMITIVES);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void encodesAndDecodesRecords(FieldAccess access) throws IOException {
+    AvroSchema<RecordDto> avroSchema = generated(RecordDto.class, access, ConversionEngine.REFLECTIVE);
+    RecordDto dto = new RecordDto(1, (short) 2, "record");
+    byte[] bytes = encode(avroSchema, dto);
+    GenericRecord record = new GenericDatumReader<GenericRecord>(avroSchema.getSchema())
+        .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    assertThat(record.get("short_one")).isEqualTo(2);
+    assertThat(new PojoDatumReader<>(avroSchema)
+            .read(null, DecoderFactory.get().binaryDecoder(bytes, null)))
+        .isEqualTo(dto);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void constructsPojosOnlyWithVarHandles(FieldAccess access) throws IOException {
+    AvroSchema<ConstructedDto> avroSchema = new AvroSchema<>(ConstructedDto.class);
+    avroSchema.setFieldAccess(access);
+    avroSchema.setIncludedFields(List.of("value"));
+    avroSchema.generate();
+    ConstructedDto dto = new ConstructedDto();
+    dto.value = 5;
+    ConstructedDto converted = avroSchema.convertToPojo(avroSchema.convertFromPojo(dto));
+    ConstructedDto decoded = new PojoDatumReader<>(avroSchema)
+        .read(null, DecoderFactory.get().binaryDecoder(encode(avroSchema, dto), null));
+    String expected = access == FieldAccess.VAR_HANDLE ? "constructor" : null;
+    assertThat(converted.value).isEqualTo(5);
+    assertThat(converted.origin).isEqualTo(expected);
+    assertThat(decoded.value).isEqualTo(5);
+    assertThat(decoded.origin).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void setsFields(FieldAccess access) throws NoSuchFieldException {
+    AvroSchema<PrimitivesDto> avroSchema = generated(PrimitivesDto.class, access, ConversionEngine.REFLECTIVE);
+    PrimitivesDto dto = new PrimitivesDto(false, 'a', 0, 0L, (byte) 0, 0.0, 0f, (short) 0, null);
+    avroSchema.setField(dto, PrimitivesDto.class.getDeclaredField("longOne"), 44L);
+    avroSchema.setField(dto, PrimitivesDto.class.getDeclaredField("stringOne"), "set");
+    assertThat(dto.longOne).isEqualTo(44L);
+    assertThat(dto.stringOne).isEqualTo("set");
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void plansFieldOffsetsOnlyForUnsafe(FieldAccess access) {
+    AvroSchema<PrimitivesDto> avroSchema = generated(PrimitivesDto.class, access, ConversionEngine.REFLECTIVE);
+    assertThat(avroSchema.getFieldAccess()).isEqualTo(access);
+    assertThat(avroSchema.getPlan())
+        .allMatch(field -> (field.getOffset() == PojoField.NO_OFFSET) == (access == FieldAccess.VAR_HANDLE));
+  }
+}
@@ -0,0 +1,237 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.invoke.MethodHandles;
+import java.util.AbstractMap;
+import lombok.EqualsAndHashCode;
+import me.atour.easyavro.field.AvroField;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaInstantiationTest {
+
+  private record Reading(byte sensor, short channel, char unit, long timestamp, String label) {}
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  private static class Normalized {
+    private final String name;
+    private final int count;
+
+    @AvroField(included = false)
+    private final String note;
+
+    private Normalized(String name, int count, String note) {
+      this.name = name == null ? null : name.trim();
+      this.count = count;
+      this.note = note;
+    }
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  private static class Created {
+    private final String name;
+    private final int count;
+    private boolean fromFactory;
+
+    private Created(String name, int count) {
+      this.name = name;
+      this.count = count;
+    }
+
+    static Created of(String name, int count, boolean fromFactory) {
+      Created created = new Created(name, count);
+      created.fromFactory = fromFactory || name != null;
+      return created;
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static class Validated {
+    private final int count;
+
+    private Validated(int count) {
+      if (count < 0) {
+        throw new IllegalArgumentException("negative");
+      }
+      this.count = count;
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static class Ambiguous {
+    private int count;
+
+    static Ambiguous one(int count) {
+      return new Ambiguous();
+    }
+
+    static Ambiguous other(int count) {
+      return new Ambiguous();
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static class Rect {
+    private final int w;
+    private final int h;
+
+    private Rect(int h, int w) {
+      this.h = h;
+      this.w = w;
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static class Renamed {
+    private final int w;
+    private final int h;
+
+    private Renamed(int width, int height) {
+      this.w = width;
+      this.h = height;
+    }
+  }
+
+  private static <T> AvroSchema<T> generated(Class<T> type, InstantiationStrategy strategy) {
+    AvroSchema<T> avroSchema = new AvroSchema<>(type);
+    avroSchema.setInstantiationStrategy(strategy);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  @Test
+  public void createsRecordsThroughCanonicalConstructor() {
+    AvroSchema<Reading> avroSchema = generated(Reading.class, InstantiationStrategy.ALLOCATION);
+    Reading reading = new Reading((byte) 1, (short) 300, 'C', 42L, "celsius");
+    assertThat(avroSchema.convertToPojo(avroSchema.convertFromPojo(reading)))
+        .isEqualTo(reading);
+    assertThat(avroSchema.convertToPojo(
+            avroSchema.convertFromPojo(reading), new Reading((byte) 0, (short) 0, 'x', 0L, null)))
+        .isEqualTo(reading);
+  }
+
+  @Test
+  public void narrowsAvroIntsPassedToConstructors() {
+    AvroSchema<Reading> avroSchema = generated(Reading.class, InstantiationStrategy.CONSTRUCTOR);
+    GenericRecord record = new GenericData.Record(avroSchema.getSchema());
+    record.put("sensor", 1);
+    record.put("channel", 300);
+    record.put("unit", (int) 'C');
+    record.put("timestamp", 42L);
+    record.put("label", "celsius");
+    assertThat(avroSchema.convertToPojo(record)).isEqualTo(new Reading((byte) 1, (short) 300, 'C', 42L, "celsius"));
+  }
+
+  @Test
+  public void passesAllFieldsToConstructors() {
+    AvroSchema<Normalized> avroSchema = generated(Normalized.class, InstantiationStrategy.CONSTRUCTOR);
+    GenericRecord record = avroSchema.convertFromPojo(new Normalized("name", 1, "note"));
+    record.put("name", "  name  ");
+    assertThat(avroSchema.convertToPojo(record)).isEqualTo(new Normalized("name", 1, null));
+  }
+
+  @Test
+  public void allocatesWithoutConstructorsWhenAsked() {
+    AvroSchema<Normalized> avroSchema = generated(Normalized.class, InstantiationStrategy.ALLOCATION);
+    assertThat(avroSchema.getInstantiationStrategy()).isEqualTo(InstantiationStrategy.ALLOCATION);
+    GenericRecord record = avroSchema.convertFromPojo(new Normalized("name", 1, "note"));
+    record.put("name", "  name  ");
+    assertThat(avroSchema.convertToPojo(record).name).isEqualTo("  name  ");
+  }
+
+  @Test
+  public void fillsReusedPojosInsteadOfConstructing() {
+    AvroSchema<Normalized> avroSchema = generated(Normalized.class, InstantiationStrategy.CONSTRUCTOR);
+    GenericRecord record = avroSchema.convertFromPojo(new Normalized("name", 1, null));
+    record.put("name", "  name  ");
+    Normalized reuse = new Normalized("reused", 0, "note");
+    assertThat(avroSchema.convertToPojo(record, reuse)).isSameAs(reuse);
+    assertThat(reuse.name).isEqualTo("  name  ");
+    assertThat(reuse.note).isEqualTo("note");
+  }
+
+  @Test
+  public void createsThroughStaticFactories() {
+    AvroSchema<Created> avroSchema = generated(Created.class, InstantiationStrategy.CONSTRUCTOR);
+    GenericRecord record = avroSchema.convertFromPojo(Created.of("name", 1, false));
+    record.put("from_factory", false);
+    assertThat(avroSchema.convertToPojo(record).fromFactory).isTrue();
+  }
+
+  @Test
+  public void wrapsConstructorFailures() {
+    AvroSchema<Validated> avroSchema = generated(Validated.class, InstantiationStrategy.CONSTRUCTOR);
+    GenericRecord record = new GenericData.Record(avroSchema.getSchema());
+    record.put("count", -1);
+    assertThatThrownBy(() -> avroSchema.convertToPojo(record))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class)
+        .hasRootCauseInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void allocatesByDefault() {
+    AvroSchema<Rect> avroSchema = new AvroSchema<>(Rect.class);
+    assertThat(avroSchema.getInstantiationStrategy()).isEqualTo(InstantiationStrategy.ALLOCATION);
+    avroSchema.generate();
+    assertThat(avroSchema.getInstantiator()).isNull();
+    GenericRecord record = new GenericData.Record(avroSchema.getSchema());
+    record.put("w", 3);
+    record.put("h", 10);
+    Rect rect = avroSchema.convertToPojo(record);
+    assertThat(rect.w).isEqualTo(3);
+    assertThat(rect.h).isEqualTo(10);
+  }
+
+  @Test
+  public void matchesReorderedParametersByName() {
+    AvroSchema<Rect> avroSchema = generated(Rect.class, InstantiationStrategy.CONSTRUCTOR);
+    assertThat(avroSchema.getInstantiator()).isNotNull();
+    GenericRecord record = new GenericData.Record(avroSchema.getSchema());
+    record.put("w", 3);
+    record.put("h", 10);
+    Rect rect = avroSchema.convertToPojo(record);
+    assertThat(rect.w).isEqualTo(3);
+    assertThat(rect.h).isEqualTo(10);
+  }
+
+  @Test
+  public void allocatesWhenParametersAreNotTheFields() {
+    AvroSchema<Renamed> avroSchema = generated(Renamed.class, InstantiationStrategy.CONSTRUCTOR);
+    assertThat(avroSchema.getInstantiator()).isNull();
+    GenericRecord record = new GenericData.Record(avroSchema.getSchema());
+    record.put("w", 3);
+    record.put("h", 10);
+    assertThat(avroSchema.convertToPojo(record).w).isEqualTo(3);
+  }
+
+  @Test
+  public void rejectsAmbiguousFactories() {
+    assertThatThrownBy(() -> Instantiator.of(MethodHandles.lookup(), Ambiguous.class))
+        .isExactlyInstanceOf(CannotGenerateSchemaException.class);
+    assertThatThrownBy(() -> generated(Ambiguous.class, InstantiationStrategy.CONSTRUCTOR))
+        .isExactlyInstanceOf(CannotGenerateSchemaException.class);
+    assertThat(generated(Ambiguous.class, InstantiationStrategy.ALLOCATION).getInstantiator())
+        .isNull();
+  }
+
+  @Test
+  public void rejectsSameTypedParametersWithoutNames() {
+    assertThatThrownBy(() -> Instantiator.of(MethodHandles.lookup(), AbstractMap.SimpleEntry.class))
+        .isExactlyInstanceOf(CannotGenerateSchemaException.class)
+        .hasRootCauseMessage("The parameters of public java.util.AbstractMap$SimpleEntry(java.lang.Object,"
+            + "java.lang.Object) share types, compile with -parameters to match them by name.");
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    assertThatThrownBy(() -> Instantiator.of(null, Reading.class)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> Instantiator.of(MethodHandles.lookup(), null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> FieldWriter.argument(0, null)).isExactlyInstanceOf(NullPointerException.class);
+  }
+}
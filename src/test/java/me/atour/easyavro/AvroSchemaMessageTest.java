@@ -0,0 +1,162 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BadHeaderException;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.message.MissingSchemaException;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaMessageTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Event {
+    private final String name;
+    private final long timestamp;
+    private final double score;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Other {
+    private final String name;
+  }
+
+  private static final Event event = new Event("event", 42L, 0.5);
+
+  private static AvroSchema<Event> generated() {
+    AvroSchema<Event> avroSchema = new AvroSchema<>(Event.class);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  @Test
+  public void computesFingerprint() {
+    AvroSchema<Event> avroSchema = generated();
+    assertThat(avroSchema.getCanonicalForm()).isEqualTo(SchemaNormalization.toParsingForm(avroSchema.getSchema()));
+    assertThat(avroSchema.getFingerprint())
+        .isEqualTo(SchemaNormalization.parsingFingerprint64(avroSchema.getSchema()));
+  }
+
+  @Test
+  public void cachesCanonicalFormUntilRegenerated() {
+    AvroSchema<Event> avroSchema = generated();
+    String canonicalForm = avroSchema.getCanonicalForm();
+    assertThat(avroSchema.getCanonicalForm()).isSameAs(canonicalForm);
+    avroSchema.setIncludedFields(List.of("name"));
+    avroSchema.generate();
+    assertThat(avroSchema.getCanonicalForm())
+        .isEqualTo(SchemaNormalization.toParsingForm(avroSchema.getSchema()))
+        .isNotEqualTo(canonicalForm);
+  }
+
+  @Test
+  public void encodesLikeAvro() throws IOException {
+    AvroSchema<Event> avroSchema = generated();
+    GenericRecord record = avroSchema.convertFromPojo(event);
+    byte[] expected = new BinaryMessageEncoder<GenericRecord>(GenericData.get(), avroSchema.getSchema())
+        .encode(record)
+        .array();
+    byte[] message = avroSchema.encodeMessage(event);
+    assertThat(message).isEqualTo(expected);
+    assertThat(avroSchema.decodeMessage(expected)).isEqualTo(event);
+  }
+
+  @Test
+  public void encodesIntoBuffers() {
+    AvroSchema<Event> avroSchema = generated();
+    byte[] message = avroSchema.encodeMessage(event);
+    ByteBuffer target = ByteBuffer.allocateDirect(64).position(3);
+    assertThat(avroSchema.encodeMessage(event, target)).isEqualTo(message.length);
+    byte[] written = new byte[message.length];
+    target.flip().position(3);
+    target.get(written);
+    assertThat(written).isEqualTo(message);
+  }
+
+  @Test
+  public void leavesFullBuffersUnchanged() {
+    AvroSchema<Event> avroSchema = generated();
+    for (int capacity : new int[] {4, 12}) {
+      ByteBuffer target = ByteBuffer.allocate(capacity).position(1);
+      assertThatThrownBy(() -> avroSchema.encodeMessage(event, target))
+          .isExactlyInstanceOf(BufferOverflowException.class);
+      assertThat(target.position()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void keepsFingerprintAcrossGenerations() {
+    AvroSchema<Event> avroSchema = generated();
+    long fingerprint = avroSchema.getFingerprint();
+    avroSchema.generate();
+    assertThat(avroSchema.getFingerprint()).isEqualTo(fingerprint);
+    avroSchema.setIncludedFields(List.of("name"));
+    avroSchema.generate();
+    assertThat(avroSchema.getFingerprint()).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void rejectsBadHeaders() {
+    AvroSchema<Event> avroSchema = generated();
+    byte[] message = avroSchema.encodeMessage(event);
+    byte[] unmarked = message.clone();
+    unmarked[0] = 0;
+    byte[] badVersion = message.clone();
+    badVersion[1] = 2;
+    for (byte[] bad : new byte[][] {unmarked, badVersion, Arrays.copyOf(message, 9)}) {
+      assertThatThrownBy(() -> avroSchema.decodeMessage(bad))
+          .isExactlyInstanceOf(CannotConvertRecordToPojoException.class)
+          .hasCauseExactlyInstanceOf(BadHeaderException.class);
+    }
+  }
+
+  @Test
+  public void rejectsOtherSchemas() {
+    AvroSchema<Event> avroSchema = generated();
+    AvroSchema<Other> other = new AvroSchema<>(Other.class);
+    other.generate();
+    assertThatThrownBy(() -> avroSchema.decodeMessage(other.encodeMessage(new Other("other"))))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class)
+        .hasCauseExactlyInstanceOf(MissingSchemaException.class);
+  }
+
+  @Test
+  public void rejectsTruncatedPayloads() {
+    AvroSchema<Event> avroSchema = generated();
+    byte[] message = avroSchema.encodeMessage(event);
+    assertThatThrownBy(() -> avroSchema.decodeMessage(Arrays.copyOf(message, message.length - 4)))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class);
+  }
+
+  @Test
+  public void rejectsUngeneratedSchemas() {
+    AvroSchema<Event> avroSchema = new AvroSchema<>(Event.class);
+    assertThatThrownBy(() -> avroSchema.encodeMessage(event)).isExactlyInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> avroSchema.decodeMessage(new byte[10]))
+        .isExactlyInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    AvroSchema<Event> avroSchema = generated();
+    assertThatThrownBy(() -> avroSchema.encodeMessage(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.encodeMessage(null, ByteBuffer.allocate(64)))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.encodeMessage(event, null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.decodeMessage(null)).isExactlyInstanceOf(NullPointerException.class);
+  }
+}
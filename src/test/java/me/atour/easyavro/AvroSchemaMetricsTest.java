@@ -0,0 +1,147 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import me.atour.easyavro.metrics.AvroMetrics;
+import me.atour.easyavro.metrics.LongAdderMetrics;
+import me.atour.easyavro.metrics.Operation;
+import me.atour.easyavro.metrics.OperationMetrics;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaMetricsTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Reading {
+    private final String sensor;
+    private final double value;
+  }
+
+  @SuppressWarnings("unused")
+  private static class Missing {
+    private final String name = "missing";
+  }
+
+  private static final Reading reading = new Reading("sensor", 21.5);
+
+  private static OperationMetrics metricsOf(LongAdderMetrics metrics, Class<?> type, Operation operation) {
+    return metrics.get(type).get(operation);
+  }
+
+  @Test
+  public void reportsGenerationAndConversions() {
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    AvroSchema<Reading> avroSchema = new AvroSchema<>(Reading.class);
+    avroSchema.setMetrics(metrics);
+    avroSchema.generate();
+    GenericRecord record = avroSchema.convertFromPojo(reading);
+    assertThat(avroSchema.convertToPojo(record)).isEqualTo(reading);
+    avroSchema.convertToPojo(record);
+    assertThat(metricsOf(metrics, Reading.class, Operation.GENERATE).getCount())
+        .isEqualTo(1);
+    assertThat(metricsOf(metrics, Reading.class, Operation.TO_RECORD).getCount())
+        .isEqualTo(1);
+    assertThat(metricsOf(metrics, Reading.class, Operation.TO_POJO).getCount())
+        .isEqualTo(2);
+    assertThat(metricsOf(metrics, Reading.class, Operation.TO_POJO).getFailures())
+        .isZero();
+  }
+
+  @Test
+  public void reportsBytesEncodedAndDecoded() {
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    AvroSchema<Reading> avroSchema = new AvroSchema<>(Reading.class);
+    avroSchema.setMetrics(metrics);
+    avroSchema.generate();
+    int length = avroSchema.encode(reading, ByteBuffer.allocate(64));
+    byte[] message = avroSchema.encodeMessage(reading);
+    avroSchema.encodeMessage(reading, ByteBuffer.allocate(64));
+    try (PooledBuffer buffer = avroSchema.encodeToPooledBuffer(reading, new BufferPool(1, 1))) {
+      assertThat(buffer.getLength()).isEqualTo(length);
+    }
+    assertThat(avroSchema.decodeMessage(message)).isEqualTo(reading);
+    InMemorySchemaStore store = new InMemorySchemaStore();
+    store.addSchema(avroSchema);
+    assertThat(new PojoMessageDecoder<>(avroSchema, store).decode(message)).isEqualTo(reading);
+    OperationMetrics encode = metricsOf(metrics, Reading.class, Operation.ENCODE);
+    assertThat(encode.getCount()).isEqualTo(4);
+    assertThat(encode.getBytes()).isEqualTo(2L * length + 2L * message.length);
+    assertThat(encode.getFailures()).isZero();
+    OperationMetrics decode = metricsOf(metrics, Reading.class, Operation.DECODE);
+    assertThat(decode.getCount()).isEqualTo(2);
+    assertThat(decode.getBytes()).isEqualTo(2L * message.length);
+  }
+
+  @Test
+  public void reportsFailures() {
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    AvroSchema<Reading> avroSchema = new AvroSchema<>(Reading.class);
+    avroSchema.setMetrics(metrics);
+    assertThatThrownBy(() -> avroSchema.encode(reading, ByteBuffer.allocate(64)))
+        .isExactlyInstanceOf(IllegalStateException.class);
+    avroSchema.generate();
+    assertThatThrownBy(() -> avroSchema.encode(reading, ByteBuffer.allocate(1)))
+        .isExactlyInstanceOf(BufferOverflowException.class);
+    assertThatThrownBy(() -> avroSchema.encodeMessage(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.decodeMessage(new byte[] {1}))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class);
+    assertThatThrownBy(() -> avroSchema.encodeToPooledBuffer(new Reading(null, 1), new BufferPool(64, 1)))
+        .isInstanceOf(RuntimeException.class);
+    assertThat(metricsOf(metrics, Reading.class, Operation.ENCODE).getFailures())
+        .isEqualTo(3);
+    assertThat(metricsOf(metrics, Reading.class, Operation.ENCODE).getCount())
+        .isZero();
+    assertThat(metricsOf(metrics, Reading.class, Operation.DECODE).getFailures())
+        .isEqualTo(1);
+    AvroSchema<Missing> missing = new AvroSchema<>(Missing.class);
+    missing.setMetrics(metrics);
+    missing.setIncludedFields(List.of("absent"));
+    assertThatThrownBy(missing::generate).isExactlyInstanceOf(CannotGenerateSchemaException.class);
+    assertThat(metricsOf(metrics, Missing.class, Operation.GENERATE).getFailures())
+        .isEqualTo(1);
+    assertThat(metricsOf(metrics, Missing.class, Operation.GENERATE).getCount())
+        .isZero();
+  }
+
+  @Test
+  public void reportsSwallowedConversionFailuresOnce() {
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    AvroSchema<Reading> avroSchema = new AvroSchema<>(Reading.class);
+    avroSchema.setMetrics(metrics);
+    avroSchema.generate();
+    assertThat(avroSchema.convertFromPojo(null)).isNotNull();
+    assertThat(metricsOf(metrics, Reading.class, Operation.TO_RECORD).getFailures())
+        .isEqualTo(1);
+    assertThat(metricsOf(metrics, Reading.class, Operation.TO_RECORD).getCount())
+        .isZero();
+  }
+
+  @Test
+  public void reportsToDefaultMetrics() {
+    AvroMetrics previous = AvroSchema.getDefaultMetrics();
+    assertThat(previous).isSameAs(AvroMetrics.noOp());
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    try {
+      AvroSchema.setDefaultMetrics(metrics);
+      assertThat(new AvroSchema<>(Reading.class).getMetrics()).isSameAs(metrics);
+    } finally {
+      AvroSchema.setDefaultMetrics(previous);
+    }
+    assertThat(new AvroSchema<>(Reading.class).getMetrics()).isSameAs(previous);
+  }
+
+  @Test
+  public void rejectsNullMetrics() {
+    assertThatThrownBy(() -> AvroSchema.setDefaultMetrics(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new AvroSchema<>(Reading.class).setMetrics(null))
+        .isExactlyInstanceOf(NullPointerException.class);
+  }
+}
@@ -0,0 +1,173 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import me.atour.easyavro.metrics.AvroMetrics;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaRegistryTest {
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "Leaf")
+  private static class Leaf {
+    private final int value;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Branches {
+    private final Leaf left;
+    private final Leaf right;
+    private final List<Leaf> leaves;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @AvroRecord(schemaName = "Node")
+  private static class Node {
+    private String label;
+    private Node next;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @AvroRecord(schemaName = "Parent")
+  private static class Parent {
+    private String name;
+    private List<Child> children;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode(exclude = "parent")
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @AvroRecord(schemaName = "Child")
+  private static class Child {
+    private String name;
+    private Parent parent;
+  }
+
+  @Test
+  public void forClassReturnsGeneratedSharedInstance() {
+    AvroSchema<Leaf> leaf = AvroSchema.forClass(Leaf.class);
+    assertThat(leaf.getSchema()).isNotNull();
+    assertThat(AvroSchema.forClass(Leaf.class)).isSameAs(leaf);
+  }
+
+  @Test
+  public void rejectsReconfiguringSharedInstances() {
+    AvroSchema<Leaf> leaf = AvroSchema.forClass(Leaf.class);
+    Schema schema = leaf.getSchema();
+    assertThatThrownBy(leaf::generate).isExactlyInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> leaf.setConversionEngine(ConversionEngine.GENERATED))
+        .isExactlyInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> leaf.setFieldAccess(FieldAccess.VAR_HANDLE))
+        .isExactlyInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> leaf.setInstantiationStrategy(InstantiationStrategy.CONSTRUCTOR))
+        .isExactlyInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> leaf.setSchemaCache(null)).isExactlyInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> leaf.setMetrics(AvroMetrics.noOp())).isExactlyInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> leaf.setIncludedFields(List.of("value")))
+        .isExactlyInstanceOf(IllegalStateException.class);
+    assertThat(leaf.getSchema()).isSameAs(schema);
+    assertThat(leaf.getConversionEngine()).isEqualTo(ConversionEngine.REFLECTIVE);
+    assertThat(leaf.getIncludedFields()).isNull();
+  }
+
+  @Test
+  public void regeneratingSharedInstancesDoesNotDisturbConversions() throws Exception {
+    AvroSchema<Node> avroSchema = AvroSchema.forClass(Node.class);
+    Schema schema = avroSchema.getSchema();
+    Node node = new Node("a", new Node("b", null));
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> conversions = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        conversions.add(executor.submit(() -> {
+          while (running.get()) {
+            assertThat(avroSchema.convertToPojo(avroSchema.convertFromPojo(node)))
+                .isEqualTo(node);
+          }
+        }));
+      }
+      for (int i = 0; i < 1000; i++) {
+        assertThatThrownBy(avroSchema::generate).isExactlyInstanceOf(IllegalStateException.class);
+      }
+      running.set(false);
+      for (Future<?> conversion : conversions) {
+        conversion.get();
+      }
+    } catch (ExecutionException e) {
+      throw new AssertionError(e.getCause());
+    } finally {
+      running.set(false);
+      executor.shutdown();
+    }
+    assertThat(avroSchema.getSchema()).isSameAs(schema);
+  }
+
+  @Test
+  public void nestedTypesReuseRegisteredSchema() {
+    Schema leaf = AvroSchema.forClass(Leaf.class).getSchema();
+    Schema branches = AvroSchema.forClass(Branches.class).getSchema();
+    assertThat(branches.getField("left").schema()).isSameAs(leaf);
+    assertThat(branches.getField("right").schema()).isSameAs(leaf);
+    assertThat(branches.getField("leaves").schema().getElementType()).isSameAs(leaf);
+    assertThat(new Schema.Parser().parse(branches.toString())).isEqualTo(branches);
+  }
+
+  @Test
+  public void selfReferencingTypes() throws IOException {
+    AvroSchema<Node> avroSchema = new AvroSchema<>(Node.class);
+    avroSchema.generate();
+    Schema schema = avroSchema.getSchema();
+    Schema next = schema.getField("next").schema();
+    assertThat(next.getTypes()).contains(schema);
+    assertThat(new Schema.Parser().parse(schema.toString())).isEqualTo(schema);
+    Node list = new Node("a", new Node("b", new Node("c", null)));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bytes, null);
+    new PojoDatumWriter<>(avroSchema).write(list, encoder);
+    encoder.flush();
+    Node read = new PojoDatumReader<>(avroSchema)
+        .read(null, DecoderFactory.get().binaryDecoder(bytes.toByteArray(), null));
+    assertThat(read).isEqualTo(list);
+  }
+
+  @Test
+  public void mutuallyReferencingTypes() {
+    AvroSchema<Parent> avroSchema = AvroSchema.forClass(Parent.class);
+    Schema parent = avroSchema.getSchema();
+    Schema child = parent.getField("children").schema().getElementType();
+    assertThat(child.getName()).isEqualTo("Child");
+    assertThat(child.getField("parent").schema().getTypes()).contains(parent);
+    Parent pojo = new Parent("p", List.of(new Child("c", null)));
+    GenericRecord record = avroSchema.convertFromPojo(pojo);
+    assertThat(avroSchema.convertToPojo(record)).isEqualTo(pojo);
+  }
+}
@@ -0,0 +1,97 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import me.atour.easyavro.field.AvroField;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class AvroSchemaReuseTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @AllArgsConstructor
+  private static class Measurement {
+    private int sensor;
+    private double value;
+    private String unit;
+
+    @AvroField(included = false)
+    private String note;
+  }
+
+  private static AvroSchema<Measurement> generated(ConversionEngine engine) {
+    AvroSchema<Measurement> avroSchema = new AvroSchema<>(Measurement.class);
+    avroSchema.setConversionEngine(engine);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  @ParameterizedTest
+  @EnumSource(ConversionEngine.class)
+  public void fillsReusedRecord(ConversionEngine engine) {
+    AvroSchema<Measurement> avroSchema = generated(engine);
+    GenericData.Record reuse = new GenericData.Record(avroSchema.getSchema());
+    GenericRecord first = avroSchema.convertFromPojo(new Measurement(1, 2.5, "C", null), reuse);
+    assertThat(first).isSameAs(reuse);
+    GenericRecord second = avroSchema.convertFromPojo(new Measurement(2, 3.5, null, null), reuse);
+    assertThat(second).isSameAs(reuse);
+    assertThat(second.get("sensor")).isEqualTo(2);
+    assertThat(second.get("value")).isEqualTo(3.5);
+    assertThat(second.get("unit")).isNull();
+  }
+
+  @ParameterizedTest
+  @EnumSource(ConversionEngine.class)
+  public void allocatesRecordWhenReuseDoesNotFit(ConversionEngine engine) {
+    AvroSchema<Measurement> avroSchema = generated(engine);
+    GenericData.Record other = new GenericData.Record(
+        SchemaBuilder.record("Other").fields().requiredInt("sensor").endRecord());
+    Measurement measurement = new Measurement(1, 2.5, "C", null);
+    GenericRecord converted = avroSchema.convertFromPojo(measurement, other);
+    assertThat(converted).isNotSameAs(other);
+    assertThat(converted.getSchema()).isSameAs(avroSchema.getSchema());
+    assertThat(avroSchema.convertFromPojo(measurement, null).get("unit")).isEqualTo("C");
+    GenericData.Record equalSchema =
+        new GenericData.Record(generated(engine).getSchema());
+    assertThat(avroSchema.convertFromPojo(measurement, equalSchema)).isSameAs(equalSchema);
+  }
+
+  @ParameterizedTest
+  @EnumSource(ConversionEngine.class)
+  public void fillsReusedPojo(ConversionEngine engine) {
+    AvroSchema<Measurement> avroSchema = generated(engine);
+    GenericRecord record = avroSchema.convertFromPojo(new Measurement(4, 5.5, "K", null));
+    Measurement reuse = new Measurement(0, 0.0, "F", "kept");
+    Measurement converted = avroSchema.convertToPojo(record, reuse);
+    assertThat(converted).isSameAs(reuse);
+    assertThat(converted).isEqualTo(new Measurement(4, 5.5, "K", "kept"));
+    assertThat(avroSchema.convertToPojo(record, null)).isEqualTo(new Measurement(4, 5.5, "K", null));
+  }
+
+  @ParameterizedTest
+  @EnumSource(ConversionEngine.class)
+  public void fillsReusedPojoFromRecordOfOtherSchema(ConversionEngine engine) {
+    AvroSchema<Measurement> avroSchema = generated(engine);
+    GenericData.Record record = new GenericData.Record(SchemaBuilder.record("Measurement")
+        .fields()
+        .optionalString("unit")
+        .optionalDouble("value")
+        .optionalInt("sensor")
+        .endRecord());
+    record.put("unit", "K");
+    record.put("value", 1.5);
+    record.put("sensor", 6);
+    Measurement reuse = new Measurement();
+    assertThat(avroSchema.convertToPojo(record, reuse))
+        .isSameAs(reuse)
+        .isEqualTo(new Measurement(6, 1.5, "K", null));
+  }
+}
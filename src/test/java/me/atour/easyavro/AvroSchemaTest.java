@@ -489,4 +489,20 @@ class AvroSchemaTest {
     ArrayTypeDto pojo = schema.convertToPojo(actual);
     assertThat(pojo).isEqualTo(dto);
   }
+
+  @Test
+  public void generatePojoFromRecordWithEqualButDistinctSchema() {
+    AvroSchema<MultiplePrimitiveTypesDto> schema = new AvroSchema<>(MultiplePrimitiveTypesDto.class);
+    schema.generate();
+    MultiplePrimitiveTypesDto dto =
+        new MultiplePrimitiveTypesDto(false, 'q', -4, 12L, (byte) 7, -3.5, 0.25f, (short) 300);
+    GenericRecord generated = schema.convertFromPojo(dto);
+    Schema copy = new Schema.Parser().parse(schema.getSchema().toString());
+    GenericData.Record actual = new GenericData.Record(copy);
+    for (Schema.Field field : copy.getFields()) {
+      actual.put(field.name(), generated.get(field.name()));
+    }
+    MultiplePrimitiveTypesDto pojo = schema.convertToPojo(actual);
+    assertThat(pojo).isEqualTo(dto);
+  }
 }
@@ -0,0 +1,101 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemasTest {
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "SharedAddress")
+  private static class Address {
+    private final String street;
+    private final int number;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "Customer")
+  private static class Customer {
+    private final String name;
+    private final Address address;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "Supplier")
+  private static class Supplier {
+    private final String name;
+    private final List<Address> addresses;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Unsupported {
+    private final Object value;
+  }
+
+  @Test
+  public void warmsUpSharedSchemasOnExecutor() {
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      Map<Class<?>, AvroSchema<?>> schemas =
+          AvroSchemas.warmUp(List.of(Customer.class, Supplier.class, Customer.class), executor);
+      assertThat(schemas.keySet()).containsExactly(Customer.class, Supplier.class);
+      assertThat(schemas.get(Customer.class)).isSameAs(AvroSchema.forClass(Customer.class));
+      assertThat(schemas.get(Supplier.class).getPlan()).hasSize(2);
+      Schema address = AvroSchema.forClass(Address.class).getSchema();
+      assertThat(schemas.get(Customer.class)
+              .getSchema()
+              .getField("address")
+              .schema())
+          .isSameAs(address);
+      assertThat(schemas.get(Supplier.class)
+              .getSchema()
+              .getField("addresses")
+              .schema()
+              .getElementType())
+          .isSameAs(address);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void warmsUpCodecsWithoutPlanning() {
+    AvroSchema<?> codec =
+        AvroSchemas.warmUp(List.of(AvroSchemaCodecTest.CodecDto.class)).get(AvroSchemaCodecTest.CodecDto.class);
+    assertThat(codec.usesCodec()).isTrue();
+    assertThat(codec.isPlanned()).isFalse();
+    assertThat(AvroSchemas.warmUp(List.of(Address.class)).get(Address.class).isPlanned())
+        .isTrue();
+  }
+
+  @Test
+  public void warmsUpOnCommonPool() {
+    assertThat(AvroSchemas.warmUp(List.of(Address.class))).containsOnlyKeys(Address.class);
+  }
+
+  @Test
+  public void rethrowsGenerationFailures() {
+    assertThatThrownBy(() -> AvroSchemas.warmUp(List.of(Address.class, Unsupported.class)))
+        .isExactlyInstanceOf(CannotGenerateSchemaException.class)
+        .hasCauseInstanceOf(CannotCreateValidEncodingException.class);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    assertThatThrownBy(() -> AvroSchemas.warmUp(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> AvroSchemas.warmUp(null, Runnable::run))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> AvroSchemas.warmUp(List.of(), null)).isExactlyInstanceOf(NullPointerException.class);
+  }
+}
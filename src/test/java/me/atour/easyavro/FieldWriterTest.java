@@ -0,0 +1,155 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class FieldWriterTest {
+
+  @SuppressWarnings("unused")
+  private static class Target {
+    private boolean boolOne;
+    private byte byteOne;
+    private char charOne;
+    private short shortOne;
+    private int intOne;
+    private long longOne;
+    private float floatOne;
+    private double doubleOne;
+    private Object objectOne;
+    private final int finalOne;
+
+    Target() {
+      finalOne = 0;
+    }
+  }
+
+  private record RecordTarget(int intOne) {}
+
+  private static FieldWriter writer(FieldAccess access, Class<?> type, String name) throws Exception {
+    Field field = type.getDeclaredField(name);
+    if (access == FieldAccess.VAR_HANDLE) {
+      return FieldWriter.of(MethodHandles.privateLookupIn(type, MethodHandles.lookup()), field);
+    }
+    long offset = type.isRecord() ? PojoField.NO_OFFSET : UnsafeAccess.get().objectFieldOffset(field);
+    return FieldWriter.of(field, FieldKind.of(field.getType()), offset);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void writesPrimitivesWithoutBoxing(FieldAccess access) throws Exception {
+    Target target = new Target();
+    writer(access, Target.class, "boolOne").setBoolean(target, true);
+    writer(access, Target.class, "intOne").setInt(target, 42);
+    writer(access, Target.class, "longOne").setLong(target, 43L);
+    writer(access, Target.class, "floatOne").setFloat(target, 4.5f);
+    writer(access, Target.class, "doubleOne").setDouble(target, 5.5);
+    assertThat(target.boolOne).isTrue();
+    assertThat(target.intOne).isEqualTo(42);
+    assertThat(target.longOne).isEqualTo(43L);
+    assertThat(target.floatOne).isEqualTo(4.5f);
+    assertThat(target.doubleOne).isEqualTo(5.5);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void writesBoxedValues(FieldAccess access) throws Exception {
+    Target target = new Target();
+    writer(access, Target.class, "boolOne").set(target, true);
+    writer(access, Target.class, "intOne").set(target, 42);
+    writer(access, Target.class, "longOne").set(target, 43L);
+    writer(access, Target.class, "floatOne").set(target, 4.5f);
+    writer(access, Target.class, "doubleOne").set(target, 5.5);
+    writer(access, Target.class, "objectOne").set(target, "object");
+    assertThat(target.boolOne).isTrue();
+    assertThat(target.intOne).isEqualTo(42);
+    assertThat(target.longOne).isEqualTo(43L);
+    assertThat(target.floatOne).isEqualTo(4.5f);
+    assertThat(target.doubleOne).isEqualTo(5.5);
+    assertThat(target.objectOne).isEqualTo("object");
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void narrowsAvroInts(FieldAccess access) throws Exception {
+    Target target = new Target();
+    writer(access, Target.class, "byteOne").setInt(target, 7);
+    writer(access, Target.class, "shortOne").setInt(target, 300);
+    writer(access, Target.class, "charOne").setInt(target, 'a');
+    assertThat(target.byteOne).isEqualTo((byte) 7);
+    assertThat(target.shortOne).isEqualTo((short) 300);
+    assertThat(target.charOne).isEqualTo('a');
+    writer(access, Target.class, "byteOne").set(target, 8);
+    writer(access, Target.class, "shortOne").set(target, 301);
+    writer(access, Target.class, "charOne").set(target, (int) 'b');
+    assertThat(target.byteOne).isEqualTo((byte) 8);
+    assertThat(target.shortOne).isEqualTo((short) 301);
+    assertThat(target.charOne).isEqualTo('b');
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void acceptsValuesOfFieldType(FieldAccess access) throws Exception {
+    Target target = new Target();
+    writer(access, Target.class, "byteOne").set(target, (byte) 9);
+    writer(access, Target.class, "shortOne").set(target, (short) 302);
+    writer(access, Target.class, "charOne").set(target, 'c');
+    assertThat(target.byteOne).isEqualTo((byte) 9);
+    assertThat(target.shortOne).isEqualTo((short) 302);
+    assertThat(target.charOne).isEqualTo('c');
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void boxesUnspecializedEntryPoints(FieldAccess access) throws Exception {
+    Target target = new Target();
+    FieldWriter objectWriter = writer(access, Target.class, "objectOne");
+    objectWriter.setInt(target, 1);
+    assertThat(target.objectOne).isEqualTo(1);
+    objectWriter.setLong(target, 2L);
+    assertThat(target.objectOne).isEqualTo(2L);
+    objectWriter.setFloat(target, 3f);
+    assertThat(target.objectOne).isEqualTo(3f);
+    objectWriter.setDouble(target, 4.0);
+    assertThat(target.objectOne).isEqualTo(4.0);
+    objectWriter.setBoolean(target, true);
+    assertThat(target.objectOne).isEqualTo(true);
+    assertThatThrownBy(() -> writer(access, Target.class, "longOne").setInt(target, 5))
+        .isExactlyInstanceOf(ClassCastException.class);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void rejectsFieldsWithoutOffset(FieldAccess access) throws Exception {
+    FieldWriter writer = writer(access, RecordTarget.class, "intOne");
+    RecordTarget target = new RecordTarget(1);
+    assertThatThrownBy(() -> writer.setInt(target, 2))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class);
+    assertThatThrownBy(() -> writer.set(target, 2)).isExactlyInstanceOf(CannotConvertRecordToPojoException.class);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FieldAccess.class)
+  public void writesFinalFields(FieldAccess access) throws Exception {
+    Target target = new Target();
+    writer(access, Target.class, "finalOne").setInt(target, 10);
+    assertThat(target.finalOne).isEqualTo(10);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    assertThatThrownBy(() -> FieldWriter.of(null, FieldKind.INT, 0L))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> FieldWriter.of(Target.class.getDeclaredField("intOne"), null, 0L))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> FieldWriter.of(null, Target.class.getDeclaredField("intOne")))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> FieldWriter.of(MethodHandles.lookup(), null))
+        .isExactlyInstanceOf(NullPointerException.class);
+  }
+}
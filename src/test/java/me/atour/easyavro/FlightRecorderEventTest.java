@@ -0,0 +1,167 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightRecorderEventTest {
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "RecordedUnit")
+  private static class Unit {
+    private final String symbol;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "RecordedSensor")
+  private static class Sensor {
+    private final String name;
+    private final List<Unit> units;
+  }
+
+  @SuppressWarnings("unused")
+  @NoArgsConstructor
+  @AvroRecord(schemaName = "RecordedLink")
+  private static class Link {
+    private Link next;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Measurement {
+    private final double value;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Station {
+    private final Sensor sensor;
+    private final Map<String, Unit> units;
+    private final Link link;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Unsupported {
+    private final Object value;
+  }
+
+  @TempDir
+  private Path directory;
+
+  private List<RecordedEvent> record(Runnable action, String... events) throws IOException {
+    Path file = directory.resolve("recording.jfr");
+    try (Recording recording = new Recording()) {
+      for (String event : events) {
+        recording.enable(event);
+      }
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().startsWith("me.atour.easyavro."))
+        .toList();
+  }
+
+  private static RecordedEvent generationOf(List<RecordedEvent> events, Class<?> type) {
+    return events.stream()
+        .filter(event -> event.getEventType().getName().equals(GenerationEvent.NAME))
+        .filter(event -> event.getString("className").equals(type.getName()))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  @Test
+  public void recordsGeneration() throws IOException {
+    List<RecordedEvent> events = record(
+        () -> new AvroSchema<>(Station.class).generate(), GenerationEvent.NAME, SchemaCreationEvent.NAME);
+    RecordedEvent station = generationOf(events, Station.class);
+    assertThat(station.getInt("fieldCount")).isEqualTo(3);
+    assertThat(station.getInt("nestedDepth")).isEqualTo(3);
+    assertThat(station.getString("failure")).isNull();
+    assertThat(station.getDuration()).isPositive();
+    assertThat(generationOf(events, Link.class).getInt("nestedDepth")).isEqualTo(1);
+    assertThat(events)
+        .filteredOn(event -> event.getEventType().getName().equals(SchemaCreationEvent.NAME))
+        .extracting(event -> event.getString("schemaName"))
+        .anySatisfy(name -> assertThat(name).endsWith("RecordedSensor"))
+        .anySatisfy(name -> assertThat(name).endsWith("RecordedUnit"))
+        .anySatisfy(name -> assertThat(name).endsWith("RecordedLink"));
+  }
+
+  @Test
+  public void recordsConversions() throws IOException {
+    AvroSchema<Measurement> avroSchema = new AvroSchema<>(Measurement.class);
+    avroSchema.generate();
+    Measurement measurement = new Measurement(1.5);
+    List<RecordedEvent> events = record(
+        () -> {
+          avroSchema.convertToPojo(avroSchema.convertFromPojo(measurement));
+          avroSchema.encode(measurement, ByteBuffer.allocate(16));
+          avroSchema.decodeMessage(avroSchema.encodeMessage(measurement));
+        },
+        ConversionEvent.NAME);
+    assertThat(events)
+        .extracting(event -> event.getString("operation"))
+        .containsExactly("TO_RECORD", "TO_POJO", "ENCODE", "ENCODE", "DECODE");
+    assertThat(events).extracting(event -> event.getString("className")).containsOnly(Measurement.class.getName());
+    assertThat(events).extracting(event -> event.getLong("bytes")).containsExactly(0L, 0L, 8L, 18L, 18L);
+  }
+
+  @Test
+  public void recordsFailures() throws IOException {
+    AvroSchema<Measurement> avroSchema = new AvroSchema<>(Measurement.class);
+    avroSchema.generate();
+    List<RecordedEvent> events = record(
+        () -> {
+          assertThatThrownBy(() -> avroSchema.decodeMessage(new byte[] {1}))
+              .isExactlyInstanceOf(CannotConvertRecordToPojoException.class);
+          assertThat(avroSchema.convertFromPojo(null)).isNotNull();
+          assertThatThrownBy(() -> new AvroSchema<>(Unsupported.class).generate())
+              .isExactlyInstanceOf(CannotCreateValidEncodingException.class);
+        },
+        GenerationEvent.NAME,
+        SchemaCreationEvent.NAME,
+        ConversionEvent.NAME);
+    assertThat(events).hasSize(4);
+    assertThat(events).extracting(event -> event.getString("failure")).allSatisfy(failure -> assertThat(failure)
+        .isNotNull());
+    assertThat(events.get(0).getString("failure")).contains("BadHeaderException");
+    assertThat(events.get(1).getString("operation")).isEqualTo("TO_RECORD");
+    assertThat(events.get(1).getString("failure")).contains(NullPointerException.class.getName());
+    assertThat(events.get(2).getString("failure")).contains(CannotCreateValidEncodingException.class.getName());
+  }
+
+  @Test
+  public void disabledByDefault() throws IOException {
+    AvroSchema<Measurement> avroSchema = new AvroSchema<>(Measurement.class);
+    List<RecordedEvent> events = record(() -> {
+      avroSchema.generate();
+      avroSchema.convertFromPojo(new Measurement(1));
+    });
+    assertThat(events).isEmpty();
+    assertThat(EventType.getEventType(ConversionEvent.class).isEnabled()).isFalse();
+    assertThat(EventType.getEventType(GenerationEvent.class).isEnabled()).isFalse();
+    assertThat(EventType.getEventType(SchemaCreationEvent.class).isEnabled())
+        .isFalse();
+  }
+}
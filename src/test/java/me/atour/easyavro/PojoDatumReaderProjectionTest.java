@@ -0,0 +1,245 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableByteArrayInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class PojoDatumReaderProjectionTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "ProjectedItem")
+  private static class Item {
+    private final String sku;
+    private final int quantity;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Order {
+    private final long id;
+    private final String customer;
+    private final List<String> tags;
+    private final Map<String, Integer> attributes;
+    private final int[] quantities;
+    private final Item item;
+    private final double total;
+    private final boolean paid;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class OrderView {
+    private final double total;
+    private final long id;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Mismatched {
+    private final int id;
+  }
+
+  private static final Order order = new Order(
+      42L,
+      "customer",
+      List.of("a", "b"),
+      Map.of("x", 1, "y", 2),
+      new int[] {3, 4},
+      new Item("sku", 5),
+      12.5,
+      true);
+
+  private static <T> AvroSchema<T> generated(Class<T> type) {
+    AvroSchema<T> avroSchema = new AvroSchema<>(type);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static byte[] encode(Order... orders) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    PojoDatumWriter<Order> writer = new PojoDatumWriter<>(generated(Order.class));
+    for (Order next : orders) {
+      writer.write(next, encoder);
+    }
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  @Test
+  public void readsViewsOfWrittenRecords() throws IOException {
+    Schema writerSchema = generated(Order.class).getSchema();
+    PojoDatumReader<OrderView> reader = new PojoDatumReader<>(generated(OrderView.class), writerSchema);
+    Order second = new Order(7L, "other", List.of(), Map.of(), new int[0], new Item("other", 0), 1.0, false);
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(encode(order, second), null);
+    assertThat(reader.read(null, decoder)).isEqualTo(new OrderView(12.5, 42L));
+    assertThat(reader.read(null, decoder)).isEqualTo(new OrderView(1.0, 7L));
+    assertThat(decoder.isEnd()).isTrue();
+  }
+
+  @Test
+  public void readsIncludedFieldsOnly() throws IOException {
+    AvroSchema<Order> projected = new AvroSchema<>(Order.class);
+    projected.setIncludedFields(List.of("id", "item"));
+    projected.generate();
+    assertThat(projected.getIncludedFields()).containsExactlyInAnyOrder("id", "item");
+    assertThat(projected.getSchema().getFields()).hasSize(2);
+    PojoDatumReader<Order> reader =
+        new PojoDatumReader<>(projected, generated(Order.class).getSchema());
+    Order read = reader.read(null, DecoderFactory.get().binaryDecoder(encode(order), null));
+    assertThat(read).isEqualTo(new Order(42L, null, null, null, null, new Item("sku", 5), 0.0, false));
+    projected.setIncludedFields(null);
+    projected.generate();
+    assertThat(projected.getSchema()).isEqualTo(generated(Order.class).getSchema());
+  }
+
+  @Test
+  public void projectsContainerFiles() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (PojoFileWriter<Order> writer = new PojoFileWriter<>(generated(Order.class)).create(out)) {
+      writer.appendAll(List.of(order, order));
+    }
+    try (DataFileReader<OrderView> reader = new DataFileReader<>(
+        new SeekableByteArrayInput(out.toByteArray()), new PojoDatumReader<>(generated(OrderView.class)))) {
+      assertThat(reader.next()).isEqualTo(new OrderView(12.5, 42L));
+      assertThat(reader.next()).isEqualTo(new OrderView(12.5, 42L));
+      assertThat(reader.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  public void skipsEveryWrittenType() throws IOException {
+    Schema node = SchemaBuilder.record("Node")
+        .fields()
+        .requiredInt("value")
+        .name("next")
+        .type()
+        .optional()
+        .type("Node")
+        .endRecord();
+    Schema writerSchema = SchemaBuilder.record("Everything")
+        .fields()
+        .name("nothing")
+        .type()
+        .nullType()
+        .noDefault()
+        .requiredBoolean("flag")
+        .requiredInt("count")
+        .requiredFloat("ratio")
+        .requiredBytes("payload")
+        .name("hash")
+        .type()
+        .fixed("Hash")
+        .size(4)
+        .noDefault()
+        .name("color")
+        .type()
+        .enumeration("Color")
+        .symbols("RED", "GREEN")
+        .noDefault()
+        .name("nodes")
+        .type()
+        .array()
+        .items(node)
+        .noDefault()
+        .name("totals")
+        .type()
+        .map()
+        .values()
+        .longType()
+        .noDefault()
+        .optionalString("note")
+        .requiredLong("id")
+        .requiredDouble("total")
+        .endRecord();
+    GenericRecord tail = new GenericData.Record(node);
+    tail.put("value", 2);
+    GenericRecord head = new GenericData.Record(node);
+    head.put("value", 1);
+    head.put("next", tail);
+    GenericRecord record = new GenericData.Record(writerSchema);
+    record.put("flag", true);
+    record.put("count", 3);
+    record.put("ratio", 0.5f);
+    record.put("payload", ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    record.put("hash", new GenericData.Fixed(writerSchema.getField("hash").schema(), new byte[] {1, 2, 3, 4}));
+    record.put(
+        "color",
+        new GenericData.EnumSymbol(writerSchema.getField("color").schema(), "GREEN"));
+    record.put("nodes", List.of(head, tail));
+    record.put("totals", Map.of("a", 1L, "b", 2L));
+    record.put("note", "note");
+    record.put("id", 9L);
+    record.put("total", 3.5);
+    GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(writerSchema);
+    PojoDatumReader<OrderView> reader = new PojoDatumReader<>(generated(OrderView.class), writerSchema);
+    for (boolean blocking : new boolean[] {false, true}) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      BinaryEncoder target = blocking
+          ? EncoderFactory.get().blockingBinaryEncoder(out, null)
+          : EncoderFactory.get().binaryEncoder(out, null);
+      writer.write(record, target);
+      writer.write(record, target);
+      target.flush();
+      BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(out.toByteArray(), null);
+      assertThat(reader.read(null, decoder)).isEqualTo(new OrderView(3.5, 9L));
+      assertThat(reader.read(null, decoder)).isEqualTo(new OrderView(3.5, 9L));
+      assertThat(decoder.isEnd()).isTrue();
+    }
+  }
+
+  @Test
+  public void rejectsIncompatibleWriterSchemas() {
+    PojoDatumReader<Mismatched> reader = new PojoDatumReader<>(generated(Mismatched.class));
+    Schema writerSchema = generated(Order.class).getSchema();
+    assertThatThrownBy(() -> reader.setSchema(writerSchema))
+        .isExactlyInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("id");
+    assertThatThrownBy(() -> reader.setSchema(Schema.create(Schema.Type.LONG)))
+        .isExactlyInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectsUnknownIncludedFields() {
+    AvroSchema<Order> avroSchema = new AvroSchema<>(Order.class);
+    avroSchema.setIncludedFields(List.of("id", "missing"));
+    assertThatThrownBy(avroSchema::generate)
+        .isExactlyInstanceOf(CannotGenerateSchemaException.class)
+        .hasCauseInstanceOf(NoSuchFieldException.class);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    AvroSchema<OrderView> avroSchema = generated(OrderView.class);
+    assertThatThrownBy(() -> new PojoDatumReader<>(null, avroSchema.getSchema()))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new PojoDatumReader<>(avroSchema, null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new PojoDatumReader<>(avroSchema).setSchema(null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> ValueSkipper.of(null)).isExactlyInstanceOf(NullPointerException.class);
+  }
+}
@@ -0,0 +1,281 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import me.atour.easyavro.field.AvroField;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class PojoDatumReaderResolutionTest {
+
+  @SuppressWarnings("unused")
+  @AllArgsConstructor
+  private static class CustomerV1 {
+    private final int id;
+    private final String customerName;
+    private final String region;
+    private final float discount;
+    private final long visits;
+    private final int points;
+    private Integer referrals;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static class Customer {
+    private final long id;
+
+    @AvroField(aliases = {"name", "customer_name"})
+    private final String fullName;
+
+    private final double discount;
+    private final float visits;
+    private Long points;
+    private Long referrals;
+    private Integer rating;
+    private final List<String> tags;
+    private final Map<String, Integer> attributes;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Renamed {
+    @AvroField(aliases = "customer_name")
+    private final String fullName;
+  }
+
+  private record CustomerRecord(
+      double id, @AvroField(name = "customer_name") String name, int[] scores) {}
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Required {
+    private final long id;
+    private final String email;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Narrowed {
+    private final int visits;
+  }
+
+  @SuppressWarnings("unused")
+  private static class Nullable {
+    private Long points;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class NotNullable {
+    private final long points;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "LineV1")
+  private static class LineV1 {
+    private final String sku;
+    private final int quantity;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "Line")
+  private static class Line {
+    private final long quantity;
+    private final String sku;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "BrokenLine")
+  private static class BrokenLine {
+    private final String quantity;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class OrderV1 {
+    private final LineV1 line;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Order {
+    private final Line line;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class BrokenOrder {
+    private final BrokenLine line;
+  }
+
+  private static final CustomerV1 customer = new CustomerV1(7, "Ada", "eu", 0.25f, 3L, 11, null);
+
+  private static <T> AvroSchema<T> generated(Class<T> tClass) {
+    AvroSchema<T> avroSchema = new AvroSchema<>(tClass);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static <T> byte[] encode(AvroSchema<T> avroSchema, T pojo) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    PojoDatumWriter<T> writer = new PojoDatumWriter<>(avroSchema);
+    writer.write(pojo, encoder);
+    writer.write(pojo, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  @Test
+  public void resolvesEvolvedFields() throws IOException {
+    AvroSchema<CustomerV1> writerSchema = generated(CustomerV1.class);
+    PojoDatumReader<Customer> reader = new PojoDatumReader<>(generated(Customer.class), writerSchema.getSchema());
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(encode(writerSchema, customer), null);
+    Customer first = reader.read(null, decoder);
+    Customer second = reader.read(null, decoder);
+    Customer expected = new Customer(7L, "Ada", 0.25, 3f, 11L, null, null, List.of(), Map.of());
+    assertThat(first).isEqualTo(expected);
+    assertThat(second).isEqualTo(expected);
+    assertThat(first.tags).isNotSameAs(second.tags);
+    assertThat(decoder.isEnd()).isTrue();
+    CustomerV1 referred = new CustomerV1(8, "Bo", "us", 0f, 0L, 0, 2);
+    assertThat(reader.read(null, DecoderFactory.get().binaryDecoder(encode(writerSchema, referred), null))
+            .referrals)
+        .isEqualTo(2L);
+  }
+
+  @Test
+  public void emitsAliasesForAvroReaders() throws IOException {
+    Schema readerSchema = generated(Renamed.class).getSchema();
+    assertThat(readerSchema.getField("full_name").aliases()).containsExactly("customer_name");
+    assertThat(generated(Customer.class).getSchema().getField("full_name").aliases())
+        .containsExactlyInAnyOrder("name", "customer_name");
+    Schema writerSchema = SchemaBuilder.record(readerSchema.getFullName())
+        .fields()
+        .requiredString("customer_name")
+        .endRecord();
+    GenericRecord written = new GenericData.Record(writerSchema);
+    written.put("customer_name", "Ada");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(writerSchema).write(written, encoder);
+    encoder.flush();
+    GenericRecord read = new GenericDatumReader<GenericRecord>(writerSchema, readerSchema)
+        .read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+    assertThat(read.get("full_name")).hasToString("Ada");
+  }
+
+  @Test
+  public void resolvesConstructedRecords() throws IOException {
+    AvroSchema<CustomerV1> writerSchema = generated(CustomerV1.class);
+    PojoDatumReader<CustomerRecord> reader =
+        new PojoDatumReader<>(generated(CustomerRecord.class), writerSchema.getSchema());
+    CustomerRecord read =
+        reader.read(null, DecoderFactory.get().binaryDecoder(encode(writerSchema, customer), null));
+    assertThat(read.id()).isEqualTo(7.0);
+    assertThat(read.name()).isEqualTo("Ada");
+    assertThat(read.scores()).isEmpty();
+  }
+
+  @Test
+  public void resolvesNestedRecords() throws IOException {
+    AvroSchema<OrderV1> writerSchema = generated(OrderV1.class);
+    PojoDatumReader<Order> reader = new PojoDatumReader<>(generated(Order.class), writerSchema.getSchema());
+    byte[] bytes = encode(writerSchema, new OrderV1(new LineV1("sku", 4)));
+    assertThat(reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null)))
+        .isEqualTo(new Order(new Line(4L, "sku")));
+    PojoDatumReader<BrokenOrder> broken =
+        new PojoDatumReader<>(generated(BrokenOrder.class), writerSchema.getSchema());
+    assertThatThrownBy(() -> broken.read(null, DecoderFactory.get().binaryDecoder(bytes, null)))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class)
+        .hasCauseExactlyInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void cachesResolutionsPerWriterSchema() {
+    AvroSchema<Customer> avroSchema = generated(Customer.class);
+    Schema writerSchema = generated(CustomerV1.class).getSchema();
+    Function<Schema, PojoDatumReader.Resolution> uncached = schema -> {
+      throw new AssertionError("The resolution is not cached.");
+    };
+    new PojoDatumReader<>(avroSchema, writerSchema);
+    PojoDatumReader.Resolution resolution = avroSchema.resolutionOf(writerSchema, uncached);
+    new PojoDatumReader<>(avroSchema).setSchema(writerSchema);
+    assertThat(avroSchema.resolutionOf(writerSchema, uncached)).isSameAs(resolution);
+    avroSchema.generate();
+    new PojoDatumReader<>(avroSchema, writerSchema);
+    assertThat(avroSchema.resolutionOf(writerSchema, uncached)).isNotSameAs(resolution);
+  }
+
+  @Test
+  public void rejectsMissingFieldsWithoutDefaults() {
+    PojoDatumReader<Required> reader = new PojoDatumReader<>(generated(Required.class));
+    Schema writerSchema = generated(CustomerV1.class).getSchema();
+    assertThatThrownBy(() -> reader.setSchema(writerSchema))
+        .isExactlyInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("email");
+  }
+
+  @Test
+  public void rejectsNarrowing() {
+    Schema writerSchema = generated(CustomerV1.class).getSchema();
+    assertThatThrownBy(() -> new PojoDatumReader<>(generated(Narrowed.class), writerSchema))
+        .isExactlyInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("visits");
+  }
+
+  @Test
+  public void rejectsUnsupportedUnions() {
+    AvroSchema<Nullable> avroSchema = generated(Nullable.class);
+    Schema nullable = SchemaBuilder.record("Nullable")
+        .fields()
+        .name("points")
+        .type()
+        .unionOf()
+        .nullType()
+        .and()
+        .intType()
+        .and()
+        .stringType()
+        .endUnion()
+        .nullDefault()
+        .endRecord();
+    assertThatThrownBy(() -> new PojoDatumReader<>(avroSchema, nullable))
+        .isExactlyInstanceOf(IllegalArgumentException.class);
+    Schema optional = SchemaBuilder.record("Nullable")
+        .fields()
+        .name("points")
+        .type()
+        .optional()
+        .intType()
+        .endRecord();
+    assertThat(new PojoDatumReader<>(avroSchema, optional)).isNotNull();
+    assertThatThrownBy(() -> new PojoDatumReader<>(generated(NotNullable.class), optional))
+        .isExactlyInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,225 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableByteArrayInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class PojoDatumReaderTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "Point")
+  private static class Point {
+    private final int x;
+    private final int y;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class PrimitivesDto {
+    private final boolean boolOne;
+    private final char charOne;
+    private final int intOne;
+    private final long longOne;
+    private final byte byteOne;
+    private final double doubleOne;
+    private final float floatOne;
+    private final short shortOne;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @AllArgsConstructor
+  private static class OptionalsDto {
+    private Integer intOne;
+    private long longOne;
+    private String stringOne;
+    private Short shortOne;
+    private Point point;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class CollectionsDto {
+    private final int[] intArray;
+    private final char[] charArray;
+    private final String[] stringArray;
+    private final List<Double> doubleList;
+    private final Map<String, Long> longMap;
+    private final List<Point> points;
+    private final Point origin;
+  }
+
+  private record RecordDto(int intOne, String stringOne) {}
+
+  private static <T> byte[] write(AvroSchema<T> schema, T pojo) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bytes, null);
+    new PojoDatumWriter<>(schema).write(pojo, encoder);
+    encoder.flush();
+    return bytes.toByteArray();
+  }
+
+  private static <T> T read(AvroSchema<T> schema, byte[] bytes) throws IOException {
+    return new PojoDatumReader<>(schema).read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+
+  private static <T> AvroSchema<T> generated(Class<T> clazz) {
+    AvroSchema<T> schema = new AvroSchema<>(clazz);
+    schema.generate();
+    return schema;
+  }
+
+  @Test
+  public void readPrimitives() throws IOException {
+    AvroSchema<PrimitivesDto> schema = generated(PrimitivesDto.class);
+    PrimitivesDto dto = new PrimitivesDto(true, 'z', 81, -29191L, (byte) -10, 0.0001, 6.74f, (short) 300);
+    assertThat(read(schema, write(schema, dto))).isEqualTo(dto);
+  }
+
+  @Test
+  public void readOptionals() throws IOException {
+    AvroSchema<OptionalsDto> schema = generated(OptionalsDto.class);
+    OptionalsDto empty = new OptionalsDto(null, 3L, null, null, null);
+    assertThat(read(schema, write(schema, empty))).isEqualTo(empty);
+    OptionalsDto full = new OptionalsDto(7, -3L, "seven", (short) -7, new Point(1, 2));
+    assertThat(read(schema, write(schema, full))).isEqualTo(full);
+  }
+
+  @Test
+  public void readCollections() throws IOException {
+    AvroSchema<CollectionsDto> schema = generated(CollectionsDto.class);
+    CollectionsDto dto = new CollectionsDto(
+        new int[] {1, 2, 3},
+        new char[] {'a'},
+        new String[] {"b", "c"},
+        List.of(0.5),
+        Map.of("d", 4L),
+        List.of(new Point(5, 6), new Point(7, 8)),
+        new Point(0, 0));
+    CollectionsDto read = read(schema, write(schema, dto));
+    assertThat(read.intArray).containsExactly(1, 2, 3);
+    assertThat(read.charArray).containsExactly('a');
+    assertThat(read.stringArray).containsExactly("b", "c");
+    assertThat(read.doubleList).containsExactly(0.5);
+    assertThat(read.longMap).containsExactlyEntriesOf(Map.of("d", 4L));
+    assertThat(read.points).containsExactly(new Point(5, 6), new Point(7, 8));
+    assertThat(read.origin).isEqualTo(new Point(0, 0));
+  }
+
+  @Test
+  public void readArraysWrittenInBlocks() throws IOException {
+    AvroSchema<CollectionsDto> schema = generated(CollectionsDto.class);
+    GenericRecord record = new GenericData.Record(schema.getSchema());
+    record.put("int_array", List.of(1, 2, 3, 4, 5));
+    record.put("char_array", List.of());
+    record.put("string_array", List.of("e"));
+    record.put("double_list", List.of());
+    record.put("long_map", Map.of());
+    record.put("points", List.of());
+    record.put(
+        "origin",
+        new GenericData.Record(schema.getSchema().getField("origin").schema()));
+    ((GenericRecord) record.get("origin")).put("x", 1);
+    ((GenericRecord) record.get("origin")).put("y", 2);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().blockingBinaryEncoder(bytes, null);
+    new GenericDatumWriter<GenericRecord>(schema.getSchema()).write(record, encoder);
+    encoder.flush();
+    CollectionsDto read = read(schema, bytes.toByteArray());
+    assertThat(read.intArray).containsExactly(1, 2, 3, 4, 5);
+    assertThat(read.charArray).isEmpty();
+    assertThat(read.stringArray).containsExactly("e");
+    assertThat(read.origin).isEqualTo(new Point(1, 2));
+  }
+
+  @Test
+  public void readIntoReusedPojo() throws IOException {
+    AvroSchema<OptionalsDto> schema = generated(OptionalsDto.class);
+    OptionalsDto reuse = new OptionalsDto();
+    OptionalsDto read = new PojoDatumReader<>(schema)
+        .read(
+            reuse,
+            DecoderFactory.get()
+                .binaryDecoder(write(schema, new OptionalsDto(1, 2L, "three", null, null)), null));
+    assertThat(read).isSameAs(reuse);
+    assertThat(reuse.stringOne).isEqualTo("three");
+  }
+
+  @Test
+  public void readFromDataFile() throws IOException {
+    AvroSchema<PrimitivesDto> schema = generated(PrimitivesDto.class);
+    PrimitivesDto first = new PrimitivesDto(false, 'a', 1, 2L, (byte) 3, 4.0, 5.0f, (short) 6);
+    PrimitivesDto second = new PrimitivesDto(true, 'b', 7, 8L, (byte) 9, 10.0, 11.0f, (short) 12);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataFileWriter<PrimitivesDto> writer = new DataFileWriter<>(new PojoDatumWriter<>(schema))) {
+      writer.create(schema.getSchema(), bytes);
+      writer.append(first);
+      writer.append(second);
+    }
+    List<PrimitivesDto> read = new ArrayList<>();
+    try (DataFileReader<PrimitivesDto> reader =
+        new DataFileReader<>(new SeekableByteArrayInput(bytes.toByteArray()), new PojoDatumReader<>(schema))) {
+      for (PrimitivesDto dto : reader) {
+        read.add(dto);
+      }
+    }
+    assertThat(read).containsExactly(first, second);
+  }
+
+  @Test
+  public void readRecordsThroughCanonicalConstructor() throws IOException {
+    AvroSchema<RecordDto> schema = generated(RecordDto.class);
+    RecordDto dto = new RecordDto(1, "one");
+    assertThat(read(schema, write(schema, dto))).isEqualTo(dto);
+    assertThat(new PojoDatumReader<>(schema)
+            .read(new RecordDto(2, "two"), DecoderFactory.get().binaryDecoder(write(schema, dto), null)))
+        .isEqualTo(dto);
+  }
+
+  @Test
+  public void readWithoutConstructors() throws IOException {
+    AvroSchema<PrimitivesDto> schema = new AvroSchema<>(PrimitivesDto.class);
+    schema.setInstantiationStrategy(InstantiationStrategy.ALLOCATION);
+    schema.generate();
+    PrimitivesDto dto = new PrimitivesDto(false, 'y', 1, 2L, (byte) 3, 4.0, 5f, (short) 6);
+    assertThat(read(schema, write(schema, dto))).isEqualTo(dto);
+  }
+
+  @Test
+  public void rejectOtherSchemas() {
+    PojoDatumReader<PrimitivesDto> reader = new PojoDatumReader<>(generated(PrimitivesDto.class));
+    Schema other = SchemaBuilder.record("other").fields().requiredInt("x").endRecord();
+    assertThatThrownBy(() -> reader.setSchema(other)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectSchemasNotGenerated() {
+    AvroSchema<PrimitivesDto> schema = new AvroSchema<>(PrimitivesDto.class);
+    assertThatThrownBy(() -> new PojoDatumReader<>(schema)).isInstanceOf(IllegalStateException.class);
+  }
+}
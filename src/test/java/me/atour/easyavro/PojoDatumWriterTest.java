@@ -0,0 +1,180 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableByteArrayInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+class PojoDatumWriterTest {
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "Point")
+  private static class Point {
+    private final int x;
+    private final int y;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class PrimitivesDto {
+    private final boolean boolOne;
+    private final char charOne;
+    private final int intOne;
+    private final long longOne;
+    private final byte byteOne;
+    private final double doubleOne;
+    private final float floatOne;
+    private final short shortOne;
+  }
+
+  @SuppressWarnings("unused")
+  @NoArgsConstructor
+  @AllArgsConstructor
+  private static class OptionalsDto {
+    private Integer intOne;
+    private long longOne;
+    private String stringOne;
+    private Point point;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class CollectionsDto {
+    private final int[] intArray;
+    private final char[] charArray;
+    private final String[] stringArray;
+    private final List<Double> doubleList;
+    private final Map<String, Long> longMap;
+    private final List<Point> points;
+    private final Point origin;
+  }
+
+  private record RecordDto(int intOne, String stringOne) {}
+
+  private static <T> GenericRecord writeAndRead(AvroSchema<T> schema, T pojo) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bytes, null);
+    new PojoDatumWriter<>(schema).write(pojo, encoder);
+    encoder.flush();
+    return new GenericDatumReader<GenericRecord>(schema.getSchema())
+        .read(null, DecoderFactory.get().binaryDecoder(bytes.toByteArray(), null));
+  }
+
+  private static <T> AvroSchema<T> generated(Class<T> clazz) {
+    AvroSchema<T> schema = new AvroSchema<>(clazz);
+    schema.generate();
+    return schema;
+  }
+
+  @Test
+  public void writePrimitives() throws IOException {
+    PrimitivesDto dto = new PrimitivesDto(true, 'z', 81, -29191L, (byte) -10, 0.0001, 6.74f, (short) 300);
+    GenericRecord record = writeAndRead(generated(PrimitivesDto.class), dto);
+    assertThat(record.get("bool_one")).isEqualTo(true);
+    assertThat(record.get("char_one")).isEqualTo((int) 'z');
+    assertThat(record.get("int_one")).isEqualTo(81);
+    assertThat(record.get("long_one")).isEqualTo(-29191L);
+    assertThat(record.get("byte_one")).isEqualTo(-10);
+    assertThat(record.get("double_one")).isEqualTo(0.0001);
+    assertThat(record.get("float_one")).isEqualTo(6.74f);
+    assertThat(record.get("short_one")).isEqualTo(300);
+  }
+
+  @Test
+  public void writeOptionals() throws IOException {
+    AvroSchema<OptionalsDto> schema = generated(OptionalsDto.class);
+    GenericRecord empty = writeAndRead(schema, new OptionalsDto(null, 3L, null, null));
+    assertThat(empty.get("int_one")).isNull();
+    assertThat(empty.get("long_one")).isEqualTo(3L);
+    assertThat(empty.get("string_one")).isNull();
+    assertThat(empty.get("point")).isNull();
+    GenericRecord full = writeAndRead(schema, new OptionalsDto(7, -3L, "seven", new Point(1, 2)));
+    assertThat(full.get("int_one")).isEqualTo(7);
+    assertThat(full.get("string_one")).isEqualTo(new Utf8("seven"));
+    assertThat(((GenericRecord) full.get("point")).get("y")).isEqualTo(2);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void writeCollections() throws IOException {
+    CollectionsDto dto = new CollectionsDto(
+        new int[] {1, 2, 3},
+        new char[] {'a'},
+        new String[] {"b", "c"},
+        List.of(0.5),
+        Map.of("d", 4L),
+        List.of(new Point(5, 6), new Point(7, 8)),
+        new Point(0, 0));
+    GenericRecord record = writeAndRead(generated(CollectionsDto.class), dto);
+    assertThat((List<Object>) record.get("int_array")).containsExactly(1, 2, 3);
+    assertThat((List<Object>) record.get("char_array")).containsExactly((int) 'a');
+    assertThat((List<Object>) record.get("string_array")).containsExactly(new Utf8("b"), new Utf8("c"));
+    assertThat((List<Object>) record.get("double_list")).containsExactly(0.5);
+    assertThat((Map<Object, Object>) record.get("long_map")).containsEntry(new Utf8("d"), 4L);
+    List<Object> xs = new ArrayList<>();
+    for (Object point : (List<Object>) record.get("points")) {
+      xs.add(((GenericRecord) point).get("x"));
+    }
+    assertThat(xs).containsExactly(5, 7);
+    assertThat(((GenericRecord) record.get("origin")).get("x")).isEqualTo(0);
+  }
+
+  @Test
+  public void writeRecordsThroughGetters() throws IOException {
+    GenericRecord record = writeAndRead(generated(RecordDto.class), new RecordDto(9, "nine"));
+    assertThat(record.get("int_one")).isEqualTo(9);
+    assertThat(record.get("string_one")).isEqualTo(new Utf8("nine"));
+  }
+
+  @Test
+  public void writeToDataFile() throws IOException {
+    AvroSchema<PrimitivesDto> schema = generated(PrimitivesDto.class);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataFileWriter<PrimitivesDto> writer = new DataFileWriter<>(new PojoDatumWriter<>(schema))) {
+      writer.create(schema.getSchema(), bytes);
+      writer.append(new PrimitivesDto(false, 'a', 1, 2L, (byte) 3, 4.0, 5.0f, (short) 6));
+      writer.append(new PrimitivesDto(true, 'b', 7, 8L, (byte) 9, 10.0, 11.0f, (short) 12));
+    }
+    List<Object> ints = new ArrayList<>();
+    try (DataFileReader<GenericRecord> reader = new DataFileReader<>(
+        new SeekableByteArrayInput(bytes.toByteArray()), new GenericDatumReader<>(schema.getSchema()))) {
+      for (GenericRecord record : reader) {
+        ints.add(record.get("int_one"));
+      }
+    }
+    assertThat(ints).containsExactly(1, 7);
+  }
+
+  @Test
+  public void rejectOtherSchemas() {
+    PojoDatumWriter<PrimitivesDto> writer = new PojoDatumWriter<>(generated(PrimitivesDto.class));
+    Schema other = SchemaBuilder.record("other").fields().requiredInt("x").endRecord();
+    assertThatThrownBy(() -> writer.setSchema(other)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectSchemasNotGenerated() {
+    AvroSchema<PrimitivesDto> schema = new AvroSchema<>(PrimitivesDto.class);
+    assertThatThrownBy(() -> new PojoDatumWriter<>(schema)).isInstanceOf(IllegalStateException.class);
+  }
+}
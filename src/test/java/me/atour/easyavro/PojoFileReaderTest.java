@@ -0,0 +1,195 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.file.CodecFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PojoFileReaderTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Event {
+    private final long id;
+    private final String kind;
+    private final List<Integer> values;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Other {
+    private final int id;
+  }
+
+  @TempDir
+  private Path directory;
+
+  private static <T> AvroSchema<T> avroSchema(Class<T> type) {
+    AvroSchema<T> avroSchema = new AvroSchema<>(type);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static List<Event> events(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new Event(i, "kind " + i % 3, List.of(i, i + 1)))
+        .collect(Collectors.toList());
+  }
+
+  private Path write(List<Event> events, int blockSize) throws IOException {
+    Path file = directory.resolve("events.avro");
+    try (PojoFileWriter<Event> writer = new PojoFileWriter<>(avroSchema(Event.class))
+        .setCodec(CodecFactory.deflateCodec(1))
+        .setBlockSize(blockSize)
+        .create(file.toFile())) {
+      writer.appendAll(events);
+    }
+    return file;
+  }
+
+  @Test
+  public void readsBlocksSequentially() throws IOException {
+    Path file = write(events(100), 7);
+    try (PojoFileReader<Event> reader = new PojoFileReader<>(avroSchema(Event.class), file)) {
+      assertThat(reader.getSchema()).isEqualTo(avroSchema(Event.class).getSchema());
+      assertThat(reader.getBlockCount()).isEqualTo(15);
+      assertThat(reader.getCount()).isEqualTo(100);
+      assertThat(reader.stream().collect(Collectors.toList())).isEqualTo(events(100));
+    }
+  }
+
+  @Test
+  public void readsBlocksInParallel() throws IOException {
+    Path file = write(events(10_000), 100);
+    try (PojoFileReader<Event> reader = new PojoFileReader<>(avroSchema(Event.class), file)) {
+      assertThat(reader.parallelStream().collect(Collectors.toList())).isEqualTo(events(10_000));
+    }
+  }
+
+  @Test
+  public void splitsAtBlockBoundaries() throws IOException {
+    Path file = write(events(10), 3);
+    try (PojoFileReader<Event> reader = new PojoFileReader<>(avroSchema(Event.class), file)) {
+      Spliterator<Event> suffix = reader.spliterator();
+      assertThat(suffix.hasCharacteristics(Spliterator.SUBSIZED)).isTrue();
+      Spliterator<Event> prefix = suffix.trySplit();
+      assertThat(prefix.getExactSizeIfKnown()).isEqualTo(6);
+      assertThat(suffix.getExactSizeIfKnown()).isEqualTo(4);
+      assertThat(prefix.trySplit().estimateSize()).isEqualTo(3);
+      assertThat(prefix.trySplit()).isNull();
+      List<Event> read = new ArrayList<>();
+      assertThat(suffix.tryAdvance(read::add)).isTrue();
+      assertThat(suffix.trySplit()).isNull();
+      suffix.forEachRemaining(read::add);
+      assertThat(suffix.tryAdvance(read::add)).isFalse();
+      assertThat(read).isEqualTo(events(10).subList(6, 10));
+    }
+  }
+
+  @Test
+  public void readsAcrossMappedSegments() throws IOException {
+    Path file = write(events(50), 4);
+    try (PojoFileReader<Event> reader = new PojoFileReader<>(avroSchema(Event.class), file, 64)) {
+      assertThat(reader.parallelStream().collect(Collectors.toList())).isEqualTo(events(50));
+    }
+  }
+
+  @Test
+  public void readsEmptyFiles() throws IOException {
+    Path file = write(List.of(), 0);
+    try (PojoFileReader<Event> reader = new PojoFileReader<>(avroSchema(Event.class), file)) {
+      assertThat(reader.getBlockCount()).isZero();
+      assertThat(reader.stream()).isEmpty();
+    }
+  }
+
+  @Test
+  public void rejectsOtherSchemas() throws IOException {
+    Path file = write(events(1), 0);
+    assertThatThrownBy(() -> new PojoFileReader<>(avroSchema(Other.class), file))
+        .isExactlyInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectsCorruptFiles() throws IOException {
+    Path file = write(events(10), 5);
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    assertThatThrownBy(() -> new PojoFileReader<>(avroSchema(Event.class), file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("sync marker");
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+    assertThatThrownBy(() -> new PojoFileReader<>(avroSchema(Event.class), file))
+        .isInstanceOf(IOException.class);
+    Files.write(file, new byte[] {'O', 'b', 'j', 1, 0, 0});
+    assertThatThrownBy(() -> new PojoFileReader<>(avroSchema(Event.class), file))
+        .isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> new PojoFileReader<>(avroSchema(Event.class), directory.resolve("missing.avro")))
+        .isExactlyInstanceOf(NoSuchFileException.class);
+  }
+
+  @Test
+  public void rejectsInvalidBlockHeaders() throws IOException {
+    Path file = write(events(10), 0);
+    byte[] bytes = Files.readAllBytes(file);
+    byte[] sync = Arrays.copyOfRange(bytes, bytes.length - 16, bytes.length);
+    int firstBlock = indexOf(bytes, sync) + 16;
+    bytes[firstBlock] = 1;
+    Files.write(file, bytes);
+    assertThatThrownBy(() -> new PojoFileReader<>(avroSchema(Event.class), file))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("block header");
+  }
+
+  @Test
+  public void guardsMappedInputBounds() throws IOException {
+    Path file = directory.resolve("bytes");
+    Files.write(file, new byte[] {-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 2});
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedInput input = MappedInput.map(channel, 4);
+      assertThatThrownBy(() -> input.seek(12)).isExactlyInstanceOf(EOFException.class);
+      assertThatThrownBy(() -> input.seek(-1)).isExactlyInstanceOf(EOFException.class);
+      assertThatThrownBy(input::readLong).isExactlyInstanceOf(IOException.class);
+      input.seek(10);
+      assertThat(input.readLong()).isEqualTo(1);
+      assertThatThrownBy(input::readByte).isExactlyInstanceOf(EOFException.class);
+      assertThat(input.read(new byte[1], 0, 1)).isEqualTo(-1);
+      input.close();
+    }
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    assertThatThrownBy(() -> new PojoFileReader<>(null, directory)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new PojoFileReader<>(avroSchema(Event.class), null))
+        .isExactlyInstanceOf(NullPointerException.class);
+  }
+
+  private static int indexOf(byte[] bytes, byte[] part) {
+    for (int i = 0; i <= bytes.length - part.length; i++) {
+      if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
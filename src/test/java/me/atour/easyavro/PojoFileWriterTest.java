@@ -0,0 +1,141 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.SeekableByteArrayInput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PojoFileWriterTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Row {
+    private final long id;
+    private final String name;
+    private final double score;
+  }
+
+  @TempDir
+  private Path directory;
+
+  private static AvroSchema<Row> avroSchema() {
+    AvroSchema<Row> avroSchema = new AvroSchema<>(Row.class);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static List<Row> rows(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new Row(i, "row " + i, i / 2.0))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void writesContainerFilesReadableByAvro() throws IOException {
+    AvroSchema<Row> avroSchema = avroSchema();
+    File file = directory.resolve("rows.avro").toFile();
+    try (PojoFileWriter<Row> writer = new PojoFileWriter<>(avroSchema)
+        .setCodec(CodecFactory.deflateCodec(6))
+        .create(file)) {
+      writer.appendAll(rows(100));
+      assertThat(writer.getCount()).isEqualTo(100);
+    }
+    List<Row> read = new ArrayList<>();
+    try (DataFileReader<Row> reader = new DataFileReader<>(file, new PojoDatumReader<>(avroSchema))) {
+      assertThat(reader.getSchema()).isEqualTo(avroSchema.getSchema());
+      assertThat(reader.getMetaString("avro.codec")).isEqualTo("deflate");
+      for (Row row : reader) {
+        read.add(row);
+      }
+    }
+    assertThat(read).isEqualTo(rows(100));
+  }
+
+  @Test
+  public void endsBlocksAtBlockSize() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (PojoFileWriter<Row> writer =
+        new PojoFileWriter<>(avroSchema()).setBlockSize(4).create(out)) {
+      assertThat(writer.getBlockSize()).isEqualTo(4);
+      writer.appendAll(rows(10));
+    }
+    Map<Long, Integer> blocks = new LinkedHashMap<>();
+    try (DataFileReader<Row> reader = new DataFileReader<>(
+        new SeekableByteArrayInput(out.toByteArray()), new PojoDatumReader<>(avroSchema()))) {
+      while (reader.hasNext()) {
+        blocks.merge(reader.previousSync(), 1, Integer::sum);
+        reader.next();
+      }
+    }
+    assertThat(blocks.values()).containsExactly(4, 4, 2);
+  }
+
+  @Test
+  public void flushesBlocksOnRequest() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (PojoFileWriter<Row> writer =
+        new PojoFileWriter<>(avroSchema()).setSyncInterval(1 << 20).create(out)) {
+      writer.append(new Row(1, "one", 1.0));
+      writer.flush();
+      int flushed = out.size();
+      assertThat(flushed).isPositive();
+      writer.append(new Row(2, "two", 2.0));
+      assertThat(writer.sync()).isGreaterThan(flushed);
+    }
+    try (DataFileStream<Row> reader = new DataFileStream<>(
+        new ByteArrayInputStream(out.toByteArray()), new PojoDatumReader<>(avroSchema()))) {
+      assertThat(reader.next()).isEqualTo(new Row(1, "one", 1.0));
+      assertThat(reader.next()).isEqualTo(new Row(2, "two", 2.0));
+      assertThat(reader.hasNext()).isFalse();
+    }
+  }
+
+  @Test
+  public void rejectsInvalidConfiguration() throws IOException {
+    PojoFileWriter<Row> writer = new PojoFileWriter<>(avroSchema());
+    assertThatThrownBy(() -> writer.setBlockSize(-1)).isExactlyInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> writer.setSyncInterval(1)).isExactlyInstanceOf(IllegalArgumentException.class);
+    writer.create(new ByteArrayOutputStream());
+    assertThatThrownBy(() -> writer.setCodec(CodecFactory.nullCodec()))
+        .isExactlyInstanceOf(AvroRuntimeException.class);
+    writer.close();
+  }
+
+  @Test
+  public void rejectsUngeneratedSchemas() {
+    assertThatThrownBy(() -> new PojoFileWriter<>(new AvroSchema<>(Row.class)))
+        .isExactlyInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    PojoFileWriter<Row> writer = new PojoFileWriter<>(avroSchema());
+    assertThatThrownBy(() -> new PojoFileWriter<Row>(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> writer.setCodec(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> writer.create((File) null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> writer.create((OutputStream) null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> writer.append(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> writer.appendAll(null)).isExactlyInstanceOf(NullPointerException.class);
+  }
+}
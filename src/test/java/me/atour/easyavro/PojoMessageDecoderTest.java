@@ -0,0 +1,170 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.message.BadHeaderException;
+import org.apache.avro.message.MissingSchemaException;
+import org.apache.avro.message.SchemaStore;
+import org.junit.jupiter.api.Test;
+
+class PojoMessageDecoderTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Event {
+    private final String name;
+    private final long timestamp;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class EventV1 {
+    private final String name;
+    private final long timestamp;
+    private final String source;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class EventV2 {
+    private final double score;
+    private final String name;
+    private final int[] tags;
+    private final long timestamp;
+  }
+
+  @SuppressWarnings("unused")
+  @RequiredArgsConstructor
+  private static class Incompatible {
+    private final String name;
+    private final String timestamp;
+  }
+
+  private static <T> AvroSchema<T> generated(Class<T> tClass) {
+    AvroSchema<T> avroSchema = new AvroSchema<>(tClass);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static final AvroSchema<Event> target = generated(Event.class);
+  private static final AvroSchema<EventV1> v1 = generated(EventV1.class);
+  private static final AvroSchema<EventV2> v2 = generated(EventV2.class);
+
+  private static final byte[] own = target.encodeMessage(new Event("own", 1L));
+  private static final byte[] first = v1.encodeMessage(new EventV1("first", 2L, "queue"));
+  private static final byte[] second = v2.encodeMessage(new EventV2(0.5, "second", new int[] {1}, 3L));
+
+  private static InMemorySchemaStore store() {
+    InMemorySchemaStore store = new InMemorySchemaStore();
+    store.addSchema(v1);
+    store.addSchema(v2.getSchema());
+    return store;
+  }
+
+  @Test
+  public void acceptsAvroSchemaStores() {
+    SchemaStore.Cache cache = new SchemaStore.Cache();
+    cache.addSchema(v1.getSchema());
+    PojoMessageDecoder<Event> decoder = new PojoMessageDecoder<>(target, cache);
+    assertThat(decoder.decode(first)).isEqualTo(new Event("first", 2L));
+    SchemaStore store = store();
+    assertThat(store.findByFingerprint(v2.getFingerprint())).isEqualTo(v2.getSchema());
+  }
+
+  @Test
+  public void decodesMessagesOfEveryWriter() {
+    PojoMessageDecoder<Event> decoder = new PojoMessageDecoder<>(target, store());
+    assertThat(decoder.decode(first)).isEqualTo(new Event("first", 2L));
+    assertThat(decoder.decode(first)).isEqualTo(new Event("first", 2L));
+    assertThat(decoder.decode(second)).isEqualTo(new Event("second", 3L));
+    assertThat(decoder.decode(own)).isEqualTo(new Event("own", 1L));
+    assertThat(decoder.getMisses()).isEqualTo(3);
+    assertThat(decoder.getHits()).isEqualTo(1);
+    assertThat(decoder.size()).isEqualTo(3);
+    assertThat(decoder.getCapacity()).isEqualTo(64);
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedReaders() {
+    PojoMessageDecoder<Event> decoder = new PojoMessageDecoder<>(target, store(), 2);
+    decoder.decode(first);
+    decoder.decode(second);
+    decoder.decode(first);
+    decoder.decode(own);
+    decoder.decode(first);
+    assertThat(decoder.getHits()).isEqualTo(2);
+    assertThat(decoder.getMisses()).isEqualTo(3);
+    decoder.decode(second);
+    assertThat(decoder.getMisses()).isEqualTo(4);
+    assertThat(decoder.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void rejectsUnknownWriters() {
+    PojoMessageDecoder<Event> decoder = new PojoMessageDecoder<>(target, new InMemorySchemaStore());
+    assertThatThrownBy(() -> decoder.decode(first))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class)
+        .hasCauseExactlyInstanceOf(MissingSchemaException.class);
+    assertThat(decoder.getMisses()).isEqualTo(1);
+    assertThat(decoder.size()).isZero();
+  }
+
+  @Test
+  public void rejectsIncompatibleWriters() {
+    AvroSchema<Incompatible> incompatible = generated(Incompatible.class);
+    InMemorySchemaStore store = new InMemorySchemaStore();
+    store.addSchema(incompatible);
+    PojoMessageDecoder<Event> decoder = new PojoMessageDecoder<>(target, store);
+    assertThatThrownBy(() -> decoder.decode(incompatible.encodeMessage(new Incompatible("name", "now"))))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class)
+        .hasCauseExactlyInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectsBadHeaders() {
+    PojoMessageDecoder<Event> decoder = new PojoMessageDecoder<>(target, store());
+    assertThatThrownBy(() -> decoder.decode(new byte[] {1, 2, 3}))
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class)
+        .hasCauseExactlyInstanceOf(BadHeaderException.class);
+  }
+
+  @Test
+  public void storesSchemasByFingerprint() {
+    InMemorySchemaStore store = new InMemorySchemaStore();
+    assertThat(store.addSchema(v2.getSchema())).isEqualTo(v2.getFingerprint());
+    assertThat(store.addSchema(v1)).isEqualTo(SchemaNormalization.parsingFingerprint64(v1.getSchema()));
+    assertThat(store.findByFingerprint(v1.getFingerprint())).isEqualTo(v1.getSchema());
+    assertThat(store.findByFingerprint(target.getFingerprint())).isNull();
+  }
+
+  @Test
+  public void rejectsInvalidArguments() {
+    InMemorySchemaStore store = new InMemorySchemaStore();
+    assertThatThrownBy(() -> new PojoMessageDecoder<>(target, store, 0))
+        .isExactlyInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new PojoMessageDecoder<>(new AvroSchema<>(Event.class), store))
+        .isExactlyInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    InMemorySchemaStore store = new InMemorySchemaStore();
+    assertThatThrownBy(() -> new PojoMessageDecoder<>(null, store)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new PojoMessageDecoder<>(target, null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new PojoMessageDecoder<>(null, store, 1))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new PojoMessageDecoder<>(target, null, 1))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> new PojoMessageDecoder<>(target, store).decode(null))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> store.addSchema((AvroSchema<?>) null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> store.addSchema((org.apache.avro.Schema) null))
+        .isExactlyInstanceOf(NullPointerException.class);
+  }
+}
@@ -0,0 +1,151 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class RecordViewTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "ViewedHeader")
+  private static class Header {
+    private final String key;
+    private final String value;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static class Message {
+    private final String payload;
+    private final List<Header> headers;
+    private final Map<String, Long> counters;
+    private final short priority;
+    private final char[] flags;
+    private final Integer retries;
+    private final String route;
+  }
+
+  private static final Message message = new Message(
+      "payload",
+      List.of(new Header("a", "b")),
+      Map.of("seen", 3L),
+      (short) 7,
+      new char[] {'x', 'y'},
+      2,
+      "eu-west");
+
+  private static AvroSchema<Message> generated() {
+    AvroSchema<Message> avroSchema = new AvroSchema<>(Message.class);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  private static byte[] encode(AvroSchema<Message> avroSchema, Message pojo) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new PojoDatumWriter<>(avroSchema).write(pojo, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  @Test
+  public void decodesFieldsOnAccess() throws IOException {
+    AvroSchema<Message> avroSchema = generated();
+    RecordView<Message> view = avroSchema.view(encode(avroSchema, message));
+    assertThat(view.get("route")).isEqualTo("eu-west");
+    assertThat(view.get("priority")).isEqualTo((short) 7);
+    assertThat(view.get("retries")).isEqualTo(2);
+    assertThat(view.get("flags")).isEqualTo(new char[] {'x', 'y'});
+    assertThat(view.get("headers")).isEqualTo(List.of(new Header("a", "b")));
+    assertThat(view.get("counters")).isEqualTo(Map.of("seen", 3L));
+    assertThat(view.get("route")).isEqualTo("eu-west");
+    assertThat(view.toPojo()).isEqualTo(message);
+  }
+
+  @Test
+  public void viewsBuffersWithoutMovingThem() throws IOException {
+    AvroSchema<Message> avroSchema = generated();
+    byte[] bytes = encode(avroSchema, message);
+    byte[] padded = new byte[bytes.length + 5];
+    System.arraycopy(bytes, 0, padded, 3, bytes.length);
+    ByteBuffer heap = ByteBuffer.wrap(padded, 3, bytes.length);
+    RecordView<Message> view = avroSchema.view(heap.slice());
+    assertThat(view.get("route")).isEqualTo("eu-west");
+    assertThat(view.getBuffer()).isEqualTo(ByteBuffer.wrap(bytes));
+    assertThat(view.getBuffer().isReadOnly()).isTrue();
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    assertThat(avroSchema.view(direct).get("payload")).isEqualTo("payload");
+    assertThat(direct.position()).isZero();
+  }
+
+  @Test
+  public void forwardsBytesUnchanged() throws IOException {
+    AvroSchema<Message> avroSchema = generated();
+    byte[] bytes = encode(avroSchema, message);
+    byte[] original = bytes.clone();
+    RecordView<Message> view = avroSchema.view(bytes);
+    view.get("route");
+    view.toPojo();
+    assertThat(bytes).isEqualTo(original);
+    byte[] forwarded = new byte[view.getBuffer().remaining()];
+    view.getBuffer().get(forwarded);
+    assertThat(forwarded).isEqualTo(original);
+  }
+
+  @Test
+  public void rebuildsLayoutAfterGeneration() throws IOException {
+    AvroSchema<Message> avroSchema = generated();
+    byte[] bytes = encode(avroSchema, message);
+    assertThat(avroSchema.view(bytes).get("route")).isEqualTo("eu-west");
+    avroSchema.setIncludedFields(List.of("route"));
+    avroSchema.generate();
+    assertThatThrownBy(() -> avroSchema.view(bytes).get("payload"))
+        .isExactlyInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectsTruncatedBytes() throws IOException {
+    AvroSchema<Message> avroSchema = generated();
+    byte[] bytes = encode(avroSchema, message);
+    RecordView<Message> view = avroSchema.view(Arrays.copyOf(bytes, 4));
+    assertThatThrownBy(() -> view.get("route")).isExactlyInstanceOf(CannotConvertRecordToPojoException.class);
+    assertThatThrownBy(() -> avroSchema.view(new byte[0]).toPojo())
+        .isExactlyInstanceOf(CannotConvertRecordToPojoException.class);
+  }
+
+  @Test
+  public void rejectsUnknownFields() throws IOException {
+    AvroSchema<Message> avroSchema = generated();
+    RecordView<Message> view = avroSchema.view(encode(avroSchema, message));
+    assertThatThrownBy(() -> view.get("missing")).isExactlyInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void rejectsUngeneratedSchemas() {
+    assertThatThrownBy(() -> new AvroSchema<>(Message.class).view(new byte[0]))
+        .isExactlyInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    AvroSchema<Message> avroSchema = generated();
+    assertThatThrownBy(() -> avroSchema.view((byte[]) null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.view((ByteBuffer) null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> avroSchema.view(new byte[0]).get(null))
+        .isExactlyInstanceOf(NullPointerException.class);
+  }
+}
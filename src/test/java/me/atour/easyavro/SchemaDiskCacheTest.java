@@ -0,0 +1,147 @@
+package me.atour.easyavro;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import me.atour.easyavro.field.AvroField;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SchemaDiskCacheTest {
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "CachedLeaf", fieldStrategy = FieldNamingStrategies.SCREAMING_SNAKE_CASE)
+  private static class Leaf {
+    private final String leafName;
+  }
+
+  @SuppressWarnings("unused")
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  @AvroRecord(schemaName = "CachedTree")
+  private static class Tree {
+    private final long treeId;
+
+    @AvroField(name = "labelText", aliases = "label")
+    private final String label;
+
+    private final List<Leaf> leaves;
+    private final Tree parent;
+  }
+
+  @TempDir
+  private Path directory;
+
+  private static <T> AvroSchema<T> generated(Class<T> type, SchemaDiskCache cache) {
+    AvroSchema<T> avroSchema = new AvroSchema<>(type);
+    avroSchema.setSchemaCache(cache);
+    avroSchema.generate();
+    return avroSchema;
+  }
+
+  @Test
+  public void storesGeneratedSchemas() {
+    SchemaDiskCache cache = new SchemaDiskCache(directory);
+    AvroSchema<Tree> avroSchema = generated(Tree.class, cache);
+    assertThat(avroSchema.getSchemaCache()).isSameAs(cache);
+    assertThat(directory.resolve(Tree.class.getName() + ".properties")).exists();
+    SchemaDiskCache.Entry entry = cache.load(Tree.class, SchemaDiskCache.structuralHash(Tree.class));
+    assertThat(entry).isNotNull();
+    assertThat(entry.getSchema()).isEqualTo(avroSchema.getSchema());
+    assertThat(entry.getSchema().getField("labelText").aliases()).containsExactly("label");
+    assertThat(entry.getFieldNames())
+        .containsExactlyInAnyOrderEntriesOf(
+            Map.of("treeId", "tree_id", "label", "labelText", "leaves", "leaves", "parent", "parent"));
+  }
+
+  @Test
+  public void convertsThroughLoadedSchemas() {
+    SchemaDiskCache cache = new SchemaDiskCache(directory);
+    AvroSchema<Tree> original = generated(Tree.class, cache);
+    AvroSchema<Tree> loaded = generated(Tree.class, cache);
+    assertThat(loaded.getSchema()).isEqualTo(original.getSchema());
+    assertThat(loaded.getPlan()).hasSameSizeAs(original.getPlan());
+    Tree tree = new Tree(2L, "child", List.of(new Leaf("leaf")), new Tree(1L, "root", List.of(), null));
+    assertThat(loaded.convertToPojo(original.convertFromPojo(tree))).isEqualTo(tree);
+    assertThat(original.convertToPojo(loaded.convertFromPojo(tree))).isEqualTo(tree);
+  }
+
+  @Test
+  public void skipsGenerationWhenCached() {
+    SchemaDiskCache cache = new SchemaDiskCache(directory);
+    String hash = SchemaDiskCache.structuralHash(Leaf.class);
+    Schema documented = new Schema.Parser()
+        .parse("{\"type\":\"record\",\"name\":\"CachedLeaf\",\"doc\":\"from the cache\","
+            + "\"fields\":[{\"name\":\"LEAF_NAME\",\"type\":[\"null\",\"string\"]}]}");
+    cache.store(Leaf.class, hash, documented, Map.of("leafName", "LEAF_NAME"));
+    AvroSchema<Leaf> avroSchema = generated(Leaf.class, cache);
+    assertThat(avroSchema.getSchema().getDoc()).isEqualTo("from the cache");
+    assertThat(avroSchema.convertToPojo(avroSchema.convertFromPojo(new Leaf("leaf"))))
+        .isEqualTo(new Leaf("leaf"));
+  }
+
+  @Test
+  public void regeneratesStaleEntries() {
+    SchemaDiskCache cache = new SchemaDiskCache(directory);
+    Schema stale = Schema.createRecord("CachedLeaf", null, null, false, List.of());
+    cache.store(Leaf.class, "stale", stale, Map.of());
+    String hash = SchemaDiskCache.structuralHash(Leaf.class);
+    assertThat(cache.load(Leaf.class, hash)).isNull();
+    AvroSchema<Leaf> avroSchema = generated(Leaf.class, cache);
+    assertThat(avroSchema.getSchema().getFields()).hasSize(1);
+    assertThat(cache.load(Leaf.class, hash).getSchema()).isEqualTo(avroSchema.getSchema());
+  }
+
+  @Test
+  public void ignoresUnreadableEntries() throws IOException {
+    SchemaDiskCache cache = new SchemaDiskCache(directory);
+    String hash = SchemaDiskCache.structuralHash(Leaf.class);
+    Path file = directory.resolve(Leaf.class.getName() + ".properties");
+    Files.writeString(file, "format=1\nhash=" + hash + "\nschema={\"type\":\"record\"\n");
+    assertThat(cache.load(Leaf.class, hash)).isNull();
+    Files.writeString(file, "schema=\\uZZZZ\n");
+    assertThat(cache.load(Leaf.class, hash)).isNull();
+    assertThat(generated(Leaf.class, cache).getSchema().getFields()).hasSize(1);
+  }
+
+  @Test
+  public void generatesWhenEntriesCannotBeStored() throws IOException {
+    Path file = Files.createFile(directory.resolve("file"));
+    SchemaDiskCache cache = new SchemaDiskCache(file);
+    assertThat(generated(Leaf.class, cache).getSchema().getFields()).hasSize(1);
+    assertThat(cache.load(Leaf.class, SchemaDiskCache.structuralHash(Leaf.class)))
+        .isNull();
+  }
+
+  @Test
+  public void hashesStructureOfNestedRecords() {
+    String hash = SchemaDiskCache.structuralHash(Tree.class);
+    assertThat(hash).hasSize(64).isEqualTo(SchemaDiskCache.structuralHash(Tree.class));
+    assertThat(hash).isNotEqualTo(SchemaDiskCache.structuralHash(Leaf.class));
+  }
+
+  @Test
+  public void configuresDefaultCacheThroughProperty() {
+    assertThat(SchemaDiskCache.fromProperty(null)).isNull();
+    assertThat(SchemaDiskCache.fromProperty(" ")).isNull();
+    assertThat(SchemaDiskCache.fromProperty(directory.toString()).getDirectory())
+        .isEqualTo(directory);
+    assertThat(new AvroSchema<>(Leaf.class).getSchemaCache()).isSameAs(SchemaDiskCache.defaultCache());
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    assertThatThrownBy(() -> new SchemaDiskCache(null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> SchemaDiskCache.structuralHash(null)).isExactlyInstanceOf(NullPointerException.class);
+  }
+}
@@ -3,8 +3,10 @@ package me.atour.easyavro.field;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 import me.atour.easyavro.FieldNamingStrategies;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class FieldNamingConverterTest {
 
@@ -179,4 +181,50 @@ class FieldNamingConverterTest {
         assertThat(result).isEqualTo("A_STRING_WITH_UNDERSCORES");
     }
   }
+
+  @ParameterizedTest
+  @EnumSource(FieldNamingStrategies.class)
+  public void shareConverters(FieldNamingStrategies strategy) {
+    assertThat(FieldNamingConverter.of(strategy)).isSameAs(FieldNamingConverter.of(strategy));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "a",
+        "A",
+        "aB",
+        "aBC",
+        "URLValue",
+        "a1B",
+        "ABC1d",
+        "x9Y9z",
+        "99Bottles",
+        "with_under_Score2",
+        "\u00c4bc\u00c9Def",
+        "caf\u00e9Menu",
+        "a\u0661B"
+      })
+  public void separateWordsLikeRegularExpressions(String name) {
+    String separated = name.replaceAll(FieldNamingConverter.followedByCapitalized, "$1_$2")
+        .replaceAll(FieldNamingConverter.followedByDigit, "$1_$2");
+    assertThat(FieldNamingConverter.of(FieldNamingStrategies.SNAKE_CASE).convert(name))
+        .isEqualTo(separated.toLowerCase());
+    assertThat(FieldNamingConverter.of(FieldNamingStrategies.SCREAMING_SNAKE_CASE)
+            .convert(name))
+        .isEqualTo(separated.toUpperCase());
+  }
+
+  @Test
+  public void boundCachedNames() {
+    SnakeCaseNamingConverter converter = new SnakeCaseNamingConverter();
+    NameCache cache = new NameCache();
+    for (int i = 0; i < NameCache.CAPACITY + 10; i++) {
+      assertThat(cache.get("field" + i + "Name", name -> converter.convert(name)))
+          .isEqualTo("field_" + i + "_name");
+    }
+    assertThat(cache.size()).isEqualTo(NameCache.CAPACITY);
+    assertThat(cache.get("field0Name", name -> "not converted again")).isEqualTo("field_0_name");
+  }
 }
@@ -0,0 +1,103 @@
+package me.atour.easyavro.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LongAdderMetricsTest {
+
+  @Test
+  public void recordsOperationsByClass() {
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    long start = metrics.start();
+    metrics.completed(String.class, Operation.ENCODE, start);
+    metrics.transferred(String.class, Operation.ENCODE, 12);
+    metrics.completed(String.class, Operation.ENCODE, start);
+    metrics.transferred(String.class, Operation.ENCODE, 30);
+    metrics.failed(String.class, Operation.ENCODE);
+    metrics.failed(Integer.class, Operation.DECODE);
+    OperationMetrics encode = metrics.get(String.class).get(Operation.ENCODE);
+    assertThat(encode.getCount()).isEqualTo(2);
+    assertThat(encode.getFailures()).isEqualTo(1);
+    assertThat(encode.getBytes()).isEqualTo(42);
+    assertThat(encode.getTotalNanos()).isNotNegative();
+    assertThat(metrics.get(String.class).get(Operation.DECODE).getCount()).isZero();
+    assertThat(metrics.get(Integer.class).get(Operation.DECODE).getFailures())
+        .isEqualTo(1);
+    assertThat(metrics.get(Long.class)).isNull();
+    assertThat(metrics.getClasses()).containsOnlyKeys("java.lang.String", "java.lang.Integer");
+    assertThat(metrics.get("java.lang.String")).isSameAs(metrics.get(String.class));
+  }
+
+  @Test
+  public void countsDurationsInPowerOfTwoBuckets() {
+    OperationMetrics operation = new OperationMetrics();
+    operation.completed(0);
+    operation.completed(-5);
+    operation.completed(1);
+    operation.completed(3);
+    operation.completed(1024);
+    operation.completed(Long.MAX_VALUE);
+    long[] histogram = operation.getHistogram();
+    assertThat(histogram).hasSize(OperationMetrics.BUCKETS);
+    assertThat(histogram[0]).isEqualTo(2);
+    assertThat(histogram[1]).isEqualTo(1);
+    assertThat(histogram[2]).isEqualTo(1);
+    assertThat(histogram[11]).isEqualTo(1);
+    assertThat(histogram[63]).isEqualTo(1);
+    assertThat(operation.getCount()).isEqualTo(6);
+  }
+
+  @Test
+  public void countsConcurrentReports() throws InterruptedException {
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int i = 0; i < 4; i++) {
+      executor.execute(() -> {
+        for (int j = 0; j < 1000; j++) {
+          metrics.completed(String.class, Operation.TO_POJO, metrics.start());
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    OperationMetrics toPojo = metrics.get(String.class).get(Operation.TO_POJO);
+    assertThat(toPojo.getCount()).isEqualTo(4000);
+    assertThat(Arrays.stream(toPojo.getHistogram()).sum()).isEqualTo(4000);
+  }
+
+  @Test
+  public void discardsReportsWithoutReadingTheClock() {
+    AvroMetrics metrics = AvroMetrics.noOp();
+    assertThat(metrics.start()).isZero();
+    metrics.completed(String.class, Operation.GENERATE, 0);
+    metrics.failed(String.class, Operation.GENERATE);
+    metrics.transferred(String.class, Operation.ENCODE, 1);
+    assertThat(AvroMetrics.noOp()).isSameAs(metrics);
+  }
+
+  @Test
+  public void rejectsNullArguments() {
+    LongAdderMetrics metrics = new LongAdderMetrics();
+    assertThatThrownBy(() -> metrics.completed(null, Operation.ENCODE, 0))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> metrics.completed(String.class, null, 0))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> metrics.failed(null, Operation.ENCODE))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> metrics.failed(String.class, null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> metrics.transferred(null, Operation.ENCODE, 0))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> metrics.transferred(String.class, null, 0))
+        .isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> metrics.get((Class<?>) null)).isExactlyInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> metrics.get((String) null)).isExactlyInstanceOf(NullPointerException.class);
+    metrics.failed(String.class, Operation.ENCODE);
+    assertThatThrownBy(() -> metrics.get(String.class).get(null)).isExactlyInstanceOf(NullPointerException.class);
+  }
+}